@@ -0,0 +1,515 @@
+package br.com.leuras.commons.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+/**
+ * Processador de anotações que gera, para cada classe anotada com <i>@Exportavel</i>, um extrator de valores
+ * (<i>br.com.leuras.commons.export.ExtratorExportavel</i>). O extrator reúne as colunas declaradas por meio de
+ * <i>@AtributoExportavel</i>, já resolvidas e ordenadas com as mesmas regras da resolução por reflexão, e lê os valores
+ * dos registros por meio de chamadas diretas aos métodos de acesso.
+ * <p>
+ * Basta incluir o processador no caminho de compilação do projeto:
+ * </p>
+ *
+ * <pre>
+ * <code>
+ * {@literal <dependency>}
+ *   {@literal <groupId>}com.github.leuras{@literal </groupId>}
+ *   {@literal <artifactId>}leuras-commons-processor{@literal </artifactId>}
+ *   {@literal <version>}1.0.1{@literal </version>}
+ *   {@literal <scope>}provided{@literal </scope>}
+ * {@literal </dependency>}
+ * </code>
+ * </pre>
+ *
+ * Classes que não podem ser lidas sem reflexão (classes privadas ou genéricas e propriedades sem método de leitura
+ * público ou atributo acessível) não recebem um extrator e continuam sendo exportadas por reflexão. Já os métodos
+ * anotados com <i>@AtributoExportavel</i> que não sejam públicos interrompem a compilação com um erro.
+ */
+@SupportedAnnotationTypes(ExportavelProcessor.EXPORTAVEL)
+public class ExportavelProcessor extends AbstractProcessor {
+
+    static final String EXPORTAVEL = "br.com.leuras.commons.export.Exportavel";
+
+    static final String ATRIBUTO_EXPORTAVEL = "br.com.leuras.commons.export.AtributoExportavel";
+
+    static final String EXTRATOR_EXPORTAVEL = "br.com.leuras.commons.export.ExtratorExportavel";
+
+    static final String FORMATO_ATRIBUTO = "br.com.leuras.commons.export.FormatoAtributoEnum";
+
+    static final String AGREGACAO = "br.com.leuras.commons.export.AgregacaoEnum";
+
+    static final String SUFIXO = "_Exportavel";
+
+    protected static final String ME001 = "O extrator de '%s' não foi gerado: %s. As colunas serão resolvidas por reflexão.";
+
+    protected static final String ME002 = "a classe não pode ser acessada fora de sua declaração";
+
+    protected static final String ME003 = "classes genéricas não são suportadas";
+
+    protected static final String ME004 = "a propriedade '%s' não possui um método de leitura público nem um atributo acessível";
+
+    protected static final String ME005 = "O método '%s' de '%s' está anotado com @AtributoExportavel e deve ser público.";
+
+    private static final Comparator<ExecutableElement> POR_NOME = new Comparator<ExecutableElement>() {
+
+        @Override
+        public int compare(final ExecutableElement m1, final ExecutableElement m2) {
+            return m1.getSimpleName().toString().compareTo(m2.getSimpleName().toString());
+        }
+    };
+
+    private static final Comparator<Coluna> POR_ORDEM = new Comparator<Coluna>() {
+
+        @Override
+        public int compare(final Coluna c1, final Coluna c2) {
+            return Integer.compare(c1.ordem, c2.ordem);
+        }
+    };
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(final Set<? extends TypeElement> anotacoes, final RoundEnvironment ambiente) {
+
+        for (final TypeElement anotacao : anotacoes) {
+            for (final Element elemento : ambiente.getElementsAnnotatedWith(anotacao)) {
+                if (ElementKind.CLASS.equals(elemento.getKind())) {
+                    this.gerar((TypeElement) elemento);
+                }
+            }
+        }
+
+        return false;
+    }
+
+    private void gerar(final TypeElement classe) {
+
+        if (! this.validar(classe)) {
+            return;
+        }
+
+        try {
+
+            this.verificar(classe);
+
+            final String pacote = this.processingEnv.getElementUtils().getPackageOf(classe).getQualifiedName().toString();
+            final String binario = this.processingEnv.getElementUtils().getBinaryName(classe).toString();
+            final String nome = (pacote.isEmpty() ? binario : binario.substring(pacote.length() + 1)).replace('$', '_') + SUFIXO;
+            final String titulo = (String) this.valores(this.anotacao(classe, EXPORTAVEL)).get("titulo");
+
+            final String codigo = this.codigo(classe, pacote, nome, titulo, this.colunas(classe));
+            final JavaFileObject arquivo = this.processingEnv.getFiler()
+                    .createSourceFile(pacote.isEmpty() ? nome : pacote + "." + nome, classe);
+
+            try (final Writer escritor = arquivo.openWriter()) {
+                escritor.write(codigo);
+            }
+
+        } catch (NaoSuportadoException e) {
+            this.processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+                    String.format(ME001, classe.getQualifiedName(), e.getMessage()), classe);
+        } catch (IOException e) {
+            this.processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, e.getMessage(), classe);
+        }
+    }
+
+    /**
+     * Reporta como erro de compilação cada método anotado com <i>@AtributoExportavel</i>, na classe ou em suas
+     * superclasses, que não seja público.
+     *
+     * @return <b>True</b> caso nenhum método inválido tenha sido encontrado.
+     */
+    private boolean validar(final TypeElement classe) {
+
+        boolean valida = true;
+
+        for (TypeElement atual = classe; atual != null; atual = this.superclasse(atual)) {
+            for (final ExecutableElement metodo : ElementFilter.methodsIn(atual.getEnclosedElements())) {
+
+                final AnnotationMirror anotacao = this.anotacao(metodo, ATRIBUTO_EXPORTAVEL);
+
+                if (anotacao != null && ExportavelProcessor.isLeitura(metodo)
+                        && ! Boolean.TRUE.equals(this.valores(anotacao).get("ignorar"))
+                        && ! metodo.getModifiers().contains(Modifier.PUBLIC)) {
+
+                    this.processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                            String.format(ME005, metodo.getSimpleName(), atual.getQualifiedName()), metodo);
+                    valida = false;
+                }
+            }
+        }
+
+        return valida;
+    }
+
+    private void verificar(final TypeElement classe) throws NaoSuportadoException {
+
+        for (Element elemento = classe; elemento instanceof TypeElement; elemento = elemento.getEnclosingElement()) {
+            if (elemento.getModifiers().contains(Modifier.PRIVATE)) {
+                throw new NaoSuportadoException(ME002);
+            }
+        }
+
+        if (! classe.getTypeParameters().isEmpty()) {
+            throw new NaoSuportadoException(ME003);
+        }
+    }
+
+    /**
+     * Resolve as colunas da classe seguindo as regras de <i>PlanoColunas</i>: superclasses primeiro, atributos na ordem
+     * de declaração seguidos dos métodos ordenados pelo nome, redefinições substituindo a coluna herdada e
+     * <i>ignorar</i> removendo-a, e por fim a ordenação estável pela <i>ordem</i> declarada.
+     */
+    private List<Coluna> colunas(final TypeElement classe) throws NaoSuportadoException {
+
+        final List<TypeElement> hierarquia = new ArrayList<>();
+
+        for (TypeElement atual = classe; atual != null; atual = this.superclasse(atual)) {
+            hierarquia.add(0, atual);
+        }
+
+        final Map<String, Coluna> resolvidas = new LinkedHashMap<>();
+
+        for (final TypeElement atual : hierarquia) {
+
+            for (final VariableElement atributo : ElementFilter.fieldsIn(atual.getEnclosedElements())) {
+
+                final AnnotationMirror anotacao = this.anotacao(atributo, ATRIBUTO_EXPORTAVEL);
+
+                if (anotacao != null && ! atributo.getModifiers().contains(Modifier.STATIC)) {
+
+                    final String propriedade = atributo.getSimpleName().toString();
+
+                    this.registrar(resolvidas, classe, propriedade, anotacao, atributo.asType(), atributo);
+                }
+            }
+
+            final List<ExecutableElement> metodos = new ArrayList<>(ElementFilter.methodsIn(atual.getEnclosedElements()));
+            Collections.sort(metodos, POR_NOME);
+
+            for (final ExecutableElement metodo : metodos) {
+
+                final AnnotationMirror anotacao = this.anotacao(metodo, ATRIBUTO_EXPORTAVEL);
+
+                if (anotacao != null && ExportavelProcessor.isLeitura(metodo)) {
+                    this.registrar(resolvidas, classe, ExportavelProcessor.propriedade(metodo), anotacao,
+                            metodo.getReturnType(), metodo);
+                }
+            }
+        }
+
+        final List<Coluna> ordenadas = new ArrayList<>(resolvidas.values());
+        Collections.sort(ordenadas, POR_ORDEM);
+
+        return ordenadas;
+    }
+
+    private void registrar(final Map<String, Coluna> resolvidas, final TypeElement classe, final String propriedade,
+            final AnnotationMirror anotacao, final TypeMirror tipo, final Element membro)
+            throws NaoSuportadoException {
+
+        final Map<String, Object> valores = this.valores(anotacao);
+
+        if (Boolean.TRUE.equals(valores.get("ignorar"))) {
+            resolvidas.remove(propriedade);
+            return;
+        }
+
+        final Coluna coluna = new Coluna();
+
+        coluna.atributo = propriedade;
+        coluna.titulo = (String) valores.get("coluna");
+        coluna.formato = valores.get("formato").toString();
+        coluna.ordem = (Integer) valores.get("ordem");
+        coluna.agregacao = valores.get("agregacao").toString();
+        coluna.tipo = this.literalClasse(tipo);
+        coluna.leitura = membro instanceof ExecutableElement
+                ? String.format("registro.%s()", membro.getSimpleName())
+                : this.leitura(classe, propriedade, (VariableElement) membro);
+        coluna.data = this.isData(tipo);
+
+        resolvidas.put(propriedade, coluna);
+    }
+
+    /**
+     * Obtém a expressão de leitura de um atributo anotado: o método de leitura público (<i>get</i> ou <i>is</i>) ou, na
+     * sua ausência, o acesso direto ao atributo, quando permitido a partir do pacote da classe.
+     */
+    private String leitura(final TypeElement classe, final String propriedade, final VariableElement atributo)
+            throws NaoSuportadoException {
+
+        final String sufixo = Character.toUpperCase(propriedade.charAt(0)) + propriedade.substring(1);
+
+        for (final String nome : new String[] { "get" + sufixo, "is" + sufixo }) {
+            for (final ExecutableElement metodo : ElementFilter.methodsIn(this.processingEnv.getElementUtils().getAllMembers(classe))) {
+                if (metodo.getSimpleName().contentEquals(nome) && metodo.getModifiers().contains(Modifier.PUBLIC)
+                        && ExportavelProcessor.isLeitura(metodo)) {
+                    return String.format("registro.%s()", nome);
+                }
+            }
+        }
+
+        if (this.isAcessivel(atributo, classe)) {
+            return String.format("registro.%s", propriedade);
+        }
+
+        throw new NaoSuportadoException(String.format(ME004, propriedade));
+    }
+
+    private boolean isAcessivel(final VariableElement atributo, final TypeElement classe) {
+
+        if (atributo.getModifiers().contains(Modifier.PUBLIC)) {
+            return true;
+        }
+
+        if (atributo.getModifiers().contains(Modifier.PRIVATE)) {
+            return false;
+        }
+
+        return this.processingEnv.getElementUtils().getPackageOf(atributo)
+                .equals(this.processingEnv.getElementUtils().getPackageOf(classe));
+    }
+
+    private boolean isData(final TypeMirror tipo) {
+
+        if (tipo.getKind().isPrimitive()) {
+            return false;
+        }
+
+        final TypeMirror calendario = this.processingEnv.getElementUtils().getTypeElement("java.util.Calendar").asType();
+        final TypeMirror apagado = this.processingEnv.getTypeUtils().erasure(tipo);
+
+        return this.processingEnv.getTypeUtils().isAssignable(calendario, apagado)
+                || this.processingEnv.getTypeUtils().isAssignable(apagado, calendario);
+    }
+
+    private String literalClasse(final TypeMirror tipo) {
+
+        final TypeMirror apagado = this.processingEnv.getTypeUtils().erasure(tipo);
+
+        if (TypeKind.DECLARED.equals(apagado.getKind())) {
+            return ((TypeElement) this.processingEnv.getTypeUtils().asElement(apagado)).getQualifiedName() + ".class";
+        }
+
+        return apagado.toString() + ".class";
+    }
+
+    private TypeElement superclasse(final TypeElement classe) {
+
+        final TypeMirror superclasse = classe.getSuperclass();
+
+        if (! TypeKind.DECLARED.equals(superclasse.getKind())) {
+            return null;
+        }
+
+        final TypeElement elemento = (TypeElement) this.processingEnv.getTypeUtils().asElement(superclasse);
+
+        return elemento.getQualifiedName().contentEquals(Object.class.getName()) ? null : elemento;
+    }
+
+    private AnnotationMirror anotacao(final Element elemento, final String nome) {
+
+        for (final AnnotationMirror anotacao : elemento.getAnnotationMirrors()) {
+            if (((TypeElement) anotacao.getAnnotationType().asElement()).getQualifiedName().contentEquals(nome)) {
+                return anotacao;
+            }
+        }
+
+        return null;
+    }
+
+    private Map<String, Object> valores(final AnnotationMirror anotacao) {
+
+        final Map<String, Object> valores = new LinkedHashMap<>();
+
+        for (final Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> valor : this.processingEnv
+                .getElementUtils().getElementValuesWithDefaults(anotacao).entrySet()) {
+
+            final Object conteudo = valor.getValue().getValue();
+
+            valores.put(valor.getKey().getSimpleName().toString(),
+                    conteudo instanceof VariableElement ? ((VariableElement) conteudo).getSimpleName().toString() : conteudo);
+        }
+
+        return valores;
+    }
+
+    private String codigo(final TypeElement classe, final String pacote, final String nome, final String titulo,
+            final List<Coluna> colunas) {
+
+        final String tipo = classe.getQualifiedName().toString();
+        final StringBuilder atributos = new StringBuilder();
+        final StringBuilder titulos = new StringBuilder();
+        final StringBuilder formatos = new StringBuilder();
+        final StringBuilder ordens = new StringBuilder();
+        final StringBuilder agregacoes = new StringBuilder();
+        final StringBuilder tipos = new StringBuilder();
+        final StringBuilder casos = new StringBuilder();
+        final StringBuilder leituras = new StringBuilder();
+
+        for (int posicao = 0; posicao < colunas.size(); posicao++) {
+
+            final Coluna coluna = colunas.get(posicao);
+            final String separador = posicao > 0 ? ", " : "";
+            final String leitura = coluna.data ? String.format("data(%s)", coluna.leitura) : coluna.leitura;
+
+            atributos.append(separador).append(ExportavelProcessor.literal(coluna.atributo));
+            titulos.append(separador).append(ExportavelProcessor.literal(coluna.titulo));
+            formatos.append(separador).append(FORMATO_ATRIBUTO).append('.').append(coluna.formato);
+            ordens.append(separador).append(coluna.ordem);
+            agregacoes.append(separador).append(AGREGACAO).append('.').append(coluna.agregacao);
+            tipos.append(separador).append(coluna.tipo);
+            casos.append(String.format("            case %d:%n                return %s;%n", posicao, leitura));
+            leituras.append(String.format("        valores[%d] = %s;%n", posicao, leitura));
+        }
+
+        final StringBuilder codigo = new StringBuilder();
+
+        if (! pacote.isEmpty()) {
+            codigo.append(String.format("package %s;%n%n", pacote));
+        }
+
+        codigo.append(String.format("/**%n"));
+        codigo.append(String.format(" * Extrator de valores de {@link %s} gerado por {@code %s}.%n", tipo, ExportavelProcessor.class.getName()));
+        codigo.append(String.format(" */%n"));
+        codigo.append(String.format("public final class %s implements %s<%s> {%n%n", nome, EXTRATOR_EXPORTAVEL, tipo));
+        codigo.append(String.format("    private static final String[] ATRIBUTOS = { %s };%n%n", atributos));
+        codigo.append(String.format("    private static final String[] COLUNAS = { %s };%n%n", titulos));
+        codigo.append(String.format("    private static final %s[] FORMATOS = { %s };%n%n", FORMATO_ATRIBUTO, formatos));
+        codigo.append(String.format("    private static final int[] ORDENS = { %s };%n%n", ordens));
+        codigo.append(String.format("    private static final %s[] AGREGACOES = { %s };%n%n", AGREGACAO, agregacoes));
+        codigo.append(String.format("    private static final Class<?>[] TIPOS = { %s };%n%n", tipos));
+
+        codigo.append(String.format("    @Override%n    public Class<%s> getTipo() {%n        return %s.class;%n    }%n%n", tipo, tipo));
+        codigo.append(String.format("    @Override%n    public String getTitulo() {%n        return %s;%n    }%n%n", ExportavelProcessor.literal(titulo)));
+        codigo.append(String.format("    @Override%n    public String[] getAtributos() {%n        return ATRIBUTOS.clone();%n    }%n%n"));
+        codigo.append(String.format("    @Override%n    public String[] getColunas() {%n        return COLUNAS.clone();%n    }%n%n"));
+        codigo.append(String.format("    @Override%n    public %s[] getFormatos() {%n        return FORMATOS.clone();%n    }%n%n", FORMATO_ATRIBUTO));
+        codigo.append(String.format("    @Override%n    public int[] getOrdens() {%n        return ORDENS.clone();%n    }%n%n"));
+        codigo.append(String.format("    @Override%n    public %s[] getAgregacoes() {%n        return AGREGACOES.clone();%n    }%n%n", AGREGACAO));
+        codigo.append(String.format("    @Override%n    public Class<?>[] getTipos() {%n        return TIPOS.clone();%n    }%n%n"));
+
+        codigo.append(String.format("    @Override%n    public Object valor(final %s registro, final int coluna) {%n", tipo));
+        codigo.append(String.format("        switch (coluna) {%n"));
+        codigo.append(casos);
+        codigo.append(String.format("            default:%n                throw new IndexOutOfBoundsException(String.valueOf(coluna));%n"));
+        codigo.append(String.format("        }%n    }%n%n"));
+
+        codigo.append(String.format("    @Override%n    public void valores(final %s registro, final Object[] valores) {%n", tipo));
+        codigo.append(leituras);
+        codigo.append(String.format("    }%n%n"));
+
+        codigo.append(String.format("    private static Object data(final Object valor) {%n"));
+        codigo.append(String.format("        return valor instanceof java.util.Calendar ? ((java.util.Calendar) valor).getTime() : valor;%n"));
+        codigo.append(String.format("    }%n}%n"));
+
+        return codigo.toString();
+    }
+
+    private static boolean isLeitura(final ExecutableElement metodo) {
+        return metodo.getParameters().isEmpty() && ! TypeKind.VOID.equals(metodo.getReturnType().getKind())
+                && ! metodo.getModifiers().contains(Modifier.STATIC);
+    }
+
+    private static String propriedade(final ExecutableElement metodo) {
+
+        final String nome = metodo.getSimpleName().toString();
+
+        if (nome.startsWith("get") && nome.length() > 3) {
+            return Character.toLowerCase(nome.charAt(3)) + nome.substring(4);
+        }
+
+        if (nome.startsWith("is") && nome.length() > 2) {
+            return Character.toLowerCase(nome.charAt(2)) + nome.substring(3);
+        }
+
+        return nome;
+    }
+
+    /**
+     * Converte um texto em um literal Java, escapando aspas, barras, quebras de linha e caracteres fora da tabela ASCII.
+     */
+    private static String literal(final String texto) {
+
+        final StringBuilder literal = new StringBuilder("\"");
+
+        for (int posicao = 0; posicao < texto.length(); posicao++) {
+
+            final char caractere = texto.charAt(posicao);
+
+            if (caractere == '"' || caractere == '\\') {
+                literal.append('\\').append(caractere);
+            } else if (caractere < 0x20 || caractere > 0x7e) {
+                literal.append(String.format("\\u%04x", (int) caractere));
+            } else {
+                literal.append(caractere);
+            }
+        }
+
+        return literal.append('"').toString();
+    }
+
+    /**
+     * Coluna resolvida durante o processamento.
+     */
+    private static final class Coluna {
+
+        private String atributo;
+
+        private String titulo;
+
+        private String formato;
+
+        private int ordem;
+
+        private String agregacao;
+
+        private String tipo;
+
+        private String leitura;
+
+        private boolean data;
+    }
+
+    /**
+     * Indica que o extrator de uma classe não pode ser gerado.
+     */
+    private static final class NaoSuportadoException extends Exception {
+
+        private static final long serialVersionUID = 4127893415871409271L;
+
+        NaoSuportadoException(final String message) {
+            super(message);
+        }
+    }
+}
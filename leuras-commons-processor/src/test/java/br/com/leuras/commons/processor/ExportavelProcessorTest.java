@@ -0,0 +1,149 @@
+package br.com.leuras.commons.processor;
+
+import java.io.File;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+
+import org.hamcrest.CoreMatchers;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import br.com.leuras.commons.export.AgregacaoEnum;
+import br.com.leuras.commons.export.PlanoColunas;
+
+public class ExportavelProcessorTest {
+
+    private static final String FUNCIONARIO = "package exemplo;\n"
+            + "import br.com.leuras.commons.export.*;\n"
+            + "@Exportavel(titulo = \"Listagem de Funcionários\")\n"
+            + "public class Funcionario {\n"
+            + "    @AtributoExportavel(coluna = \"Nome\") private String nome;\n"
+            + "    @AtributoExportavel(coluna = \"Admissão\", formato = FormatoAtributoEnum.DATA) private java.util.Calendar admissao;\n"
+            + "    @AtributoExportavel(coluna = \"Matrícula\", ordem = 1, agregacao = AgregacaoEnum.CONTAGEM) int matricula;\n"
+            + "    @AtributoExportavel(coluna = \"Gestor\") private boolean gestor;\n"
+            + "    public Funcionario(String nome, java.util.Calendar admissao, int matricula, boolean gestor) {\n"
+            + "        this.nome = nome; this.admissao = admissao; this.matricula = matricula; this.gestor = gestor;\n"
+            + "    }\n"
+            + "    public String getNome() { return nome; }\n"
+            + "    public java.util.Calendar getAdmissao() { return admissao; }\n"
+            + "    public boolean isGestor() { return gestor; }\n"
+            + "}\n";
+
+    private static final String SEM_LEITURA = "package exemplo;\n"
+            + "import br.com.leuras.commons.export.*;\n"
+            + "@Exportavel(titulo = \"Sem leitura\")\n"
+            + "public class SemLeitura {\n"
+            + "    @AtributoExportavel(coluna = \"Código\") private Long codigo;\n"
+            + "}\n";
+
+    private static final String METODO_PRIVADO = "package exemplo;\n"
+            + "import br.com.leuras.commons.export.*;\n"
+            + "@Exportavel(titulo = \"Método privado\")\n"
+            + "public class MetodoPrivado {\n"
+            + "    @AtributoExportavel(coluna = \"Total\") private Long total() { return 1L; }\n"
+            + "}\n";
+
+    private File destino;
+
+    @Before
+    public void setup() throws Exception {
+        this.destino = Files.createTempDirectory("processador_").toFile();
+    }
+
+    @Test
+    public void gerarExtratorTest() throws Exception {
+        // Cenário
+        final Calendar admissao = new GregorianCalendar(2019, Calendar.MARCH, 7);
+
+        // Ação
+        final ClassLoader classes = this.compilar("exemplo.Funcionario", FUNCIONARIO);
+
+        // Verificação
+        final Class<?> tipo = classes.loadClass("exemplo.Funcionario");
+        final Object registro = tipo.getConstructor(String.class, Calendar.class, int.class, boolean.class)
+                .newInstance("Fernando Libório", admissao, 42, true);
+
+        @SuppressWarnings("unchecked")
+        final PlanoColunas<Object> plano = (PlanoColunas<Object>) PlanoColunas.de(tipo);
+
+        Assert.assertTrue(new File(this.destino, "exemplo/Funcionario_Exportavel.java").exists());
+        Assert.assertTrue(plano.isGerado());
+        Assert.assertThat(plano.getTitulo(), CoreMatchers.is("Listagem de Funcionários"));
+        Assert.assertThat(plano.getColunas().get(0).getTitulo(), CoreMatchers.is("Matrícula"));
+        Assert.assertThat(plano.getColunas().get(0).getAgregacao(), CoreMatchers.is(AgregacaoEnum.CONTAGEM));
+        Assert.assertThat(plano.getColunas().get(1).getAgregacao(), CoreMatchers.is(AgregacaoEnum.NENHUMA));
+        Assert.assertThat(Arrays.asList(plano.valores(registro)), CoreMatchers.is(Arrays.<Object> asList(42, "Fernando Libório", admissao.getTime(), true)));
+        Assert.assertThat(plano.getColunas().get(2).valor(registro), CoreMatchers.is((Object) admissao.getTime()));
+        Assert.assertThat(plano.getColunas().get(2).getTipo(), CoreMatchers.is((Object) Calendar.class));
+        Assert.assertTrue(plano.getColunas().get(2).valor(registro) instanceof Date);
+    }
+
+    @Test
+    public void propriedadeSemLeituraTest() throws Exception {
+        // Ação
+        final ClassLoader classes = this.compilar("exemplo.SemLeitura", SEM_LEITURA);
+
+        // Verificação
+        Assert.assertFalse(new File(this.destino, "exemplo/SemLeitura_Exportavel.java").exists());
+        Assert.assertFalse(PlanoColunas.de(classes.loadClass("exemplo.SemLeitura")).isGerado());
+    }
+
+    @Test
+    public void metodoNaoPublicoTest() throws Exception {
+        // Cenário
+        final DiagnosticCollector<JavaFileObject> diagnosticos = new DiagnosticCollector<>();
+
+        // Ação
+        final boolean compilado = this.tarefa("exemplo.MetodoPrivado", METODO_PRIVADO, diagnosticos).call();
+
+        // Verificação
+        Assert.assertFalse(compilado);
+        Assert.assertFalse(new File(this.destino, "exemplo/MetodoPrivado_Exportavel.java").exists());
+        Assert.assertThat(diagnosticos.getDiagnostics().get(0).getKind(), CoreMatchers.is(Diagnostic.Kind.ERROR));
+        Assert.assertThat(diagnosticos.getDiagnostics().get(0).getMessage(null),
+                CoreMatchers.is(String.format(ExportavelProcessor.ME005, "total", "exemplo.MetodoPrivado")));
+    }
+
+    private ClassLoader compilar(final String classe, final String codigo) throws Exception {
+
+        Assert.assertTrue(this.tarefa(classe, codigo, null).call());
+
+        return new URLClassLoader(new URL[] { this.destino.toURI().toURL() }, this.getClass().getClassLoader());
+    }
+
+    private JavaCompiler.CompilationTask tarefa(final String classe, final String codigo,
+            final DiagnosticCollector<JavaFileObject> diagnosticos) {
+
+        final JavaCompiler compilador = ToolProvider.getSystemJavaCompiler();
+        final JavaFileObject fonte = new SimpleJavaFileObject(URI.create(String.format("string:///%s.java", classe.replace('.', '/'))),
+                JavaFileObject.Kind.SOURCE) {
+
+            @Override
+            public CharSequence getCharContent(final boolean ignoreEncodingErrors) {
+                return codigo;
+            }
+        };
+
+        final JavaCompiler.CompilationTask tarefa = compilador.getTask(null, null, diagnosticos,
+                Arrays.asList("-classpath", System.getProperty("java.class.path"), "-d", this.destino.getPath(), "-s", this.destino.getPath()),
+                null, Arrays.asList(fonte));
+
+        tarefa.setProcessors(Arrays.asList(new ExportavelProcessor()));
+
+        return tarefa;
+    }
+}
@@ -0,0 +1,94 @@
+package br.com.leuras.commons.util;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.StringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compara o custo de leitura de uma propriedade por chamada direta, pelo caminho reflexivo original de
+ * <i>ObjetoUtils.invokeGet</i> (montagem do nome, busca e invocação do método a cada chamada) e pelo {@link Acessor}.
+ * <p>
+ * Os benchmarks ficam fora da compilação padrão e são executados pelo perfil <i>benchmark</i>:
+ * <i>mvn -P benchmark test-compile exec:exec -Dbenchmark=ObjetoUtilsBenchmark</i>
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ObjetoUtilsBenchmark {
+
+    private Pessoa pessoa;
+
+    private Field atributo;
+
+    private Acessor acessor;
+
+    @Setup
+    public void setup() throws Exception {
+        this.pessoa = new Pessoa();
+        this.pessoa.setNome("Maria Eliane Freitas");
+
+        this.atributo = Pessoa.class.getDeclaredField("nome");
+        this.acessor = ObjetoUtils.acessor(Pessoa.class, "nome");
+    }
+
+    @Benchmark
+    public Object direto() {
+        return this.pessoa.getNome();
+    }
+
+    @Benchmark
+    public Object reflexao() throws Exception {
+
+        final String metodo = String.format("get%s", StringUtils.capitalize(this.atributo.getName()));
+        final Method objMethod = this.pessoa.getClass().getMethod(metodo);
+        objMethod.setAccessible(true);
+
+        return objMethod.invoke(this.pessoa);
+    }
+
+    @Benchmark
+    public Object invokeGet() throws Exception {
+        return ObjetoUtils.invokeGet(this.pessoa, this.atributo);
+    }
+
+    @Benchmark
+    public Object acessor() throws Exception {
+        return this.acessor.get(this.pessoa);
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ObjetoUtilsBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    public static class Pessoa {
+
+        private String nome;
+
+        public String getNome() {
+            return nome;
+        }
+
+        public void setNome(String nome) {
+            this.nome = nome;
+        }
+    }
+}
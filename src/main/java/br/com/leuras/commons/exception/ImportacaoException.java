@@ -0,0 +1,23 @@
+package br.com.leuras.commons.exception;
+
+public class ImportacaoException extends Exception {
+
+    private static final long serialVersionUID = -4583026731941857215L;
+
+    public ImportacaoException() {
+        super();
+    }
+
+    public ImportacaoException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public ImportacaoException(String message) {
+        super(message);
+    }
+
+    public ImportacaoException(Throwable cause) {
+        super(cause);
+    }
+    
+}
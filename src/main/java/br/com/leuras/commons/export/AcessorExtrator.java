@@ -0,0 +1,112 @@
+package br.com.leuras.commons.export;
+
+import java.lang.reflect.InvocationTargetException;
+
+import br.com.leuras.commons.util.Acessor;
+import br.com.leuras.commons.util.ObjetoUtils;
+
+/**
+ * Acessor de uma coluna resolvida por um {@link ExtratorExportavel}. A leitura é feita pelo extrator gerado, sem
+ * reflexão; a escrita, quando necessária, é delegada ao acessor de {@link ObjetoUtils}, resolvido no primeiro uso.
+ */
+final class AcessorExtrator implements Acessor {
+
+    private final ExtratorExportavel<Object> extrator;
+
+    private final int coluna;
+
+    private final String propriedade;
+
+    private final Class<?> tipo;
+
+    private volatile Acessor escrita;
+
+    @SuppressWarnings("unchecked")
+    AcessorExtrator(final ExtratorExportavel<?> extrator, final int coluna) {
+        this.extrator = (ExtratorExportavel<Object>) extrator;
+        this.coluna = coluna;
+        this.propriedade = extrator.getAtributos()[coluna];
+        this.tipo = extrator.getTipos()[coluna];
+    }
+
+    @Override
+    public Object get(final Object instancia) throws InvocationTargetException {
+
+        try {
+            return this.extrator.valor(instancia, this.coluna);
+        } catch (RuntimeException e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+
+    @Override
+    public void set(final Object instancia, final Object valor)
+            throws InvocationTargetException, IllegalArgumentException, UnsupportedOperationException {
+
+        final Acessor acessor = this.getEscrita();
+
+        if (acessor == null) {
+            throw new UnsupportedOperationException(String.format("A propriedade '%s' não pode ser escrita.", this.propriedade));
+        }
+
+        acessor.set(instancia, valor);
+    }
+
+    @Override
+    public String getPropriedade() {
+        return this.propriedade;
+    }
+
+    @Override
+    public Class<?> getTipo() {
+        return this.tipo;
+    }
+
+    @Override
+    public boolean isLeitura() {
+        return true;
+    }
+
+    @Override
+    public boolean isEscrita() {
+        return this.getEscrita() != null;
+    }
+
+    private Acessor getEscrita() {
+
+        if (this.escrita == null) {
+            this.escrita = this.resolverEscrita();
+        }
+
+        return this.escrita;
+    }
+
+    private Acessor resolverEscrita() {
+
+        try {
+
+            final Acessor acessor = ObjetoUtils.acessor(this.extrator.getTipo(), this.propriedade);
+
+            if (acessor.isEscrita()) {
+                return acessor;
+            }
+
+        } catch (NoSuchMethodException e) {
+            // Sem métodos de acesso, o atributo é escrito diretamente.
+        }
+
+        for (Class<?> classe = this.extrator.getTipo(); classe != null; classe = classe.getSuperclass()) {
+            try {
+
+                final Acessor acessor = ObjetoUtils.acessor(classe.getDeclaredField(this.propriedade));
+
+                return acessor.isEscrita() ? acessor : null;
+
+            } catch (NoSuchFieldException e) {
+                continue;
+            }
+        }
+
+        return null;
+    }
+}
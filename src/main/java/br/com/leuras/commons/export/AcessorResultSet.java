@@ -0,0 +1,161 @@
+package br.com.leuras.commons.export;
+
+import java.lang.reflect.InvocationTargetException;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Date;
+
+import br.com.leuras.commons.util.Acessor;
+
+/**
+ * Acesso de leitura a uma coluna da linha corrente de um {@link ResultSet}. O valor é obtido pelo método tipado
+ * correspondente ao tipo SQL da coluna (<i>getLong</i>, <i>getBigDecimal</i>, <i>getTimestamp</i>, etc), sem a criação
+ * de objetos intermediários além do próprio valor.
+ */
+final class AcessorResultSet implements Acessor {
+
+    private final int posicao;
+
+    private final int tipoSql;
+
+    private final String rotulo;
+
+    private final Class<?> tipo;
+
+    AcessorResultSet(final int posicao, final int tipoSql, final String rotulo) {
+        this.posicao = posicao;
+        this.tipoSql = tipoSql;
+        this.rotulo = rotulo;
+        this.tipo = AcessorResultSet.tipo(tipoSql);
+    }
+
+    @Override
+    public Object get(final Object instancia) throws InvocationTargetException {
+
+        final ResultSet resultado = (ResultSet) instancia;
+
+        try {
+
+            final Object valor;
+
+            switch (this.tipoSql) {
+                case Types.BIGINT:
+                    valor = resultado.getLong(this.posicao);
+                    break;
+                case Types.INTEGER:
+                case Types.SMALLINT:
+                case Types.TINYINT:
+                    valor = resultado.getInt(this.posicao);
+                    break;
+                case Types.DECIMAL:
+                case Types.NUMERIC:
+                    return resultado.getBigDecimal(this.posicao);
+                case Types.DOUBLE:
+                case Types.FLOAT:
+                case Types.REAL:
+                    valor = resultado.getDouble(this.posicao);
+                    break;
+                case Types.BIT:
+                case Types.BOOLEAN:
+                    valor = resultado.getBoolean(this.posicao);
+                    break;
+                case Types.DATE:
+                    return resultado.getDate(this.posicao);
+                case Types.TIME:
+                    return resultado.getTime(this.posicao);
+                case Types.TIMESTAMP:
+                    return resultado.getTimestamp(this.posicao);
+                default:
+                    return resultado.getString(this.posicao);
+            }
+
+            return resultado.wasNull() ? null : valor;
+
+        } catch (SQLException e) {
+            throw new InvocationTargetException(e, e.getMessage());
+        }
+    }
+
+    @Override
+    public void set(final Object instancia, final Object valor) {
+        throw new UnsupportedOperationException(this.rotulo);
+    }
+
+    @Override
+    public String getPropriedade() {
+        return this.rotulo;
+    }
+
+    @Override
+    public Class<?> getTipo() {
+        return this.tipo;
+    }
+
+    @Override
+    public boolean isLeitura() {
+        return true;
+    }
+
+    @Override
+    public boolean isEscrita() {
+        return false;
+    }
+
+    /**
+     * Obtém o tipo Java dos valores lidos de uma coluna do tipo SQL informado.
+     *
+     * @param tipoSql
+     *            Tipo SQL (veja {@link Types})
+     * @return O tipo dos valores da coluna.
+     */
+    static Class<?> tipo(final int tipoSql) {
+
+        switch (tipoSql) {
+            case Types.BIGINT:
+                return Long.class;
+            case Types.INTEGER:
+            case Types.SMALLINT:
+            case Types.TINYINT:
+                return Integer.class;
+            case Types.DECIMAL:
+            case Types.NUMERIC:
+                return BigDecimal.class;
+            case Types.DOUBLE:
+            case Types.FLOAT:
+            case Types.REAL:
+                return Double.class;
+            case Types.BIT:
+            case Types.BOOLEAN:
+                return Boolean.class;
+            case Types.DATE:
+            case Types.TIME:
+            case Types.TIMESTAMP:
+                return Date.class;
+            default:
+                return String.class;
+        }
+    }
+
+    /**
+     * Obtém o formato padrão de uma coluna do tipo SQL informado.
+     *
+     * @param tipoSql
+     *            Tipo SQL (veja {@link Types})
+     * @return O formato da coluna.
+     */
+    static FormatoAtributoEnum formato(final int tipoSql) {
+
+        switch (tipoSql) {
+            case Types.DATE:
+                return FormatoAtributoEnum.DATA;
+            case Types.TIME:
+                return FormatoAtributoEnum.TIMESTAMP;
+            case Types.TIMESTAMP:
+                return FormatoAtributoEnum.HORA;
+            default:
+                return FormatoAtributoEnum.NENHUM;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package br.com.leuras.commons.export;
+
+/**
+ * Agregações que podem ser calculadas para uma coluna e escritas no rodapé do documento exportado. Os valores são
+ * acumulados durante a escrita dos detalhes, sem a necessidade de percorrer os registros novamente. Valores nulos são
+ * desconsiderados.
+ *
+ * @see AtributoExportavel#agregacao()
+ */
+public enum AgregacaoEnum {
+
+    /**
+     * Nenhuma agregação.
+     */
+    NENHUMA,
+
+    /**
+     * Soma dos valores numéricos.
+     */
+    SOMA,
+
+    /**
+     * Média aritmética dos valores numéricos.
+     */
+    MEDIA,
+
+    /**
+     * Menor valor numérico ou data.
+     */
+    MINIMO,
+
+    /**
+     * Maior valor numérico ou data.
+     */
+    MAXIMO,
+
+    /**
+     * Quantidade de valores preenchidos.
+     */
+    CONTAGEM;
+
+    /**
+     * Rótulo escrito na primeira coluna da linha de totais, quando esta não declara uma agregação.
+     */
+    public static final String ROTULO_TOTAIS = "Totais";
+}
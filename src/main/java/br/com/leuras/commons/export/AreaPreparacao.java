@@ -0,0 +1,446 @@
+package br.com.leuras.commons.export;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Área de preparação das linhas de uma exportação. Os valores das colunas, já convertidos, são gravados em forma binária
+ * compacta (veja {@link CodificacaoValores}) em arenas de {@link ByteBuffer} alocadas fora da memória da aplicação
+ * (<i>direct buffers</i>). Ao ultrapassar o limite de memória informado, as arenas seguintes são mapeadas em um arquivo
+ * temporário, cabendo ao sistema operacional manter em memória apenas as páginas em uso.
+ * <p>
+ * As linhas são gravadas sequencialmente e, após a última, lidas na mesma ordem por meio de {@link #ler(Object[])}.
+ * Dessa forma, a memória da aplicação mantém apenas os objetos da linha sendo gravada ou lida, e não todas as linhas da
+ * exportação.
+ * </p>
+ * <p>
+ * As arenas fora da memória da aplicação são reaproveitadas entre as exportações por meio de uma lista de arenas livres,
+ * limitada a {@link #MAXIMO_ARENAS_LIVRES} arenas. Cada arena é devolvida à lista assim que é lida ou no encerramento da
+ * área ({@link #close()}); as arenas que excedem a lista e as arenas mapeadas no arquivo temporário são liberadas
+ * imediatamente, sem aguardar a coleta de lixo, de modo que o arquivo possa ser removido em seguida.
+ * </p>
+ */
+final class AreaPreparacao implements Closeable {
+
+    /**
+     * Tamanho de cada arena, em bytes.
+     */
+    static final int TAMANHO_ARENA = 1024 * 1024;
+
+    /**
+     * Número máximo de arenas mantidas na lista de arenas livres, compartilhada por todas as áreas de preparação.
+     */
+    static final int MAXIMO_ARENAS_LIVRES = 16;
+
+    private static final int TAMANHO_BUFFER = 8 * 1024;
+
+    private static final Deque<ByteBuffer> LIVRES = new ArrayDeque<>();
+
+    private static final Object UNSAFE;
+
+    private static final Method LIBERAR;
+
+    static {
+
+        Object unsafe = null;
+        Method liberar = null;
+
+        try {
+
+            final Class<?> classe = Class.forName("sun.misc.Unsafe");
+            final Field instancia = classe.getDeclaredField("theUnsafe");
+
+            liberar = classe.getMethod("invokeCleaner", ByteBuffer.class);
+            instancia.setAccessible(true);
+            unsafe = instancia.get(null);
+
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // Anterior ao Java 9: as arenas são liberadas por meio do método "cleaner" do próprio buffer.
+            liberar = null;
+            unsafe = null;
+        }
+
+        UNSAFE = unsafe;
+        LIBERAR = liberar;
+    }
+
+    private final long limiteMemoria;
+
+    private final List<ByteBuffer> arenas = new ArrayList<>();
+
+    private final Escrita escrita = new Escrita();
+
+    private final DataOutputStream saida;
+
+    private Leitura leitura;
+
+    private DataInputStream entrada;
+
+    private RandomAccessFile arquivo;
+
+    private File caminho;
+
+    private long memoria;
+
+    /**
+     * Número de arenas alocadas fora da memória da aplicação. Como o arquivo temporário só é utilizado após o limite de
+     * memória, essas arenas são sempre as primeiras da lista.
+     */
+    private int diretas;
+
+    private long linhas;
+
+    private long restantes;
+
+    /**
+     * Constrói uma nova área de preparação.
+     *
+     * @param limiteMemoria
+     *            Número máximo de bytes alocados fora da memória da aplicação antes do uso do arquivo temporário
+     */
+    AreaPreparacao(final long limiteMemoria) {
+        this.limiteMemoria = limiteMemoria;
+        this.saida = new DataOutputStream(new BufferedOutputStream(this.escrita, TAMANHO_BUFFER));
+    }
+
+    /**
+     * Acrescenta os valores de uma linha. O array pode ser reutilizado após a chamada.
+     *
+     * @param valores
+     *            Valores das colunas
+     * @throws IOException
+     *             Caso não seja possível gravar a linha.
+     * @throws IllegalStateException
+     *             Caso as linhas já estejam sendo lidas.
+     */
+    void acrescentar(final Object[] valores) throws IOException, IllegalStateException {
+
+        if (this.entrada != null) {
+            throw new IllegalStateException();
+        }
+
+        CodificacaoValores.gravar(this.saida, valores);
+        this.linhas++;
+    }
+
+    /**
+     * Lê a próxima linha, na ordem em que foram acrescentadas. A primeira chamada encerra a gravação.
+     *
+     * @param valores
+     *            Array que receberá os valores das colunas
+     * @return <b>True</b> caso uma linha tenha sido lida e <b>false</b> ao final das linhas.
+     * @throws IOException
+     *             Caso algum erro ocorra durante a leitura.
+     */
+    boolean ler(final Object[] valores) throws IOException {
+
+        if (this.entrada == null) {
+
+            this.saida.flush();
+
+            this.leitura = new Leitura();
+            this.entrada = new DataInputStream(new BufferedInputStream(this.leitura, TAMANHO_BUFFER));
+            this.restantes = this.linhas;
+        }
+
+        if (this.restantes == 0) {
+            return false;
+        }
+
+        CodificacaoValores.ler(this.entrada, valores);
+        this.restantes--;
+
+        return true;
+    }
+
+    /**
+     * Número de linhas acrescentadas.
+     *
+     * @return O número de linhas.
+     */
+    long getLinhas() {
+        return this.linhas;
+    }
+
+    /**
+     * Indica se as linhas excederam o limite de memória e passaram a ser gravadas no arquivo temporário.
+     *
+     * @return <b>True</b> caso o arquivo temporário tenha sido criado.
+     */
+    boolean isArquivo() {
+        return this.caminho != null;
+    }
+
+    /**
+     * Devolve as arenas à lista de arenas livres, libera as arenas mapeadas e remove o arquivo temporário. A área não
+     * deve ser utilizada após o encerramento.
+     */
+    @Override
+    public void close() {
+
+        this.escrita.atual = null;
+
+        if (this.leitura != null) {
+            this.leitura.atual = null;
+        }
+
+        for (int indice = 0; indice < this.arenas.size(); indice++) {
+            this.liberar(indice);
+        }
+
+        this.arenas.clear();
+
+        if (this.arquivo != null) {
+            try {
+                this.arquivo.close();
+            } catch (IOException e) {
+                // O arquivo temporário é removido mesmo que não possa ser fechado.
+            }
+
+            this.caminho.delete();
+            this.arquivo = null;
+        }
+    }
+
+    /**
+     * Obtém uma nova arena: fora da memória da aplicação enquanto o limite não for atingido e, a partir de então, mapeada
+     * no arquivo temporário.
+     */
+    private ByteBuffer novaArena() throws IOException {
+
+        final ByteBuffer arena;
+
+        if (this.memoria + TAMANHO_ARENA <= this.limiteMemoria) {
+            arena = AreaPreparacao.obterArena();
+            this.memoria += TAMANHO_ARENA;
+            this.diretas++;
+        } else {
+
+            if (this.arquivo == null) {
+                this.caminho = File.createTempFile("exportacao", ".prep");
+                this.caminho.deleteOnExit();
+                this.arquivo = new RandomAccessFile(this.caminho, "rw");
+            }
+
+            final FileChannel canal = this.arquivo.getChannel();
+
+            arena = canal.map(FileChannel.MapMode.READ_WRITE, canal.size(), TAMANHO_ARENA);
+        }
+
+        this.arenas.add(arena);
+
+        return arena;
+    }
+
+    /**
+     * Libera a arena da posição informada: as arenas fora da memória da aplicação são devolvidas à lista de arenas
+     * livres e as arenas mapeadas no arquivo temporário são liberadas.
+     */
+    private void liberar(final int indice) {
+
+        final ByteBuffer arena = this.arenas.get(indice);
+
+        if (arena == null) {
+            return;
+        }
+
+        this.arenas.set(indice, null);
+
+        if (indice < this.diretas) {
+            AreaPreparacao.devolverArena(arena);
+        } else {
+            AreaPreparacao.desalocar(arena);
+        }
+    }
+
+    /**
+     * Obtém uma arena da lista de arenas livres ou, caso esteja vazia, aloca uma nova arena fora da memória da
+     * aplicação.
+     */
+    private static ByteBuffer obterArena() {
+
+        synchronized (LIVRES) {
+
+            final ByteBuffer arena = LIVRES.pollFirst();
+
+            if (arena != null) {
+                arena.clear();
+                return arena;
+            }
+        }
+
+        return ByteBuffer.allocateDirect(TAMANHO_ARENA);
+    }
+
+    /**
+     * Devolve uma arena à lista de arenas livres ou a libera, caso a lista esteja completa.
+     */
+    private static void devolverArena(final ByteBuffer arena) {
+
+        synchronized (LIVRES) {
+            if (LIVRES.size() < MAXIMO_ARENAS_LIVRES) {
+                LIVRES.addFirst(arena);
+                return;
+            }
+        }
+
+        AreaPreparacao.desalocar(arena);
+    }
+
+    /**
+     * Número de arenas na lista de arenas livres.
+     *
+     * @return O número de arenas livres.
+     */
+    static int getArenasLivres() {
+        synchronized (LIVRES) {
+            return LIVRES.size();
+        }
+    }
+
+    /**
+     * Libera imediatamente a memória de uma arena alocada fora da memória da aplicação ou o mapeamento de uma arena do
+     * arquivo temporário. Caso a plataforma não permita, a arena é liberada pela coleta de lixo.
+     */
+    private static void desalocar(final ByteBuffer arena) {
+
+        try {
+
+            if (LIBERAR != null) {
+                LIBERAR.invoke(UNSAFE, arena);
+                return;
+            }
+
+            final Method metodo = arena.getClass().getMethod("cleaner");
+
+            metodo.setAccessible(true);
+
+            final Object limpeza = metodo.invoke(arena);
+
+            if (limpeza != null) {
+                limpeza.getClass().getMethod("clean").invoke(limpeza);
+            }
+
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // A arena é liberada pela coleta de lixo.
+        }
+    }
+
+    /**
+     * Gravação sequencial nas arenas, criando uma nova arena sempre que a atual estiver cheia.
+     */
+    private final class Escrita extends OutputStream {
+
+        private ByteBuffer atual;
+
+        @Override
+        public void write(final int b) throws IOException {
+
+            if (this.atual == null || ! this.atual.hasRemaining()) {
+                this.atual = AreaPreparacao.this.novaArena();
+            }
+
+            this.atual.put((byte) b);
+        }
+
+        @Override
+        public void write(final byte[] b, final int inicio, final int tamanho) throws IOException {
+
+            int posicao = inicio;
+            int pendentes = tamanho;
+
+            while (pendentes > 0) {
+
+                if (this.atual == null || ! this.atual.hasRemaining()) {
+                    this.atual = AreaPreparacao.this.novaArena();
+                }
+
+                final int quantidade = Math.min(pendentes, this.atual.remaining());
+
+                this.atual.put(b, posicao, quantidade);
+                posicao += quantidade;
+                pendentes -= quantidade;
+            }
+        }
+    }
+
+    /**
+     * Leitura sequencial das arenas, na ordem em que foram gravadas.
+     */
+    private final class Leitura extends InputStream {
+
+        private int indice = -1;
+
+        private ByteBuffer atual;
+
+        @Override
+        public int read() {
+
+            if (! this.avancar()) {
+                return -1;
+            }
+
+            return this.atual.get() & 0xFF;
+        }
+
+        @Override
+        public int read(final byte[] b, final int inicio, final int tamanho) {
+
+            if (tamanho == 0) {
+                return 0;
+            }
+
+            if (! this.avancar()) {
+                return -1;
+            }
+
+            final int quantidade = Math.min(tamanho, this.atual.remaining());
+
+            this.atual.get(b, inicio, quantidade);
+
+            return quantidade;
+        }
+
+        /**
+         * Posiciona a leitura na próxima arena com conteúdo, liberando as arenas já lidas.
+         */
+        private boolean avancar() {
+
+            final List<ByteBuffer> arenas = AreaPreparacao.this.arenas;
+
+            while (this.atual == null || ! this.atual.hasRemaining()) {
+
+                if (this.indice >= 0) {
+                    this.atual = null;
+                    AreaPreparacao.this.liberar(this.indice);
+                }
+
+                if (this.indice + 1 >= arenas.size()) {
+                    return false;
+                }
+
+                this.indice++;
+                this.atual = arenas.get(this.indice);
+                this.atual.flip();
+            }
+
+            return true;
+        }
+    }
+}
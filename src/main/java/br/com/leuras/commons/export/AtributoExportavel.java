@@ -16,4 +16,19 @@ public @interface AtributoExportavel {
     public boolean ignorar() default false;
     
     public FormatoAtributoEnum formato() default FormatoAtributoEnum.NENHUM;
+    
+    /**
+     * Posição relativa da coluna. Colunas com o mesmo valor mantêm a ordem de declaração: os membros das superclasses
+     * precedem os da subclasse e, em cada classe, os métodos anotados vêm após os atributos.
+     * 
+     * @return A ordem da coluna.
+     */
+    public int ordem() default Integer.MAX_VALUE;
+    
+    /**
+     * Agregação da coluna escrita no rodapé do documento, pelos formatos que a suportam.
+     * 
+     * @return A agregação da coluna.
+     */
+    public AgregacaoEnum agregacao() default AgregacaoEnum.NENHUMA;
 }
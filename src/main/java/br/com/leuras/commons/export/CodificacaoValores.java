@@ -0,0 +1,220 @@
+package br.com.leuras.commons.export;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Date;
+
+/**
+ * Representação binária compacta dos valores das colunas exportáveis, utilizada para manter linhas já convertidas fora
+ * da memória da aplicação. Cada valor é precedido de um byte com o seu tipo; os tipos produzidos pelos planos de
+ * colunas (textos, números, datas e lógicos) têm representação própria e os demais são serializados.
+ *
+ * @see OrdenacaoExterna OrdenacaoExterna
+ * @see AreaPreparacao AreaPreparacao
+ */
+final class CodificacaoValores {
+
+    private static final byte NULO = 0;
+
+    private static final byte TEXTO = 1;
+
+    private static final byte INTEIRO = 2;
+
+    private static final byte LONGO = 3;
+
+    private static final byte REAL = 4;
+
+    private static final byte DECIMAL = 5;
+
+    private static final byte DATA = 6;
+
+    private static final byte LOGICO = 7;
+
+    private static final byte REAL_SIMPLES = 8;
+
+    private static final byte CURTO = 9;
+
+    private static final byte OCTETO = 10;
+
+    private static final byte INTEIRO_GRANDE = 11;
+
+    private static final byte OBJETO = 12;
+
+    private CodificacaoValores() {
+
+    }
+
+    /**
+     * Grava os valores de uma linha, na ordem das colunas.
+     *
+     * @param saida
+     *            Destino
+     * @param valores
+     *            Valores das colunas
+     * @throws IOException
+     *             Caso algum erro ocorra durante a escrita.
+     */
+    static void gravar(final DataOutput saida, final Object[] valores) throws IOException {
+        for (final Object valor : valores) {
+            CodificacaoValores.gravar(saida, valor);
+        }
+    }
+
+    /**
+     * Lê os valores de uma linha gravada por {@link #gravar(DataOutput, Object[])}.
+     *
+     * @param entrada
+     *            Origem
+     * @param valores
+     *            Array que receberá os valores, com o tamanho da linha gravada
+     * @throws IOException
+     *             Caso algum erro ocorra durante a leitura.
+     */
+    static void ler(final DataInput entrada, final Object[] valores) throws IOException {
+        for (int coluna = 0; coluna < valores.length; coluna++) {
+            valores[coluna] = CodificacaoValores.ler(entrada);
+        }
+    }
+
+    /**
+     * Grava um valor precedido do seu tipo.
+     *
+     * @param saida
+     *            Destino
+     * @param valor
+     *            Valor de uma coluna
+     * @throws IOException
+     *             Caso algum erro ocorra durante a escrita.
+     */
+    static void gravar(final DataOutput saida, final Object valor) throws IOException {
+
+        if (valor == null) {
+            saida.writeByte(NULO);
+        } else if (valor instanceof String) {
+            final String texto = (String) valor;
+
+            saida.writeByte(TEXTO);
+            saida.writeInt(texto.length());
+            saida.writeChars(texto);
+        } else if (valor instanceof Integer) {
+            saida.writeByte(INTEIRO);
+            saida.writeInt((Integer) valor);
+        } else if (valor instanceof Long) {
+            saida.writeByte(LONGO);
+            saida.writeLong((Long) valor);
+        } else if (valor instanceof Double) {
+            saida.writeByte(REAL);
+            saida.writeDouble((Double) valor);
+        } else if (valor instanceof BigDecimal) {
+            final BigDecimal decimal = (BigDecimal) valor;
+            final byte[] digitos = decimal.unscaledValue().toByteArray();
+
+            saida.writeByte(DECIMAL);
+            saida.writeInt(decimal.scale());
+            saida.writeInt(digitos.length);
+            saida.write(digitos);
+        } else if (valor instanceof Date) {
+            saida.writeByte(DATA);
+            saida.writeLong(((Date) valor).getTime());
+        } else if (valor instanceof Boolean) {
+            saida.writeByte(LOGICO);
+            saida.writeBoolean((Boolean) valor);
+        } else if (valor instanceof Float) {
+            saida.writeByte(REAL_SIMPLES);
+            saida.writeFloat((Float) valor);
+        } else if (valor instanceof Short) {
+            saida.writeByte(CURTO);
+            saida.writeShort((Short) valor);
+        } else if (valor instanceof Byte) {
+            saida.writeByte(OCTETO);
+            saida.writeByte((Byte) valor);
+        } else if (valor instanceof BigInteger) {
+            final byte[] digitos = ((BigInteger) valor).toByteArray();
+
+            saida.writeByte(INTEIRO_GRANDE);
+            saida.writeInt(digitos.length);
+            saida.write(digitos);
+        } else {
+            final ByteArrayOutputStream serializado = new ByteArrayOutputStream();
+
+            try (final ObjectOutputStream objetos = new ObjectOutputStream(serializado)) {
+                objetos.writeObject(valor);
+            }
+
+            saida.writeByte(OBJETO);
+            saida.writeInt(serializado.size());
+            saida.write(serializado.toByteArray());
+        }
+    }
+
+    /**
+     * Lê um valor gravado por {@link #gravar(DataOutput, Object)}.
+     *
+     * @param entrada
+     *            Origem
+     * @return O valor da coluna.
+     * @throws IOException
+     *             Caso algum erro ocorra durante a leitura ou o valor não possa ser desserializado.
+     */
+    static Object ler(final DataInput entrada) throws IOException {
+
+        final byte tipo = entrada.readByte();
+
+        switch (tipo) {
+            case NULO:
+                return null;
+            case TEXTO:
+                final char[] caracteres = new char[entrada.readInt()];
+
+                for (int posicao = 0; posicao < caracteres.length; posicao++) {
+                    caracteres[posicao] = entrada.readChar();
+                }
+
+                return new String(caracteres);
+            case INTEIRO:
+                return entrada.readInt();
+            case LONGO:
+                return entrada.readLong();
+            case REAL:
+                return entrada.readDouble();
+            case DECIMAL:
+                final int escala = entrada.readInt();
+
+                return new BigDecimal(new BigInteger(CodificacaoValores.bytes(entrada)), escala);
+            case DATA:
+                return new Date(entrada.readLong());
+            case LOGICO:
+                return entrada.readBoolean();
+            case REAL_SIMPLES:
+                return entrada.readFloat();
+            case CURTO:
+                return entrada.readShort();
+            case OCTETO:
+                return entrada.readByte();
+            case INTEIRO_GRANDE:
+                return new BigInteger(CodificacaoValores.bytes(entrada));
+            default:
+                try (final ObjectInputStream objetos = new ObjectInputStream(
+                        new ByteArrayInputStream(CodificacaoValores.bytes(entrada)))) {
+                    return objetos.readObject();
+                } catch (ClassNotFoundException e) {
+                    throw new IOException(e.getMessage(), e);
+                }
+        }
+    }
+
+    private static byte[] bytes(final DataInput entrada) throws IOException {
+
+        final byte[] bytes = new byte[entrada.readInt()];
+        entrada.readFully(bytes);
+
+        return bytes;
+    }
+}
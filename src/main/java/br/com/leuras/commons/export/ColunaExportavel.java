@@ -0,0 +1,128 @@
+package br.com.leuras.commons.export;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.Calendar;
+
+import br.com.leuras.commons.exception.ExportacaoException;
+import br.com.leuras.commons.util.Acessor;
+
+/**
+ * Representação imutável de uma coluna exportável, resolvida uma única vez a partir de um atributo ou método anotado com
+ * {@link AtributoExportavel}.
+ *
+ * @see PlanoColunas PlanoColunas
+ */
+public final class ColunaExportavel {
+
+    private final String atributo;
+
+    private final String titulo;
+
+    private final FormatoAtributoEnum formato;
+
+    private final int ordem;
+
+    private final Class<?> tipo;
+
+    private final TipoColunaEnum categoria;
+
+    private final AgregacaoEnum agregacao;
+
+    private final Acessor acessor;
+
+    ColunaExportavel(final String atributo, final AtributoExportavel anotacao, final Class<?> tipo,
+            final Acessor acessor) {
+        this(atributo, anotacao.coluna(), anotacao.formato(), anotacao.ordem(), anotacao.agregacao(), tipo, acessor);
+    }
+
+    ColunaExportavel(final String atributo, final String titulo, final FormatoAtributoEnum formato, final int ordem,
+            final AgregacaoEnum agregacao, final Class<?> tipo, final Acessor acessor) {
+        this.atributo = atributo;
+        this.titulo = titulo;
+        this.formato = formato;
+        this.ordem = ordem;
+        this.agregacao = agregacao;
+        this.tipo = tipo;
+        this.categoria = TipoColunaEnum.de(tipo);
+        this.acessor = acessor;
+    }
+
+    /**
+     * Obtém o valor da coluna para o registro informado. Valores do tipo {@link Calendar} são convertidos para
+     * {@link java.util.Date Date}.
+     *
+     * @param registro
+     *            Registro
+     * @return O valor da coluna.
+     * @throws ExportacaoException
+     *             Caso não seja possível obter o valor do registro.
+     */
+    public Object valor(final Object registro) throws ExportacaoException {
+
+        try {
+
+            final Object valor = this.acessor.get(registro);
+
+            if (valor instanceof Calendar) {
+                return ((Calendar) valor).getTime();
+            }
+
+            return valor;
+
+        } catch (InvocationTargetException e) {
+
+            if (e.getCause() instanceof ExportacaoException) {
+                throw (ExportacaoException) e.getCause();
+            }
+
+            throw new ExportacaoException(e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * Nome do atributo (propriedade) de origem da coluna.
+     *
+     * @return O nome do atributo.
+     */
+    public String getAtributo() {
+        return this.atributo;
+    }
+
+    public String getTitulo() {
+        return this.titulo;
+    }
+
+    public FormatoAtributoEnum getFormato() {
+        return this.formato;
+    }
+
+    public int getOrdem() {
+        return this.ordem;
+    }
+
+    public AgregacaoEnum getAgregacao() {
+        return this.agregacao;
+    }
+
+    /**
+     * Tipo declarado do atributo ou o tipo de retorno do método de origem da coluna.
+     *
+     * @return O tipo declarado.
+     */
+    public Class<?> getTipo() {
+        return this.tipo;
+    }
+
+    public TipoColunaEnum getCategoria() {
+        return this.categoria;
+    }
+
+    /**
+     * Acessor utilizado para ler (e, quando possível, escrever) a propriedade de origem da coluna.
+     *
+     * @return O acessor da propriedade.
+     */
+    public Acessor getAcessor() {
+        return this.acessor;
+    }
+}
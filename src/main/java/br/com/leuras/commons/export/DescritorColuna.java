@@ -0,0 +1,81 @@
+package br.com.leuras.commons.export;
+
+/**
+ * Descrição de uma coluna do resultado de uma consulta a ser exportada: o rótulo da coluna na consulta, o título
+ * exibido no documento, o formato e a agregação. Equivale à anotação {@link AtributoExportavel} para os registros que
+ * não são objetos anotados.
+ *
+ * @see PlanoColunas#de(java.sql.ResultSetMetaData, String, DescritorColuna...) PlanoColunas.de
+ */
+public final class DescritorColuna {
+
+    private final String rotulo;
+
+    private final String titulo;
+
+    private final FormatoAtributoEnum formato;
+
+    private final AgregacaoEnum agregacao;
+
+    /**
+     * Constrói uma nova instância de DescritorColuna sem formato nem agregação.
+     *
+     * @param rotulo
+     *            Rótulo (ou nome) da coluna na consulta
+     * @param titulo
+     *            Título da coluna no documento
+     */
+    public DescritorColuna(final String rotulo, final String titulo) {
+        this(rotulo, titulo, FormatoAtributoEnum.NENHUM, AgregacaoEnum.NENHUMA);
+    }
+
+    /**
+     * Constrói uma nova instância de DescritorColuna sem agregação.
+     *
+     * @param rotulo
+     *            Rótulo (ou nome) da coluna na consulta
+     * @param titulo
+     *            Título da coluna no documento
+     * @param formato
+     *            Formato da coluna
+     */
+    public DescritorColuna(final String rotulo, final String titulo, final FormatoAtributoEnum formato) {
+        this(rotulo, titulo, formato, AgregacaoEnum.NENHUMA);
+    }
+
+    /**
+     * Constrói uma nova instância de DescritorColuna.
+     *
+     * @param rotulo
+     *            Rótulo (ou nome) da coluna na consulta
+     * @param titulo
+     *            Título da coluna no documento
+     * @param formato
+     *            Formato da coluna
+     * @param agregacao
+     *            Agregação da coluna escrita no rodapé
+     */
+    public DescritorColuna(final String rotulo, final String titulo, final FormatoAtributoEnum formato,
+            final AgregacaoEnum agregacao) {
+        this.rotulo = rotulo;
+        this.titulo = titulo;
+        this.formato = formato;
+        this.agregacao = agregacao;
+    }
+
+    public String getRotulo() {
+        return this.rotulo;
+    }
+
+    public String getTitulo() {
+        return this.titulo;
+    }
+
+    public FormatoAtributoEnum getFormato() {
+        return this.formato;
+    }
+
+    public AgregacaoEnum getAgregacao() {
+        return this.agregacao;
+    }
+}
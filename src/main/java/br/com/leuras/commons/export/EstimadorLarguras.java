@@ -0,0 +1,137 @@
+package br.com.leuras.commons.export;
+
+import org.apache.poi.ss.usermodel.Sheet;
+
+/**
+ * Estimativa da largura das colunas de uma planilha a partir do maior número de caracteres registrado em cada coluna.
+ * Opcionalmente, apenas as primeiras linhas (amostra) são consideradas.
+ */
+final class EstimadorLarguras {
+
+    /**
+     * Largura máxima de uma coluna, em caracteres, aceita pelo Excel.
+     */
+    static final int LARGURA_MAXIMA = 255;
+
+    /**
+     * Caracteres acrescidos ao maior valor da coluna para compensar as margens da célula.
+     */
+    static final int MARGEM = 2;
+
+    /**
+     * Acréscimo, em porcentagem, aplicado aos títulos do cabeçalho do detalhe por serem escritos em negrito.
+     */
+    static final int ACRESCIMO_NEGRITO = 10;
+
+    private final int[] larguras;
+
+    private final int amostra;
+
+    private int linhas;
+
+    /**
+     * Constrói um novo estimador.
+     *
+     * @param colunas
+     *            Número de colunas
+     * @param amostra
+     *            Número de linhas consideradas na estimativa ou zero para considerar todas
+     */
+    EstimadorLarguras(final int colunas, final int amostra) {
+        this.larguras = new int[colunas];
+        this.amostra = amostra;
+    }
+
+    /**
+     * Registra o título de uma coluna do cabeçalho do detalhe.
+     *
+     * @param coluna
+     *            Posição da coluna
+     * @param titulo
+     *            Título da coluna
+     */
+    void titulo(final int coluna, final String titulo) {
+        this.registrar(coluna, titulo.length() + (titulo.length() * ACRESCIMO_NEGRITO + 99) / 100);
+    }
+
+    /**
+     * Indica se a linha corrente deve ser considerada na estimativa.
+     *
+     * @return <b>True</b> caso a amostra ainda não tenha sido completada e <b>false</b> caso contrário.
+     */
+    boolean isAmostrando() {
+        return this.amostra <= 0 || this.linhas < this.amostra;
+    }
+
+    /**
+     * Registra o número de caracteres de uma célula.
+     *
+     * @param coluna
+     *            Posição da coluna
+     * @param caracteres
+     *            Número de caracteres do valor exibido
+     */
+    void registrar(final int coluna, final int caracteres) {
+
+        if (caracteres > this.larguras[coluna]) {
+            this.larguras[coluna] = caracteres;
+        }
+    }
+
+    /**
+     * Conclui o registro de uma linha de dados.
+     */
+    void linha() {
+        this.linhas++;
+    }
+
+    /**
+     * Aplica as larguras estimadas às colunas da planilha.
+     *
+     * @param planilha
+     *            Planilha
+     */
+    void aplicar(final Sheet planilha) {
+
+        for (int coluna = 0; coluna < this.larguras.length; coluna++) {
+            planilha.setColumnWidth(coluna, Math.min(this.larguras[coluna] + MARGEM, LARGURA_MAXIMA) * 256);
+        }
+    }
+
+    /**
+     * Estima o número de caracteres exibidos por um valor numérico.
+     *
+     * @param valor
+     *            Valor
+     * @param formato
+     *            Formato de dados do Excel aplicado à célula ou <b>null</b> para o formato geral
+     * @return O número estimado de caracteres.
+     */
+    static int caracteres(final double valor, final String formato) {
+
+        final int sinal = valor < 0 ? 1 : 0;
+
+        if (RegistroEstilos.MOEDA.equals(formato)) {
+
+            final int digitos = EstimadorLarguras.digitos(valor);
+
+            return "R$ ".length() + sinal + digitos + (digitos - 1) / 3 + ",00".length();
+        }
+
+        if (RegistroEstilos.PERCENTUAL.equals(formato)) {
+            return sinal + EstimadorLarguras.digitos(valor * 100) + ",00%".length();
+        }
+
+        if (formato != null) {
+            return formato.length();
+        }
+
+        final String texto = String.valueOf(valor);
+
+        return texto.endsWith(".0") ? texto.length() - 2 : texto.length();
+    }
+
+    private static int digitos(final double valor) {
+        return String.valueOf(Math.abs((long) valor)).length();
+    }
+}
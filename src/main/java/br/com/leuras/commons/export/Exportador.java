@@ -1,19 +1,72 @@
 package br.com.leuras.commons.export;
 
-import java.io.File;
+import java.io.BufferedOutputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import org.apache.commons.lang3.StringUtils;
 
 import br.com.leuras.commons.exception.ExportacaoException;
 import br.com.leuras.commons.util.ArquivoUtils;
 
 public class Exportador<T> {
 
+    protected static final String ME001 = "O paralelismo deve ser maior que zero.";
+
+    protected static final String ME002 = "O tamanho do lote deve ser maior que zero.";
+
+    protected static final String ME003 = "A exportação foi interrompida.";
+
+    protected static final String ME004 = "O monitor de exportação não pode ser nulo.";
+
+    protected static final String ME005 = "O formato \"%s\" não suporta a ordenação dos registros.";
+
+    protected static final String ME006 = "O atributo \"%s\" não é uma coluna exportável.";
+
+    protected static final String ME007 = "O tamanho do bloco de ordenação deve ser maior que zero.";
+
+    /**
+     * Número de registros por lote utilizado por padrão na exportação paralela.
+     */
+    public static final int TAMANHO_LOTE_PADRAO = 1000;
+
+    /**
+     * Número de registros mantidos em memória por padrão na exportação ordenada.
+     */
+    public static final int TAMANHO_BLOCO_ORDENACAO_PADRAO = 100000;
+
     private FormatoExportavel<T> formato;
 
+    private int paralelismo = 1;
+
+    private ForkJoinPool executor;
+
+    private int tamanhoLote = TAMANHO_LOTE_PADRAO;
+
+    private MonitorExportacao monitor = MonitorExportacaoNulo.INSTANCIA;
+
+    private String ordenacao;
+
+    private int colunaOrdenacao = -1;
+
+    private boolean decrescente;
+
+    private int tamanhoBlocoOrdenacao = TAMANHO_BLOCO_ORDENACAO_PADRAO;
+
     /**
      * Constrói uma nova instância de Exportador utilizando formato especificado.
      * <pre>
@@ -35,14 +88,35 @@ public class Exportador<T> {
      * </code>
      * </pre>
      * 
+     * Os formatos fornecidos pela biblioteca criam um novo documento a cada exportação, de modo que o exportador pode ser
+     * mantido e reutilizado, inclusive por várias threads ao mesmo tempo.
+     * 
      * @param formato
      *            Formato de exportação desejado.
      * @throws IllegalArgumentException
-     *             Caso o método <i>getType()</i> de <b>T</b> retorne nulo ou não possua a anotação <i>@Exportavel</i>.
+     *             Caso o método <i>getType()</i> de <b>T</b> retorne nulo ou não possua a anotação <i>@Exportavel</i>,
+     *             ou caso a ordenação declarada na anotação não seja suportada.
      * @see Exportavel Exportavel             
      * @see AtributoExportavel AtributoExportavel             
      */
     public Exportador(final FormatoExportavel<T> formato) throws IllegalArgumentException {
+        this(formato, true);
+    }
+
+    /**
+     * Constrói uma nova instância de Exportador utilizando formato especificado.
+     * 
+     * @param formato
+     *            Formato de exportação desejado.
+     * @param exigirAnotacao
+     *            Indica se o tipo dos registros deve possuir a anotação <i>@Exportavel</i>. Deve ser <b>false</b> apenas
+     *            quando as colunas do formato não são obtidas das anotações do tipo
+     * @throws IllegalArgumentException
+     *             Caso o método <i>getType()</i> de <b>T</b> retorne nulo ou não possua a anotação <i>@Exportavel</i>,
+     *             quando exigida, ou caso a ordenação declarada na anotação não seja suportada.
+     */
+    protected Exportador(final FormatoExportavel<T> formato, final boolean exigirAnotacao)
+            throws IllegalArgumentException {
 
         if (formato.getType() == null) {
             throw new IllegalArgumentException(
@@ -51,13 +125,17 @@ public class Exportador<T> {
 
         final Exportavel anotacao = formato.getType().getAnnotation(Exportavel.class);
 
-        if (anotacao == null) {
+        if (exigirAnotacao && anotacao == null) {
             final String classe = formato.getType().getSimpleName();
             throw new IllegalArgumentException(
                     String.format("A anotação \"@Exportavel\" não foi encontrada na classe \"%s\".", classe));
         }
 
         this.formato = formato;
+
+        if (anotacao != null && StringUtils.isNotEmpty(anotacao.ordenarPor())) {
+            this.setOrdenacao(anotacao.ordenarPor(), anotacao.decrescente());
+        }
     }
     
     /**
@@ -86,11 +164,35 @@ public class Exportador<T> {
      */
     public byte[] exportar(final List<T> registros, final Map<String, Object> parametros) throws ExportacaoException {
 
-        this.formato.cabecalho(parametros);
-        this.formato.detalhes(registros);
-        this.formato.rodape(parametros);
+        try {
+
+            long inicio = System.nanoTime();
 
-        return this.formato.getBytes();
+            this.formato.cabecalho(parametros);
+            inicio = this.registrar(FaseExportacaoEnum.CABECALHO, inicio, 0, 0, 0);
+
+            if (this.isOrdenado()) {
+                this.detalhesOrdenados((FormatoExportavelValores<T>) this.formato, registros.iterator());
+            } else if (this.isParalelo()) {
+                this.detalhesParalelo((FormatoExportavelParalelo<T, ?>) this.formato, registros.iterator());
+            } else {
+                this.formato.detalhes(registros);
+            }
+
+            inicio = this.registrar(FaseExportacaoEnum.DETALHES, inicio, registros.size(), 0, registros.size());
+
+            this.formato.rodape(parametros);
+            inicio = this.registrar(FaseExportacaoEnum.RODAPE, inicio, 0, 0, 0);
+
+            final byte[] bytes = this.formato.getBytes();
+
+            this.registrar(FaseExportacaoEnum.ESCRITA, inicio, 0, bytes.length, 0);
+
+            return bytes;
+
+        } finally {
+            this.reiniciar();
+        }
     }
     
     /**
@@ -135,8 +237,552 @@ public class Exportador<T> {
     public void exportar(final String arquivo, final List<T> registros, final Map<String, Object> parametros)
             throws FileNotFoundException, SecurityException, IOException, ExportacaoException {
 
-        final byte[] conteudo = this.exportar(registros, parametros);
+        try (final OutputStream destino = new BufferedOutputStream(ArquivoUtils.abrirParaEscrita(arquivo))) {
+            this.exportar(destino, registros.iterator(), parametros);
+        }
+    }
+
+    /**
+     * Exporta os registros no formato especificado diretamente para um fluxo de saída. Os registros são obtidos sob
+     * demanda e o conteúdo é escrito no destino sem a necessidade de manter uma cópia do documento em memória, o que
+     * permite, por exemplo, encaminhar um cursor de banco de dados para a resposta de uma requisição HTTP. O destino não
+     * é fechado ao final da exportação.
+     * 
+     * @param destino
+     *            Fluxo de saída que receberá o documento
+     * @param registros
+     *            Iterador sobre os dados a serem exportados
+     * @throws ExportacaoException
+     *             Caso ocorra algum erro durante a exportação.
+     */
+    public void exportar(final OutputStream destino, final Iterator<T> registros) throws ExportacaoException {
+        this.exportar(destino, registros, new HashMap<String, Object>());
+    }
+
+    /**
+     * Exporta os registros no formato especificado diretamente para um fluxo de saída. Os registros são obtidos sob
+     * demanda e o conteúdo é escrito no destino sem a necessidade de manter uma cópia do documento em memória. O destino
+     * não é fechado ao final da exportação.
+     * <p>
+     * Caso o formato não implemente {@link FormatoExportavelFluxo}, os registros são lidos para uma lista, o documento é
+     * obtido por meio de {@link FormatoExportavel#getBytes() getBytes} e então escrito no destino.
+     * </p>
+     * 
+     * @param destino
+     *            Fluxo de saída que receberá o documento
+     * @param registros
+     *            Iterador sobre os dados a serem exportados
+     * @param parametros
+     *            Parâmetros extras que serão passados para o exportador (cabeçalho e rodapé)
+     * @throws ExportacaoException
+     *             Caso ocorra algum erro durante a exportação.
+     */
+    public void exportar(final OutputStream destino, final Iterator<T> registros, final Map<String, Object> parametros)
+            throws ExportacaoException {
+
+        if (! (this.formato instanceof FormatoExportavelFluxo)) {
+            this.exportarDocumento(destino, registros, parametros);
+            return;
+        }
+
+        final FormatoExportavelFluxo<T> fluxo = (FormatoExportavelFluxo<T>) this.formato;
+        final SaidaContada saida = new SaidaContada(destino);
+        final Contagem<T> contagem = new Contagem<>(registros);
+
+        try {
+
+            long inicio = System.nanoTime();
+
+            fluxo.iniciar(saida);
+            fluxo.cabecalho(parametros);
+
+            long bytes = saida.getTotal();
 
-        ArquivoUtils.escrever(new File(arquivo), conteudo);
+            inicio = this.registrar(FaseExportacaoEnum.CABECALHO, inicio, 0, bytes, 0);
+
+            final long pico;
+
+            if (this.isOrdenado()) {
+                pico = this.detalhesOrdenados((FormatoExportavelValores<T>) this.formato, contagem);
+            } else if (this.isParalelo()) {
+                pico = this.detalhesParalelo((FormatoExportavelParalelo<T, ?>) this.formato, contagem);
+            } else {
+                fluxo.detalhes(contagem);
+                pico = contagem.total > 0 ? 1 : 0;
+            }
+
+            inicio = this.registrar(FaseExportacaoEnum.DETALHES, inicio, contagem.total, saida.getTotal() - bytes, pico);
+            bytes = saida.getTotal();
+
+            fluxo.rodape(parametros);
+            inicio = this.registrar(FaseExportacaoEnum.RODAPE, inicio, 0, saida.getTotal() - bytes, 0);
+            bytes = saida.getTotal();
+
+            fluxo.concluir();
+            saida.flush();
+
+            this.registrar(FaseExportacaoEnum.ESCRITA, inicio, 0, saida.getTotal() - bytes, 0);
+
+        } catch (IOException e) {
+            throw new ExportacaoException(e.getMessage(), e);
+        } finally {
+            fluxo.reiniciar();
+        }
+    }
+
+    /**
+     * Exporta os registros obtidos página a página de uma fonte de dados diretamente para um fluxo de saída. A página
+     * seguinte é obtida em segundo plano enquanto a página corrente é escrita, e cada página é descartada após a sua
+     * escrita, de modo que o consumo de memória é limitado pelo tamanho das páginas e não pelo volume de registros. O
+     * destino não é fechado ao final da exportação.
+     * 
+     * @param destino
+     *            Fluxo de saída que receberá o documento
+     * @param fonte
+     *            Fonte paginada dos dados a serem exportados
+     * @throws ExportacaoException
+     *             Caso ocorra algum erro durante a exportação ou na obtenção de uma página.
+     */
+    public void exportar(final OutputStream destino, final FonteDados<T> fonte) throws ExportacaoException {
+        this.exportar(destino, fonte, new HashMap<String, Object>());
+    }
+
+    /**
+     * Exporta os registros obtidos página a página de uma fonte de dados diretamente para um fluxo de saída. A página
+     * seguinte é obtida em segundo plano enquanto a página corrente é escrita. O destino não é fechado ao final da
+     * exportação.
+     * 
+     * @param destino
+     *            Fluxo de saída que receberá o documento
+     * @param fonte
+     *            Fonte paginada dos dados a serem exportados
+     * @param parametros
+     *            Parâmetros extras que serão passados para o exportador (cabeçalho e rodapé)
+     * @throws ExportacaoException
+     *             Caso ocorra algum erro durante a exportação ou na obtenção de uma página.
+     */
+    public void exportar(final OutputStream destino, final FonteDados<T> fonte, final Map<String, Object> parametros)
+            throws ExportacaoException {
+
+        final IteradorPaginado<T> registros = new IteradorPaginado<>(fonte);
+
+        try {
+            this.exportar(destino, registros, parametros);
+        } catch (LeituraException e) {
+            throw e.getCause();
+        } finally {
+            registros.encerrar();
+        }
+    }
+
+    /**
+     * Exporta os registros obtidos página a página de uma fonte de dados para um arquivo.
+     * 
+     * @param arquivo
+     *            Arquivo
+     * @param fonte
+     *            Fonte paginada dos dados a serem exportados
+     * @throws FileNotFoundException
+     *             Caso o caminho informado não exista.
+     * @throws SecurityException
+     *             Caso haja alguma restrição de acesso ao arquivo que impeça a sua manipulação.
+     * @throws IOException
+     *             Caso algum erro de entrada e saída ocorra durante a operação.
+     * @throws ExportacaoException
+     *             Caso ocorra algum erro durante a exportação ou na obtenção de uma página.
+     */
+    public void exportar(final String arquivo, final FonteDados<T> fonte)
+            throws FileNotFoundException, SecurityException, IOException, ExportacaoException {
+
+        try (final OutputStream destino = new BufferedOutputStream(ArquivoUtils.abrirParaEscrita(arquivo))) {
+            this.exportar(destino, fonte, new HashMap<String, Object>());
+        }
+    }
+
+    /**
+     * Exporta os registros no formato especificado diretamente para um canal de escrita. O canal não é fechado ao final
+     * da exportação.
+     * 
+     * @param destino
+     *            Canal que receberá o documento
+     * @param registros
+     *            Dados a serem exportados
+     * @throws ExportacaoException
+     *             Caso ocorra algum erro durante a exportação.
+     */
+    public void exportar(final WritableByteChannel destino, final Iterable<T> registros) throws ExportacaoException {
+        this.exportar(destino, registros, new HashMap<String, Object>());
+    }
+
+    /**
+     * Exporta os registros no formato especificado diretamente para um canal de escrita. O canal não é fechado ao final
+     * da exportação.
+     * 
+     * @param destino
+     *            Canal que receberá o documento
+     * @param registros
+     *            Dados a serem exportados
+     * @param parametros
+     *            Parâmetros extras que serão passados para o exportador (cabeçalho e rodapé)
+     * @throws ExportacaoException
+     *             Caso ocorra algum erro durante a exportação.
+     */
+    public void exportar(final WritableByteChannel destino, final Iterable<T> registros,
+            final Map<String, Object> parametros) throws ExportacaoException {
+
+        final OutputStream saida = new BufferedOutputStream(Channels.newOutputStream(destino));
+
+        this.exportar(saida, registros.iterator(), parametros);
+    }
+
+    public int getParalelismo() {
+        return this.paralelismo;
+    }
+
+    /**
+     * Define o número de threads utilizadas na conversão dos registros. Quando maior que um e o formato implementar
+     * {@link FormatoExportavelParalelo}, os registros são divididos em lotes convertidos concorrentemente em um
+     * {@link ForkJoinPool} e escritos no documento na ordem original, de modo que o conteúdo exportado é idêntico ao da
+     * exportação sequencial. No máximo o dobro do paralelismo em lotes é mantido em memória.
+     * <p>
+     * O pool é criado nesta chamada e compartilhado por todas as exportações desta instância; o pool anterior, caso
+     * exista, é encerrado após a conclusão das tarefas já submetidas. Suas threads são <i>daemon</i> e não impedem o
+     * encerramento da aplicação. Portanto, o paralelismo não deve ser alterado durante uma exportação.
+     * </p>
+     *
+     * @param paralelismo
+     *            Número de threads
+     * @throws IllegalArgumentException
+     *             Caso o paralelismo informado seja menor ou igual a zero.
+     */
+    public void setParalelismo(final int paralelismo) throws IllegalArgumentException {
+
+        if (paralelismo <= 0) {
+            throw new IllegalArgumentException(ME001);
+        }
+
+        if (paralelismo != this.paralelismo) {
+
+            final ForkJoinPool anterior = this.executor;
+
+            this.executor = paralelismo > 1 ? new ForkJoinPool(paralelismo) : null;
+            this.paralelismo = paralelismo;
+
+            if (anterior != null) {
+                anterior.shutdown();
+            }
+        }
+    }
+
+    public int getTamanhoLote() {
+        return this.tamanhoLote;
+    }
+
+    /**
+     * Define o número de registros de cada lote na exportação paralela.
+     *
+     * @param tamanhoLote
+     *            Número de registros por lote
+     * @throws IllegalArgumentException
+     *             Caso o tamanho informado seja menor ou igual a zero.
+     */
+    public void setTamanhoLote(final int tamanhoLote) throws IllegalArgumentException {
+
+        if (tamanhoLote <= 0) {
+            throw new IllegalArgumentException(ME002);
+        }
+
+        this.tamanhoLote = tamanhoLote;
+    }
+
+    public MonitorExportacao getMonitor() {
+        return this.monitor;
+    }
+
+    /**
+     * Define o monitor que receberá as medições de cada fase das exportações: duração, número de registros, vazão,
+     * bytes escritos e pico de registros em memória. Por padrão, as medições são descartadas.
+     *
+     * @param monitor
+     *            Monitor de exportação
+     * @throws IllegalArgumentException
+     *             Caso o monitor informado seja nulo.
+     * @see MonitorExportacaoHistograma MonitorExportacaoHistograma
+     */
+    public void setMonitor(final MonitorExportacao monitor) throws IllegalArgumentException {
+
+        if (monitor == null) {
+            throw new IllegalArgumentException(ME004);
+        }
+
+        this.monitor = monitor;
+    }
+
+    public String getOrdenacao() {
+        return this.ordenacao;
+    }
+
+    public boolean isDecrescente() {
+        return this.decrescente;
+    }
+
+    /**
+     * Define o atributo pelo qual os registros são ordenados antes da escrita do corpo do documento, substituindo a
+     * ordenação declarada em {@link Exportavel#ordenarPor()}. A ordenação é externa: os valores das colunas são
+     * acumulados em blocos de {@link #getTamanhoBlocoOrdenacao() tamanhoBlocoOrdenacao} registros, cada bloco é
+     * ordenado e gravado em um arquivo temporário, e os arquivos são intercalados durante a escrita. Assim, exportações
+     * ordenadas maiores que a memória disponível não exigem a ordenação prévia da lista. A ordenação é estável e
+     * precede o paralelismo, que é ignorado nesse caso.
+     *
+     * @param atributo
+     *            Nome do atributo de uma coluna exportável ou <b>null</b> para exportar os registros na ordem em que
+     *            são fornecidos
+     * @param decrescente
+     *            <b>True</b> para a ordem decrescente e <b>false</b> para a crescente
+     * @throws IllegalArgumentException
+     *             Caso o formato não implemente {@link FormatoExportavelValores} ou o atributo não corresponda a uma
+     *             coluna exportável.
+     */
+    public void setOrdenacao(final String atributo, final boolean decrescente) throws IllegalArgumentException {
+
+        if (atributo == null) {
+            this.ordenacao = null;
+            this.colunaOrdenacao = -1;
+            this.decrescente = false;
+            return;
+        }
+
+        if (! (this.formato instanceof FormatoExportavelValores)) {
+            throw new IllegalArgumentException(String.format(ME005, this.formato.getClass().getSimpleName()));
+        }
+
+        final List<ColunaExportavel> colunas = ((FormatoExportavelValores<T>) this.formato).getPlano().getColunas();
+        int coluna = -1;
+
+        for (int indice = 0; indice < colunas.size() && coluna < 0; indice++) {
+            if (atributo.equals(colunas.get(indice).getAtributo())) {
+                coluna = indice;
+            }
+        }
+
+        if (coluna < 0) {
+            throw new IllegalArgumentException(String.format(ME006, atributo));
+        }
+
+        this.ordenacao = atributo;
+        this.colunaOrdenacao = coluna;
+        this.decrescente = decrescente;
+    }
+
+    public int getTamanhoBlocoOrdenacao() {
+        return this.tamanhoBlocoOrdenacao;
+    }
+
+    /**
+     * Define o número de registros mantidos em memória na exportação ordenada. Exportações com até esse número de
+     * registros são ordenadas inteiramente em memória, sem arquivos temporários.
+     *
+     * @param tamanhoBlocoOrdenacao
+     *            Número de registros por bloco
+     * @throws IllegalArgumentException
+     *             Caso o tamanho informado seja menor ou igual a zero.
+     */
+    public void setTamanhoBlocoOrdenacao(final int tamanhoBlocoOrdenacao) throws IllegalArgumentException {
+
+        if (tamanhoBlocoOrdenacao <= 0) {
+            throw new IllegalArgumentException(ME007);
+        }
+
+        this.tamanhoBlocoOrdenacao = tamanhoBlocoOrdenacao;
+    }
+
+    /**
+     * Responsável por exportar os registros para um fluxo de saída por meio de um formato que não escreve o documento de
+     * forma incremental: os registros são lidos para uma lista e o documento obtido é escrito no destino.
+     */
+    private void exportarDocumento(final OutputStream destino, final Iterator<T> registros,
+            final Map<String, Object> parametros) throws ExportacaoException {
+
+        final List<T> lista = new ArrayList<>();
+
+        while (registros.hasNext()) {
+            lista.add(registros.next());
+        }
+
+        try {
+
+            destino.write(this.exportar(lista, parametros));
+            destino.flush();
+
+        } catch (IOException e) {
+            throw new ExportacaoException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Descarta o estado da exportação em andamento, caso o formato o mantenha entre as fases da exportação.
+     */
+    private void reiniciar() {
+
+        if (this.formato instanceof FormatoExportavelFluxo) {
+            ((FormatoExportavelFluxo<T>) this.formato).reiniciar();
+        }
+    }
+
+    private boolean isOrdenado() {
+        return this.colunaOrdenacao >= 0;
+    }
+
+    private boolean isParalelo() {
+        return this.paralelismo > 1 && this.formato instanceof FormatoExportavelParalelo;
+    }
+
+    /**
+     * Responsável por escrever o corpo (detalhe) do documento convertendo os lotes de registros concorrentemente. Os
+     * lotes convertidos são acrescentados ao documento na ordem em que foram lidos.
+     *
+     * @return A maior soma dos tamanhos dos lotes lidos e ainda não acrescentados ao documento (veja
+     *         {@link MedicaoExportacao#getPicoLinhas()}).
+     */
+    private <L> int detalhesParalelo(final FormatoExportavelParalelo<T, L> paralelo, final Iterator<T> registros)
+            throws ExportacaoException {
+
+        final ForkJoinPool executor = this.executor;
+        final Deque<Future<L>> pendentes = new ArrayDeque<>();
+        final Deque<Integer> tamanhos = new ArrayDeque<>();
+        int emAndamento = 0;
+        int pico = 0;
+
+        try {
+
+            paralelo.iniciarDetalhes();
+
+            while (registros.hasNext()) {
+
+                final List<T> lote = new ArrayList<>(this.tamanhoLote);
+
+                while (registros.hasNext() && lote.size() < this.tamanhoLote) {
+                    lote.add(registros.next());
+                }
+
+                emAndamento += lote.size();
+                pico = Math.max(pico, emAndamento);
+                tamanhos.addLast(lote.size());
+                pendentes.addLast(executor.submit(new Callable<L>() {
+
+                    @Override
+                    public L call() throws ExportacaoException {
+                        return paralelo.preparar(lote);
+                    }
+                }));
+
+                if (pendentes.size() >= this.paralelismo * 2) {
+                    paralelo.acrescentar(Exportador.aguardar(pendentes.removeFirst()));
+                    emAndamento -= tamanhos.removeFirst();
+                }
+            }
+
+            while (! pendentes.isEmpty()) {
+                paralelo.acrescentar(Exportador.aguardar(pendentes.removeFirst()));
+                emAndamento -= tamanhos.removeFirst();
+            }
+
+            return pico;
+
+        } finally {
+
+            for (final Future<L> pendente : pendentes) {
+                pendente.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Responsável por escrever o corpo (detalhe) do documento com os registros ordenados. Os valores das colunas de
+     * cada registro são lidos uma única vez e repassados à ordenação externa, que os devolve em ordem ao formato.
+     *
+     * @return O maior número de linhas mantidas pela ordenação ao mesmo tempo (veja
+     *         {@link MedicaoExportacao#getPicoLinhas()}).
+     */
+    private long detalhesOrdenados(final FormatoExportavelValores<T> valores, final Iterator<T> registros)
+            throws ExportacaoException {
+
+        final PlanoColunas<T> plano = valores.getPlano();
+
+        try (final OrdenacaoExterna ordenacao = new OrdenacaoExterna(plano.getTotalColunas(), this.colunaOrdenacao,
+                this.decrescente, this.tamanhoBlocoOrdenacao)) {
+
+            while (registros.hasNext()) {
+                ordenacao.acrescentar(plano.valores(registros.next()));
+            }
+
+            valores.iniciarDetalhes();
+            ordenacao.escrever(valores);
+
+            return ordenacao.getPico();
+        }
+    }
+
+    private long registrar(final FaseExportacaoEnum fase, final long inicio, final long linhas, final long bytes,
+            final long picoLinhas) {
+
+        final long fim = System.nanoTime();
+
+        this.monitor.registrar(new MedicaoExportacao(this.formato.getType(), fase, fim - inicio, linhas, bytes, picoLinhas));
+
+        return fim;
+    }
+
+    private static <L> L aguardar(final Future<L> pendente) throws ExportacaoException {
+
+        try {
+
+            return pendente.get();
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ExportacaoException(ME003, e);
+        } catch (ExecutionException e) {
+
+            if (e.getCause() instanceof ExportacaoException) {
+                throw (ExportacaoException) e.getCause();
+            }
+
+            throw new ExportacaoException(e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * Iterador que contabiliza os registros lidos.
+     */
+    private static final class Contagem<T> implements Iterator<T> {
+
+        private final Iterator<T> registros;
+
+        private long total;
+
+        Contagem(final Iterator<T> registros) {
+            this.registros = registros;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.registros.hasNext();
+        }
+
+        @Override
+        public T next() {
+
+            final T registro = this.registros.next();
+
+            this.total++;
+
+            return registro;
+        }
+
+        @Override
+        public void remove() {
+            this.registros.remove();
+        }
     }
 }
@@ -0,0 +1,200 @@
+package br.com.leuras.commons.export;
+
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import br.com.leuras.commons.exception.ExportacaoException;
+
+/**
+ * Executa exportações em segundo plano, em um número limitado de threads, liberando a thread que as solicitou. Cada
+ * exportação submetida devolve uma {@link TarefaExportacao} que permite acompanhar o seu progresso, aguardar a sua
+ * conclusão ou cancelá-la.
+ * <p>
+ * O número de exportações admitidas ao mesmo tempo (em execução ou aguardando uma thread) é limitado pela
+ * <i>capacidade</i>. Solicitações além desse limite são recusadas de imediato, evitando que uma rajada de requisições
+ * acumule documentos em memória até esgotar o heap.
+ * </p>
+ *
+ * <pre>
+ * <code>
+ * final ExportadorAssincrono assincrono = new ExportadorAssincrono(4, 16);
+ * final Exportador{@literal <Funcionario>} exportador = new Exportador{@literal <Funcionario>}(new FormatoExportavelCsv{@literal <Funcionario>}(Funcionario.class));
+ *
+ * final TarefaExportacao tarefa = assincrono.submeter(exportador, destino, registros.iterator());
+ * ...
+ * System.out.println(tarefa.getLinhas());
+ * tarefa.get();
+ * </code>
+ * </pre>
+ *
+ * O mesmo {@link Exportador} pode ser utilizado em várias submissões, pois os formatos fornecidos pela biblioteca
+ * mantêm o estado de cada exportação separadamente.
+ */
+public class ExportadorAssincrono {
+
+    protected static final String ME001 = "O número de threads deve ser maior que zero.";
+
+    protected static final String ME002 = "A capacidade deve ser maior ou igual ao número de threads.";
+
+    protected static final String ME003 = "A capacidade de %d exportações simultâneas foi atingida.";
+
+    protected static final String ME004 = "O exportador assíncrono foi encerrado.";
+
+    private static final AtomicInteger INSTANCIAS = new AtomicInteger();
+
+    private final ThreadPoolExecutor executor;
+
+    private final Semaphore admissoes;
+
+    private final int capacidade;
+
+    /**
+     * Constrói uma nova instância de ExportadorAssincrono.
+     *
+     * @param threads
+     *            Número de exportações executadas ao mesmo tempo
+     * @param capacidade
+     *            Número máximo de exportações admitidas ao mesmo tempo, incluindo as que aguardam uma thread
+     * @throws IllegalArgumentException
+     *             Caso o número de threads seja menor ou igual a zero ou a capacidade seja menor que o número de threads.
+     */
+    public ExportadorAssincrono(final int threads, final int capacidade) throws IllegalArgumentException {
+
+        if (threads <= 0) {
+            throw new IllegalArgumentException(ME001);
+        }
+
+        if (capacidade < threads) {
+            throw new IllegalArgumentException(ME002);
+        }
+
+        final int instancia = INSTANCIAS.incrementAndGet();
+
+        this.capacidade = capacidade;
+        this.admissoes = new Semaphore(capacidade);
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<Runnable>(capacidade), new ThreadFactory() {
+
+                    private final AtomicInteger contador = new AtomicInteger();
+
+                    @Override
+                    public Thread newThread(final Runnable tarefa) {
+
+                        final Thread thread = new Thread(tarefa,
+                                String.format("exportador-assincrono-%d-%d", instancia, this.contador.incrementAndGet()));
+
+                        thread.setDaemon(true);
+
+                        return thread;
+                    }
+                });
+    }
+
+    /**
+     * Submete uma exportação para execução em segundo plano.
+     *
+     * @param exportador
+     *            Exportador com o formato desejado
+     * @param destino
+     *            Fluxo de saída que receberá o documento. O destino não é fechado ao final da exportação
+     * @param registros
+     *            Iterador sobre os dados a serem exportados
+     * @return A tarefa de exportação.
+     * @throws ExportacaoException
+     *             Caso a capacidade tenha sido atingida ou o exportador assíncrono tenha sido encerrado.
+     */
+    public <T> TarefaExportacao submeter(final Exportador<T> exportador, final OutputStream destino,
+            final Iterator<T> registros) throws ExportacaoException {
+        return this.submeter(exportador, destino, registros, new HashMap<String, Object>());
+    }
+
+    /**
+     * Submete uma exportação para execução em segundo plano.
+     *
+     * @param exportador
+     *            Exportador com o formato desejado
+     * @param destino
+     *            Fluxo de saída que receberá o documento. O destino não é fechado ao final da exportação
+     * @param registros
+     *            Iterador sobre os dados a serem exportados
+     * @param parametros
+     *            Parâmetros extras que serão passados para o exportador (cabeçalho e rodapé)
+     * @return A tarefa de exportação.
+     * @throws ExportacaoException
+     *             Caso a capacidade tenha sido atingida ou o exportador assíncrono tenha sido encerrado.
+     */
+    public <T> TarefaExportacao submeter(final Exportador<T> exportador, final OutputStream destino,
+            final Iterator<T> registros, final Map<String, Object> parametros) throws ExportacaoException {
+
+        if (! this.admissoes.tryAcquire()) {
+            throw new ExportacaoException(String.format(ME003, this.capacidade));
+        }
+
+        final TarefaExportacao tarefa = new TarefaExportacao(exportador, destino, registros, parametros);
+
+        try {
+
+            this.executor.execute(new Runnable() {
+
+                @Override
+                public void run() {
+                    try {
+                        tarefa.executar();
+                    } finally {
+                        ExportadorAssincrono.this.admissoes.release();
+                    }
+                }
+            });
+
+        } catch (RejectedExecutionException e) {
+            this.admissoes.release();
+            throw new ExportacaoException(ME004, e);
+        }
+
+        return tarefa;
+    }
+
+    /**
+     * Número de exportações admitidas no momento, em execução ou aguardando uma thread.
+     *
+     * @return O número de exportações em andamento.
+     */
+    public int getEmAndamento() {
+        return this.capacidade - this.admissoes.availablePermits();
+    }
+
+    public int getCapacidade() {
+        return this.capacidade;
+    }
+
+    /**
+     * Encerra o exportador assíncrono. As exportações já admitidas são concluídas, mas novas submissões são recusadas.
+     */
+    public void encerrar() {
+        this.executor.shutdown();
+    }
+
+    /**
+     * Aguarda a conclusão das exportações admitidas após o encerramento.
+     *
+     * @param tempo
+     *            Tempo máximo de espera
+     * @param unidade
+     *            Unidade do tempo de espera
+     * @return <b>True</b> caso todas as exportações tenham sido concluídas e <b>false</b> caso o tempo tenha se esgotado.
+     * @throws InterruptedException
+     *             Caso a thread seja interrompida durante a espera.
+     */
+    public boolean aguardarEncerramento(final long tempo, final TimeUnit unidade) throws InterruptedException {
+        return this.executor.awaitTermination(tempo, unidade);
+    }
+}
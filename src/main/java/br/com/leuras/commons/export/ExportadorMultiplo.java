@@ -0,0 +1,216 @@
+package br.com.leuras.commons.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import br.com.leuras.commons.exception.ExportacaoException;
+
+/**
+ * Exportador que produz vários formatos em uma única passagem pelos registros. Os valores das colunas de cada registro
+ * são obtidos uma única vez, por meio do {@link PlanoColunas} compartilhado pelos formatos, e entregues a todos eles,
+ * de modo que o custo de leitura dos registros não se multiplica pelo número de formatos.
+ *
+ * <pre>
+ * <code>
+ * final ExportadorMultiplo{@literal <Funcionario>} exportador = new ExportadorMultiplo{@literal <>}(
+ *         new FormatoExportavelXlsx{@literal <>}(Funcionario.class), new FormatoExportavelCsv{@literal <>}(Funcionario.class));
+ *
+ * try (final OutputStream xlsx = ...; final OutputStream csv = ...) {
+ *     exportador.exportar(Arrays.asList(xlsx, csv), registros.iterator());
+ * }
+ * </code>
+ * </pre>
+ *
+ * Assim como o {@link Exportador}, pode ser mantido e reutilizado, inclusive por várias threads ao mesmo tempo.
+ *
+ * @param <T>
+ *            Tipo dos registros exportados
+ */
+public class ExportadorMultiplo<T> {
+
+    protected static final String ME001 = "Informe ao menos um formato de exportação.";
+
+    protected static final String ME002 = "Os formatos devem utilizar o mesmo plano de colunas.";
+
+    protected static final String ME003 = "O número de destinos (%d) difere do número de formatos (%d).";
+
+    private final List<FormatoExportavelValores<T>> formatos;
+
+    private final PlanoColunas<T> plano;
+
+    /**
+     * Constrói uma nova instância de ExportadorMultiplo com os formatos especificados.
+     *
+     * @param formatos
+     *            Formatos de exportação. Todos devem utilizar o mesmo plano de colunas
+     * @throws IllegalArgumentException
+     *             Caso nenhum formato seja informado ou os formatos utilizem planos de colunas diferentes.
+     */
+    @SafeVarargs
+    public ExportadorMultiplo(final FormatoExportavelValores<T>... formatos) throws IllegalArgumentException {
+
+        if (formatos.length == 0) {
+            throw new IllegalArgumentException(ME001);
+        }
+
+        this.plano = formatos[0].getPlano();
+
+        for (final FormatoExportavelValores<T> formato : formatos) {
+            if (formato.getPlano() != this.plano) {
+                throw new IllegalArgumentException(ME002);
+            }
+        }
+
+        this.formatos = Collections.unmodifiableList(Arrays.asList(formatos.clone()));
+    }
+
+    /**
+     * Exporta uma coleção de dados em todos os formatos.
+     *
+     * @param registros
+     *            Coleção de dados a serem exportados
+     * @return O conteúdo exportado em cada formato, na ordem em que os formatos foram informados.
+     * @throws ExportacaoException
+     *             Caso ocorra algum erro durante a exportação.
+     */
+    public List<byte[]> exportar(final List<T> registros) throws ExportacaoException {
+        return this.exportar(registros, new HashMap<String, Object>());
+    }
+
+    /**
+     * Exporta uma coleção de dados em todos os formatos.
+     *
+     * @param registros
+     *            Coleção de dados a serem exportados
+     * @param parametros
+     *            Parâmetros extras que serão passados para os formatos (cabeçalho e rodapé)
+     * @return O conteúdo exportado em cada formato, na ordem em que os formatos foram informados.
+     * @throws ExportacaoException
+     *             Caso ocorra algum erro durante a exportação.
+     */
+    public List<byte[]> exportar(final List<T> registros, final Map<String, Object> parametros)
+            throws ExportacaoException {
+
+        try {
+
+            this.escrever(registros.iterator(), parametros);
+
+            final List<byte[]> documentos = new ArrayList<>(this.formatos.size());
+
+            for (final FormatoExportavel<T> formato : this.formatos) {
+                documentos.add(formato.getBytes());
+            }
+
+            return documentos;
+
+        } finally {
+            this.reiniciar();
+        }
+    }
+
+    /**
+     * Exporta os registros em todos os formatos diretamente para os fluxos de saída. Os destinos não são fechados ao
+     * final da exportação.
+     *
+     * @param destinos
+     *            Fluxos de saída, na ordem em que os formatos foram informados
+     * @param registros
+     *            Iterador sobre os dados a serem exportados
+     * @throws ExportacaoException
+     *             Caso ocorra algum erro durante a exportação.
+     */
+    public void exportar(final List<? extends OutputStream> destinos, final Iterator<T> registros)
+            throws ExportacaoException {
+        this.exportar(destinos, registros, new HashMap<String, Object>());
+    }
+
+    /**
+     * Exporta os registros em todos os formatos diretamente para os fluxos de saída. Os destinos não são fechados ao
+     * final da exportação.
+     *
+     * @param destinos
+     *            Fluxos de saída, na ordem em que os formatos foram informados
+     * @param registros
+     *            Iterador sobre os dados a serem exportados
+     * @param parametros
+     *            Parâmetros extras que serão passados para os formatos (cabeçalho e rodapé)
+     * @throws ExportacaoException
+     *             Caso ocorra algum erro durante a exportação.
+     */
+    public void exportar(final List<? extends OutputStream> destinos, final Iterator<T> registros,
+            final Map<String, Object> parametros) throws ExportacaoException {
+
+        if (destinos.size() != this.formatos.size()) {
+            throw new IllegalArgumentException(String.format(ME003, destinos.size(), this.formatos.size()));
+        }
+
+        try {
+
+            for (int posicao = 0; posicao < this.formatos.size(); posicao++) {
+                this.formatos.get(posicao).iniciar(destinos.get(posicao));
+            }
+
+            this.escrever(registros, parametros);
+
+            for (int posicao = 0; posicao < this.formatos.size(); posicao++) {
+                this.formatos.get(posicao).concluir();
+                destinos.get(posicao).flush();
+            }
+
+        } catch (IOException e) {
+            throw new ExportacaoException(e.getMessage(), e);
+        } finally {
+            this.reiniciar();
+        }
+    }
+
+    /**
+     * Formatos de exportação, na ordem em que foram informados.
+     *
+     * @return Lista imutável de formatos.
+     */
+    public List<FormatoExportavelValores<T>> getFormatos() {
+        return this.formatos;
+    }
+
+    /**
+     * Escreve o cabeçalho, os detalhes e o rodapé em todos os formatos, lendo os valores de cada registro uma única vez.
+     */
+    private void escrever(final Iterator<T> registros, final Map<String, Object> parametros)
+            throws ExportacaoException {
+
+        for (final FormatoExportavelValores<T> formato : this.formatos) {
+            formato.cabecalho(parametros);
+            formato.iniciarDetalhes();
+        }
+
+        final Object[] valores = new Object[this.plano.getTotalColunas()];
+
+        while (registros.hasNext()) {
+
+            this.plano.valores(registros.next(), valores);
+
+            for (final FormatoExportavelValores<T> formato : this.formatos) {
+                formato.linha(valores);
+            }
+        }
+
+        for (final FormatoExportavelValores<T> formato : this.formatos) {
+            formato.rodape(parametros);
+        }
+    }
+
+    private void reiniciar() {
+
+        for (final FormatoExportavelValores<T> formato : this.formatos) {
+            formato.reiniciar();
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package br.com.leuras.commons.export;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.ResultSet;
+import java.util.HashMap;
+import java.util.Map;
+
+import br.com.leuras.commons.exception.ExportacaoException;
+import br.com.leuras.commons.util.ArquivoUtils;
+
+/**
+ * Exportador das linhas de um {@link ResultSet}. Os valores são lidos diretamente do cursor, coluna a coluna, sem a
+ * criação de um objeto por linha, e o documento é escrito à medida que o cursor avança. As colunas são definidas por um
+ * {@link PlanoColunas} obtido dos metadados da consulta.
+ *
+ * <pre>
+ * <code>
+ * try (final ResultSet resultado = consulta.executeQuery()) {
+ *
+ *     final PlanoColunas{@literal <ResultSet>} plano = PlanoColunas.de(resultado.getMetaData(), "Funcionários",
+ *             new DescritorColuna("nome", "Nome"),
+ *             new DescritorColuna("salario", "Salário", FormatoAtributoEnum.MOEDA));
+ *
+ *     final ExportadorResultSet exportador = new ExportadorResultSet(new FormatoExportavelXlsx{@literal <>}(plano));
+ *     exportador.exportar(resposta.getOutputStream(), resultado);
+ * }
+ * </code>
+ * </pre>
+ *
+ * O cursor não é fechado ao final da exportação. Como todas as linhas compartilham o mesmo objeto, a conversão
+ * paralela não é suportada.
+ */
+public class ExportadorResultSet extends Exportador<ResultSet> {
+
+    protected static final String ME008 = "A exportação de um ResultSet não suporta paralelismo.";
+
+    /**
+     * Constrói uma nova instância de ExportadorResultSet utilizando o formato especificado.
+     *
+     * @param formato
+     *            Formato de exportação construído a partir de um {@link PlanoColunas} de consulta
+     * @throws IllegalArgumentException
+     *             Caso o método <i>getType()</i> do formato retorne nulo.
+     */
+    public ExportadorResultSet(final FormatoExportavel<ResultSet> formato) throws IllegalArgumentException {
+        super(formato, false);
+    }
+
+    /**
+     * Exporta as linhas do resultado de uma consulta.
+     *
+     * @param resultado
+     *            Resultado da consulta
+     * @return Conteúdo exportado em forma de um array de bytes.
+     * @throws ExportacaoException
+     *             Caso ocorra algum erro durante a exportação ou na leitura do resultado.
+     */
+    public byte[] exportar(final ResultSet resultado) throws ExportacaoException {
+
+        final ByteArrayOutputStream destino = new ByteArrayOutputStream();
+
+        this.exportar(destino, resultado, new HashMap<String, Object>());
+
+        return destino.toByteArray();
+    }
+
+    /**
+     * Exporta as linhas do resultado de uma consulta diretamente para um fluxo de saída. O destino não é fechado ao final
+     * da exportação.
+     *
+     * @param destino
+     *            Fluxo de saída que receberá o documento
+     * @param resultado
+     *            Resultado da consulta
+     * @throws ExportacaoException
+     *             Caso ocorra algum erro durante a exportação ou na leitura do resultado.
+     */
+    public void exportar(final OutputStream destino, final ResultSet resultado) throws ExportacaoException {
+        this.exportar(destino, resultado, new HashMap<String, Object>());
+    }
+
+    /**
+     * Exporta as linhas do resultado de uma consulta diretamente para um fluxo de saída. O destino não é fechado ao final
+     * da exportação.
+     *
+     * @param destino
+     *            Fluxo de saída que receberá o documento
+     * @param resultado
+     *            Resultado da consulta
+     * @param parametros
+     *            Parâmetros extras que serão passados para o exportador (cabeçalho e rodapé)
+     * @throws ExportacaoException
+     *             Caso ocorra algum erro durante a exportação ou na leitura do resultado.
+     */
+    public void exportar(final OutputStream destino, final ResultSet resultado, final Map<String, Object> parametros)
+            throws ExportacaoException {
+
+        try {
+            this.exportar(destino, new LinhasResultSet(resultado), parametros);
+        } catch (LeituraException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Exporta as linhas do resultado de uma consulta para um arquivo.
+     *
+     * @param arquivo
+     *            Arquivo
+     * @param resultado
+     *            Resultado da consulta
+     * @throws FileNotFoundException
+     *             Caso o caminho informado não exista.
+     * @throws SecurityException
+     *             Caso haja alguma restrição de acesso ao arquivo que impeça a sua manipulação.
+     * @throws IOException
+     *             Caso algum erro de entrada e saída ocorra durante a operação.
+     * @throws ExportacaoException
+     *             Caso ocorra algum erro durante a exportação ou na leitura do resultado.
+     */
+    public void exportar(final String arquivo, final ResultSet resultado)
+            throws FileNotFoundException, SecurityException, IOException, ExportacaoException {
+
+        try (final OutputStream destino = new BufferedOutputStream(ArquivoUtils.abrirParaEscrita(arquivo))) {
+            this.exportar(destino, resultado, new HashMap<String, Object>());
+        }
+    }
+
+    /**
+     * A exportação de um {@link ResultSet} é sempre sequencial.
+     *
+     * @param paralelismo
+     *            Número de threads. Deve ser igual a um
+     * @throws IllegalArgumentException
+     *             Caso o paralelismo informado seja diferente de um.
+     */
+    @Override
+    public void setParalelismo(final int paralelismo) throws IllegalArgumentException {
+
+        if (paralelismo > 1) {
+            throw new IllegalArgumentException(ME008);
+        }
+
+        super.setParalelismo(paralelismo);
+    }
+}
@@ -5,9 +5,27 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
+import org.apache.commons.lang3.StringUtils;
+
 @Retention(RetentionPolicy.RUNTIME)
 @Target(ElementType.TYPE)
 public @interface Exportavel {
     
     public String titulo();
+    
+    /**
+     * Nome do atributo pelo qual os registros são ordenados na exportação. Por padrão, os registros são exportados na
+     * ordem em que são fornecidos.
+     * 
+     * @return O nome do atributo de ordenação.
+     * @see Exportador#setOrdenacao(String, boolean) Exportador.setOrdenacao
+     */
+    public String ordenarPor() default StringUtils.EMPTY;
+    
+    /**
+     * Indica se a ordenação definida em {@link #ordenarPor()} é decrescente.
+     * 
+     * @return <b>True</b> para a ordem decrescente e <b>false</b> para a crescente.
+     */
+    public boolean decrescente() default false;
 }
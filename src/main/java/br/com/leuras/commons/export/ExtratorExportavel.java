@@ -0,0 +1,101 @@
+package br.com.leuras.commons.export;
+
+/**
+ * Extrator de valores de uma classe exportável gerado em tempo de compilação pelo processador de anotações
+ * <i>leuras-commons-processor</i>. O extrator reúne as colunas já resolvidas e ordenadas e lê os valores dos registros
+ * por meio de chamadas diretas aos métodos de acesso, dispensando a reflexão.
+ * <p>
+ * Para a classe <i>br.com.exemplo.Funcionario</i> o extrator gerado é <i>br.com.exemplo.Funcionario_Exportavel</i>
+ * (classes aninhadas têm o <b>$</b> do nome binário substituído por <b>_</b>). Quando presente, o extrator é utilizado
+ * automaticamente por {@link PlanoColunas}; caso contrário, as colunas são resolvidas por reflexão.
+ * </p>
+ *
+ * @param <T>
+ *            Tipo dos registros
+ * @see PlanoColunas PlanoColunas
+ */
+public interface ExtratorExportavel<T> {
+
+    /**
+     * Sufixo acrescentado ao nome da classe exportável para formar o nome do extrator gerado.
+     */
+    String SUFIXO = "_Exportavel";
+
+    /**
+     * Classe exportável.
+     *
+     * @return A classe exportável.
+     */
+    Class<T> getTipo();
+
+    /**
+     * Título definido em {@link Exportavel}.
+     *
+     * @return O título.
+     */
+    String getTitulo();
+
+    /**
+     * Nomes dos atributos (propriedades) de origem das colunas, na ordem em que devem ser escritas.
+     *
+     * @return Os nomes dos atributos.
+     */
+    String[] getAtributos();
+
+    /**
+     * Títulos das colunas, na ordem em que devem ser escritas.
+     *
+     * @return Os títulos das colunas.
+     */
+    String[] getColunas();
+
+    /**
+     * Formatos das colunas, na ordem em que devem ser escritas.
+     *
+     * @return Os formatos das colunas.
+     */
+    FormatoAtributoEnum[] getFormatos();
+
+    /**
+     * Ordens declaradas das colunas, na ordem em que devem ser escritas.
+     *
+     * @return As ordens das colunas.
+     */
+    int[] getOrdens();
+
+    /**
+     * Agregações das colunas, na ordem em que devem ser escritas.
+     *
+     * @return As agregações das colunas.
+     */
+    AgregacaoEnum[] getAgregacoes();
+
+    /**
+     * Tipos declarados dos atributos de origem das colunas, na ordem em que devem ser escritas.
+     *
+     * @return Os tipos das colunas.
+     */
+    Class<?>[] getTipos();
+
+    /**
+     * Obtém o valor de uma coluna do registro. Valores do tipo {@link java.util.Calendar Calendar} são convertidos para
+     * {@link java.util.Date Date}.
+     *
+     * @param registro
+     *            Registro
+     * @param coluna
+     *            Posição da coluna
+     * @return O valor da coluna.
+     */
+    Object valor(T registro, int coluna);
+
+    /**
+     * Preenche o array informado com os valores de todas as colunas do registro.
+     *
+     * @param registro
+     *            Registro
+     * @param valores
+     *            Array que receberá os valores. Deve possuir ao menos o mesmo tamanho que o número de colunas
+     */
+    void valores(T registro, Object[] valores);
+}
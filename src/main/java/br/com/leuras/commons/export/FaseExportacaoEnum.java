@@ -0,0 +1,29 @@
+package br.com.leuras.commons.export;
+
+/**
+ * Fases de uma exportação, na ordem em que são executadas pelo {@link Exportador}.
+ *
+ * @see MonitorExportacao MonitorExportacao
+ */
+public enum FaseExportacaoEnum {
+
+    /**
+     * Escrita do cabeçalho do documento.
+     */
+    CABECALHO,
+
+    /**
+     * Leitura dos registros e escrita do corpo (detalhe) do documento.
+     */
+    DETALHES,
+
+    /**
+     * Escrita do rodapé do documento.
+     */
+    RODAPE,
+
+    /**
+     * Conclusão do documento: ajustes finais (como a largura das colunas de uma planilha) e serialização do conteúdo.
+     */
+    ESCRITA
+}
@@ -0,0 +1,42 @@
+package br.com.leuras.commons.export;
+
+import java.util.List;
+
+import br.com.leuras.commons.exception.ExportacaoException;
+
+/**
+ * Origem paginada dos registros de uma exportação, como uma consulta paginada a um repositório. O {@link Exportador}
+ * solicita a página seguinte em segundo plano enquanto a página corrente é escrita e descarta cada página após a sua
+ * escrita, de modo que no máximo duas páginas permanecem em memória.
+ *
+ * <pre>
+ * <code>
+ * exportador.exportar(destino, new FonteDados{@literal <Funcionario>}() {
+ *
+ *     private int pagina;
+ *
+ *     {@literal @}Override
+ *     public List{@literal <Funcionario>} proximaPagina() {
+ *         return repositorio.listar(this.pagina++, 1000);
+ *     }
+ * });
+ * </code>
+ * </pre>
+ *
+ * As páginas são solicitadas sempre pela mesma thread, uma de cada vez e na ordem em que devem ser exportadas.
+ *
+ * @param <T>
+ *            Tipo dos registros exportados
+ * @see Exportador#exportar(java.io.OutputStream, FonteDados) Exportador.exportar
+ */
+public interface FonteDados<T> {
+
+    /**
+     * Obtém a próxima página de registros.
+     *
+     * @return A próxima página ou uma lista vazia (ou <b>null</b>) quando não houver mais registros.
+     * @throws ExportacaoException
+     *             Caso não seja possível obter a página.
+     */
+    List<T> proximaPagina() throws ExportacaoException;
+}
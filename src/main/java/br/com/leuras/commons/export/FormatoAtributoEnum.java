@@ -1,5 +1,36 @@
 package br.com.leuras.commons.export;
 
+import java.text.SimpleDateFormat;
+
+import br.com.leuras.commons.util.DataUtils;
+
 public enum FormatoAtributoEnum {
-    NENHUM, DATA, HORA, MOEDA, PERCENTUAL, TIMESTAMP
+    NENHUM, DATA, HORA, MOEDA, PERCENTUAL, TIMESTAMP;
+
+    private static final String DATA_HORA_COMPLETA = "dd/MM/yyyy HH:mm:ss";
+
+    /**
+     * Obtém o padrão de formatação das datas de uma coluna de acordo com o formato do atributo, compartilhado por todos
+     * os formatos de exportação e relatórios.
+     *
+     * @param formato
+     *            Formato do atributo
+     * @return O padrão de {@link SimpleDateFormat}.
+     */
+    public static String padraoData(final FormatoAtributoEnum formato) {
+
+        if (DATA.equals(formato)) {
+            return DataUtils.Formato.PADRAO;
+        }
+
+        if (HORA.equals(formato)) {
+            return DataUtils.Formato.PADRAO_COMPLETO;
+        }
+
+        if (TIMESTAMP.equals(formato)) {
+            return DataUtils.Formato.HORARIO;
+        }
+
+        return DATA_HORA_COMPLETA;
+    }
 }
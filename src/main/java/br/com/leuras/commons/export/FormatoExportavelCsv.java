@@ -0,0 +1,741 @@
+package br.com.leuras.commons.export;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import br.com.leuras.commons.enumerator.SimNaoEnum;
+import br.com.leuras.commons.exception.ExportacaoException;
+
+/**
+ * Formato de exportação em texto delimitado (<i>CSV</i>). Os registros são escritos diretamente em um buffer de
+ * caracteres reutilizável e codificados em blocos no destino informado em {@link #iniciar(OutputStream) iniciar}, de modo
+ * que o consumo de memória não cresce com o volume de registros exportados. Caso nenhum destino seja informado, o
+ * conteúdo é mantido em memória e pode ser obtido por meio de {@link #getBytes()}.
+ * <p>
+ * Os buffers e o destino de cada exportação são mantidos em um contexto associado à thread que a executa e descartado
+ * ao final da exportação, quando qualquer fase falha ou quando uma nova exportação é iniciada na mesma thread, de modo
+ * que a mesma instância pode ser reutilizada e compartilhada entre threads. Os separadores são copiados para o contexto
+ * na sua criação. Na exportação paralela, cada thread de trabalho mantém o seu próprio buffer e codificador,
+ * reaproveitados entre os lotes, sem guardar estado da exportação entre eles.
+ * </p>
+ * <p>
+ * Por padrão são utilizadas as convenções brasileiras: <b>;</b> como separador de campos, <b>,</b> como separador
+ * decimal e <i>Sim</i>/<i>Não</i> para valores lógicos. Valores monetários são escritos sem o símbolo da moeda e com
+ * duas casas decimais (<i>1234,56</i>) e percentuais são convertidos como em
+ * {@link br.com.leuras.commons.util.NumeralUtils#paraPorcentagem(Number) NumeralUtils.paraPorcentagem} (<i>55,00%</i>).
+ * </p>
+ *
+ * <pre>
+ * <code>
+ * final Exportador{@literal <Funcionario>} exportador = new Exportador{@literal <Funcionario>}(new FormatoExportavelCsv{@literal <Funcionario>}(Funcionario.class));
+ *
+ * exportador.exportar("/tmp/funcionarios.csv", registros);
+ * </code>
+ * </pre>
+ *
+ * @param <T>
+ *            Tipo dos registros exportados
+ */
+public class FormatoExportavelCsv<T> implements FormatoExportavelParalelo<T, ByteBuffer>, FormatoExportavelValores<T> {
+
+    protected static final String ME001 = "O destino da exportação não foi definido. Utilize o método \"iniciar\" antes de concluir a exportação.";
+
+    protected static final String ME002 = "O conteúdo foi escrito no destino informado no método \"iniciar\" e não está disponível em memória.";
+
+    /**
+     * Separador de campos padrão.
+     */
+    public static final char SEPARADOR_PADRAO = ';';
+
+    /**
+     * Separador decimal padrão.
+     */
+    public static final char DECIMAL_PADRAO = ',';
+
+    private static final String FIM_LINHA = "\r\n";
+
+    private static final char ASPAS = '"';
+
+    private static final int TAMANHO_BUFFER = 8192;
+
+    private final Class<T> type;
+
+    private final PlanoColunas<T> plano;
+
+    private final Charset codificacao;
+
+    private final ThreadLocal<Contexto> contextos = new ThreadLocal<>();
+
+    private final ThreadLocal<Contexto> trabalhos = new ThreadLocal<>();
+
+    private volatile char separador = SEPARADOR_PADRAO;
+
+    private volatile char decimal = DECIMAL_PADRAO;
+
+    /**
+     * Constrói uma nova instância de FormatoExportavelCsv utilizando a codificação <i>UTF-8</i>.
+     *
+     * @param type
+     *            Classe
+     */
+    public FormatoExportavelCsv(final Class<T> type) {
+        this(type, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Constrói uma nova instância de FormatoExportavelCsv.
+     *
+     * @param type
+     *            Classe
+     * @param codificacao
+     *            Codificação de caracteres do conteúdo exportado
+     */
+    public FormatoExportavelCsv(final Class<T> type, final Charset codificacao) {
+        this(PlanoColunas.de(type), codificacao);
+    }
+
+    /**
+     * Constrói uma nova instância de FormatoExportavelCsv a partir de um plano de colunas, como o obtido de um
+     * {@link java.sql.ResultSet ResultSet}, utilizando a codificação <i>UTF-8</i>.
+     *
+     * @param plano
+     *            Plano de colunas
+     * @see PlanoColunas#de(java.sql.ResultSetMetaData, String, DescritorColuna...) PlanoColunas.de
+     */
+    public FormatoExportavelCsv(final PlanoColunas<T> plano) {
+        this(plano, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Constrói uma nova instância de FormatoExportavelCsv a partir de um plano de colunas.
+     *
+     * @param plano
+     *            Plano de colunas
+     * @param codificacao
+     *            Codificação de caracteres do conteúdo exportado
+     */
+    public FormatoExportavelCsv(final PlanoColunas<T> plano, final Charset codificacao) {
+        this.type = plano.getTipo();
+        this.plano = plano;
+        this.codificacao = codificacao;
+    }
+
+    /**
+     * Inicia uma nova exportação na thread corrente, descartando o contexto de uma exportação anterior que não tenha sido
+     * concluída.
+     */
+    @Override
+    public void iniciar(final OutputStream destino) {
+
+        this.reiniciar();
+        this.contexto().destino = destino;
+    }
+
+    @Override
+    public void cabecalho(final Map<String, Object> parametros) throws ExportacaoException {
+
+    }
+
+    @Override
+    public void detalhes(final List<T> registros) throws ExportacaoException {
+        this.detalhes(registros.iterator());
+    }
+
+    @Override
+    public void detalhes(final Iterator<T> registros) throws ExportacaoException {
+
+        this.iniciarDetalhes();
+
+        final Contexto contexto = this.contexto();
+
+        try {
+
+            while (registros.hasNext()) {
+                this.linha(contexto, registros.next());
+            }
+
+        } catch (IOException e) {
+            this.reiniciar();
+            throw new ExportacaoException(e.getMessage(), e);
+        } catch (ExportacaoException | RuntimeException e) {
+            this.reiniciar();
+            throw e;
+        }
+    }
+
+    @Override
+    public void iniciarDetalhes() throws ExportacaoException {
+
+        final Contexto contexto = this.contexto();
+        final List<ColunaExportavel> colunas = this.plano.getColunas();
+
+        try {
+
+            for (int coluna = 0; coluna < colunas.size(); coluna++) {
+
+                if (coluna > 0) {
+                    contexto.escrever(contexto.separador);
+                }
+
+                this.escreverTexto(contexto, colunas.get(coluna).getTitulo());
+            }
+
+            contexto.escrever(FIM_LINHA);
+
+        } catch (IOException e) {
+            this.reiniciar();
+            throw new ExportacaoException(e.getMessage(), e);
+        } catch (RuntimeException e) {
+            this.reiniciar();
+            throw e;
+        }
+    }
+
+    /**
+     * Escreve e codifica as linhas do lote utilizando o buffer e o codificador da thread de trabalho corrente. A
+     * conversão não altera o estado da exportação e pode ser executada concorrentemente.
+     */
+    @Override
+    public ByteBuffer preparar(final List<T> lote) throws ExportacaoException {
+
+        final Contexto contexto = this.trabalho();
+        final Memoria memoria = new Memoria(lote.size() * this.plano.getTotalColunas() * 16);
+
+        contexto.memoria = memoria;
+
+        try {
+
+            for (final T registro : lote) {
+                this.linha(contexto, registro);
+            }
+
+            contexto.codificar(true);
+
+            return memoria.comoBuffer();
+
+        } catch (IOException e) {
+            throw new ExportacaoException(e.getMessage(), e);
+        } finally {
+            contexto.descartar();
+        }
+    }
+
+    @Override
+    public void acrescentar(final ByteBuffer lote) throws ExportacaoException {
+
+        try {
+
+            final Contexto contexto = this.contexto();
+            final OutputStream saida = contexto.getSaida();
+
+            contexto.codificar(false);
+            saida.write(lote.array(), lote.arrayOffset() + lote.position(), lote.remaining());
+
+        } catch (IOException e) {
+            this.reiniciar();
+            throw new ExportacaoException(e.getMessage(), e);
+        } catch (RuntimeException e) {
+            this.reiniciar();
+            throw e;
+        }
+    }
+
+    @Override
+    public void rodape(final Map<String, Object> parametros) throws ExportacaoException {
+
+    }
+
+    @Override
+    public byte[] getBytes() throws ExportacaoException {
+
+        final Contexto contexto = this.contexto();
+
+        if (contexto.destino != null) {
+            this.reiniciar();
+            throw new ExportacaoException(ME002);
+        }
+
+        try {
+
+            this.descarregar(true);
+
+            return contexto.memoria.toByteArray();
+
+        } finally {
+            this.reiniciar();
+        }
+    }
+
+    @Override
+    public void concluir() throws ExportacaoException {
+
+        final Contexto contexto = this.contextos.get();
+
+        if (contexto == null || contexto.destino == null) {
+            this.reiniciar();
+            throw new ExportacaoException(ME001);
+        }
+
+        try {
+            this.descarregar(true);
+        } finally {
+            this.reiniciar();
+        }
+    }
+
+    /**
+     * Descarta os buffers da exportação em andamento na thread corrente. Não é necessário chamar este método após a
+     * conclusão da exportação ou a falha de uma de suas fases, que já descartam o contexto.
+     */
+    @Override
+    public void reiniciar() {
+        this.contextos.remove();
+    }
+
+    @Override
+    public Class<T> getType() {
+        return this.type;
+    }
+
+    @Override
+    public PlanoColunas<T> getPlano() {
+        return this.plano;
+    }
+
+    public char getSeparador() {
+        return this.separador;
+    }
+
+    /**
+     * Define o separador de campos. Caso seja igual ao separador decimal, os valores numéricos com casas decimais são
+     * delimitados por aspas.
+     *
+     * @param separador
+     *            Separador de campos
+     */
+    public void setSeparador(final char separador) {
+        this.separador = separador;
+    }
+
+    public char getDecimal() {
+        return this.decimal;
+    }
+
+    /**
+     * Define o separador decimal dos valores numéricos.
+     *
+     * @param decimal
+     *            Separador decimal
+     */
+    public void setDecimal(final char decimal) {
+        this.decimal = decimal;
+    }
+
+    /**
+     * Escreve uma linha com os valores das colunas do registro informado, incluindo o terminador de linha.
+     */
+    private void linha(final Contexto contexto, final T registro) throws ExportacaoException, IOException {
+
+        final List<ColunaExportavel> colunas = this.plano.getColunas();
+
+        for (int coluna = 0; coluna < colunas.size(); coluna++) {
+
+            if (coluna > 0) {
+                contexto.escrever(contexto.separador);
+            }
+
+            final ColunaExportavel atributo = colunas.get(coluna);
+
+            this.escreverValor(contexto, coluna, atributo, atributo.valor(registro));
+        }
+
+        contexto.escrever(FIM_LINHA);
+    }
+
+    /**
+     * Escreve uma linha a partir dos valores das colunas já obtidos do registro.
+     *
+     * @param valores
+     *            Valores das colunas, na ordem do plano de colunas
+     * @throws ExportacaoException
+     *             Caso algum erro ocorra durante a escrita.
+     */
+    @Override
+    public void linha(final Object[] valores) throws ExportacaoException {
+
+        final Contexto contexto = this.contexto();
+        final List<ColunaExportavel> colunas = this.plano.getColunas();
+
+        try {
+
+            for (int coluna = 0; coluna < colunas.size(); coluna++) {
+
+                if (coluna > 0) {
+                    contexto.escrever(contexto.separador);
+                }
+
+                this.escreverValor(contexto, coluna, colunas.get(coluna), valores[coluna]);
+            }
+
+            contexto.escrever(FIM_LINHA);
+
+        } catch (IOException e) {
+            this.reiniciar();
+            throw new ExportacaoException(e.getMessage(), e);
+        } catch (RuntimeException e) {
+            this.reiniciar();
+            throw e;
+        }
+    }
+
+    /**
+     * Escreve o valor de uma coluna de acordo com o seu tipo e formato.
+     */
+    private void escreverValor(final Contexto saida, final int coluna, final ColunaExportavel atributo,
+            final Object valor) throws IOException {
+
+        if (valor instanceof Boolean) {
+            saida.escrever(((Boolean) valor) ? SimNaoEnum.SIM.getLabel() : SimNaoEnum.NAO.getLabel());
+        } else if (valor instanceof Date) {
+
+            final SimpleDateFormat[] formatadores = saida.formatadores;
+
+            if (formatadores[coluna] == null) {
+                formatadores[coluna] = new SimpleDateFormat(FormatoAtributoEnum.padraoData(atributo.getFormato()));
+            }
+
+            saida.escrever(formatadores[coluna].format((Date) valor));
+        } else if (valor instanceof Number) {
+            this.escreverNumero(saida, atributo.getFormato(), (Number) valor);
+        } else if (valor != null) {
+            this.escreverTexto(saida, valor.toString());
+        }
+    }
+
+    /**
+     * Escreve um valor numérico no formato especificado. Valores monetários são escritos com duas casas decimais e
+     * percentuais são multiplicados por cem e acrescidos do símbolo <b>%</b>. Os valores não finitos (<i>NaN</i> e
+     * infinitos) são escritos como texto.
+     */
+    private void escreverNumero(final Contexto saida, final FormatoAtributoEnum formato, final Number valor)
+            throws IOException {
+
+        if (! FormatoExportavelCsv.finito(valor)) {
+            this.escreverTexto(saida, valor.toString());
+        } else if (FormatoAtributoEnum.MOEDA.equals(formato)) {
+            this.escreverDecimal(saida, FormatoExportavelCsv.comoDecimal(valor).setScale(2, RoundingMode.HALF_EVEN).toPlainString());
+        } else if (FormatoAtributoEnum.PERCENTUAL.equals(formato)) {
+            this.escreverDecimal(saida, FormatoExportavelCsv.comoDecimal(valor).movePointRight(2).setScale(2, RoundingMode.HALF_EVEN).toPlainString() + '%');
+        } else if (valor instanceof Long || valor instanceof Integer || valor instanceof Short || valor instanceof Byte) {
+            saida.escrever(Long.toString(valor.longValue()));
+        } else if (valor instanceof BigInteger) {
+            saida.escrever(valor.toString());
+        } else if (valor instanceof BigDecimal) {
+            this.escreverDecimal(saida, ((BigDecimal) valor).toPlainString());
+        } else {
+            this.escreverDecimal(saida, FormatoExportavelCsv.comoDecimal(valor).stripTrailingZeros().toPlainString());
+        }
+    }
+
+    /**
+     * Escreve um texto, delimitando-o por aspas caso contenha o separador de campos, aspas ou quebras de linha. As aspas
+     * internas são duplicadas.
+     */
+    private void escreverTexto(final Contexto saida, final String texto) throws IOException {
+
+        boolean delimitar = false;
+
+        for (int posicao = 0; posicao < texto.length() && ! delimitar; posicao++) {
+            final char caractere = texto.charAt(posicao);
+
+            delimitar = caractere == saida.separador || caractere == ASPAS || caractere == '\n' || caractere == '\r';
+        }
+
+        if (! delimitar) {
+            saida.escrever(texto);
+            return;
+        }
+
+        saida.escrever(ASPAS);
+
+        for (int posicao = 0; posicao < texto.length(); posicao++) {
+            final char caractere = texto.charAt(posicao);
+
+            if (caractere == ASPAS) {
+                saida.escrever(ASPAS);
+            }
+
+            saida.escrever(caractere);
+        }
+
+        saida.escrever(ASPAS);
+    }
+
+    /**
+     * Escreve um número com o separador decimal configurado, delimitando-o por aspas caso o separador decimal seja igual
+     * ao separador de campos.
+     */
+    private void escreverDecimal(final Contexto saida, final String numero) throws IOException {
+
+        final boolean delimitar = saida.decimal == saida.separador && numero.indexOf('.') >= 0;
+
+        if (delimitar) {
+            saida.escrever(ASPAS);
+        }
+
+        for (int posicao = 0; posicao < numero.length(); posicao++) {
+            final char caractere = numero.charAt(posicao);
+
+            saida.escrever(caractere == '.' ? saida.decimal : caractere);
+        }
+
+        if (delimitar) {
+            saida.escrever(ASPAS);
+        }
+    }
+
+    private void descarregar(final boolean fim) throws ExportacaoException {
+
+        try {
+
+            final Contexto contexto = this.contexto();
+
+            contexto.codificar(fim);
+            contexto.getSaida().flush();
+
+        } catch (IOException e) {
+            throw new ExportacaoException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Obtém o contexto da exportação em andamento na thread corrente, criando-o caso nenhuma exportação esteja em
+     * andamento.
+     */
+    private Contexto contexto() {
+
+        Contexto contexto = this.contextos.get();
+
+        if (contexto == null) {
+            contexto = new Contexto(this.codificador(), this.plano.getTotalColunas());
+            contexto.configurar(this.separador, this.decimal);
+            this.contextos.set(contexto);
+        }
+
+        return contexto;
+    }
+
+    /**
+     * Obtém o contexto de trabalho da thread corrente, utilizado na preparação concorrente dos lotes. Diferentemente do
+     * contexto da exportação, é mantido entre os lotes e as exportações, preservando o buffer e o codificador. Os
+     * separadores são copiados a cada lote.
+     */
+    private Contexto trabalho() {
+
+        Contexto contexto = this.trabalhos.get();
+
+        if (contexto == null) {
+            contexto = new Contexto(this.codificador(), this.plano.getTotalColunas());
+            this.trabalhos.set(contexto);
+        }
+
+        contexto.configurar(this.separador, this.decimal);
+
+        return contexto;
+    }
+
+    private CharsetEncoder codificador() {
+        return this.codificacao.newEncoder().onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+
+    /**
+     * Indica se o valor pode ser convertido para {@link BigDecimal}, isto é, não é <i>NaN</i> nem infinito.
+     */
+    private static boolean finito(final Number valor) {
+
+        if (valor instanceof BigDecimal || valor instanceof BigInteger || valor instanceof Long
+                || valor instanceof Integer || valor instanceof Short || valor instanceof Byte) {
+            return true;
+        }
+
+        final double numero = valor.doubleValue();
+
+        return ! Double.isNaN(numero) && ! Double.isInfinite(numero);
+    }
+
+    private static BigDecimal comoDecimal(final Number valor) {
+
+        if (valor instanceof BigDecimal) {
+            return (BigDecimal) valor;
+        }
+
+        if (valor instanceof BigInteger) {
+            return new BigDecimal((BigInteger) valor);
+        }
+
+        if (valor instanceof Long || valor instanceof Integer || valor instanceof Short || valor instanceof Byte) {
+            return BigDecimal.valueOf(valor.longValue());
+        }
+
+        if (valor instanceof Float) {
+            return new BigDecimal(valor.toString());
+        }
+
+        return BigDecimal.valueOf(valor.doubleValue());
+    }
+
+    /**
+     * Buffers, separadores e destino de uma exportação. Os caracteres são acumulados diretamente no buffer e codificados
+     * na saída sempre que ele é preenchido.
+     */
+    private static final class Contexto {
+
+        private final CharsetEncoder codificador;
+
+        private final CharBuffer caracteres = CharBuffer.allocate(TAMANHO_BUFFER);
+
+        private final ByteBuffer bytes;
+
+        private final SimpleDateFormat[] formatadores;
+
+        private char separador;
+
+        private char decimal;
+
+        private OutputStream destino;
+
+        private ByteArrayOutputStream memoria;
+
+        Contexto(final CharsetEncoder codificador, final int colunas) {
+            this.codificador = codificador;
+            this.formatadores = new SimpleDateFormat[colunas];
+            this.bytes = ByteBuffer.allocate((int) Math.ceil(TAMANHO_BUFFER * codificador.maxBytesPerChar()));
+        }
+
+        void configurar(final char separador, final char decimal) {
+            this.separador = separador;
+            this.decimal = decimal;
+        }
+
+        OutputStream getSaida() {
+
+            if (this.destino != null) {
+                return this.destino;
+            }
+
+            if (this.memoria == null) {
+                this.memoria = new ByteArrayOutputStream();
+            }
+
+            return this.memoria;
+        }
+
+        void escrever(final char caractere) throws IOException {
+
+            if (! this.caracteres.hasRemaining()) {
+                this.codificar(false);
+            }
+
+            this.caracteres.put(caractere);
+        }
+
+        void escrever(final String texto) throws IOException {
+
+            int posicao = 0;
+
+            while (posicao < texto.length()) {
+
+                if (! this.caracteres.hasRemaining()) {
+                    this.codificar(false);
+                }
+
+                final int fim = Math.min(texto.length(), posicao + this.caracteres.remaining());
+
+                this.caracteres.put(texto, posicao, fim);
+                posicao = fim;
+            }
+        }
+
+        /**
+         * Codifica os caracteres acumulados no buffer e os escreve na saída.
+         *
+         * @param fim
+         *            Indica se não há mais caracteres a serem escritos
+         * @throws IOException
+         *             Caso algum erro de entrada e saída ocorra durante a escrita.
+         */
+        void codificar(final boolean fim) throws IOException {
+
+            final OutputStream saida = this.getSaida();
+
+            this.caracteres.flip();
+
+            CoderResult resultado;
+
+            do {
+                resultado = this.codificador.encode(this.caracteres, this.bytes, fim);
+                this.esvaziar(saida);
+            } while (resultado.isOverflow());
+
+            if (fim) {
+
+                do {
+                    resultado = this.codificador.flush(this.bytes);
+                    this.esvaziar(saida);
+                } while (resultado.isOverflow());
+
+                this.codificador.reset();
+            }
+
+            this.caracteres.compact();
+        }
+
+        /**
+         * Descarta os caracteres pendentes e a saída em memória, preservando o buffer e o codificador para reuso.
+         */
+        void descartar() {
+            this.caracteres.clear();
+            this.bytes.clear();
+            this.codificador.reset();
+            this.memoria = null;
+        }
+
+        private void esvaziar(final OutputStream saida) throws IOException {
+
+            this.bytes.flip();
+            saida.write(this.bytes.array(), this.bytes.arrayOffset() + this.bytes.position(), this.bytes.remaining());
+            this.bytes.clear();
+        }
+    }
+
+    /**
+     * Saída em memória que expõe o conteúdo escrito sem copiá-lo.
+     */
+    private static final class Memoria extends ByteArrayOutputStream {
+
+        Memoria(final int tamanho) {
+            super(Math.max(32, tamanho));
+        }
+
+        ByteBuffer comoBuffer() {
+            return ByteBuffer.wrap(this.buf, 0, this.count);
+        }
+    }
+}
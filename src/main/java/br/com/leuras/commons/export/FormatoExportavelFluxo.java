@@ -0,0 +1,67 @@
+package br.com.leuras.commons.export;
+
+import java.io.OutputStream;
+import java.util.Iterator;
+
+import br.com.leuras.commons.exception.ExportacaoException;
+
+/**
+ * Formato de exportação capaz de escrever o documento diretamente em um fluxo de saída, obtendo os registros sob
+ * demanda. Formatos que não implementam esta interface são exportados pelo {@link Exportador} por meio de
+ * {@link FormatoExportavel#getBytes() getBytes}, após a leitura de todos os registros.
+ * <p>
+ * Na exportação para um fluxo de saída, o {@link Exportador} chama {@link #iniciar(OutputStream)},
+ * {@link FormatoExportavel#cabecalho(java.util.Map) cabecalho}, {@link #detalhes(Iterator)},
+ * {@link FormatoExportavel#rodape(java.util.Map) rodape} e {@link #concluir()}, nessa ordem, e por fim
+ * {@link #reiniciar()}, inclusive em caso de erro.
+ * </p>
+ *
+ * @param <T>
+ *            Tipo dos registros exportados
+ * @see Exportador#exportar(OutputStream, Iterator) Exportador.exportar
+ */
+public interface FormatoExportavelFluxo<T> extends FormatoExportavel<T> {
+
+    /**
+     * Responsável por definir o destino no qual o documento será escrito. Formatos capazes de escrever o documento de
+     * forma incremental podem enviar o conteúdo ao destino à medida que os registros são processados. O destino não é
+     * fechado pelo formato.
+     * 
+     * @param destino
+     *            Fluxo de saída que receberá o conteúdo do documento
+     * @throws ExportacaoException
+     *             Caso algum erro durante a exportação.
+     * @see Exportador Exportador
+     */
+    void iniciar(OutputStream destino) throws ExportacaoException;
+
+    /**
+     * Responsável por escrever o corpo (detalhe) do documento exportado, obtendo os registros sob demanda. Cada registro
+     * é lido apenas uma vez e não precisa permanecer em memória após ser escrito.
+     * 
+     * @param registros
+     *            Iterador sobre os dados a serem exportados
+     * @throws ExportacaoException
+     *             Caso algum erro durante a exportação.
+     * @see Exportador Exportador
+     */
+    void detalhes(Iterator<T> registros) throws ExportacaoException;
+
+    /**
+     * Responsável por concluir a escrita do documento no destino definido em {@link #iniciar(OutputStream) iniciar}.
+     * 
+     * @throws ExportacaoException
+     *             Caso algum erro durante a exportação ou o destino não tenha sido definido.
+     * @see Exportador Exportador
+     */
+    void concluir() throws ExportacaoException;
+
+    /**
+     * Responsável por descartar o estado da exportação em andamento na thread corrente, de modo que a instância possa
+     * ser utilizada em uma nova exportação. Chamado pelo {@link Exportador} ao final de cada exportação, inclusive em
+     * caso de erro.
+     * 
+     * @see Exportador Exportador
+     */
+    void reiniciar();
+}
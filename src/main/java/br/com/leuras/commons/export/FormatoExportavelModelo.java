@@ -0,0 +1,571 @@
+package br.com.leuras.commons.export;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.util.CellRangeAddress;
+
+import br.com.leuras.commons.enumerator.SimNaoEnum;
+import br.com.leuras.commons.exception.ExportacaoException;
+import br.com.leuras.commons.exception.ExportacaoExcelException;
+
+/**
+ * Formato de exportação que preenche um {@link ModeloPlanilha modelo de planilha} do Excel: as marcações
+ * <b>${parametro}</b> recebem os parâmetros da exportação, a linha de detalhe é repetida para cada registro com os
+ * valores das marcações <b>#{atributo}</b> e as linhas abaixo dela (rodapé) são escritas após o último registro, com as
+ * agregações declaradas nos atributos. Os estilos das células do modelo são preservados, de modo que a formatação dos
+ * valores (datas, moeda, etc) é definida pelo próprio modelo.
+ * <p>
+ * Ao atingir o limite de linhas da planilha (ou o limite definido em {@link #setLinhasPorPlanilha(int)}), as linhas
+ * seguintes são escritas em uma nova planilha do mesmo documento, que repete as linhas acima da linha de detalhe, com os
+ * parâmetros já preenchidos. As imagens do modelo permanecem apenas na primeira planilha. As linhas do rodapé são
+ * reservadas na planilha corrente, de modo que sejam escritas na planilha da última linha de dados.
+ * </p>
+ * <p>
+ * O documento é mantido em memória até a sua escrita. As fórmulas da linha de detalhe são repetidas em cada linha com as
+ * referências relativas de linha deslocadas (<i>=B3*C3</i> passa a <i>=B4*C4</i> na linha seguinte), como ao copiar a
+ * célula no Excel; as fórmulas do rodapé são copiadas sem alteração. Para totais que dependem do número de registros,
+ * utilize as marcações <b>#{atributo}</b> com a agregação do atributo.
+ * </p>
+ * <p>
+ * Um novo documento é criado a partir do modelo a cada exportação e mantido em um contexto associado à thread que a
+ * executa, descartado ao final da exportação, quando qualquer fase falha ou quando uma nova exportação é iniciada na
+ * mesma thread. Dessa forma, a mesma instância pode ser mantida e reutilizada, inclusive por várias threads ao mesmo
+ * tempo.
+ * </p>
+ *
+ * @param <T>
+ *            Tipo dos registros exportados
+ * @see ModeloPlanilha ModeloPlanilha
+ */
+public class FormatoExportavelModelo<T> implements FormatoExportavelValores<T> {
+
+    protected static final String ME001 = "O destino da exportação não foi definido. Utilize o método \"iniciar\" antes de concluir a exportação.";
+
+    protected static final String ME002 = "O atributo \"%s\" do modelo não é uma coluna exportável.";
+
+    protected static final String ME003 = "O limite de linhas por planilha deve ser maior que zero.";
+
+    private final Class<T> type;
+
+    private final PlanoColunas<T> plano;
+
+    private final ModeloPlanilha modelo;
+
+    /**
+     * Posição, no plano de colunas, do atributo de cada célula da linha de detalhe (ou -1 para as células sem marcação).
+     */
+    private final int[] colunasDetalhe;
+
+    private final ThreadLocal<Contexto> contextos = new ThreadLocal<>();
+
+    private volatile int linhasPorPlanilha = Integer.MAX_VALUE;
+
+    /**
+     * Constrói uma nova instância de FormatoExportavelModelo.
+     *
+     * @param type
+     *            Classe
+     * @param modelo
+     *            Modelo de planilha
+     * @throws IllegalArgumentException
+     *             Caso alguma marcação do modelo não corresponda a uma coluna exportável da classe.
+     */
+    public FormatoExportavelModelo(final Class<T> type, final ModeloPlanilha modelo) throws IllegalArgumentException {
+        this(PlanoColunas.de(type), modelo);
+    }
+
+    /**
+     * Constrói uma nova instância de FormatoExportavelModelo a partir de um plano de colunas, como o obtido de um
+     * {@link java.sql.ResultSet ResultSet}.
+     *
+     * @param plano
+     *            Plano de colunas
+     * @param modelo
+     *            Modelo de planilha
+     * @throws IllegalArgumentException
+     *             Caso alguma marcação do modelo não corresponda a uma coluna do plano.
+     */
+    public FormatoExportavelModelo(final PlanoColunas<T> plano, final ModeloPlanilha modelo)
+            throws IllegalArgumentException {
+
+        this.type = plano.getTipo();
+        this.plano = plano;
+        this.modelo = modelo;
+
+        final List<ModeloPlanilha.CelulaModelo> detalhe = modelo.getDetalhe();
+
+        this.colunasDetalhe = new int[detalhe.size()];
+
+        for (int posicao = 0; posicao < detalhe.size(); posicao++) {
+            this.colunasDetalhe[posicao] = this.coluna(detalhe.get(posicao));
+        }
+
+        for (final ModeloPlanilha.LinhaModelo linha : modelo.getRodape()) {
+            for (final ModeloPlanilha.CelulaModelo celula : linha.celulas) {
+                this.coluna(celula);
+            }
+        }
+    }
+
+    /**
+     * Inicia uma nova exportação na thread corrente, descartando o contexto de uma exportação anterior que não tenha sido
+     * concluída.
+     */
+    @Override
+    public void iniciar(final OutputStream destino) throws ExportacaoExcelException {
+
+        this.reiniciar();
+        this.contexto().destino = destino;
+    }
+
+    /**
+     * Preenche as marcações <b>${parametro}</b> acima da linha de detalhe.
+     */
+    @Override
+    public void cabecalho(final Map<String, Object> parametros) throws ExportacaoExcelException {
+
+        final Contexto contexto = this.contexto();
+
+        try {
+
+            contexto.parametros = parametros;
+
+            for (final ModeloPlanilha.CelulaModelo modelo : this.modelo.getParametros()) {
+
+                final Cell celula = contexto.planilha.getRow(modelo.linha).getCell(modelo.coluna);
+
+                this.preencher(celula, modelo, parametros, null);
+            }
+
+        } catch (ExportacaoExcelException | RuntimeException e) {
+            this.reiniciar();
+            throw e;
+        }
+    }
+
+    @Override
+    public void detalhes(final List<T> registros) throws ExportacaoException {
+        this.detalhes(registros.iterator());
+    }
+
+    @Override
+    public void detalhes(final Iterator<T> registros) throws ExportacaoException {
+
+        this.iniciarDetalhes();
+
+        final Object[] valores = new Object[this.plano.getTotalColunas()];
+
+        try {
+
+            while (registros.hasNext()) {
+                this.plano.valores(registros.next(), valores);
+                this.linha(valores);
+            }
+
+        } catch (ExportacaoException | RuntimeException e) {
+            this.reiniciar();
+            throw e;
+        }
+    }
+
+    @Override
+    public void iniciarDetalhes() throws ExportacaoExcelException {
+
+        final Contexto contexto = this.contexto();
+        final List<ModeloPlanilha.CelulaModelo> detalhe = this.modelo.getDetalhe();
+
+        try {
+
+            contexto.estilosDetalhe = new CellStyle[detalhe.size()];
+            contexto.linhaAtual = this.modelo.getLinhaDetalhe();
+            contexto.linhasPlanilha = 0;
+            contexto.totalizador = Totalizador.de(this.plano);
+
+            for (int posicao = 0; posicao < detalhe.size(); posicao++) {
+                contexto.estilosDetalhe[posicao] = contexto.documento.getCellStyleAt(detalhe.get(posicao).estilo);
+            }
+
+        } catch (RuntimeException e) {
+            this.reiniciar();
+            throw e;
+        }
+    }
+
+    /**
+     * Escreve uma cópia da linha de detalhe do modelo com os valores das colunas.
+     *
+     * @param valores
+     *            Valores das colunas, na ordem do plano de colunas
+     * @throws ExportacaoExcelException
+     *             Caso algum erro ocorra durante a escrita das células.
+     */
+    @Override
+    public void linha(final Object[] valores) throws ExportacaoExcelException {
+
+        final Contexto contexto = this.contexto();
+
+        try {
+            this.escreverLinha(contexto, valores);
+        } catch (ExportacaoExcelException | RuntimeException e) {
+            this.reiniciar();
+            throw e;
+        }
+    }
+
+    private void escreverLinha(final Contexto contexto, final Object[] valores) throws ExportacaoExcelException {
+
+        if (contexto.linhasPlanilha >= contexto.linhasPorPlanilha
+                || contexto.linhaAtual + this.modelo.getRodape().size() > this.modelo.getUltimaLinha()) {
+            this.novaPlanilha(contexto);
+        }
+
+        final List<ModeloPlanilha.CelulaModelo> detalhe = this.modelo.getDetalhe();
+        final Row linha = contexto.planilha.createRow(contexto.linhaAtual);
+
+        linha.setHeight(this.modelo.getAlturaDetalhe());
+
+        for (int posicao = 0; posicao < detalhe.size(); posicao++) {
+
+            final ModeloPlanilha.CelulaModelo modelo = detalhe.get(posicao);
+            final Cell celula = linha.createCell(modelo.coluna);
+
+            celula.setCellStyle(contexto.estilosDetalhe[posicao]);
+
+            try {
+
+                if (this.colunasDetalhe[posicao] >= 0) {
+                    FormatoExportavelModelo.valor(celula, valores[this.colunasDetalhe[posicao]]);
+                } else {
+                    FormatoExportavelModelo.copiar(celula, modelo,
+                            contexto.linhaAtual - this.modelo.getLinhaDetalhe());
+                }
+
+            } catch (Exception e) {
+                throw new ExportacaoExcelException(e.getMessage(), e);
+            }
+        }
+
+        if (contexto.totalizador != null) {
+            contexto.totalizador.acumular(valores);
+        }
+
+        contexto.linhaAtual++;
+        contexto.linhasPlanilha++;
+    }
+
+    /**
+     * Cria uma nova planilha no documento, repetindo as larguras das colunas e as linhas acima da linha de detalhe do
+     * modelo, e posiciona a escrita na linha de detalhe.
+     */
+    private void novaPlanilha(final Contexto contexto) throws ExportacaoExcelException {
+
+        final Sheet planilha = contexto.documento.createSheet();
+        final int[] larguras = this.modelo.getLarguras();
+
+        for (int coluna = 0; coluna < larguras.length; coluna++) {
+            planilha.setColumnWidth(coluna, larguras[coluna]);
+        }
+
+        for (final ModeloPlanilha.LinhaModelo modelo : this.modelo.getCabecalho()) {
+
+            final Row linha = planilha.createRow(modelo.deslocamento);
+
+            if (modelo.altura >= 0) {
+                linha.setHeight(modelo.altura);
+            }
+
+            for (final ModeloPlanilha.CelulaModelo celula : modelo.celulas) {
+                final Cell destino = linha.createCell(celula.coluna);
+
+                destino.setCellStyle(contexto.documento.getCellStyleAt(celula.estilo));
+                this.preencher(destino, celula, contexto.parametros, null);
+            }
+        }
+
+        for (final CellRangeAddress regiao : this.modelo.getRegioesCabecalho()) {
+            planilha.addMergedRegion(new CellRangeAddress(regiao.getFirstRow(), regiao.getLastRow(),
+                    regiao.getFirstColumn(), regiao.getLastColumn()));
+        }
+
+        contexto.planilha = planilha;
+        contexto.linhaAtual = this.modelo.getLinhaDetalhe();
+        contexto.linhasPlanilha = 0;
+    }
+
+    /**
+     * Escreve as linhas do rodapé do modelo após o último registro, preenchendo os parâmetros e as agregações.
+     */
+    @Override
+    public void rodape(final Map<String, Object> parametros) throws ExportacaoExcelException {
+
+        final Contexto contexto = this.contexto();
+
+        try {
+            this.escreverRodape(contexto, parametros);
+        } catch (ExportacaoExcelException | RuntimeException e) {
+            this.reiniciar();
+            throw e;
+        }
+    }
+
+    private void escreverRodape(final Contexto contexto, final Map<String, Object> parametros)
+            throws ExportacaoExcelException {
+
+        final int inicio = contexto.linhaAtual;
+
+        for (final ModeloPlanilha.LinhaModelo modelo : this.modelo.getRodape()) {
+
+            final Row linha = contexto.planilha.createRow(inicio + modelo.deslocamento);
+
+            if (modelo.altura >= 0) {
+                linha.setHeight(modelo.altura);
+            }
+
+            for (final ModeloPlanilha.CelulaModelo celula : modelo.celulas) {
+                final Cell destino = linha.createCell(celula.coluna);
+
+                destino.setCellStyle(contexto.documento.getCellStyleAt(celula.estilo));
+                this.preencher(destino, celula, parametros, contexto.totalizador);
+            }
+        }
+
+        for (final CellRangeAddress regiao : this.modelo.getRegioesRodape()) {
+            contexto.planilha.addMergedRegion(new CellRangeAddress(inicio + regiao.getFirstRow(),
+                    inicio + regiao.getLastRow(), regiao.getFirstColumn(), regiao.getLastColumn()));
+        }
+
+        contexto.linhaAtual = inicio + this.modelo.getRodape().size();
+    }
+
+    @Override
+    public byte[] getBytes() throws ExportacaoExcelException {
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        this.escrever(out);
+
+        return out.toByteArray();
+    }
+
+    @Override
+    public void concluir() throws ExportacaoExcelException {
+
+        final Contexto contexto = this.contextos.get();
+
+        if (contexto == null || contexto.destino == null) {
+            this.reiniciar();
+            throw new ExportacaoExcelException(ME001);
+        }
+
+        this.escrever(contexto.destino);
+    }
+
+    /**
+     * Descarta o documento da exportação em andamento na thread corrente. Não é necessário chamar este método após a
+     * escrita do documento ou a falha de uma das fases da exportação, que já descartam o contexto.
+     */
+    @Override
+    public void reiniciar() {
+        this.contextos.remove();
+    }
+
+    @Override
+    public Class<T> getType() {
+        return this.type;
+    }
+
+    @Override
+    public PlanoColunas<T> getPlano() {
+        return this.plano;
+    }
+
+    /**
+     * Número máximo de linhas de dados por planilha.
+     *
+     * @return O limite de linhas de dados por planilha.
+     */
+    public int getLinhasPorPlanilha() {
+        return this.linhasPorPlanilha;
+    }
+
+    /**
+     * Define o número máximo de linhas de dados por planilha. Ao atingir o limite (ou o limite de linhas do formato do
+     * modelo, o que ocorrer primeiro), as linhas seguintes são escritas em uma nova planilha do mesmo documento.
+     *
+     * @param linhasPorPlanilha
+     *            Limite de linhas de dados por planilha
+     * @throws IllegalArgumentException
+     *             Caso o limite informado seja menor ou igual a zero.
+     */
+    public void setLinhasPorPlanilha(final int linhasPorPlanilha) throws IllegalArgumentException {
+
+        if (linhasPorPlanilha <= 0) {
+            throw new IllegalArgumentException(ME003);
+        }
+
+        this.linhasPorPlanilha = linhasPorPlanilha;
+    }
+
+    /**
+     * Modelo de planilha preenchido por este formato.
+     *
+     * @return O modelo.
+     */
+    public ModeloPlanilha getModelo() {
+        return this.modelo;
+    }
+
+    private void escrever(final OutputStream destino) throws ExportacaoExcelException {
+
+        try {
+
+            this.contexto().documento.write(destino);
+
+        } catch (IOException e) {
+            throw new ExportacaoExcelException(e.getMessage(), e);
+        } finally {
+            this.reiniciar();
+        }
+    }
+
+    /**
+     * Preenche uma célula a partir da célula do modelo: as marcações <b>${parametro}</b> recebem os parâmetros e as
+     * marcações <b>#{atributo}</b>, o resultado da agregação do atributo. As demais células são copiadas.
+     */
+    private void preencher(final Cell celula, final ModeloPlanilha.CelulaModelo modelo,
+            final Map<String, Object> parametros, final Totalizador totalizador) throws ExportacaoExcelException {
+
+        try {
+
+            if (modelo.chave != null) {
+                FormatoExportavelModelo.valor(celula,
+                        totalizador != null ? totalizador.resultado(this.coluna(modelo)) : null);
+            } else if (modelo.parametro != null) {
+                FormatoExportavelModelo.valor(celula, parametros != null ? parametros.get(modelo.parametro) : null);
+            } else if (modelo.marcado) {
+                celula.setCellValue(ModeloPlanilha.preencher(modelo.texto, parametros));
+            } else {
+                FormatoExportavelModelo.copiar(celula, modelo, 0);
+            }
+
+        } catch (Exception e) {
+            throw new ExportacaoExcelException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Obtém a posição, no plano de colunas, do atributo da marcação <b>#{atributo}</b> de uma célula do modelo.
+     *
+     * @return A posição da coluna ou -1 caso a célula não possua a marcação.
+     */
+    private int coluna(final ModeloPlanilha.CelulaModelo celula) throws IllegalArgumentException {
+
+        if (celula.chave == null) {
+            return -1;
+        }
+
+        final List<ColunaExportavel> colunas = this.plano.getColunas();
+
+        for (int posicao = 0; posicao < colunas.size(); posicao++) {
+            if (celula.chave.equals(colunas.get(posicao).getAtributo())) {
+                return posicao;
+            }
+        }
+
+        throw new IllegalArgumentException(String.format(ME002, celula.chave));
+    }
+
+    /**
+     * Obtém o contexto da exportação em andamento na thread corrente, criando um novo documento a partir do modelo caso
+     * nenhuma exportação esteja em andamento.
+     */
+    private Contexto contexto() throws ExportacaoExcelException {
+
+        Contexto contexto = this.contextos.get();
+
+        if (contexto == null) {
+            contexto = new Contexto(this.modelo.abrir(), this.linhasPorPlanilha);
+            this.contextos.set(contexto);
+        }
+
+        return contexto;
+    }
+
+    private static void valor(final Cell celula, final Object valor) {
+
+        if (valor instanceof Boolean) {
+            celula.setCellValue(((Boolean) valor) ? SimNaoEnum.SIM.getLabel() : SimNaoEnum.NAO.getLabel());
+        } else if (valor instanceof Date) {
+            celula.setCellValue((Date) valor);
+        } else if (valor instanceof Number) {
+            celula.setCellValue(((Number) valor).doubleValue());
+        } else if (valor != null) {
+            celula.setCellValue(valor.toString());
+        }
+    }
+
+    /**
+     * Copia o conteúdo de uma célula do modelo, deslocando as referências relativas de linha das fórmulas.
+     */
+    private static void copiar(final Cell celula, final ModeloPlanilha.CelulaModelo modelo, final int linhas) {
+
+        switch (modelo.tipo) {
+            case Cell.CELL_TYPE_STRING:
+                celula.setCellValue(modelo.texto);
+                break;
+            case Cell.CELL_TYPE_FORMULA:
+                celula.setCellFormula(ModeloPlanilha.deslocar(modelo.texto, linhas));
+                break;
+            case Cell.CELL_TYPE_NUMERIC:
+                celula.setCellValue(modelo.numero);
+                break;
+            case Cell.CELL_TYPE_BOOLEAN:
+                celula.setCellValue(modelo.logico);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Estado de uma exportação: documento, planilha corrente, parâmetros, estilos da linha de detalhe, totais acumulados,
+     * posição da próxima linha e configuração.
+     */
+    private static final class Contexto {
+
+        private final Workbook documento;
+
+        private final int linhasPorPlanilha;
+
+        private Sheet planilha;
+
+        private Map<String, Object> parametros;
+
+        private CellStyle[] estilosDetalhe;
+
+        private Totalizador totalizador;
+
+        private int linhaAtual;
+
+        private int linhasPlanilha;
+
+        private OutputStream destino;
+
+        Contexto(final Workbook documento, final int linhasPorPlanilha) {
+            this.documento = documento;
+            this.linhasPorPlanilha = linhasPorPlanilha;
+            this.planilha = documento.getSheetAt(0);
+        }
+    }
+}
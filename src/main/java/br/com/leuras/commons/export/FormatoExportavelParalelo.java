@@ -0,0 +1,55 @@
+package br.com.leuras.commons.export;
+
+import java.util.List;
+
+import br.com.leuras.commons.exception.ExportacaoException;
+
+/**
+ * Formato de exportação capaz de preparar os registros em lotes independentes, de modo que a conversão dos registros
+ * possa ser distribuída entre várias threads enquanto a escrita no documento permanece sequencial e ordenada.
+ * <p>
+ * Na exportação paralela o {@link Exportador} substitui a chamada a
+ * {@link FormatoExportavelFluxo#detalhes(java.util.Iterator) detalhes} por uma chamada a {@link #iniciarDetalhes()},
+ * seguida de {@link #preparar(List)} (concorrente) e {@link #acrescentar(Object)} (na ordem original dos lotes) para
+ * cada lote.
+ * </p>
+ *
+ * @param <T>
+ *            Tipo dos registros exportados
+ * @param <L>
+ *            Tipo do lote preparado (valores das células, conteúdo codificado, etc)
+ * @see Exportador#setParalelismo(int) Exportador.setParalelismo
+ */
+public interface FormatoExportavelParalelo<T, L> extends FormatoExportavelFluxo<T> {
+
+    /**
+     * Responsável por escrever o que antecede os registros no corpo (detalhe) do documento, como o cabeçalho do detalhe.
+     *
+     * @throws ExportacaoException
+     *             Caso algum erro durante a exportação.
+     */
+    void iniciarDetalhes() throws ExportacaoException;
+
+    /**
+     * Responsável por converter um lote de registros em sua representação intermediária. Este método é executado
+     * concorrentemente e, portanto, não deve alterar o estado do formato.
+     *
+     * @param lote
+     *            Lote de registros
+     * @return O lote preparado.
+     * @throws ExportacaoException
+     *             Caso algum erro durante a exportação.
+     */
+    L preparar(List<T> lote) throws ExportacaoException;
+
+    /**
+     * Responsável por escrever um lote preparado no documento. Os lotes são acrescentados um a um, na ordem original dos
+     * registros.
+     *
+     * @param lote
+     *            Lote preparado por {@link #preparar(List)}
+     * @throws ExportacaoException
+     *             Caso algum erro durante a exportação.
+     */
+    void acrescentar(L lote) throws ExportacaoException;
+}
@@ -0,0 +1,603 @@
+package br.com.leuras.commons.export;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.text.NumberFormat;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import com.lowagie.text.Document;
+import com.lowagie.text.DocumentException;
+import com.lowagie.text.Element;
+import com.lowagie.text.ExceptionConverter;
+import com.lowagie.text.Font;
+import com.lowagie.text.PageSize;
+import com.lowagie.text.Paragraph;
+import com.lowagie.text.Phrase;
+import com.lowagie.text.pdf.PdfPCell;
+import com.lowagie.text.pdf.PdfPTable;
+import com.lowagie.text.pdf.PdfWriter;
+
+import br.com.leuras.commons.enumerator.SimNaoEnum;
+import br.com.leuras.commons.exception.ExportacaoException;
+import br.com.leuras.commons.util.Brasil;
+
+/**
+ * Formato de exportação em documento <i>PDF</i>, com o título e as colunas declarados por meio de {@link Exportavel} e
+ * {@link AtributoExportavel} dispostos em uma tabela, sem a necessidade de um modelo do JasperReports. O cabeçalho da
+ * tabela é repetido em todas as páginas e a linha de totais, quando alguma coluna declara uma agregação, é escrita ao
+ * final.
+ * <p>
+ * A tabela é acrescentada ao documento em blocos de {@link #getLinhasPorBloco() linhasPorBloco} linhas: as linhas de
+ * cada bloco são distribuídas nas páginas e descartadas, e cada página concluída é escrita no destino informado em
+ * {@link #iniciar(OutputStream) iniciar}. Dessa forma, o consumo de memória não cresce com o volume de registros
+ * exportados. Caso nenhum destino seja informado, o conteúdo é mantido em memória e pode ser obtido por meio de
+ * {@link #getBytes()}.
+ * </p>
+ * <p>
+ * O documento de cada exportação é mantido em um contexto associado à thread que a executa e descartado ao final da
+ * exportação, quando qualquer fase falha ou quando uma nova exportação é iniciada na mesma thread, de modo que a mesma
+ * instância pode ser reutilizada e compartilhada entre threads. A configuração (orientação, fonte e linhas por bloco) é
+ * copiada para o contexto na sua criação e não afeta as exportações em andamento.
+ * </p>
+ *
+ * <pre>
+ * <code>
+ * final Exportador{@literal <Funcionario>} exportador = new Exportador{@literal <Funcionario>}(new FormatoExportavelPdf{@literal <Funcionario>}(Funcionario.class));
+ *
+ * exportador.exportar("/tmp/funcionarios.pdf", registros);
+ * </code>
+ * </pre>
+ *
+ * @param <T>
+ *            Tipo dos registros exportados
+ */
+public class FormatoExportavelPdf<T> implements FormatoExportavelValores<T> {
+
+    protected static final String ME001 = "O destino da exportação não foi definido. Utilize o método \"iniciar\" antes de concluir a exportação.";
+
+    protected static final String ME002 = "O conteúdo foi escrito no destino informado no método \"iniciar\" e não está disponível em memória.";
+
+    protected static final String ME003 = "O número de linhas por bloco deve ser maior que zero.";
+
+    protected static final String ME004 = "O tamanho da fonte deve ser maior que zero.";
+
+    /**
+     * Número de linhas acrescentadas por padrão ao documento a cada bloco.
+     */
+    public static final int LINHAS_POR_BLOCO_PADRAO = 100;
+
+    /**
+     * Tamanho padrão da fonte, em pontos.
+     */
+    public static final float TAMANHO_FONTE_PADRAO = 8f;
+
+    private static final float MARGEM = 36f;
+
+    private static final float PREENCHIMENTO = 3f;
+
+    private static final float CINZA_CABECALHO = 0.85f;
+
+    private static final float CINZA_TOTAIS = 0.95f;
+
+    private final Class<T> type;
+
+    private final PlanoColunas<T> plano;
+
+    private final ThreadLocal<Contexto> contextos = new ThreadLocal<>();
+
+    private volatile boolean paisagem;
+
+    private volatile float tamanhoFonte = TAMANHO_FONTE_PADRAO;
+
+    private volatile int linhasPorBloco = LINHAS_POR_BLOCO_PADRAO;
+
+    /**
+     * Constrói uma nova instância de FormatoExportavelPdf.
+     *
+     * @param type
+     *            Classe
+     */
+    public FormatoExportavelPdf(final Class<T> type) {
+        this(PlanoColunas.de(type));
+    }
+
+    /**
+     * Constrói uma nova instância de FormatoExportavelPdf a partir de um plano de colunas, como o obtido de um
+     * {@link java.sql.ResultSet ResultSet}.
+     *
+     * @param plano
+     *            Plano de colunas
+     * @see PlanoColunas#de(java.sql.ResultSetMetaData, String, DescritorColuna...) PlanoColunas.de
+     */
+    public FormatoExportavelPdf(final PlanoColunas<T> plano) {
+        this.type = plano.getTipo();
+        this.plano = plano;
+    }
+
+    /**
+     * Inicia uma nova exportação na thread corrente, descartando o contexto de uma exportação anterior que não tenha sido
+     * concluída.
+     */
+    @Override
+    public void iniciar(final OutputStream destino) {
+
+        this.reiniciar();
+        this.contexto().destino = destino;
+    }
+
+    /**
+     * Escreve o título do plano de colunas, centralizado, no início da primeira página.
+     */
+    @Override
+    public void cabecalho(final Map<String, Object> parametros) throws ExportacaoException {
+
+        final Contexto contexto = this.contexto();
+        final String titulo = this.plano.getTitulo();
+
+        try {
+
+            if (! titulo.isEmpty()) {
+
+                final Paragraph paragrafo = new Paragraph(titulo, contexto.fonteTitulo);
+
+                paragrafo.setAlignment(Element.ALIGN_CENTER);
+                paragrafo.setSpacingAfter(contexto.fonte.getSize());
+
+                this.acrescentar(contexto, paragrafo);
+                contexto.conteudo = true;
+            }
+
+        } catch (ExportacaoException | RuntimeException e) {
+            this.reiniciar();
+            throw e;
+        }
+    }
+
+    @Override
+    public void detalhes(final List<T> registros) throws ExportacaoException {
+        this.detalhes(registros.iterator());
+    }
+
+    @Override
+    public void detalhes(final Iterator<T> registros) throws ExportacaoException {
+
+        this.iniciarDetalhes();
+
+        final Object[] valores = new Object[this.plano.getTotalColunas()];
+
+        try {
+
+            while (registros.hasNext()) {
+                this.plano.valores(registros.next(), valores);
+                this.linha(valores);
+            }
+
+        } catch (ExportacaoException | RuntimeException e) {
+            this.reiniciar();
+            throw e;
+        }
+    }
+
+    @Override
+    public void iniciarDetalhes() throws ExportacaoException {
+
+        final Contexto contexto = this.contexto();
+
+        try {
+
+            final PdfPTable tabela = new PdfPTable(this.plano.getTotalColunas());
+
+            tabela.setWidthPercentage(100f);
+            tabela.setHeaderRows(1);
+            tabela.setComplete(false);
+
+            for (final ColunaExportavel coluna : this.plano.getColunas()) {
+
+                final PdfPCell celula = this.celula(coluna.getTitulo(), contexto.fonteCabecalho, Element.ALIGN_CENTER);
+
+                celula.setGrayFill(CINZA_CABECALHO);
+                tabela.addCell(celula);
+            }
+
+            contexto.tabela = tabela;
+            contexto.totalizador = Totalizador.de(this.plano);
+            contexto.pendentes = 0;
+
+        } catch (RuntimeException e) {
+            this.reiniciar();
+            throw e;
+        }
+    }
+
+    /**
+     * Escreve uma linha da tabela. Ao completar um bloco, as linhas pendentes são acrescentadas ao documento.
+     *
+     * @param valores
+     *            Valores das colunas, na ordem do plano de colunas
+     * @throws ExportacaoException
+     *             Caso algum erro ocorra durante a escrita.
+     */
+    @Override
+    public void linha(final Object[] valores) throws ExportacaoException {
+
+        final Contexto contexto = this.contexto();
+        final List<ColunaExportavel> colunas = this.plano.getColunas();
+
+        try {
+
+            for (int coluna = 0; coluna < colunas.size(); coluna++) {
+                contexto.tabela.addCell(this.celula(contexto, coluna, colunas.get(coluna), valores[coluna], contexto.fonte));
+            }
+
+            if (contexto.totalizador != null) {
+                contexto.totalizador.acumular(valores);
+            }
+
+            contexto.conteudo = true;
+
+            if (++contexto.pendentes >= contexto.linhasPorBloco) {
+                this.acrescentar(contexto, contexto.tabela);
+                contexto.pendentes = 0;
+            }
+
+        } catch (ExportacaoException | RuntimeException e) {
+            this.reiniciar();
+            throw e;
+        }
+    }
+
+    /**
+     * Escreve a linha de totais com as agregações declaradas nas colunas (veja {@link AtributoExportavel#agregacao()}) e
+     * encerra a tabela.
+     */
+    @Override
+    public void rodape(final Map<String, Object> parametros) throws ExportacaoException {
+
+        final Contexto contexto = this.contexto();
+
+        try {
+            this.totais(contexto);
+        } catch (ExportacaoException | RuntimeException e) {
+            this.reiniciar();
+            throw e;
+        }
+    }
+
+    private void totais(final Contexto contexto) throws ExportacaoException {
+
+        if (contexto.tabela == null) {
+            return;
+        }
+
+        if (contexto.totalizador != null) {
+
+            final List<ColunaExportavel> colunas = this.plano.getColunas();
+
+            for (int coluna = 0; coluna < colunas.size(); coluna++) {
+
+                final ColunaExportavel atributo = colunas.get(coluna);
+                final Object valor = contexto.totalizador.resultado(coluna);
+                final PdfPCell celula;
+
+                if (valor == null && coluna == 0 && AgregacaoEnum.NENHUMA.equals(atributo.getAgregacao())) {
+                    celula = this.celula(AgregacaoEnum.ROTULO_TOTAIS, contexto.fonteCabecalho, Element.ALIGN_LEFT);
+                } else if (AgregacaoEnum.CONTAGEM.equals(atributo.getAgregacao())) {
+                    celula = this.celula(String.valueOf(valor), contexto.fonteCabecalho, Element.ALIGN_RIGHT);
+                } else {
+                    celula = this.celula(contexto, coluna, atributo, valor, contexto.fonteCabecalho);
+                }
+
+                celula.setGrayFill(CINZA_TOTAIS);
+                contexto.tabela.addCell(celula);
+            }
+
+            contexto.conteudo = true;
+        }
+
+        this.encerrarTabela(contexto);
+    }
+
+    @Override
+    public byte[] getBytes() throws ExportacaoException {
+
+        final Contexto contexto = this.contexto();
+
+        if (contexto.destino != null) {
+            this.reiniciar();
+            throw new ExportacaoException(ME002);
+        }
+
+        try {
+
+            this.fechar(contexto);
+
+            return contexto.memoria.toByteArray();
+
+        } finally {
+            this.reiniciar();
+        }
+    }
+
+    @Override
+    public void concluir() throws ExportacaoException {
+
+        final Contexto contexto = this.contextos.get();
+
+        if (contexto == null || contexto.destino == null) {
+            this.reiniciar();
+            throw new ExportacaoException(ME001);
+        }
+
+        try {
+            this.fechar(contexto);
+        } finally {
+            this.reiniciar();
+        }
+    }
+
+    /**
+     * Descarta o documento da exportação em andamento na thread corrente. O destino informado em
+     * {@link #iniciar(OutputStream) iniciar} não é fechado. Não é necessário chamar este método após a conclusão da
+     * exportação ou a falha de uma de suas fases, que já descartam o contexto.
+     */
+    @Override
+    public void reiniciar() {
+        this.contextos.remove();
+    }
+
+    @Override
+    public Class<T> getType() {
+        return this.type;
+    }
+
+    @Override
+    public PlanoColunas<T> getPlano() {
+        return this.plano;
+    }
+
+    public boolean isPaisagem() {
+        return this.paisagem;
+    }
+
+    /**
+     * Define se as páginas do documento (<i>A4</i>) são dispostas na orientação paisagem, recomendada para planos com
+     * muitas colunas. A orientação deve ser definida antes do início das exportações.
+     *
+     * @param paisagem
+     *            <b>True</b> para a orientação paisagem e <b>false</b> para a orientação retrato
+     */
+    public void setPaisagem(final boolean paisagem) {
+        this.paisagem = paisagem;
+    }
+
+    public float getTamanhoFonte() {
+        return this.tamanhoFonte;
+    }
+
+    /**
+     * Define o tamanho da fonte das linhas da tabela, em pontos. O título utiliza o dobro do tamanho.
+     *
+     * @param tamanhoFonte
+     *            Tamanho da fonte
+     * @throws IllegalArgumentException
+     *             Caso o tamanho informado seja menor ou igual a zero.
+     */
+    public void setTamanhoFonte(final float tamanhoFonte) throws IllegalArgumentException {
+
+        if (tamanhoFonte <= 0) {
+            throw new IllegalArgumentException(ME004);
+        }
+
+        this.tamanhoFonte = tamanhoFonte;
+    }
+
+    public int getLinhasPorBloco() {
+        return this.linhasPorBloco;
+    }
+
+    /**
+     * Define o número de linhas mantidas em memória antes de serem acrescentadas ao documento. Blocos maiores reduzem o
+     * número de acréscimos à tabela, à custa de mais memória.
+     *
+     * @param linhasPorBloco
+     *            Número de linhas por bloco
+     * @throws IllegalArgumentException
+     *             Caso o número informado seja menor ou igual a zero.
+     */
+    public void setLinhasPorBloco(final int linhasPorBloco) throws IllegalArgumentException {
+
+        if (linhasPorBloco <= 0) {
+            throw new IllegalArgumentException(ME003);
+        }
+
+        this.linhasPorBloco = linhasPorBloco;
+    }
+
+    /**
+     * Cria a célula de um valor de acordo com o seu tipo e o formato da coluna: números alinhados à direita, datas e
+     * valores lógicos ao centro e textos à esquerda.
+     */
+    private PdfPCell celula(final Contexto contexto, final int coluna, final ColunaExportavel atributo,
+            final Object valor, final Font fonte) {
+
+        if (valor instanceof Boolean) {
+            return this.celula(((Boolean) valor) ? SimNaoEnum.SIM.getLabel() : SimNaoEnum.NAO.getLabel(), fonte,
+                    Element.ALIGN_CENTER);
+        }
+
+        if (valor instanceof Date) {
+
+            if (contexto.formatadores[coluna] == null) {
+                contexto.formatadores[coluna] = new SimpleDateFormat(FormatoAtributoEnum.padraoData(atributo.getFormato()));
+            }
+
+            return this.celula(contexto.formatadores[coluna].format((Date) valor), fonte, Element.ALIGN_CENTER);
+        }
+
+        if (valor instanceof Number) {
+
+            final NumberFormat formatador;
+
+            if (FormatoAtributoEnum.MOEDA.equals(atributo.getFormato())) {
+                formatador = contexto.moeda;
+            } else if (FormatoAtributoEnum.PERCENTUAL.equals(atributo.getFormato())) {
+                formatador = contexto.percentual;
+            } else {
+                formatador = contexto.numero;
+            }
+
+            return this.celula(formatador.format(valor), fonte, Element.ALIGN_RIGHT);
+        }
+
+        return this.celula(valor != null ? valor.toString() : null, fonte, Element.ALIGN_LEFT);
+    }
+
+    private PdfPCell celula(final String texto, final Font fonte, final int alinhamento) {
+
+        final PdfPCell celula = new PdfPCell(texto != null ? new Phrase(texto, fonte) : new Phrase());
+
+        celula.setHorizontalAlignment(alinhamento);
+        celula.setPadding(PREENCHIMENTO);
+
+        return celula;
+    }
+
+    private void encerrarTabela(final Contexto contexto) throws ExportacaoException {
+
+        contexto.tabela.setComplete(true);
+        this.acrescentar(contexto, contexto.tabela);
+        contexto.tabela = null;
+    }
+
+    /**
+     * Encerra a tabela, caso o rodapé não tenha sido escrito, e fecha o documento, escrevendo as páginas restantes. Caso
+     * nenhum conteúdo tenha sido escrito (sem título e sem linhas), é acrescentado um parágrafo vazio, pois um documento
+     * sem páginas não pode ser fechado.
+     */
+    private void fechar(final Contexto contexto) throws ExportacaoException {
+
+        if (contexto.tabela != null) {
+            this.encerrarTabela(contexto);
+        }
+
+        if (! contexto.conteudo) {
+            this.acrescentar(contexto, new Paragraph(" ", contexto.fonte));
+        }
+
+        try {
+
+            contexto.getDocumento().close();
+
+        } catch (DocumentException | ExceptionConverter e) {
+            throw new ExportacaoException(e.getMessage(), e);
+        }
+    }
+
+    private void acrescentar(final Contexto contexto, final Element elemento) throws ExportacaoException {
+
+        try {
+
+            contexto.getDocumento().add(elemento);
+
+        } catch (DocumentException | ExceptionConverter e) {
+            throw new ExportacaoException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Obtém o contexto da exportação em andamento na thread corrente, criando-o caso nenhuma exportação esteja em
+     * andamento.
+     */
+    private Contexto contexto() {
+
+        Contexto contexto = this.contextos.get();
+
+        if (contexto == null) {
+            contexto = new Contexto(this.plano.getTotalColunas(), this.tamanhoFonte, this.paisagem, this.linhasPorBloco);
+            this.contextos.set(contexto);
+        }
+
+        return contexto;
+    }
+
+    /**
+     * Documento, tabela corrente, fontes, formatadores, configuração e destino de uma exportação.
+     */
+    private static final class Contexto {
+
+        private final boolean paisagem;
+
+        private final int linhasPorBloco;
+
+        private final Font fonte;
+
+        private final Font fonteCabecalho;
+
+        private final Font fonteTitulo;
+
+        private final SimpleDateFormat[] formatadores;
+
+        private final NumberFormat moeda = NumberFormat.getCurrencyInstance(Brasil.Local.BR);
+
+        private final NumberFormat percentual = NumberFormat.getPercentInstance(Brasil.Local.BR);
+
+        private final NumberFormat numero = NumberFormat.getNumberInstance(Brasil.Local.BR);
+
+        private Document documento;
+
+        private PdfPTable tabela;
+
+        private Totalizador totalizador;
+
+        private int pendentes;
+
+        private boolean conteudo;
+
+        private OutputStream destino;
+
+        private ByteArrayOutputStream memoria;
+
+        Contexto(final int colunas, final float tamanhoFonte, final boolean paisagem, final int linhasPorBloco) {
+            this.paisagem = paisagem;
+            this.linhasPorBloco = linhasPorBloco;
+            this.fonte = new Font(Font.HELVETICA, tamanhoFonte, Font.NORMAL);
+            this.fonteCabecalho = new Font(Font.HELVETICA, tamanhoFonte, Font.BOLD);
+            this.fonteTitulo = new Font(Font.HELVETICA, tamanhoFonte * 2, Font.BOLD);
+            this.formatadores = new SimpleDateFormat[colunas];
+            this.percentual.setMinimumFractionDigits(2);
+            this.percentual.setMaximumFractionDigits(2);
+        }
+
+        /**
+         * Obtém o documento da exportação, associando-o ao destino (ou à memória) e abrindo-o na primeira chamada.
+         */
+        Document getDocumento() throws DocumentException {
+
+            if (this.documento == null) {
+
+                final OutputStream saida;
+
+                if (this.destino != null) {
+                    saida = this.destino;
+                } else {
+                    this.memoria = new ByteArrayOutputStream();
+                    saida = this.memoria;
+                }
+
+                final Document documento = new Document(this.paisagem ? PageSize.A4.rotate() : PageSize.A4, MARGEM,
+                        MARGEM, MARGEM, MARGEM);
+
+                PdfWriter.getInstance(documento, saida).setCloseStream(false);
+                documento.open();
+
+                this.documento = documento;
+            }
+
+            return this.documento;
+        }
+    }
+}
@@ -0,0 +1,966 @@
+package br.com.leuras.commons.export;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.util.CellRangeAddress;
+
+import br.com.leuras.commons.enumerator.SimNaoEnum;
+import br.com.leuras.commons.exception.ExportacaoException;
+import br.com.leuras.commons.exception.ExportacaoExcelException;
+import br.com.leuras.commons.util.DataUtils;
+import br.com.leuras.commons.util.NumeralUtils;
+
+/**
+ * Base para os formatos de exportação em planilha eletrônica. Concentra a escrita do título, do cabeçalho do detalhe e
+ * das linhas de dados, deixando a cargo das implementações apenas a escolha do documento (<i>XLS</i>, <i>XLSX</i>,
+ * etc).
+ * <p>
+ * O estado de cada exportação (documento, planilha corrente, estilos, etc) é mantido em um contexto criado no início
+ * da exportação e associado à thread que a executa, sendo descartado ao final da escrita do documento ou por meio de
+ * {@link #reiniciar()}. O contexto também é descartado quando qualquer fase da exportação falha e quando uma nova
+ * exportação é iniciada por {@link #iniciar(OutputStream)} na mesma thread. A configuração (largura das colunas, limite
+ * de linhas, etc) é copiada para o contexto na sua criação, de modo que alterá-la não afeta as exportações em
+ * andamento. Dessa forma, uma mesma instância pode ser reutilizada em exportações sucessivas e compartilhada entre
+ * threads.
+ * </p>
+ *
+ * @param <T>
+ *            Tipo dos registros exportados
+ * @see FormatoExportavelExcel FormatoExportavelExcel
+ * @see FormatoExportavelXlsx FormatoExportavelXlsx
+ */
+public abstract class FormatoExportavelPlanilha<T>
+        implements FormatoExportavelParalelo<T, Object[][]>, FormatoExportavelValores<T> {
+
+    protected static final String ME001 = "O destino da exportação não foi definido. Utilize o método \"iniciar\" antes de concluir a exportação.";
+
+    protected static final String ME002 = "A amostra de linhas para a estimativa da largura das colunas não pode ser negativa.";
+
+    protected static final String ME003 = "O limite de linhas por planilha deve ser maior que zero.";
+
+    protected static final String ME004 = "O limite de memória da área de preparação não pode ser negativo.";
+
+    protected static final String ME005 = "Nenhuma exportação está em andamento na thread corrente.";
+
+    /**
+     * Número de bytes mantidos por padrão fora da memória da aplicação pela área de preparação, antes do uso de um
+     * arquivo temporário.
+     */
+    public static final long LIMITE_PREPARACAO_PADRAO = 32L * 1024 * 1024;
+
+    private final Class<T> type;
+
+    private final PlanoColunas<T> plano;
+
+    private final ThreadLocal<Contexto> contextos = new ThreadLocal<>();
+
+    private volatile LarguraColunaEnum larguraColuna = LarguraColunaEnum.EXATA;
+
+    private volatile int amostraLargura;
+
+    private volatile int linhasPorPlanilha = Integer.MAX_VALUE;
+
+    private volatile boolean preparacao;
+
+    private volatile long limitePreparacao = LIMITE_PREPARACAO_PADRAO;
+
+    /**
+     * Constrói uma nova instância de FormatoExportavelPlanilha.
+     *
+     * @param type
+     *            Classe
+     */
+    protected FormatoExportavelPlanilha(final Class<T> type) {
+        this(PlanoColunas.de(type));
+    }
+
+    /**
+     * Constrói uma nova instância de FormatoExportavelPlanilha a partir de um plano de colunas.
+     *
+     * @param plano
+     *            Plano de colunas
+     */
+    protected FormatoExportavelPlanilha(final PlanoColunas<T> plano) {
+        this.type = plano.getTipo();
+        this.plano = plano;
+    }
+
+    /**
+     * Responsável por criar o documento (pasta de trabalho) de uma nova exportação.
+     *
+     * @return O documento.
+     */
+    protected abstract Workbook criarDocumento();
+
+    /**
+     * Inicia uma nova exportação na thread corrente, descartando o contexto de uma exportação anterior que não tenha sido
+     * concluída.
+     */
+    @Override
+    public void iniciar(final OutputStream destino) {
+
+        this.reiniciar();
+        this.contexto().destino = destino;
+    }
+
+    @Override
+    public void cabecalho(final Map<String, Object> parametros) throws ExportacaoExcelException {
+
+        try {
+
+            this.contexto().comTitulo = true;
+            this.titulo();
+
+        } catch (RuntimeException e) {
+            this.reiniciar();
+            throw e;
+        }
+    }
+
+    /**
+     * Responsável por escrever o título do plano de colunas na primeira linha da planilha corrente.
+     */
+    private void titulo() {
+
+        final Contexto contexto = this.atual();
+        final String titulo = this.plano.getTitulo();
+
+        if (! titulo.isEmpty()) {
+
+            final Row linhaCabecalho = contexto.planilha.createRow(NumeralUtils.ZERO);
+            final CellRangeAddress regiao = new CellRangeAddress(0, 0, 0, this.plano.getTotalColunas() - 1);
+
+            contexto.planilha.addMergedRegion(regiao);
+
+            final Cell celula = linhaCabecalho.createCell(NumeralUtils.ZERO);
+
+            celula.setCellValue(contexto.documento.getCreationHelper().createRichTextString(titulo));
+            celula.setCellStyle(this.getEstiloCabecalho());
+        }
+    }
+
+    @Override
+    public void detalhes(final List<T> registros) throws ExportacaoExcelException {
+        this.detalhes(registros.iterator());
+    }
+
+    @Override
+    public void detalhes(final Iterator<T> registros) throws ExportacaoExcelException {
+
+        this.iniciarDetalhes();
+
+        final Object[] valores = new Object[this.plano.getTotalColunas()];
+
+        try {
+
+            while (registros.hasNext()) {
+                this.valores(registros.next(), valores);
+                this.linha(valores);
+            }
+
+        } catch (ExportacaoExcelException | RuntimeException e) {
+            this.reiniciar();
+            throw e;
+        }
+    }
+
+    @Override
+    public void iniciarDetalhes() throws ExportacaoExcelException {
+
+        try {
+
+            final Contexto contexto = this.contexto();
+
+            if (LarguraColunaEnum.ESTIMADA.equals(contexto.larguraColuna)) {
+                contexto.estimador = new EstimadorLarguras(this.plano.getTotalColunas(), contexto.amostraLargura);
+            }
+
+            this.cabecalhoDetalhe();
+
+            final List<ColunaExportavel> colunas = this.plano.getColunas();
+
+            contexto.estilosColunas = new CellStyle[colunas.size()];
+            contexto.totalizador = Totalizador.de(this.plano);
+            contexto.linhaAtual = NumeralUtils.DOIS;
+
+            for (int coluna = 0; coluna < colunas.size(); coluna++) {
+                contexto.estilosColunas[coluna] = this.getEstiloDetalhe(colunas.get(coluna));
+            }
+
+        } catch (RuntimeException e) {
+            this.reiniciar();
+            throw e;
+        }
+    }
+
+    /**
+     * Responsável por encerrar a planilha corrente e criar uma nova, repetindo o título e o cabeçalho do detalhe.
+     */
+    private void novaPlanilha(final Contexto contexto) throws ExportacaoExcelException {
+
+        this.planilhaConcluida(contexto.planilha);
+        contexto.planilha = contexto.documento.createSheet();
+
+        if (contexto.comTitulo) {
+            this.titulo();
+        }
+
+        this.cabecalhoDetalhe();
+        contexto.linhaAtual = NumeralUtils.DOIS;
+    }
+
+    /**
+     * Obtém os valores das colunas de cada registro do lote. A leitura dos registros não altera o estado do formato e
+     * pode ser executada concorrentemente.
+     */
+    @Override
+    public Object[][] preparar(final List<T> lote) throws ExportacaoExcelException {
+
+        final Object[][] valores = new Object[lote.size()][];
+
+        for (int posicao = 0; posicao < lote.size(); posicao++) {
+            valores[posicao] = new Object[this.plano.getTotalColunas()];
+            this.valores(lote.get(posicao), valores[posicao]);
+        }
+
+        return valores;
+    }
+
+    @Override
+    public void acrescentar(final Object[][] lote) throws ExportacaoExcelException {
+
+        for (final Object[] valores : lote) {
+            this.linha(valores);
+        }
+    }
+
+    /**
+     * Escreve, após a última linha de dados, a linha de totais com as agregações declaradas nas colunas (veja
+     * {@link AtributoExportavel#agregacao()}). Os valores são acumulados durante a escrita dos detalhes. A linha de
+     * totais é sempre escrita na mesma planilha da última linha de dados.
+     */
+    @Override
+    public void rodape(final Map<String, Object> parametros) throws ExportacaoExcelException {
+
+        final Contexto contexto = this.contexto();
+
+        try {
+            this.totais(contexto);
+        } catch (ExportacaoExcelException | RuntimeException e) {
+            this.reiniciar();
+            throw e;
+        }
+    }
+
+    private void totais(final Contexto contexto) throws ExportacaoExcelException {
+
+        this.reproduzir(contexto);
+
+        if (contexto.totalizador == null) {
+            return;
+        }
+
+        final List<ColunaExportavel> colunas = this.plano.getColunas();
+        final Row linhaTotais = contexto.planilha.createRow(contexto.linhaAtual);
+
+        for (int coluna = 0; coluna < colunas.size(); coluna++) {
+            try {
+
+                final ColunaExportavel atributo = colunas.get(coluna);
+                final Object valor = contexto.totalizador.resultado(coluna);
+                final Cell celula = linhaTotais.createCell(coluna);
+
+                if (valor instanceof Date) {
+                    celula.setCellValue((Date) valor);
+                } else if (valor instanceof Number) {
+                    celula.setCellValue(((Number) valor).doubleValue());
+                } else if (coluna == 0 && AgregacaoEnum.NENHUMA.equals(atributo.getAgregacao())) {
+                    celula.setCellValue(AgregacaoEnum.ROTULO_TOTAIS);
+                }
+
+                celula.setCellStyle(this.getEstiloTotais(atributo));
+
+                if (contexto.estimador != null && valor != null) {
+                    this.estimarLargura(contexto.estimador, coluna, atributo, valor);
+                }
+            } catch (Exception e) {
+                throw new ExportacaoExcelException(e.getMessage(), e);
+            }
+        }
+
+        contexto.linhaAtual++;
+    }
+
+    @Override
+    public byte[] getBytes() throws ExportacaoExcelException {
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        this.escrever(out);
+
+        return out.toByteArray();
+    }
+
+    @Override
+    public void concluir() throws ExportacaoExcelException {
+
+        final Contexto contexto = this.contextos.get();
+
+        if (contexto == null || contexto.destino == null) {
+            this.reiniciar();
+            throw new ExportacaoExcelException(ME001);
+        }
+
+        this.escrever(contexto.destino);
+    }
+
+    /**
+     * Descarta o documento da exportação em andamento na thread corrente, liberando os seus recursos. Não é necessário
+     * chamar este método após a escrita do documento, que já descarta o contexto da exportação.
+     */
+    @Override
+    public void reiniciar() {
+
+        final Contexto contexto = this.contextos.get();
+
+        if (contexto != null) {
+            try {
+
+                if (contexto.area != null) {
+                    contexto.area.close();
+                }
+
+                this.liberar();
+
+            } finally {
+                this.contextos.remove();
+            }
+        }
+    }
+
+    @Override
+    public Class<T> getType() {
+        return this.type;
+    }
+
+    /**
+     * Responsável por escrever o documento no destino informado, ajustando antes a largura das colunas. Ao final, o
+     * contexto da exportação é descartado.
+     *
+     * @param destino
+     *            Fluxo de saída que receberá o conteúdo do documento
+     * @throws ExportacaoExcelException
+     *             Caso algum erro de entrada e saída ocorra durante a escrita.
+     */
+    protected void escrever(final OutputStream destino) throws ExportacaoExcelException {
+
+        final Contexto contexto = this.contexto();
+
+        try {
+
+            this.reproduzir(contexto);
+
+            for (int posicao = 0; posicao < contexto.documento.getNumberOfSheets(); posicao++) {
+
+                final Sheet folha = contexto.documento.getSheetAt(posicao);
+
+                if (LarguraColunaEnum.EXATA.equals(contexto.larguraColuna)) {
+                    for (int celula = 0; celula < this.plano.getTotalColunas(); celula++) {
+                        folha.autoSizeColumn(celula);
+                    }
+                } else if (contexto.estimador != null) {
+                    contexto.estimador.aplicar(folha);
+                }
+            }
+
+            contexto.documento.write(destino);
+
+        } catch (IOException e) {
+            throw new ExportacaoExcelException(e.getMessage(), e);
+        } finally {
+            this.reiniciar();
+        }
+    }
+
+    /**
+     * Modo de ajuste da largura das colunas.
+     *
+     * @return O modo de ajuste da largura das colunas.
+     */
+    public LarguraColunaEnum getLarguraColuna() {
+        return this.larguraColuna;
+    }
+
+    /**
+     * Define o modo de ajuste da largura das colunas. O modo deve ser definido antes do início das exportações.
+     *
+     * @param larguraColuna
+     *            Modo de ajuste da largura das colunas
+     * @see LarguraColunaEnum LarguraColunaEnum
+     */
+    public void setLarguraColuna(final LarguraColunaEnum larguraColuna) {
+        this.larguraColuna = larguraColuna;
+    }
+
+    /**
+     * Número de linhas de dados consideradas na estimativa da largura das colunas.
+     *
+     * @return O tamanho da amostra ou zero caso todas as linhas sejam consideradas.
+     */
+    public int getAmostraLargura() {
+        return this.amostraLargura;
+    }
+
+    /**
+     * Define o número de linhas de dados consideradas na estimativa da largura das colunas. Aplica-se somente ao modo
+     * {@link LarguraColunaEnum#ESTIMADA ESTIMADA}.
+     *
+     * @param amostraLargura
+     *            Tamanho da amostra ou zero para considerar todas as linhas
+     * @throws IllegalArgumentException
+     *             Caso a amostra informada seja negativa.
+     */
+    public void setAmostraLargura(final int amostraLargura) throws IllegalArgumentException {
+
+        if (amostraLargura < 0) {
+            throw new IllegalArgumentException(ME002);
+        }
+
+        this.amostraLargura = amostraLargura;
+    }
+
+    /**
+     * Número máximo de linhas de dados por planilha.
+     *
+     * @return O limite de linhas de dados por planilha.
+     */
+    public int getLinhasPorPlanilha() {
+        return this.linhasPorPlanilha;
+    }
+
+    /**
+     * Define o número máximo de linhas de dados por planilha. Ao atingir o limite, as linhas seguintes são escritas em
+     * uma nova planilha do mesmo documento, que repete o título e o cabeçalho do detalhe. Quando as colunas declaram
+     * agregações, a linha de totais é contada no limite, de modo que permaneça na planilha da última linha de dados.
+     *
+     * @param linhasPorPlanilha
+     *            Limite de linhas de dados por planilha
+     * @throws IllegalArgumentException
+     *             Caso o limite informado seja menor ou igual a zero.
+     */
+    public void setLinhasPorPlanilha(final int linhasPorPlanilha) throws IllegalArgumentException {
+
+        if (linhasPorPlanilha <= 0) {
+            throw new IllegalArgumentException(ME003);
+        }
+
+        this.linhasPorPlanilha = linhasPorPlanilha;
+    }
+
+    /**
+     * Indica se as linhas de dados são mantidas na área de preparação até a escrita do documento.
+     *
+     * @return <b>True</b> caso a área de preparação seja utilizada.
+     */
+    public boolean isPreparacao() {
+        return this.preparacao;
+    }
+
+    /**
+     * Define se as linhas de dados são mantidas em uma área de preparação até a escrita do documento. Nesse caso, os
+     * valores já convertidos de cada linha são gravados em forma binária compacta fora da memória da aplicação e as
+     * linhas e células da planilha são criadas somente no rodapé ou na escrita do documento, em uma única passagem.
+     * Assim, durante a leitura dos registros, a memória da aplicação não acumula os objetos das linhas da planilha, o que
+     * reduz a frequência e a duração das coletas de lixo em exportações com milhões de células, principalmente no formato
+     * {@link FormatoExportavelExcel}, que mantém todo o documento em memória. A configuração deve ser definida antes do
+     * início das exportações.
+     *
+     * @param preparacao
+     *            <b>True</b> para utilizar a área de preparação
+     * @see #setLimitePreparacao(long)
+     */
+    public void setPreparacao(final boolean preparacao) {
+        this.preparacao = preparacao;
+    }
+
+    /**
+     * Número máximo de bytes mantidos fora da memória da aplicação pela área de preparação de cada exportação.
+     *
+     * @return O limite em bytes.
+     */
+    public long getLimitePreparacao() {
+        return this.limitePreparacao;
+    }
+
+    /**
+     * Define o número máximo de bytes mantidos fora da memória da aplicação (<i>direct buffers</i>) pela área de
+     * preparação de cada exportação. Acima do limite, as linhas são gravadas em um arquivo temporário mapeado em memória,
+     * removido ao final da exportação. O limite deve ser compatível com a memória direta disponível à JVM
+     * (<i>-XX:MaxDirectMemorySize</i>).
+     *
+     * @param limitePreparacao
+     *            Limite em bytes ou zero para utilizar apenas o arquivo temporário
+     * @throws IllegalArgumentException
+     *             Caso o limite informado seja negativo.
+     */
+    public void setLimitePreparacao(final long limitePreparacao) throws IllegalArgumentException {
+
+        if (limitePreparacao < 0) {
+            throw new IllegalArgumentException(ME004);
+        }
+
+        this.limitePreparacao = limitePreparacao;
+    }
+
+    /**
+     * Responsável por tratar uma planilha que não receberá mais linhas, após a criação de uma nova planilha pelo limite de
+     * linhas. Por padrão, nada é feito.
+     *
+     * @param planilha
+     *            Planilha concluída
+     * @throws ExportacaoExcelException
+     *             Caso algum erro ocorra durante o tratamento da planilha.
+     */
+    protected void planilhaConcluida(final Sheet planilha) throws ExportacaoExcelException {
+
+    }
+
+    /**
+     * Responsável por liberar os recursos mantidos pelo documento da exportação corrente antes do seu descarte. Por
+     * padrão, nada é feito.
+     */
+    protected void liberar() {
+
+    }
+
+    /**
+     * Obtém o plano de colunas da classe exportada.
+     *
+     * @return O plano de colunas.
+     */
+    @Override
+    public PlanoColunas<T> getPlano() {
+        return this.plano;
+    }
+
+    /**
+     * Obtém o documento (pasta de trabalho) em que a planilha é escrita.
+     *
+     * @return O documento.
+     * @throws IllegalStateException
+     *             Caso nenhuma exportação esteja em andamento na thread corrente.
+     */
+    protected Workbook getDocumento() {
+        return this.atual().documento;
+    }
+
+    /**
+     * Obtém o registro de estilos do documento. Estilos adicionais devem ser obtidos por meio dele para que cada
+     * combinação de formato e fonte seja criada uma única vez.
+     *
+     * @return O registro de estilos.
+     * @throws IllegalStateException
+     *             Caso nenhuma exportação esteja em andamento na thread corrente.
+     */
+    protected RegistroEstilos getEstilos() {
+        return this.atual().estilos;
+    }
+
+    /**
+     * Obtém a planilha em que os dados são escritos no momento.
+     *
+     * @return A planilha.
+     * @throws IllegalStateException
+     *             Caso nenhuma exportação esteja em andamento na thread corrente.
+     */
+    protected Sheet getPlanilha() {
+        return this.atual().planilha;
+    }
+
+    /**
+     * Responsável por escrever uma linha de dados na próxima posição livre da planilha. Ao atingir o limite de linhas por
+     * planilha, uma nova planilha é criada. Com a área de preparação, a linha é apenas gravada na área e escrita na
+     * planilha no rodapé ou na escrita do documento.
+     *
+     * @param valores
+     *            Valores das colunas, na ordem do plano de colunas
+     * @throws ExportacaoExcelException
+     *             Caso algum erro ocorra durante a escrita das células.
+     * @see #setPreparacao(boolean)
+     */
+    @Override
+    public void linha(final Object[] valores) throws ExportacaoExcelException {
+
+        final Contexto contexto = this.contexto();
+
+        try {
+
+            if (contexto.preparacao) {
+
+                if (contexto.area == null) {
+                    contexto.area = new AreaPreparacao(contexto.limitePreparacao);
+                }
+
+                contexto.area.acrescentar(valores);
+
+            } else {
+                this.escreverLinha(contexto, valores);
+            }
+
+        } catch (IOException e) {
+            this.reiniciar();
+            throw new ExportacaoExcelException(e.getMessage(), e);
+        } catch (ExportacaoExcelException | RuntimeException e) {
+            this.reiniciar();
+            throw e;
+        }
+    }
+
+    /**
+     * Responsável por escrever na planilha as linhas mantidas na área de preparação, na ordem em que foram recebidas. A
+     * área é descartada ao final.
+     */
+    private void reproduzir(final Contexto contexto) throws ExportacaoExcelException {
+
+        if (contexto.area == null) {
+            return;
+        }
+
+        try (final AreaPreparacao area = contexto.area) {
+
+            contexto.area = null;
+
+            final Object[] valores = new Object[this.plano.getTotalColunas()];
+
+            while (area.ler(valores)) {
+                this.escreverLinha(contexto, valores);
+            }
+
+        } catch (IOException e) {
+            throw new ExportacaoExcelException(e.getMessage(), e);
+        }
+    }
+
+    private void escreverLinha(final Contexto contexto, final Object[] valores) throws ExportacaoExcelException {
+
+        if (contexto.linhaAtual - NumeralUtils.DOIS >= this.limiteDetalhes(contexto)) {
+            this.novaPlanilha(contexto);
+        }
+
+        final List<ColunaExportavel> colunas = this.plano.getColunas();
+        final CellStyle[] estilosColunas = contexto.estilosColunas;
+        final EstimadorLarguras estimador = contexto.estimador;
+        final Row linhaDetalhe = contexto.planilha.createRow(contexto.linhaAtual);
+
+        for (int coluna = 0; coluna < colunas.size(); coluna++) {
+            try {
+
+                final ColunaExportavel atributo = colunas.get(coluna);
+                final Object valor = valores[coluna];
+                final Cell celula = linhaDetalhe.createCell(coluna);
+
+                if (valor instanceof Boolean) {
+                    celula.setCellValue(((Boolean) valor) ? SimNaoEnum.SIM.getLabel() : SimNaoEnum.NAO.getLabel());
+                } else if (valor instanceof Date) {
+                    celula.setCellValue((Date) valor);
+                    celula.setCellStyle(estilosColunas[coluna] != null ? estilosColunas[coluna]
+                            : contexto.estilos.estilo(atributo.getFormato(), TipoColunaEnum.DATA));
+                } else if (valor instanceof Number) {
+                    celula.setCellValue(((Number) valor).doubleValue());
+
+                    final CellStyle estilo = estilosColunas[coluna] != null ? estilosColunas[coluna]
+                            : contexto.estilos.estilo(atributo.getFormato(), TipoColunaEnum.NUMERO);
+
+                    if (estilo != null) {
+                        celula.setCellStyle(estilo);
+                    }
+                } else if (valor instanceof String) {
+                    celula.setCellValue((String) valor);
+                }
+
+                if (estimador != null && estimador.isAmostrando()) {
+                    this.estimarLargura(estimador, coluna, atributo, valor);
+                }
+            } catch (Exception e) {
+                throw new ExportacaoExcelException(e.getMessage(), e);
+            }
+        }
+
+        if (estimador != null) {
+            estimador.linha();
+        }
+
+        if (contexto.totalizador != null) {
+            contexto.totalizador.acumular(valores);
+        }
+
+        contexto.linhaAtual++;
+    }
+
+    /**
+     * Número de linhas de dados que cabem em uma planilha. Com a linha de totais, uma linha é reservada para ela, já que
+     * não se sabe de antemão qual linha de dados será a última. Com o limite de uma linha, a linha de totais o excede.
+     */
+    private int limiteDetalhes(final Contexto contexto) {
+
+        if (contexto.totalizador != null && contexto.linhasPorPlanilha > 1) {
+            return contexto.linhasPorPlanilha - 1;
+        }
+
+        return contexto.linhasPorPlanilha;
+    }
+
+    /**
+     * Responsável por escrever o cabeçalho do detalhe do documento exportado.
+     */
+    protected void cabecalhoDetalhe() {
+
+        final Contexto contexto = this.atual();
+        final Row linhaCabecalhoDetalhe = contexto.planilha.createRow(NumeralUtils.UM);
+        final List<ColunaExportavel> colunas = this.plano.getColunas();
+        final CellStyle estilo = this.getEstiloCabecalhoDetalhe();
+
+        for (int posicao = 0; posicao < colunas.size(); posicao++) {
+            final Cell celula = linhaCabecalhoDetalhe.createCell(posicao);
+
+            celula.setCellValue(colunas.get(posicao).getTitulo());
+            celula.setCellStyle(estilo);
+
+            if (contexto.estimador != null) {
+                contexto.estimador.titulo(posicao, colunas.get(posicao).getTitulo());
+            }
+        }
+    }
+
+    /**
+     * Obtém o estilo de formatação utilizado para decorar as células do <b>cabeçalho</b>.
+     *
+     * @return Estilo que é aplicado ao cabeçalho.
+     */
+    protected CellStyle getEstiloCabecalho() {
+
+        final RegistroEstilos estilos = this.getEstilos();
+        final Font fonte = estilos.fonte(true, NumeralUtils.VINTE.shortValue(), NumeralUtils.CINCO.byteValue());
+
+        return estilos.estilo(null, fonte);
+    }
+
+    /**
+     * Obtém o estilo de formatação utilizado para decorar as células do <b>cabeçalho do detalhe</b> (nome das colunas).
+     *
+     * @return Estilo que é aplicado ao cabeçalho do detalhe.
+     */
+    protected CellStyle getEstiloCabecalhoDetalhe() {
+
+        final RegistroEstilos estilos = this.getEstilos();
+        final Font fonte = estilos.fonte(true, NumeralUtils.DEZ.shortValue(), Font.U_NONE);
+
+        return estilos.estilo(null, fonte);
+    }
+
+    /**
+     * Obtém o estilo de formatação utilizado para decorar as células da linha de <b>totais</b> (rodapé): o formato de
+     * dados da coluna em negrito. As contagens utilizam o formato geral.
+     *
+     * @param coluna
+     *            Coluna exportável
+     * @return Estilo que é aplicado à célula de totais da coluna.
+     */
+    protected CellStyle getEstiloTotais(final ColunaExportavel coluna) {
+
+        final RegistroEstilos estilos = this.getEstilos();
+        final Font fonte = estilos.fonte(true, NumeralUtils.DEZ.shortValue(), Font.U_NONE);
+        final String formato = AgregacaoEnum.CONTAGEM.equals(coluna.getAgregacao()) ? null
+                : RegistroEstilos.formatoDados(coluna.getFormato(), coluna.getCategoria());
+
+        return estilos.estilo(formato, fonte);
+    }
+
+    /**
+     * Obtém o estilo de formatação utilizado pelas células de dados da coluna informada. As datas e os números com
+     * formato {@link FormatoAtributoEnum#MOEDA MOEDA} ou {@link FormatoAtributoEnum#PERCENTUAL PERCENTUAL} são escritos
+     * como valores numéricos, cabendo ao formato de dados do estilo a sua apresentação.
+     *
+     * @param coluna
+     *            Coluna exportável
+     * @return Estilo que é aplicado às células da coluna ou <b>null</b> para o estilo padrão do documento.
+     */
+    protected CellStyle getEstiloDetalhe(final ColunaExportavel coluna) {
+
+        if (TipoColunaEnum.DATA.equals(coluna.getCategoria()) || TipoColunaEnum.NUMERO.equals(coluna.getCategoria())) {
+            return this.getEstilos().estilo(coluna.getFormato(), coluna.getCategoria());
+        }
+
+        return null;
+    }
+
+    private void valores(final T registro, final Object[] valores) throws ExportacaoExcelException {
+
+        try {
+            this.plano.valores(registro, valores);
+        } catch (ExportacaoException e) {
+            throw new ExportacaoExcelException(e.getMessage(), e);
+        }
+    }
+
+    private void estimarLargura(final EstimadorLarguras estimador, final int coluna, final ColunaExportavel atributo,
+            final Object valor) {
+
+        if (valor instanceof Boolean) {
+            estimador.registrar(coluna, ((Boolean) valor) ? SimNaoEnum.SIM.getLabel().length() : SimNaoEnum.NAO.getLabel().length());
+        } else if (valor instanceof Date) {
+            estimador.registrar(coluna, RegistroEstilos.formatoDados(atributo.getFormato(), TipoColunaEnum.DATA).length());
+        } else if (valor instanceof Number) {
+            estimador.registrar(coluna, EstimadorLarguras.caracteres(((Number) valor).doubleValue(),
+                    RegistroEstilos.formatoDados(atributo.getFormato(), TipoColunaEnum.NUMERO)));
+        } else if (valor instanceof String) {
+            estimador.registrar(coluna, ((String) valor).length());
+        }
+    }
+
+    /**
+     * Obtém o contexto da exportação em andamento na thread corrente, criando um novo documento caso nenhuma exportação
+     * esteja em andamento. Utilizado somente pelas fases da exportação.
+     */
+    private Contexto contexto() {
+
+        Contexto contexto = this.contextos.get();
+
+        if (contexto == null) {
+            contexto = new Contexto(this.criarDocumento(), this);
+            this.contextos.set(contexto);
+        }
+
+        return contexto;
+    }
+
+    /**
+     * Obtém o contexto da exportação em andamento na thread corrente, sem criá-lo.
+     */
+    private Contexto atual() {
+
+        final Contexto contexto = this.contextos.get();
+
+        if (contexto == null) {
+            throw new IllegalStateException(ME005);
+        }
+
+        return contexto;
+    }
+
+    /**
+     * Formata uma data utilizando o formato espeficicado.
+     *
+     * @param formato
+     *            Formatação desejada
+     * @param data
+     *            Data
+     * @return A data formatada.
+     * @deprecated As datas são escritas como valores nativos da planilha, formatados pelo estilo da coluna. Veja
+     *             {@link #getEstiloDetalhe(ColunaExportavel)}.
+     */
+    @Deprecated
+    protected String comoData(final FormatoAtributoEnum formato, final Date data) {
+
+        if (FormatoAtributoEnum.DATA.equals(formato)) {
+            return DataUtils.formatar(data, DataUtils.Formato.PADRAO);
+        }
+
+        if (FormatoAtributoEnum.HORA.equals(formato)) {
+            return DataUtils.formatar(data, DataUtils.Formato.PADRAO_COMPLETO);
+        }
+
+        if (FormatoAtributoEnum.TIMESTAMP.equals(formato)) {
+            return DataUtils.formatar(data, DataUtils.Formato.HORARIO);
+        }
+
+        return data.toString();
+    }
+
+    /**
+     * Formata um valor numérico utilizando o formato espeficicado.
+     *
+     * @param formato
+     *            Formatação desejada
+     * @param valor
+     *            valor númerico
+     * @return O número formatado.
+     * @deprecated Os números são escritos como valores nativos da planilha, formatados pelo estilo da coluna. Veja
+     *             {@link #getEstiloDetalhe(ColunaExportavel)}.
+     */
+    @Deprecated
+    protected String comoNumero(final FormatoAtributoEnum formato, final Number valor) {
+
+        final Double numero = new Double(((Number) valor).doubleValue());
+
+        if (FormatoAtributoEnum.MOEDA.equals(formato)) {
+            return NumeralUtils.paraMoeda(numero);
+        }
+
+        if (FormatoAtributoEnum.PERCENTUAL.equals(formato)) {
+            return NumeralUtils.paraPorcentagem(numero);
+        }
+
+        throw new IllegalArgumentException();
+    }
+
+    /**
+     * Estado de uma exportação: documento, planilha corrente, estilos, totais acumulados, posição da próxima linha e a
+     * configuração vigente no início da exportação.
+     */
+    private static final class Contexto {
+
+        private final Workbook documento;
+
+        private final LarguraColunaEnum larguraColuna;
+
+        private final int amostraLargura;
+
+        private final int linhasPorPlanilha;
+
+        private final boolean preparacao;
+
+        private final long limitePreparacao;
+
+        private final RegistroEstilos estilos;
+
+        private Sheet planilha;
+
+        private EstimadorLarguras estimador;
+
+        private CellStyle[] estilosColunas;
+
+        private Totalizador totalizador;
+
+        private int linhaAtual;
+
+        private boolean comTitulo;
+
+        private OutputStream destino;
+
+        private AreaPreparacao area;
+
+        Contexto(final Workbook documento, final FormatoExportavelPlanilha<?> formato) {
+            this.documento = documento;
+            this.larguraColuna = formato.larguraColuna;
+            this.amostraLargura = formato.amostraLargura;
+            this.linhasPorPlanilha = formato.linhasPorPlanilha;
+            this.preparacao = formato.preparacao;
+            this.limitePreparacao = formato.limitePreparacao;
+            this.estilos = new RegistroEstilos(documento);
+            this.planilha = documento.createSheet();
+        }
+    }
+}
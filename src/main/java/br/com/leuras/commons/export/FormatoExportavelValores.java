@@ -0,0 +1,44 @@
+package br.com.leuras.commons.export;
+
+import br.com.leuras.commons.exception.ExportacaoException;
+
+/**
+ * Formato de exportação capaz de escrever linhas a partir dos valores das colunas já obtidos dos registros. Permite que
+ * os valores de cada registro sejam lidos uma única vez e entregues a vários formatos ao mesmo tempo.
+ * <p>
+ * Nesse caso, a chamada a {@link FormatoExportavelFluxo#detalhes(java.util.Iterator) detalhes} é substituída por uma
+ * chamada a {@link #iniciarDetalhes()}, seguida de {@link #linha(Object[])} para cada registro.
+ * </p>
+ *
+ * @param <T>
+ *            Tipo dos registros exportados
+ * @see ExportadorMultiplo ExportadorMultiplo
+ */
+public interface FormatoExportavelValores<T> extends FormatoExportavelFluxo<T> {
+
+    /**
+     * Responsável por escrever o que antecede os registros no corpo (detalhe) do documento, como o cabeçalho do detalhe.
+     *
+     * @throws ExportacaoException
+     *             Caso algum erro durante a exportação.
+     */
+    void iniciarDetalhes() throws ExportacaoException;
+
+    /**
+     * Responsável por escrever uma linha de dados. O array é reutilizado entre as chamadas e não deve ser mantido pelo
+     * formato.
+     *
+     * @param valores
+     *            Valores das colunas, na ordem do plano de colunas
+     * @throws ExportacaoException
+     *             Caso algum erro durante a exportação.
+     */
+    void linha(Object[] valores) throws ExportacaoException;
+
+    /**
+     * Obtém o plano de colunas cujos valores são esperados em {@link #linha(Object[])}.
+     *
+     * @return O plano de colunas.
+     */
+    PlanoColunas<T> getPlano();
+}
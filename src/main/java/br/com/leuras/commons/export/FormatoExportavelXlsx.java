@@ -0,0 +1,136 @@
+package br.com.leuras.commons.export;
+
+import java.io.IOException;
+
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import br.com.leuras.commons.exception.ExportacaoExcelException;
+
+/**
+ * Formato de exportação em planilha eletrônica no formato do Excel 2007+ (<i>XLSX</i>). As linhas são escritas por meio
+ * de uma janela deslizante: apenas as últimas linhas criadas permanecem em memória e as demais são descarregadas em um
+ * arquivo temporário, de modo que o consumo de memória não cresce com o volume de registros exportados.
+ *
+ * <pre>
+ * <code>
+ * final FormatoExportavelXlsx{@literal <Funcionario>} formato = new FormatoExportavelXlsx{@literal <Funcionario>}(Funcionario.class);
+ * final Exportador{@literal <Funcionario>} exportador = new Exportador{@literal <Funcionario>}(formato);
+ *
+ * exportador.exportar("/tmp/funcionarios.xlsx", registros);
+ * </code>
+ * </pre>
+ *
+ * Como as linhas já descarregadas não podem mais ser lidas, a largura das colunas é, por padrão,
+ * {@link LarguraColunaEnum#ESTIMADA estimada} durante a escrita das linhas. No modo {@link LarguraColunaEnum#EXATA
+ * EXATA} somente as linhas que ainda se encontram na janela são consideradas.
+ *
+ * @param <T>
+ *            Tipo dos registros exportados
+ * @see FormatoExportavelExcel FormatoExportavelExcel
+ */
+public class FormatoExportavelXlsx<T> extends FormatoExportavelPlanilha<T> {
+
+    /**
+     * Número de linhas mantidas em memória por padrão.
+     */
+    public static final int JANELA_PADRAO = SXSSFWorkbook.DEFAULT_WINDOW_SIZE;
+
+    /**
+     * Número máximo de linhas de dados por planilha, descontadas as linhas do título e do cabeçalho do detalhe.
+     */
+    public static final int LIMITE_LINHAS = 1048574;
+
+    private final int janela;
+
+    /**
+     * Constrói uma nova instância de FormatoExportavelXlsx utilizando a janela padrão de linhas em memória.
+     *
+     * @param type
+     *            Classe
+     */
+    public FormatoExportavelXlsx(final Class<T> type) {
+        this(type, JANELA_PADRAO);
+    }
+
+    /**
+     * Constrói uma nova instância de FormatoExportavelXlsx.
+     *
+     * @param type
+     *            Classe
+     * @param janela
+     *            Número máximo de linhas mantidas em memória antes de serem descarregadas no arquivo temporário
+     * @throws IllegalArgumentException
+     *             Caso a janela informada seja menor ou igual a zero.
+     */
+    public FormatoExportavelXlsx(final Class<T> type, final int janela) throws IllegalArgumentException {
+        this(PlanoColunas.de(type), janela);
+    }
+
+    /**
+     * Constrói uma nova instância de FormatoExportavelXlsx a partir de um plano de colunas, como o obtido de um
+     * {@link java.sql.ResultSet ResultSet}, utilizando a janela padrão de linhas em memória.
+     *
+     * @param plano
+     *            Plano de colunas
+     * @see PlanoColunas#de(java.sql.ResultSetMetaData, String, DescritorColuna...) PlanoColunas.de
+     */
+    public FormatoExportavelXlsx(final PlanoColunas<T> plano) {
+        this(plano, JANELA_PADRAO);
+    }
+
+    /**
+     * Constrói uma nova instância de FormatoExportavelXlsx a partir de um plano de colunas.
+     *
+     * @param plano
+     *            Plano de colunas
+     * @param janela
+     *            Número máximo de linhas mantidas em memória antes de serem descarregadas no arquivo temporário
+     * @throws IllegalArgumentException
+     *             Caso a janela informada seja menor ou igual a zero.
+     */
+    public FormatoExportavelXlsx(final PlanoColunas<T> plano, final int janela) throws IllegalArgumentException {
+        super(plano);
+
+        if (janela <= 0) {
+            throw new IllegalArgumentException("A janela de linhas em memória deve ser maior que zero.");
+        }
+
+        this.janela = janela;
+        this.setLarguraColuna(LarguraColunaEnum.ESTIMADA);
+        this.setLinhasPorPlanilha(LIMITE_LINHAS);
+    }
+
+    @Override
+    protected SXSSFWorkbook criarDocumento() {
+        return new SXSSFWorkbook(this.janela);
+    }
+
+    @Override
+    protected SXSSFWorkbook getDocumento() {
+        return (SXSSFWorkbook) super.getDocumento();
+    }
+
+    /**
+     * Descarrega as linhas da planilha concluída que ainda se encontram na janela, de modo que apenas a planilha corrente
+     * mantenha linhas em memória.
+     */
+    @Override
+    protected void planilhaConcluida(final Sheet planilha) throws ExportacaoExcelException {
+
+        try {
+            ((SXSSFSheet) planilha).flushRows();
+        } catch (IOException e) {
+            throw new ExportacaoExcelException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Remove os arquivos temporários utilizados para armazenar as linhas descarregadas da janela.
+     */
+    @Override
+    protected void liberar() {
+        this.getDocumento().dispose();
+    }
+}
@@ -0,0 +1,130 @@
+package br.com.leuras.commons.export;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import br.com.leuras.commons.exception.ExportacaoException;
+
+/**
+ * Iterador sobre os registros de uma {@link FonteDados}. A página seguinte é solicitada em uma thread dedicada assim que
+ * a página corrente começa a ser percorrida, e a página corrente deixa de ser referenciada assim que o seu último
+ * registro é consumido.
+ */
+final class IteradorPaginado<T> implements Iterator<T> {
+
+    static final String ME001 = "A leitura das páginas foi interrompida.";
+
+    private final FonteDados<T> fonte;
+
+    private final ExecutorService leitor;
+
+    private Future<List<T>> proxima;
+
+    private Iterator<T> pagina = Collections.emptyIterator();
+
+    private boolean concluido;
+
+    IteradorPaginado(final FonteDados<T> fonte) {
+        this.fonte = fonte;
+        this.leitor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+
+            @Override
+            public Thread newThread(final Runnable tarefa) {
+
+                final Thread thread = new Thread(tarefa, "exportador-paginas");
+
+                thread.setDaemon(true);
+
+                return thread;
+            }
+        });
+        this.proxima = this.solicitar();
+    }
+
+    @Override
+    public boolean hasNext() {
+
+        while (! this.pagina.hasNext() && ! this.concluido) {
+
+            this.pagina = Collections.emptyIterator();
+
+            final List<T> registros = this.aguardar();
+
+            if (registros == null || registros.isEmpty()) {
+                this.concluido = true;
+            } else {
+                this.proxima = this.solicitar();
+                this.pagina = registros.iterator();
+            }
+        }
+
+        return this.pagina.hasNext();
+    }
+
+    @Override
+    public T next() {
+
+        if (! this.hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        return this.pagina.next();
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Interrompe a leitura antecipada e encerra a thread de leitura.
+     */
+    void encerrar() {
+
+        if (this.proxima != null) {
+            this.proxima.cancel(true);
+        }
+
+        this.leitor.shutdownNow();
+    }
+
+    private Future<List<T>> solicitar() {
+        return this.leitor.submit(new Callable<List<T>>() {
+
+            @Override
+            public List<T> call() throws ExportacaoException {
+                return IteradorPaginado.this.fonte.proximaPagina();
+            }
+        });
+    }
+
+    private List<T> aguardar() {
+
+        try {
+
+            return this.proxima.get();
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LeituraException(new ExportacaoException(ME001, e));
+        } catch (ExecutionException e) {
+
+            if (e.getCause() instanceof ExportacaoException) {
+                throw new LeituraException((ExportacaoException) e.getCause());
+            }
+
+            throw new LeituraException(new ExportacaoException(e.getCause().getMessage(), e.getCause()));
+
+        } finally {
+            this.proxima = null;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package br.com.leuras.commons.export;
+
+/**
+ * Modo de ajuste da largura das colunas de uma planilha exportada.
+ *
+ * @see FormatoExportavelPlanilha#setLarguraColuna(LarguraColunaEnum)
+ */
+public enum LarguraColunaEnum {
+
+    /**
+     * Largura calculada pelo próprio documento a partir das métricas da fonte de cada célula. É o ajuste mais preciso,
+     * porém o seu custo cresce com o número de linhas e depende das fontes do AWT.
+     */
+    EXATA,
+
+    /**
+     * Largura estimada a partir do número de caracteres dos valores escritos, acompanhado durante a escrita das linhas.
+     */
+    ESTIMADA
+}
@@ -0,0 +1,21 @@
+package br.com.leuras.commons.export;
+
+import br.com.leuras.commons.exception.ExportacaoException;
+
+/**
+ * Transporta, através dos formatos de exportação, a falha na leitura dos registros por um iterador que não pode
+ * disparar exceções verificadas. O {@link Exportador} a converte novamente na {@link ExportacaoException} original.
+ */
+final class LeituraException extends RuntimeException {
+
+    private static final long serialVersionUID = -2730946817453910238L;
+
+    LeituraException(final ExportacaoException causa) {
+        super(causa.getMessage(), causa);
+    }
+
+    @Override
+    public synchronized ExportacaoException getCause() {
+        return (ExportacaoException) super.getCause();
+    }
+}
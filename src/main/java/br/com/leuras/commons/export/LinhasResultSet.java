@@ -0,0 +1,54 @@
+package br.com.leuras.commons.export;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import br.com.leuras.commons.exception.ExportacaoException;
+
+/**
+ * Iterador sobre as linhas de um {@link ResultSet}. Cada chamada a {@link #next()} posiciona o cursor na linha seguinte
+ * e devolve o próprio resultado, de modo que os valores da linha devem ser lidos antes do avanço do iterador.
+ */
+final class LinhasResultSet implements Iterator<ResultSet> {
+
+    private final ResultSet resultado;
+
+    private Boolean proxima;
+
+    LinhasResultSet(final ResultSet resultado) {
+        this.resultado = resultado;
+    }
+
+    @Override
+    public boolean hasNext() {
+
+        if (this.proxima == null) {
+            try {
+                this.proxima = this.resultado.next();
+            } catch (SQLException e) {
+                throw new LeituraException(new ExportacaoException(e.getMessage(), e));
+            }
+        }
+
+        return this.proxima;
+    }
+
+    @Override
+    public ResultSet next() {
+
+        if (! this.hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        this.proxima = null;
+
+        return this.resultado;
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+}
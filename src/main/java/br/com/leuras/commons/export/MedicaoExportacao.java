@@ -0,0 +1,112 @@
+package br.com.leuras.commons.export;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Medição de uma fase de uma exportação, informada ao {@link MonitorExportacao} ao final da fase.
+ *
+ * @see MonitorExportacao MonitorExportacao
+ */
+public final class MedicaoExportacao {
+
+    private final Class<?> tipo;
+
+    private final FaseExportacaoEnum fase;
+
+    private final long duracao;
+
+    private final long linhas;
+
+    private final long bytes;
+
+    private final long picoLinhas;
+
+    MedicaoExportacao(final Class<?> tipo, final FaseExportacaoEnum fase, final long duracao, final long linhas,
+            final long bytes, final long picoLinhas) {
+        this.tipo = tipo;
+        this.fase = fase;
+        this.duracao = duracao;
+        this.linhas = linhas;
+        this.bytes = bytes;
+        this.picoLinhas = picoLinhas;
+    }
+
+    /**
+     * Tipo dos registros exportados.
+     *
+     * @return A classe exportada.
+     */
+    public Class<?> getTipo() {
+        return this.tipo;
+    }
+
+    public FaseExportacaoEnum getFase() {
+        return this.fase;
+    }
+
+    /**
+     * Duração da fase.
+     *
+     * @param unidade
+     *            Unidade de tempo desejada
+     * @return A duração da fase na unidade informada.
+     */
+    public long getDuracao(final TimeUnit unidade) {
+        return unidade.convert(this.duracao, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Número de registros processados na fase. Apenas a fase {@link FaseExportacaoEnum#DETALHES DETALHES} processa
+     * registros.
+     *
+     * @return O número de registros.
+     */
+    public long getLinhas() {
+        return this.linhas;
+    }
+
+    /**
+     * Vazão da fase em registros por segundo.
+     *
+     * @return O número de registros processados por segundo ou zero caso a fase não tenha processado registros.
+     */
+    public double getLinhasPorSegundo() {
+        return this.linhas == 0 || this.duracao == 0 ? 0 : this.linhas * 1e9 / this.duracao;
+    }
+
+    /**
+     * Número de bytes do documento escritos durante a fase. Formatos que mantêm o documento em memória até a sua
+     * conclusão escrevem todo o conteúdo na fase {@link FaseExportacaoEnum#ESCRITA ESCRITA}.
+     *
+     * @return O número de bytes.
+     */
+    public long getBytes() {
+        return this.bytes;
+    }
+
+    /**
+     * Maior número de registros da exportação mantidos em memória ao mesmo tempo durante a fase, isto é, registros já
+     * obtidos da origem e ainda não escritos no documento. Apenas a fase {@link FaseExportacaoEnum#DETALHES DETALHES}
+     * mantém registros; nas demais, o pico é zero. Na fase de detalhes, o pico corresponde:
+     * <ul>
+     * <li>na exportação de uma coleção, ao tamanho da coleção, mantida em memória durante toda a fase;</li>
+     * <li>na exportação sob demanda sequencial, ao registro corrente (um, caso haja registros);</li>
+     * <li>na exportação sob demanda paralela, à maior soma dos tamanhos dos lotes lidos e ainda não acrescentados ao
+     * documento;</li>
+     * <li>na exportação sob demanda ordenada, ao maior número de linhas mantidas pela ordenação: o bloco em memória ou as
+     * linhas correntes da intercalação dos arquivos.</li>
+     * </ul>
+     *
+     * @return O pico de registros em memória.
+     */
+    public long getPicoLinhas() {
+        return this.picoLinhas;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[%s] %d ms, %d linhas (%.1f/s), %d bytes, pico de %d linhas", this.tipo.getSimpleName(),
+                this.fase, this.getDuracao(TimeUnit.MILLISECONDS), this.linhas, this.getLinhasPorSegundo(), this.bytes,
+                this.picoLinhas);
+    }
+}
@@ -0,0 +1,596 @@
+package br.com.leuras.commons.export;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.apache.poi.ss.util.CellRangeAddress;
+
+import br.com.leuras.commons.exception.ExportacaoExcelException;
+import br.com.leuras.commons.util.DataUtils;
+
+/**
+ * Modelo de planilha (<i>.xls</i> ou <i>.xlsx</i>) utilizado por {@link FormatoExportavelModelo}. O modelo mantém a
+ * identidade visual do documento (logotipos, cabeçalhos fixos, estilos, células mescladas) e indica, por meio de
+ * marcações na primeira planilha, onde os dados da exportação são escritos:
+ * <ul>
+ * <li><b>${parametro}</b>: substituída pelo valor do parâmetro de mesmo nome informado na exportação;</li>
+ * <li><b>#{atributo}</b>: a primeira linha que contém essa marcação é a <i>linha de detalhe</i>, repetida para cada
+ * registro com o valor do atributo exportável. Abaixo da linha de detalhe (rodapé), a marcação é substituída pelo
+ * resultado da agregação declarada no atributo (veja {@link AtributoExportavel#agregacao()}).</li>
+ * </ul>
+ * <p>
+ * O modelo é lido e analisado uma única vez: o documento já sem a linha de detalhe e o rodapé, a posição de cada
+ * marcação, os estilos das células e o leiaute das linhas (alturas, larguras das colunas e células mescladas) são
+ * mantidos em memória, de modo que cada exportação apenas recria o documento a partir desse conteúdo e preenche as
+ * células já conhecidas, sem acessar o arquivo nem percorrer as células do modelo novamente. Os modelos obtidos por meio
+ * de {@link #de(String)} são compartilhados e relidos apenas quando o arquivo é alterado; são mantidos até
+ * {@link #MAXIMO_MODELOS} modelos, descartando o usado há mais tempo.
+ * </p>
+ *
+ * <pre>
+ * <code>
+ * final ModeloPlanilha modelo = ModeloPlanilha.de("/modelos/funcionarios.xlsx");
+ * final Exportador{@literal <Funcionario>} exportador = new Exportador{@literal <Funcionario>}(
+ *         new FormatoExportavelModelo{@literal <Funcionario>}(Funcionario.class, modelo));
+ * </code>
+ * </pre>
+ *
+ * @see FormatoExportavelModelo FormatoExportavelModelo
+ */
+public final class ModeloPlanilha {
+
+    static final String ME001 = "O modelo não possui a linha de detalhe (marcações \"#{atributo}\").";
+
+    static final String ME002 = "O conteúdo informado não é um modelo de planilha do Excel (.xls ou .xlsx).";
+
+    private static final Pattern PARAMETRO = Pattern.compile("\\$\\{([^}]+)\\}");
+
+    private static final Pattern ATRIBUTO = Pattern.compile("#\\{([^}]+)\\}");
+
+    /**
+     * Textos entre aspas ou referências a células no formato <i>A1</i> de uma fórmula. Os grupos 1 e 2 indicam, quando
+     * presentes, que a referência é de célula e se a sua linha é absoluta (<i>A$1</i>); o grupo 3 é o número da linha.
+     */
+    private static final Pattern REFERENCIA = Pattern
+            .compile("\"(?:[^\"]|\"\")*\"|(?<![A-Za-z0-9_.$])(\\$?[A-Z]{1,3})(\\$?)([0-9]+)(?![A-Za-z0-9_.(!])");
+
+    /**
+     * Número máximo de modelos compartilhados mantidos em memória.
+     */
+    public static final int MAXIMO_MODELOS = 32;
+
+    /**
+     * Posição (base zero) da última linha de uma planilha do Excel 97-2003 <i>(.xls)</i>.
+     */
+    static final int ULTIMA_LINHA_XLS = 65535;
+
+    /**
+     * Posição (base zero) da última linha de uma planilha do Excel 2007 ou superior <i>(.xlsx)</i>.
+     */
+    static final int ULTIMA_LINHA_XLSX = 1048575;
+
+    private static final Map<String, ModeloPlanilha> MODELOS = new LinkedHashMap<String, ModeloPlanilha>(16, 0.75f, true) {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, ModeloPlanilha> maisAntigo) {
+            return this.size() > MAXIMO_MODELOS;
+        }
+    };
+
+    private static final int TAMANHO_BUFFER = 8192;
+
+    /**
+     * Conteúdo do documento do modelo, já sem a linha de detalhe e o rodapé.
+     */
+    private final byte[] conteudo;
+
+    private final long modificacao;
+
+    private final int linhaDetalhe;
+
+    private final short alturaDetalhe;
+
+    private final int ultimaLinha;
+
+    private final int[] larguras;
+
+    private final List<CelulaModelo> parametros = new ArrayList<>();
+
+    private final List<LinhaModelo> cabecalho = new ArrayList<>();
+
+    private final List<CellRangeAddress> regioesCabecalho = new ArrayList<>();
+
+    private final List<CelulaModelo> detalhe = new ArrayList<>();
+
+    private final List<LinhaModelo> rodape = new ArrayList<>();
+
+    private final List<CellRangeAddress> regioesRodape = new ArrayList<>();
+
+    private ModeloPlanilha(final byte[] original, final long modificacao) throws ExportacaoExcelException {
+
+        this.modificacao = modificacao;
+
+        final Workbook documento = ModeloPlanilha.abrirDocumento(original);
+        final Sheet planilha = documento.getSheetAt(0);
+        Row linhaDetalhe = null;
+
+        for (int posicao = planilha.getFirstRowNum(); posicao <= planilha.getLastRowNum() && linhaDetalhe == null; posicao++) {
+
+            final Row linha = planilha.getRow(posicao);
+
+            if (linha != null && ModeloPlanilha.possui(linha, ATRIBUTO)) {
+                linhaDetalhe = linha;
+            }
+        }
+
+        if (linhaDetalhe == null) {
+            throw new ExportacaoExcelException(ME001);
+        }
+
+        this.linhaDetalhe = linhaDetalhe.getRowNum();
+        this.alturaDetalhe = linhaDetalhe.getHeight();
+        this.ultimaLinha = documento instanceof HSSFWorkbook ? ULTIMA_LINHA_XLS : ULTIMA_LINHA_XLSX;
+
+        for (int posicao = 0; posicao < this.linhaDetalhe; posicao++) {
+
+            final Row linha = planilha.getRow(posicao);
+            final LinhaModelo modelo = new LinhaModelo(posicao, linha != null ? linha.getHeight() : -1);
+
+            if (linha != null) {
+                for (final Cell celula : linha) {
+
+                    final CelulaModelo celulaModelo = CelulaModelo.de(celula);
+
+                    if (celulaModelo.marcado) {
+                        this.parametros.add(celulaModelo);
+                    }
+
+                    modelo.celulas.add(celulaModelo);
+                }
+            }
+
+            this.cabecalho.add(modelo);
+        }
+
+        for (final Cell celula : linhaDetalhe) {
+            this.detalhe.add(CelulaModelo.de(celula));
+        }
+
+        for (int posicao = this.linhaDetalhe + 1; posicao <= planilha.getLastRowNum(); posicao++) {
+
+            final Row linha = planilha.getRow(posicao);
+            final LinhaModelo modelo = new LinhaModelo(posicao - this.linhaDetalhe - 1,
+                    linha != null ? linha.getHeight() : -1);
+
+            if (linha != null) {
+                for (final Cell celula : linha) {
+                    modelo.celulas.add(CelulaModelo.de(celula));
+                }
+            }
+
+            this.rodape.add(modelo);
+        }
+
+        for (int indice = 0; indice < planilha.getNumMergedRegions(); indice++) {
+
+            final CellRangeAddress regiao = planilha.getMergedRegion(indice);
+
+            if (regiao.getFirstRow() > this.linhaDetalhe) {
+                this.regioesRodape.add(new CellRangeAddress(regiao.getFirstRow() - this.linhaDetalhe - 1,
+                        regiao.getLastRow() - this.linhaDetalhe - 1, regiao.getFirstColumn(), regiao.getLastColumn()));
+            } else if (regiao.getLastRow() < this.linhaDetalhe) {
+                this.regioesCabecalho.add(regiao);
+            }
+        }
+
+        int colunas = 0;
+
+        for (final CelulaModelo celula : this.detalhe) {
+            colunas = Math.max(colunas, celula.coluna + 1);
+        }
+
+        this.larguras = new int[colunas];
+
+        for (int coluna = 0; coluna < colunas; coluna++) {
+            this.larguras[coluna] = planilha.getColumnWidth(coluna);
+        }
+
+        this.conteudo = ModeloPlanilha.removerDetalhe(documento, this.linhaDetalhe);
+    }
+
+    /**
+     * Obtém o modelo contido no arquivo informado. O modelo é analisado na primeira solicitação e compartilhado pelas
+     * solicitações seguintes enquanto o arquivo não for alterado.
+     *
+     * @param arquivo
+     *            Caminho do arquivo do modelo
+     * @return O modelo.
+     * @throws IOException
+     *             Caso não seja possível ler o arquivo.
+     * @throws ExportacaoExcelException
+     *             Caso o arquivo não seja uma planilha do Excel ou não possua a linha de detalhe.
+     */
+    public static ModeloPlanilha de(final String arquivo) throws IOException, ExportacaoExcelException {
+
+        final File origem = new File(arquivo).getCanonicalFile();
+        final String chave = origem.getPath();
+        final ModeloPlanilha existente;
+
+        synchronized (MODELOS) {
+            existente = MODELOS.get(chave);
+        }
+
+        if (existente != null && existente.modificacao == origem.lastModified()) {
+            return existente;
+        }
+
+        final long modificacao = origem.lastModified();
+        final ModeloPlanilha modelo;
+
+        try (final InputStream entrada = new FileInputStream(origem)) {
+            modelo = new ModeloPlanilha(ModeloPlanilha.ler(entrada), modificacao);
+        }
+
+        synchronized (MODELOS) {
+            MODELOS.put(chave, modelo);
+        }
+
+        return modelo;
+    }
+
+    /**
+     * Lê e analisa um modelo a partir de um fluxo de entrada. O modelo obtido não é compartilhado e deve ser mantido
+     * pelo chamador para ser reutilizado. A entrada não é fechada.
+     *
+     * @param entrada
+     *            Conteúdo do modelo
+     * @return O modelo.
+     * @throws IOException
+     *             Caso não seja possível ler o conteúdo.
+     * @throws ExportacaoExcelException
+     *             Caso o conteúdo não seja uma planilha do Excel ou não possua a linha de detalhe.
+     */
+    public static ModeloPlanilha de(final InputStream entrada) throws IOException, ExportacaoExcelException {
+        return new ModeloPlanilha(ModeloPlanilha.ler(entrada), 0);
+    }
+
+    /**
+     * Posição (base zero) da linha de detalhe na primeira planilha.
+     *
+     * @return A posição da linha de detalhe.
+     */
+    public int getLinhaDetalhe() {
+        return this.linhaDetalhe;
+    }
+
+    /**
+     * Nomes dos atributos da linha de detalhe, na ordem das colunas.
+     *
+     * @return Os nomes dos atributos.
+     */
+    public List<String> getAtributos() {
+
+        final List<String> atributos = new ArrayList<>();
+
+        for (final CelulaModelo celula : this.detalhe) {
+            if (celula.chave != null) {
+                atributos.add(celula.chave);
+            }
+        }
+
+        return Collections.unmodifiableList(atributos);
+    }
+
+    /**
+     * Cria um novo documento a partir do modelo, sem a linha de detalhe e o rodapé, que são escritos pelo formato.
+     *
+     * @return O documento.
+     * @throws ExportacaoExcelException
+     *             Caso o conteúdo do modelo não possa ser lido.
+     */
+    Workbook abrir() throws ExportacaoExcelException {
+        return ModeloPlanilha.abrirDocumento(this.conteudo);
+    }
+
+    short getAlturaDetalhe() {
+        return this.alturaDetalhe;
+    }
+
+    /**
+     * Posição (base zero) da última linha de uma planilha no formato do modelo.
+     *
+     * @return A posição da última linha.
+     */
+    int getUltimaLinha() {
+        return this.ultimaLinha;
+    }
+
+    /**
+     * Larguras das colunas da primeira planilha, até a última coluna da linha de detalhe.
+     *
+     * @return As larguras das colunas.
+     */
+    int[] getLarguras() {
+        return this.larguras;
+    }
+
+    List<CelulaModelo> getParametros() {
+        return this.parametros;
+    }
+
+    /**
+     * Linhas acima da linha de detalhe, com a sua posição na planilha, repetidas nas planilhas seguintes à primeira.
+     *
+     * @return As linhas do cabeçalho.
+     */
+    List<LinhaModelo> getCabecalho() {
+        return this.cabecalho;
+    }
+
+    List<CellRangeAddress> getRegioesCabecalho() {
+        return this.regioesCabecalho;
+    }
+
+    List<CelulaModelo> getDetalhe() {
+        return this.detalhe;
+    }
+
+    List<LinhaModelo> getRodape() {
+        return this.rodape;
+    }
+
+    List<CellRangeAddress> getRegioesRodape() {
+        return this.regioesRodape;
+    }
+
+    /**
+     * Substitui as marcações <b>${parametro}</b> de um texto pelos valores dos parâmetros. As datas são escritas no
+     * formato <i>dd/MM/yyyy</i> e os parâmetros ausentes, como texto vazio.
+     *
+     * @param texto
+     *            Texto com marcações
+     * @param parametros
+     *            Parâmetros da exportação
+     * @return O texto preenchido.
+     */
+    static String preencher(final String texto, final Map<String, Object> parametros) {
+
+        final Matcher marcacao = PARAMETRO.matcher(texto);
+        final StringBuffer resultado = new StringBuffer();
+
+        while (marcacao.find()) {
+
+            final Object valor = parametros != null ? parametros.get(marcacao.group(1)) : null;
+            final String substituto;
+
+            if (valor instanceof Date) {
+                substituto = DataUtils.formatar((Date) valor, DataUtils.Formato.PADRAO);
+            } else {
+                substituto = valor != null ? valor.toString() : "";
+            }
+
+            marcacao.appendReplacement(resultado, Matcher.quoteReplacement(substituto));
+        }
+
+        marcacao.appendTail(resultado);
+
+        return resultado.toString();
+    }
+
+    /**
+     * Desloca as referências relativas de linha de uma fórmula, como ocorre ao copiar a célula no Excel: as referências
+     * com a linha absoluta (<i>A$1</i>) e os textos entre aspas são mantidos.
+     *
+     * @param formula
+     *            Fórmula da célula do modelo
+     * @param linhas
+     *            Número de linhas do deslocamento
+     * @return A fórmula com as referências deslocadas.
+     */
+    static String deslocar(final String formula, final int linhas) {
+
+        if (linhas == 0) {
+            return formula;
+        }
+
+        final Matcher referencia = REFERENCIA.matcher(formula);
+        final StringBuffer resultado = new StringBuffer();
+
+        while (referencia.find()) {
+
+            final String substituto;
+
+            if (referencia.group(1) != null && referencia.group(2).isEmpty()) {
+                substituto = referencia.group(1) + (Integer.parseInt(referencia.group(3)) + linhas);
+            } else {
+                substituto = referencia.group();
+            }
+
+            referencia.appendReplacement(resultado, Matcher.quoteReplacement(substituto));
+        }
+
+        referencia.appendTail(resultado);
+
+        return resultado.toString();
+    }
+
+    private static Workbook abrirDocumento(final byte[] conteudo) throws ExportacaoExcelException {
+
+        try {
+
+            return WorkbookFactory.create(new ByteArrayInputStream(conteudo));
+
+        } catch (IOException | InvalidFormatException | IllegalArgumentException e) {
+            throw new ExportacaoExcelException(ME002, e);
+        }
+    }
+
+    /**
+     * Remove da primeira planilha a linha de detalhe, o rodapé e as suas células mescladas, obtendo o conteúdo do
+     * documento a partir do qual cada exportação é criada.
+     */
+    private static byte[] removerDetalhe(final Workbook documento, final int linhaDetalhe)
+            throws ExportacaoExcelException {
+
+        final Sheet planilha = documento.getSheetAt(0);
+
+        for (int indice = planilha.getNumMergedRegions() - 1; indice >= 0; indice--) {
+            if (planilha.getMergedRegion(indice).getFirstRow() >= linhaDetalhe) {
+                planilha.removeMergedRegion(indice);
+            }
+        }
+
+        for (int posicao = planilha.getLastRowNum(); posicao >= linhaDetalhe; posicao--) {
+
+            final Row linha = planilha.getRow(posicao);
+
+            if (linha != null) {
+                planilha.removeRow(linha);
+            }
+        }
+
+        final ByteArrayOutputStream conteudo = new ByteArrayOutputStream();
+
+        try {
+            documento.write(conteudo);
+        } catch (IOException e) {
+            throw new ExportacaoExcelException(e.getMessage(), e);
+        }
+
+        return conteudo.toByteArray();
+    }
+
+    private static boolean possui(final Row linha, final Pattern marcacao) {
+
+        for (final Cell celula : linha) {
+            if (Cell.CELL_TYPE_STRING == celula.getCellType()
+                    && marcacao.matcher(celula.getStringCellValue()).find()) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static byte[] ler(final InputStream entrada) throws IOException {
+
+        final ByteArrayOutputStream conteudo = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[TAMANHO_BUFFER];
+        int lidos;
+
+        while ((lidos = entrada.read(buffer)) != -1) {
+            conteudo.write(buffer, 0, lidos);
+        }
+
+        return conteudo.toByteArray();
+    }
+
+    /**
+     * Célula do modelo já analisada: posição, estilo, conteúdo original e marcações.
+     */
+    static final class CelulaModelo {
+
+        final int linha;
+
+        final int coluna;
+
+        final short estilo;
+
+        final int tipo;
+
+        final String texto;
+
+        final double numero;
+
+        final boolean logico;
+
+        /**
+         * Indica se o texto possui marcações <b>${parametro}</b>.
+         */
+        final boolean marcado;
+
+        /**
+         * Nome do atributo, quando a célula contém a marcação <b>#{atributo}</b>.
+         */
+        final String chave;
+
+        /**
+         * Nome do parâmetro, quando a célula contém apenas a marcação <b>${parametro}</b>. Nesse caso, o valor é
+         * escrito com o seu tipo (número, data, etc) e não como texto.
+         */
+        final String parametro;
+
+        private CelulaModelo(final Cell celula, final String texto, final double numero, final boolean logico) {
+
+            this.linha = celula.getRowIndex();
+            this.coluna = celula.getColumnIndex();
+            this.estilo = celula.getCellStyle().getIndex();
+            this.tipo = celula.getCellType();
+            this.texto = texto;
+            this.numero = numero;
+            this.logico = logico;
+
+            final Matcher atributo = texto != null && this.tipo == Cell.CELL_TYPE_STRING ? ATRIBUTO.matcher(texto) : null;
+            final Matcher parametro = texto != null && this.tipo == Cell.CELL_TYPE_STRING ? PARAMETRO.matcher(texto) : null;
+
+            this.chave = atributo != null && atributo.find() ? atributo.group(1).trim() : null;
+            this.marcado = parametro != null && parametro.find();
+            this.parametro = this.marcado && parametro.matches() ? parametro.group(1) : null;
+        }
+
+        static CelulaModelo de(final Cell celula) {
+
+            switch (celula.getCellType()) {
+                case Cell.CELL_TYPE_STRING:
+                    return new CelulaModelo(celula, celula.getStringCellValue(), 0, false);
+                case Cell.CELL_TYPE_FORMULA:
+                    return new CelulaModelo(celula, celula.getCellFormula(), 0, false);
+                case Cell.CELL_TYPE_NUMERIC:
+                    return new CelulaModelo(celula, null, celula.getNumericCellValue(), false);
+                case Cell.CELL_TYPE_BOOLEAN:
+                    return new CelulaModelo(celula, null, 0, celula.getBooleanCellValue());
+                default:
+                    return new CelulaModelo(celula, null, 0, false);
+            }
+        }
+    }
+
+    /**
+     * Linha do cabeçalho ou do rodapé do modelo, com a sua posição na planilha (cabeçalho) ou relativa à linha de
+     * detalhe (rodapé).
+     */
+    static final class LinhaModelo {
+
+        final int deslocamento;
+
+        final short altura;
+
+        final List<CelulaModelo> celulas = new ArrayList<>();
+
+        LinhaModelo(final int deslocamento, final short altura) {
+            this.deslocamento = deslocamento;
+            this.altura = altura;
+        }
+    }
+}
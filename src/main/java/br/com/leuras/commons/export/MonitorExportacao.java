@@ -0,0 +1,33 @@
+package br.com.leuras.commons.export;
+
+/**
+ * Recebe as medições de cada fase das exportações realizadas por um {@link Exportador}, permitindo, por exemplo,
+ * publicá-las em uma ferramenta de métricas.
+ *
+ * <pre>
+ * <code>
+ * final MonitorExportacaoHistograma monitor = new MonitorExportacaoHistograma();
+ *
+ * exportador.setMonitor(monitor);
+ * exportador.exportar(registros);
+ *
+ * System.out.println(monitor.getDuracaoMedia(FaseExportacaoEnum.ESCRITA, TimeUnit.MILLISECONDS));
+ * </code>
+ * </pre>
+ *
+ * As implementações são chamadas pela thread que executa a exportação e, portanto, devem ser rápidas, não devem
+ * disparar exceções e, caso o exportador seja compartilhado, devem ser seguras para uso concorrente.
+ *
+ * @see MonitorExportacaoNulo MonitorExportacaoNulo
+ * @see MonitorExportacaoHistograma MonitorExportacaoHistograma
+ */
+public interface MonitorExportacao {
+
+    /**
+     * Registra a medição de uma fase concluída com sucesso.
+     *
+     * @param medicao
+     *            Medição da fase
+     */
+    void registrar(MedicaoExportacao medicao);
+}
@@ -0,0 +1,274 @@
+package br.com.leuras.commons.export;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Monitor que acumula em memória as medições de cada fase: número de exportações, duração total, média, máxima e a
+ * distribuição das durações em faixas (histograma), além do total de registros e bytes e do maior pico de registros em
+ * memória. Pode ser compartilhado entre threads e exportadores.
+ * <p>
+ * As faixas do histograma têm como limite superior os valores de {@link #getLimites()}, em milissegundos; a última
+ * faixa reúne as durações acima do maior limite.
+ * </p>
+ */
+public class MonitorExportacaoHistograma implements MonitorExportacao {
+
+    protected static final String ME001 = "O percentil deve estar entre 0 e 100.";
+
+    private static final long[] LIMITES = { 1, 2, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000, 30000, 60000 };
+
+    private volatile Map<FaseExportacaoEnum, Estatistica> estatisticas = MonitorExportacaoHistograma.novasEstatisticas();
+
+    @Override
+    public void registrar(final MedicaoExportacao medicao) {
+
+        final Estatistica estatistica = this.estatisticas.get(medicao.getFase());
+        final long duracao = medicao.getDuracao(TimeUnit.NANOSECONDS);
+
+        estatistica.faixas.incrementAndGet(MonitorExportacaoHistograma.faixa(TimeUnit.NANOSECONDS.toMillis(duracao)));
+        estatistica.contagem.incrementAndGet();
+        estatistica.duracao.addAndGet(duracao);
+        estatistica.linhas.addAndGet(medicao.getLinhas());
+        estatistica.bytes.addAndGet(medicao.getBytes());
+
+        MonitorExportacaoHistograma.maximo(estatistica.duracaoMaxima, duracao);
+        MonitorExportacaoHistograma.maximo(estatistica.picoLinhas, medicao.getPicoLinhas());
+    }
+
+    /**
+     * Limites superiores, em milissegundos, das faixas do histograma.
+     *
+     * @return Os limites das faixas.
+     */
+    public static long[] getLimites() {
+        return LIMITES.clone();
+    }
+
+    /**
+     * Número de medições registradas da fase.
+     *
+     * @param fase
+     *            Fase da exportação
+     * @return O número de medições.
+     */
+    public long getContagem(final FaseExportacaoEnum fase) {
+        return this.estatisticas.get(fase).contagem.get();
+    }
+
+    /**
+     * Soma das durações registradas da fase.
+     *
+     * @param fase
+     *            Fase da exportação
+     * @param unidade
+     *            Unidade de tempo desejada
+     * @return A duração total na unidade informada.
+     */
+    public long getDuracaoTotal(final FaseExportacaoEnum fase, final TimeUnit unidade) {
+        return unidade.convert(this.estatisticas.get(fase).duracao.get(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Duração média da fase.
+     *
+     * @param fase
+     *            Fase da exportação
+     * @param unidade
+     *            Unidade de tempo desejada
+     * @return A duração média na unidade informada ou zero caso não haja medições.
+     */
+    public long getDuracaoMedia(final FaseExportacaoEnum fase, final TimeUnit unidade) {
+
+        final Estatistica estatistica = this.estatisticas.get(fase);
+        final long contagem = estatistica.contagem.get();
+
+        return contagem == 0 ? 0 : unidade.convert(estatistica.duracao.get() / contagem, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Maior duração registrada da fase.
+     *
+     * @param fase
+     *            Fase da exportação
+     * @param unidade
+     *            Unidade de tempo desejada
+     * @return A duração máxima na unidade informada.
+     */
+    public long getDuracaoMaxima(final FaseExportacaoEnum fase, final TimeUnit unidade) {
+        return unidade.convert(this.estatisticas.get(fase).duracaoMaxima.get(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Estimativa de um percentil da duração da fase, dada pelo limite superior da faixa do histograma em que o percentil
+     * se encontra. Para a última faixa, é utilizada a duração máxima registrada.
+     *
+     * @param fase
+     *            Fase da exportação
+     * @param percentil
+     *            Percentil desejado, entre 0 e 100
+     * @param unidade
+     *            Unidade de tempo desejada
+     * @return A estimativa do percentil na unidade informada ou zero caso não haja medições.
+     * @throws IllegalArgumentException
+     *             Caso o percentil esteja fora do intervalo permitido.
+     */
+    public long getPercentil(final FaseExportacaoEnum fase, final double percentil, final TimeUnit unidade)
+            throws IllegalArgumentException {
+
+        if (percentil < 0 || percentil > 100) {
+            throw new IllegalArgumentException(ME001);
+        }
+
+        final long[] faixas = this.getFaixas(fase);
+        long total = 0;
+
+        for (final long quantidade : faixas) {
+            total += quantidade;
+        }
+
+        if (total == 0) {
+            return 0;
+        }
+
+        final long posicao = Math.max(1, (long) Math.ceil(total * percentil / 100));
+        long acumulado = 0;
+
+        for (int faixa = 0; faixa < LIMITES.length; faixa++) {
+
+            acumulado += faixas[faixa];
+
+            if (acumulado >= posicao) {
+                return unidade.convert(LIMITES[faixa], TimeUnit.MILLISECONDS);
+            }
+        }
+
+        return this.getDuracaoMaxima(fase, unidade);
+    }
+
+    /**
+     * Número de medições da fase em cada faixa do histograma.
+     *
+     * @param fase
+     *            Fase da exportação
+     * @return Cópia das quantidades por faixa, com uma posição a mais que {@link #getLimites()} para as durações acima
+     *         do maior limite.
+     */
+    public long[] getFaixas(final FaseExportacaoEnum fase) {
+
+        final AtomicLongArray faixas = this.estatisticas.get(fase).faixas;
+        final long[] copia = new long[faixas.length()];
+
+        for (int faixa = 0; faixa < copia.length; faixa++) {
+            copia[faixa] = faixas.get(faixa);
+        }
+
+        return copia;
+    }
+
+    /**
+     * Total de registros processados na fase.
+     *
+     * @param fase
+     *            Fase da exportação
+     * @return O número de registros.
+     */
+    public long getLinhas(final FaseExportacaoEnum fase) {
+        return this.estatisticas.get(fase).linhas.get();
+    }
+
+    /**
+     * Vazão média da fase em registros por segundo, considerando a duração total das medições.
+     *
+     * @param fase
+     *            Fase da exportação
+     * @return O número de registros processados por segundo.
+     */
+    public double getLinhasPorSegundo(final FaseExportacaoEnum fase) {
+
+        final Estatistica estatistica = this.estatisticas.get(fase);
+        final long duracao = estatistica.duracao.get();
+
+        return duracao == 0 ? 0 : estatistica.linhas.get() * 1e9 / duracao;
+    }
+
+    /**
+     * Total de bytes escritos na fase.
+     *
+     * @param fase
+     *            Fase da exportação
+     * @return O número de bytes.
+     */
+    public long getBytes(final FaseExportacaoEnum fase) {
+        return this.estatisticas.get(fase).bytes.get();
+    }
+
+    /**
+     * Maior pico de registros em memória registrado na fase (veja {@link MedicaoExportacao#getPicoLinhas()}).
+     *
+     * @param fase
+     *            Fase da exportação
+     * @return O pico de registros em memória.
+     */
+    public long getPicoLinhas(final FaseExportacaoEnum fase) {
+        return this.estatisticas.get(fase).picoLinhas.get();
+    }
+
+    /**
+     * Descarta todas as medições acumuladas.
+     */
+    public void limpar() {
+        this.estatisticas = MonitorExportacaoHistograma.novasEstatisticas();
+    }
+
+    private static Map<FaseExportacaoEnum, Estatistica> novasEstatisticas() {
+
+        final Map<FaseExportacaoEnum, Estatistica> estatisticas = new EnumMap<>(FaseExportacaoEnum.class);
+
+        for (final FaseExportacaoEnum fase : FaseExportacaoEnum.values()) {
+            estatisticas.put(fase, new Estatistica());
+        }
+
+        return estatisticas;
+    }
+
+    private static int faixa(final long milissegundos) {
+
+        final int posicao = Arrays.binarySearch(LIMITES, milissegundos);
+
+        return posicao >= 0 ? posicao : -posicao - 1;
+    }
+
+    private static void maximo(final AtomicLong atual, final long valor) {
+
+        long maximo = atual.get();
+
+        while (valor > maximo && ! atual.compareAndSet(maximo, valor)) {
+            maximo = atual.get();
+        }
+    }
+
+    /**
+     * Acumuladores de uma fase.
+     */
+    private static final class Estatistica {
+
+        private final AtomicLongArray faixas = new AtomicLongArray(LIMITES.length + 1);
+
+        private final AtomicLong contagem = new AtomicLong();
+
+        private final AtomicLong duracao = new AtomicLong();
+
+        private final AtomicLong duracaoMaxima = new AtomicLong();
+
+        private final AtomicLong linhas = new AtomicLong();
+
+        private final AtomicLong bytes = new AtomicLong();
+
+        private final AtomicLong picoLinhas = new AtomicLong();
+    }
+}
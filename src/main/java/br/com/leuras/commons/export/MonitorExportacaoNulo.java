@@ -0,0 +1,21 @@
+package br.com.leuras.commons.export;
+
+/**
+ * Monitor que descarta as medições. É o monitor utilizado por padrão pelo {@link Exportador}.
+ */
+public final class MonitorExportacaoNulo implements MonitorExportacao {
+
+    /**
+     * Instância única do monitor.
+     */
+    public static final MonitorExportacaoNulo INSTANCIA = new MonitorExportacaoNulo();
+
+    private MonitorExportacaoNulo() {
+
+    }
+
+    @Override
+    public void registrar(final MedicaoExportacao medicao) {
+
+    }
+}
@@ -0,0 +1,362 @@
+package br.com.leuras.commons.export;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import br.com.leuras.commons.exception.ExportacaoException;
+
+/**
+ * Ordenação externa dos valores das linhas exportadas. As linhas são acumuladas em blocos de tamanho fixo; cada bloco
+ * é ordenado em memória e gravado em um arquivo temporário, e os arquivos são intercalados na escrita do documento. O
+ * consumo de memória é, portanto, limitado pelo tamanho do bloco e não pelo volume de registros. Quando todas as
+ * linhas cabem em um único bloco, nenhum arquivo é criado.
+ * <p>
+ * A ordenação é estável: linhas com o mesmo valor na coluna de ordenação mantêm a ordem original. Valores nulos são
+ * posicionados ao final, em qualquer sentido.
+ * </p>
+ */
+final class OrdenacaoExterna implements Closeable {
+
+    /**
+     * Número máximo de arquivos intercalados ao mesmo tempo. Acima dele, os primeiros arquivos são intercalados em um
+     * arquivo intermediário.
+     */
+    static final int MAXIMO_ARQUIVOS = 128;
+
+    private static final int TAMANHO_BUFFER = 64 * 1024;
+
+    private final int colunas;
+
+    private final int tamanhoBloco;
+
+    private final Comparator<Object[]> comparador;
+
+    private final List<Object[]> bloco = new ArrayList<>();
+
+    private final List<Arquivo> arquivos = new ArrayList<>();
+
+    private long pico;
+
+    OrdenacaoExterna(final int colunas, final int coluna, final boolean decrescente, final int tamanhoBloco) {
+        this.colunas = colunas;
+        this.tamanhoBloco = tamanhoBloco;
+        this.comparador = new Comparador(coluna, decrescente);
+    }
+
+    /**
+     * Acrescenta os valores de uma linha. O array passa a pertencer à ordenação e não deve ser reutilizado.
+     *
+     * @param valores
+     *            Valores das colunas
+     * @throws ExportacaoException
+     *             Caso não seja possível gravar o bloco completo.
+     */
+    void acrescentar(final Object[] valores) throws ExportacaoException {
+
+        this.bloco.add(valores);
+        this.pico = Math.max(this.pico, this.bloco.size());
+
+        if (this.bloco.size() >= this.tamanhoBloco) {
+            this.gravarBloco();
+        }
+    }
+
+    /**
+     * Escreve as linhas no formato informado, na ordem definida.
+     *
+     * @param formato
+     *            Formato que receberá as linhas
+     * @throws ExportacaoException
+     *             Caso algum erro ocorra durante a leitura dos arquivos ou a escrita das linhas.
+     */
+    void escrever(final FormatoExportavelValores<?> formato) throws ExportacaoException {
+
+        if (this.arquivos.isEmpty()) {
+
+            Collections.sort(this.bloco, this.comparador);
+
+            for (final Object[] valores : this.bloco) {
+                formato.linha(valores);
+            }
+
+            this.bloco.clear();
+            return;
+        }
+
+        if (! this.bloco.isEmpty()) {
+            this.gravarBloco();
+        }
+
+        try {
+
+            while (this.arquivos.size() > MAXIMO_ARQUIVOS) {
+                this.reduzir();
+            }
+
+            this.intercalar(this.arquivos, new Saida() {
+
+                @Override
+                public void linha(final Object[] valores) throws ExportacaoException {
+                    formato.linha(valores);
+                }
+            });
+
+        } catch (IOException e) {
+            throw new ExportacaoException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Maior número de linhas mantidas em memória ao mesmo tempo: o maior bloco acumulado ou o número de linhas correntes
+     * de uma intercalação.
+     *
+     * @return O número de linhas.
+     */
+    long getPico() {
+        return this.pico;
+    }
+
+    /**
+     * Número de arquivos temporários gravados até o momento.
+     *
+     * @return O número de arquivos.
+     */
+    int getTotalArquivos() {
+        return this.arquivos.size();
+    }
+
+    /**
+     * Remove os arquivos temporários.
+     */
+    @Override
+    public void close() {
+
+        for (final Arquivo arquivo : this.arquivos) {
+            arquivo.caminho.delete();
+        }
+
+        this.arquivos.clear();
+        this.bloco.clear();
+    }
+
+    private void gravarBloco() throws ExportacaoException {
+
+        Collections.sort(this.bloco, this.comparador);
+
+        try {
+
+            final Arquivo arquivo = new Arquivo();
+
+            try (final DataOutputStream saida = arquivo.abrirEscrita()) {
+                for (final Object[] valores : this.bloco) {
+                    CodificacaoValores.gravar(saida, valores);
+                }
+            }
+
+            arquivo.linhas = this.bloco.size();
+            this.arquivos.add(arquivo);
+
+        } catch (IOException e) {
+            throw new ExportacaoException(e.getMessage(), e);
+        } finally {
+            this.bloco.clear();
+        }
+    }
+
+    /**
+     * Intercala os primeiros arquivos em um arquivo intermediário, que os substitui no início da lista para preservar a
+     * estabilidade da ordenação.
+     */
+    private void reduzir() throws IOException, ExportacaoException {
+
+        final List<Arquivo> primeiros = new ArrayList<>(this.arquivos.subList(0, MAXIMO_ARQUIVOS));
+        final Arquivo intermediario = new Arquivo();
+
+        this.arquivos.add(0, intermediario);
+
+        try (final DataOutputStream saida = intermediario.abrirEscrita()) {
+
+            this.intercalar(primeiros, new Saida() {
+
+                @Override
+                public void linha(final Object[] valores) throws IOException {
+                    CodificacaoValores.gravar(saida, valores);
+                    intermediario.linhas++;
+                }
+            });
+        }
+
+        for (final Arquivo arquivo : primeiros) {
+            arquivo.caminho.delete();
+        }
+
+        this.arquivos.removeAll(primeiros);
+    }
+
+    private void intercalar(final List<Arquivo> origens, final Saida saida) throws IOException, ExportacaoException {
+
+        final PriorityQueue<Leitura> leituras = new PriorityQueue<>(origens.size(), new Comparator<Leitura>() {
+
+            @Override
+            public int compare(final Leitura l1, final Leitura l2) {
+
+                final int resultado = OrdenacaoExterna.this.comparador.compare(l1.atual, l2.atual);
+
+                return resultado != 0 ? resultado : Integer.compare(l1.indice, l2.indice);
+            }
+        });
+
+        try {
+
+            for (int indice = 0; indice < origens.size(); indice++) {
+
+                final Leitura leitura = new Leitura(origens.get(indice), indice);
+
+                if (leitura.avancar()) {
+                    leituras.add(leitura);
+                } else {
+                    leitura.entrada.close();
+                }
+            }
+
+            this.pico = Math.max(this.pico, leituras.size());
+
+            while (! leituras.isEmpty()) {
+
+                final Leitura leitura = leituras.poll();
+
+                saida.linha(leitura.atual);
+
+                if (leitura.avancar()) {
+                    leituras.add(leitura);
+                } else {
+                    leitura.entrada.close();
+                }
+            }
+
+        } finally {
+            for (final Leitura leitura : leituras) {
+                leitura.entrada.close();
+            }
+        }
+    }
+
+    /**
+     * Destino das linhas intercaladas.
+     */
+    private interface Saida {
+
+        void linha(Object[] valores) throws IOException, ExportacaoException;
+    }
+
+    /**
+     * Arquivo temporário com um bloco ordenado.
+     */
+    private static final class Arquivo {
+
+        private final File caminho;
+
+        private int linhas;
+
+        Arquivo() throws IOException {
+            this.caminho = File.createTempFile("exportacao", ".ord");
+            this.caminho.deleteOnExit();
+        }
+
+        DataOutputStream abrirEscrita() throws IOException {
+            return new DataOutputStream(new BufferedOutputStream(new FileOutputStream(this.caminho), TAMANHO_BUFFER));
+        }
+    }
+
+    /**
+     * Leitura sequencial de um arquivo durante a intercalação.
+     */
+    private final class Leitura {
+
+        private final DataInputStream entrada;
+
+        private final int indice;
+
+        private int restantes;
+
+        private Object[] atual;
+
+        Leitura(final Arquivo arquivo, final int indice) throws IOException {
+            this.entrada = new DataInputStream(new BufferedInputStream(new FileInputStream(arquivo.caminho),
+                    TAMANHO_BUFFER));
+            this.indice = indice;
+            this.restantes = arquivo.linhas;
+        }
+
+        boolean avancar() throws IOException {
+
+            if (this.restantes == 0) {
+                this.atual = null;
+                return false;
+            }
+
+            this.atual = new Object[OrdenacaoExterna.this.colunas];
+            CodificacaoValores.ler(this.entrada, this.atual);
+            this.restantes--;
+
+            return true;
+        }
+    }
+
+    /**
+     * Compara as linhas pelo valor de uma coluna. Valores nulos são posicionados ao final.
+     */
+    private static final class Comparador implements Comparator<Object[]> {
+
+        private final int coluna;
+
+        private final boolean decrescente;
+
+        Comparador(final int coluna, final boolean decrescente) {
+            this.coluna = coluna;
+            this.decrescente = decrescente;
+        }
+
+        @Override
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        public int compare(final Object[] v1, final Object[] v2) {
+
+            final Object a = v1[this.coluna];
+            final Object b = v2[this.coluna];
+
+            if (a == null || b == null) {
+                return a == b ? 0 : a == null ? 1 : -1;
+            }
+
+            final int resultado;
+
+            if (a instanceof BigDecimal && b instanceof BigDecimal) {
+                resultado = ((BigDecimal) a).compareTo((BigDecimal) b);
+            } else if (a instanceof Comparable && a.getClass() == b.getClass()) {
+                resultado = ((Comparable) a).compareTo(b);
+            } else if (a instanceof Number && b instanceof Number) {
+                resultado = Double.compare(((Number) a).doubleValue(), ((Number) b).doubleValue());
+            } else if (a instanceof Date && b instanceof Date) {
+                resultado = Long.compare(((Date) a).getTime(), ((Date) b).getTime());
+            } else {
+                resultado = a.toString().compareTo(b.toString());
+            }
+
+            return this.decrescente ? -resultado : resultado;
+        }
+    }
+}
@@ -0,0 +1,453 @@
+package br.com.leuras.commons.export;
+
+import java.lang.ref.Reference;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.apache.commons.lang3.StringUtils;
+
+import br.com.leuras.commons.exception.ExportacaoException;
+import br.com.leuras.commons.util.Acessor;
+import br.com.leuras.commons.util.ObjetoUtils;
+
+/**
+ * Plano de colunas de uma classe exportável. Reúne, em ordem, as colunas declaradas por meio de
+ * {@link AtributoExportavel} nos atributos e métodos da classe e de suas superclasses. O plano é resolvido uma única vez
+ * por classe e compartilhado por todos os formatos de exportação, evitando a leitura dos metadados de reflexão a cada
+ * registro exportado.
+ *
+ * <pre>
+ * <code>
+ * final PlanoColunas{@literal <Funcionario>} plano = PlanoColunas.de(Funcionario.class);
+ *
+ * for (final Funcionario registro : registros) {
+ *     final Object[] valores = plano.valores(registro);
+ *     ...
+ * }
+ * </code>
+ * </pre>
+ *
+ * @param <T>
+ *            Tipo dos registros
+ */
+public final class PlanoColunas<T> {
+
+    static final String ME001 = "A coluna \"%s\" não foi encontrada no resultado da consulta.";
+
+    static final String ME002 = "O método '%s' de '%s' está anotado com @AtributoExportavel e deve ser público.";
+
+    /**
+     * Planos resolvidos por classe. As chaves são referências fracas, de modo que a classe (e o seu carregador) possa ser
+     * descarregada; como o plano referencia a própria classe, também é mantido por uma referência fraca, permanecendo
+     * no cache enquanto for utilizado por algum formato.
+     */
+    private static final Map<Class<?>, Reference<PlanoColunas<?>>> PLANOS = new WeakHashMap<>();
+
+    private static final Comparator<ColunaExportavel> POR_ORDEM = new Comparator<ColunaExportavel>() {
+
+        @Override
+        public int compare(final ColunaExportavel c1, final ColunaExportavel c2) {
+            return Integer.compare(c1.getOrdem(), c2.getOrdem());
+        }
+    };
+
+    private static final Comparator<Method> POR_NOME = new Comparator<Method>() {
+
+        @Override
+        public int compare(final Method m1, final Method m2) {
+            return m1.getName().compareTo(m2.getName());
+        }
+    };
+
+    private final Class<T> tipo;
+
+    private final String titulo;
+
+    private final List<ColunaExportavel> colunas;
+
+    private final ExtratorExportavel<T> extrator;
+
+    private PlanoColunas(final Class<T> tipo, final ExtratorExportavel<T> extrator) {
+        this.tipo = tipo;
+        this.titulo = extrator.getTitulo();
+        this.extrator = extrator;
+
+        final List<ColunaExportavel> resolvidas = new ArrayList<>();
+
+        for (int coluna = 0; coluna < extrator.getAtributos().length; coluna++) {
+            resolvidas.add(new ColunaExportavel(extrator.getAtributos()[coluna], extrator.getColunas()[coluna],
+                    extrator.getFormatos()[coluna], extrator.getOrdens()[coluna], extrator.getAgregacoes()[coluna],
+                    extrator.getTipos()[coluna], new AcessorExtrator(extrator, coluna)));
+        }
+
+        this.colunas = Collections.unmodifiableList(resolvidas);
+    }
+
+    private PlanoColunas(final Class<T> tipo) {
+        this.tipo = tipo;
+        this.extrator = null;
+
+        final Exportavel exportavel = tipo.getAnnotation(Exportavel.class);
+        this.titulo = exportavel != null ? exportavel.titulo() : StringUtils.EMPTY;
+
+        final List<Class<?>> hierarquia = new ArrayList<>();
+
+        for (Class<?> classe = tipo; classe != null && classe != Object.class; classe = classe.getSuperclass()) {
+            hierarquia.add(0, classe);
+        }
+
+        final Map<String, ColunaExportavel> resolvidas = new LinkedHashMap<>();
+
+        for (final Class<?> classe : hierarquia) {
+
+            for (final Field atributo : classe.getDeclaredFields()) {
+                if (PlanoColunas.isExportavel(atributo)) {
+                    final AtributoExportavel anotacao = atributo.getAnnotation(AtributoExportavel.class);
+
+                    this.registrar(resolvidas, atributo.getName(), anotacao, atributo.getType(), this.acessor(atributo));
+                }
+            }
+
+            final Method[] metodos = classe.getDeclaredMethods();
+            Arrays.sort(metodos, POR_NOME);
+
+            for (final Method metodo : metodos) {
+                if (metodo.isAnnotationPresent(AtributoExportavel.class) && PlanoColunas.isLeitura(metodo)) {
+                    final AtributoExportavel anotacao = metodo.getAnnotation(AtributoExportavel.class);
+                    final String propriedade = PlanoColunas.propriedade(metodo);
+
+                    this.registrar(resolvidas, propriedade, anotacao, metodo.getReturnType(), PlanoColunas.acessor(metodo));
+                }
+            }
+        }
+
+        final List<ColunaExportavel> ordenadas = new ArrayList<>(resolvidas.values());
+        Collections.sort(ordenadas, POR_ORDEM);
+
+        this.colunas = Collections.unmodifiableList(ordenadas);
+    }
+
+    private PlanoColunas(final Class<T> tipo, final String titulo, final List<ColunaExportavel> colunas) {
+        this.tipo = tipo;
+        this.titulo = titulo;
+        this.extrator = null;
+        this.colunas = Collections.unmodifiableList(colunas);
+    }
+
+    /**
+     * Obtém o plano de colunas da classe informada. O plano é criado na primeira chamada e reaproveitado nas seguintes,
+     * enquanto estiver em uso.
+     * Caso exista um {@link ExtratorExportavel} gerado para a classe, as colunas e os valores são obtidos por meio dele;
+     * caso contrário, por reflexão.
+     *
+     * @param tipo
+     *            Classe exportável
+     * @return O plano de colunas da classe.
+     * @throws IllegalArgumentException
+     *             Caso um método não público da classe esteja anotado com {@link AtributoExportavel}.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> PlanoColunas<T> de(final Class<T> tipo) throws IllegalArgumentException {
+
+        synchronized (PLANOS) {
+
+            final PlanoColunas<?> plano = PlanoColunas.existente(tipo);
+
+            if (plano != null) {
+                return (PlanoColunas<T>) plano;
+            }
+        }
+
+        final ExtratorExportavel<T> extrator = PlanoColunas.extrator(tipo);
+        final PlanoColunas<T> novo = extrator != null ? new PlanoColunas<T>(tipo, extrator) : new PlanoColunas<T>(tipo);
+
+        synchronized (PLANOS) {
+
+            final PlanoColunas<?> plano = PlanoColunas.existente(tipo);
+
+            if (plano != null) {
+                return (PlanoColunas<T>) plano;
+            }
+
+            PLANOS.put(tipo, new WeakReference<PlanoColunas<?>>(novo));
+        }
+
+        return novo;
+    }
+
+    /**
+     * Obtém o plano de colunas do resultado de uma consulta, permitindo exportar as linhas de um {@link ResultSet} sem a
+     * criação de objetos intermediários. Caso nenhum descritor seja informado, todas as colunas da consulta são
+     * exportadas, com os próprios rótulos como títulos. O plano não é armazenado em cache, já que depende da consulta.
+     *
+     * <pre>
+     * <code>
+     * final PlanoColunas{@literal <ResultSet>} plano = PlanoColunas.de(resultado.getMetaData(), "Funcionários",
+     *         new DescritorColuna("nome", "Nome"),
+     *         new DescritorColuna("salario", "Salário", FormatoAtributoEnum.MOEDA, AgregacaoEnum.SOMA));
+     * </code>
+     * </pre>
+     *
+     * @param metadados
+     *            Metadados do resultado da consulta
+     * @param titulo
+     *            Título do documento
+     * @param descritores
+     *            Colunas a serem exportadas, na ordem em que devem ser escritas
+     * @return O plano de colunas da consulta.
+     * @throws ExportacaoException
+     *             Caso algum descritor não corresponda a uma coluna da consulta ou não seja possível ler os metadados.
+     */
+    public static PlanoColunas<ResultSet> de(final ResultSetMetaData metadados, final String titulo,
+            final DescritorColuna... descritores) throws ExportacaoException {
+
+        try {
+
+            final Map<String, Integer> posicoes = new LinkedHashMap<>();
+
+            for (int posicao = metadados.getColumnCount(); posicao > 0; posicao--) {
+                posicoes.put(metadados.getColumnLabel(posicao).toUpperCase(), posicao);
+            }
+
+            final List<ColunaExportavel> colunas = new ArrayList<>();
+
+            if (descritores == null || descritores.length == 0) {
+
+                for (int posicao = 1; posicao <= metadados.getColumnCount(); posicao++) {
+                    final String rotulo = metadados.getColumnLabel(posicao);
+                    final int tipoSql = metadados.getColumnType(posicao);
+
+                    colunas.add(PlanoColunas.coluna(rotulo, rotulo, AcessorResultSet.formato(tipoSql),
+                            AgregacaoEnum.NENHUMA, posicao, tipoSql, colunas.size()));
+                }
+
+            } else {
+
+                for (final DescritorColuna descritor : descritores) {
+                    final Integer posicao = posicoes.get(descritor.getRotulo().toUpperCase());
+
+                    if (posicao == null) {
+                        throw new ExportacaoException(String.format(ME001, descritor.getRotulo()));
+                    }
+
+                    final int tipoSql = metadados.getColumnType(posicao);
+                    final FormatoAtributoEnum formato = FormatoAtributoEnum.NENHUM.equals(descritor.getFormato())
+                            ? AcessorResultSet.formato(tipoSql) : descritor.getFormato();
+
+                    colunas.add(PlanoColunas.coluna(descritor.getRotulo(), descritor.getTitulo(), formato,
+                            descritor.getAgregacao(), posicao, tipoSql, colunas.size()));
+                }
+            }
+
+            return new PlanoColunas<>(ResultSet.class, titulo != null ? titulo : StringUtils.EMPTY, colunas);
+
+        } catch (SQLException e) {
+            throw new ExportacaoException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Obtém os valores de todas as colunas do registro informado, na ordem do plano.
+     *
+     * @param registro
+     *            Registro
+     * @return Os valores das colunas.
+     * @throws ExportacaoException
+     *             Caso não seja possível obter o valor de alguma coluna.
+     */
+    public Object[] valores(final T registro) throws ExportacaoException {
+
+        final Object[] valores = new Object[this.colunas.size()];
+
+        this.valores(registro, valores);
+
+        return valores;
+    }
+
+    /**
+     * Preenche o array informado com os valores de todas as colunas do registro, na ordem do plano.
+     *
+     * @param registro
+     *            Registro
+     * @param valores
+     *            Array que receberá os valores. Deve possuir ao menos o mesmo tamanho que o número de colunas
+     * @throws ExportacaoException
+     *             Caso não seja possível obter o valor de alguma coluna.
+     */
+    public void valores(final T registro, final Object[] valores) throws ExportacaoException {
+
+        if (this.extrator != null && valores.length >= this.colunas.size()) {
+            try {
+
+                this.extrator.valores(registro, valores);
+                return;
+
+            } catch (RuntimeException e) {
+                throw new ExportacaoException(e.getMessage(), e);
+            }
+        }
+
+        for (int posicao = 0; posicao < valores.length && posicao < this.colunas.size(); posicao++) {
+            valores[posicao] = this.colunas.get(posicao).valor(registro);
+        }
+    }
+
+    public Class<T> getTipo() {
+        return this.tipo;
+    }
+
+    /**
+     * Título definido em {@link Exportavel}. Caso a classe não possua a anotação, retorna uma string vazia.
+     *
+     * @return O título.
+     */
+    public String getTitulo() {
+        return this.titulo;
+    }
+
+    /**
+     * Colunas exportáveis, na ordem em que devem ser escritas.
+     *
+     * @return Lista imutável de colunas.
+     */
+    public List<ColunaExportavel> getColunas() {
+        return this.colunas;
+    }
+
+    public int getTotalColunas() {
+        return this.colunas.size();
+    }
+
+    /**
+     * Indica se as colunas foram resolvidas por um {@link ExtratorExportavel} gerado em tempo de compilação.
+     *
+     * @return <b>True</b> caso o plano utilize um extrator gerado e <b>false</b> caso utilize reflexão.
+     */
+    public boolean isGerado() {
+        return this.extrator != null;
+    }
+
+    private void registrar(final Map<String, ColunaExportavel> resolvidas, final String atributo,
+            final AtributoExportavel anotacao, final Class<?> tipo, final Acessor acessor) {
+
+        if (anotacao.ignorar()) {
+            resolvidas.remove(atributo);
+        } else {
+            resolvidas.put(atributo, new ColunaExportavel(atributo, anotacao, tipo, acessor));
+        }
+    }
+
+    private Acessor acessor(final Field atributo) {
+
+        try {
+
+            final Acessor acessor = ObjetoUtils.acessor(this.tipo, atributo.getName());
+
+            if (acessor.isLeitura()) {
+                return acessor;
+            }
+
+        } catch (NoSuchMethodException e) {
+            // Sem métodos de acesso, o atributo é lido diretamente.
+        }
+
+        return ObjetoUtils.acessor(atributo);
+    }
+
+    /**
+     * Obtém o acessor de um método anotado. Assim como o processador de anotações, que recusa a compilação nesse caso,
+     * somente métodos públicos são aceitos.
+     */
+    private static Acessor acessor(final Method metodo) throws IllegalArgumentException {
+
+        if (! Modifier.isPublic(metodo.getModifiers())) {
+            throw new IllegalArgumentException(String.format(ME002, metodo.getName(), metodo.getDeclaringClass().getName()));
+        }
+
+        return ObjetoUtils.acessor(metodo);
+    }
+
+    /**
+     * Obtém o plano da classe mantido no cache. Deve ser chamado com o bloqueio de {@link #PLANOS}.
+     */
+    private static PlanoColunas<?> existente(final Class<?> tipo) {
+
+        final Reference<PlanoColunas<?>> referencia = PLANOS.get(tipo);
+
+        return referencia != null ? referencia.get() : null;
+    }
+
+    /**
+     * Obtém o extrator gerado para a classe informada, caso exista.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> ExtratorExportavel<T> extrator(final Class<T> tipo) {
+
+        final String nome = tipo.getName().replace('$', '_') + ExtratorExportavel.SUFIXO;
+
+        try {
+
+            final Class<?> classe = Class.forName(nome, true, tipo.getClassLoader());
+
+            if (ExtratorExportavel.class.isAssignableFrom(classe)) {
+
+                final ExtratorExportavel<T> extrator = (ExtratorExportavel<T>) classe.newInstance();
+
+                if (extrator.getTipo() == tipo) {
+                    return extrator;
+                }
+            }
+
+        } catch (ClassNotFoundException | InstantiationException | IllegalAccessException | LinkageError e) {
+            // Sem extrator gerado, as colunas são resolvidas por reflexão.
+        }
+
+        return null;
+    }
+
+    private static ColunaExportavel coluna(final String rotulo, final String titulo, final FormatoAtributoEnum formato,
+            final AgregacaoEnum agregacao, final int posicao, final int tipoSql, final int ordem) {
+
+        final AcessorResultSet acessor = new AcessorResultSet(posicao, tipoSql, rotulo);
+
+        return new ColunaExportavel(rotulo, titulo, formato, ordem, agregacao, acessor.getTipo(), acessor);
+    }
+
+    private static boolean isExportavel(final Field atributo) {
+        return atributo.isAnnotationPresent(AtributoExportavel.class) && ! atributo.isSynthetic()
+                && ! Modifier.isStatic(atributo.getModifiers());
+    }
+
+    private static boolean isLeitura(final Method metodo) {
+        return metodo.getParameterTypes().length == 0 && void.class != metodo.getReturnType()
+                && ! Modifier.isStatic(metodo.getModifiers()) && ! metodo.isBridge() && ! metodo.isSynthetic();
+    }
+
+    private static String propriedade(final Method metodo) {
+
+        final String nome = metodo.getName();
+
+        if (nome.startsWith("get") && nome.length() > 3) {
+            return StringUtils.uncapitalize(nome.substring(3));
+        }
+
+        if (nome.startsWith("is") && nome.length() > 2) {
+            return StringUtils.uncapitalize(nome.substring(2));
+        }
+
+        return nome;
+    }
+}
@@ -0,0 +1,179 @@
+package br.com.leuras.commons.export;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.DataFormat;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Workbook;
+
+/**
+ * Registro dos estilos de célula de um documento. Cada combinação de formato de dados e fonte dá origem a um único
+ * estilo, compartilhado por todas as células que o utilizam, o que mantém o documento dentro do limite de estilos do
+ * Excel independentemente do número de linhas exportadas.
+ * <p>
+ * Os formatos de dados seguem a notação interna do Excel (separador de milhar <b>,</b> e decimal <b>.</b>); a exibição
+ * final, como <i>R$ 1.234,56</i>, é feita pelo Excel de acordo com a configuração regional do usuário.
+ * </p>
+ */
+public class RegistroEstilos {
+
+    public static final String DATA = "dd/mm/yyyy";
+
+    public static final String DATA_HORA = "dd/mm/yyyy hh:mm";
+
+    public static final String DATA_HORA_COMPLETA = "dd/mm/yyyy hh:mm:ss";
+
+    public static final String HORARIO = "hh:mm";
+
+    public static final String MOEDA = "\"R$\" #,##0.00";
+
+    public static final String PERCENTUAL = "0.00%";
+
+    private final Workbook documento;
+
+    private final DataFormat formatos;
+
+    private final Map<String, Font> fontes = new HashMap<>();
+
+    private final Map<String, CellStyle> estilos = new HashMap<>();
+
+    /**
+     * Constrói um novo registro de estilos para o documento informado.
+     *
+     * @param documento
+     *            Documento
+     */
+    public RegistroEstilos(final Workbook documento) {
+        this.documento = documento;
+        this.formatos = documento.createDataFormat();
+    }
+
+    /**
+     * Obtém o formato de dados do Excel correspondente ao formato do atributo e à categoria da coluna.
+     *
+     * @param formato
+     *            Formato declarado no atributo
+     * @param categoria
+     *            Categoria da coluna
+     * @return O formato de dados ou <b>null</b> caso a coluna utilize o formato geral.
+     */
+    public static String formatoDados(final FormatoAtributoEnum formato, final TipoColunaEnum categoria) {
+
+        if (TipoColunaEnum.DATA.equals(categoria)) {
+
+            if (FormatoAtributoEnum.DATA.equals(formato)) {
+                return DATA;
+            }
+
+            if (FormatoAtributoEnum.HORA.equals(formato)) {
+                return DATA_HORA;
+            }
+
+            if (FormatoAtributoEnum.TIMESTAMP.equals(formato)) {
+                return HORARIO;
+            }
+
+            return DATA_HORA_COMPLETA;
+        }
+
+        if (FormatoAtributoEnum.MOEDA.equals(formato)) {
+            return MOEDA;
+        }
+
+        if (FormatoAtributoEnum.PERCENTUAL.equals(formato)) {
+            return PERCENTUAL;
+        }
+
+        return null;
+    }
+
+    /**
+     * Obtém a fonte com as características informadas, criando-a apenas na primeira solicitação.
+     *
+     * @param negrito
+     *            Indica se a fonte é negrito
+     * @param altura
+     *            Altura da fonte em pontos
+     * @param sublinhado
+     *            Tipo de sublinhado (veja as constantes <i>U_*</i> de {@link Font})
+     * @return A fonte.
+     */
+    public Font fonte(final boolean negrito, final short altura, final byte sublinhado) {
+
+        final String chave = String.format("%b:%d:%d", negrito, altura, sublinhado);
+        Font fonte = this.fontes.get(chave);
+
+        if (fonte == null) {
+            fonte = this.documento.createFont();
+
+            if (negrito) {
+                fonte.setBoldweight(Font.BOLDWEIGHT_BOLD);
+            }
+
+            fonte.setFontHeightInPoints(altura);
+            fonte.setUnderline(sublinhado);
+
+            this.fontes.put(chave, fonte);
+        }
+
+        return fonte;
+    }
+
+    /**
+     * Obtém o estilo com o formato de dados e a fonte informados, criando-o apenas na primeira solicitação.
+     *
+     * @param formato
+     *            Formato de dados do Excel ou <b>null</b> para o formato geral
+     * @param fonte
+     *            Fonte ou <b>null</b> para a fonte padrão do documento
+     * @return O estilo.
+     */
+    public CellStyle estilo(final String formato, final Font fonte) {
+
+        final String chave = String.format("%s|%d", formato, fonte != null ? fonte.getIndex() : -1);
+        CellStyle estilo = this.estilos.get(chave);
+
+        if (estilo == null) {
+            estilo = this.documento.createCellStyle();
+
+            if (formato != null) {
+                estilo.setDataFormat(this.formatos.getFormat(formato));
+            }
+
+            if (fonte != null) {
+                estilo.setFont(fonte);
+            }
+
+            this.estilos.put(chave, estilo);
+        }
+
+        return estilo;
+    }
+
+    /**
+     * Obtém o estilo utilizado pelas células de dados da coluna informada.
+     *
+     * @param formato
+     *            Formato declarado no atributo
+     * @param categoria
+     *            Categoria do valor
+     * @return O estilo ou <b>null</b> caso a coluna utilize o formato geral.
+     */
+    public CellStyle estilo(final FormatoAtributoEnum formato, final TipoColunaEnum categoria) {
+
+        final String formatoDados = RegistroEstilos.formatoDados(formato, categoria);
+
+        return formatoDados != null ? this.estilo(formatoDados, null) : null;
+    }
+
+    /**
+     * Número de estilos criados por este registro.
+     *
+     * @return O total de estilos.
+     */
+    public int getTotalEstilos() {
+        return this.estilos.size();
+    }
+}
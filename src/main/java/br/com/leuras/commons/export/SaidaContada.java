@@ -0,0 +1,40 @@
+package br.com.leuras.commons.export;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fluxo de saída que contabiliza os bytes escritos no destino. O total pode ser consultado por outras threads durante a
+ * escrita.
+ */
+final class SaidaContada extends FilterOutputStream {
+
+    private final AtomicLong total = new AtomicLong();
+
+    SaidaContada(final OutputStream destino) {
+        super(destino);
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        this.out.write(b);
+        this.total.incrementAndGet();
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+        this.out.write(b, off, len);
+        this.total.addAndGet(len);
+    }
+
+    /**
+     * Número de bytes escritos até o momento.
+     *
+     * @return O número de bytes escritos.
+     */
+    long getTotal() {
+        return this.total.get();
+    }
+}
@@ -0,0 +1,214 @@
+package br.com.leuras.commons.export;
+
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Exportação submetida a um {@link ExportadorAssincrono}. Permite acompanhar o número de registros processados e de
+ * bytes escritos, aguardar a conclusão e cancelar a exportação. O cancelamento é verificado entre um registro e outro,
+ * interrompendo a escrita dos detalhes sem a necessidade de interromper a thread.
+ * <p>
+ * Após o cancelamento, {@link #isDone()} e {@link #get()} indicam a conclusão imediatamente, como definido por
+ * {@link Future}, embora a thread que executa a exportação ainda possa estar escrevendo no destino até alcançar o
+ * próximo registro. Antes de fechar ou reutilizar o destino, utilize {@link #aguardarTermino()} para aguardar que a
+ * exportação deixe de escrever.
+ * </p>
+ *
+ * @see ExportadorAssincrono ExportadorAssincrono
+ */
+public class TarefaExportacao implements Future<Void> {
+
+    private final AtomicLong linhas = new AtomicLong();
+
+    /**
+     * Indica se a execução da exportação foi iniciada ou descartada por um cancelamento anterior ao seu início.
+     */
+    private final AtomicBoolean iniciada = new AtomicBoolean();
+
+    /**
+     * Liberado quando a exportação deixa de escrever no destino, ao término da execução ou no cancelamento de uma
+     * exportação ainda não iniciada.
+     */
+    private final CountDownLatch termino = new CountDownLatch(1);
+
+    private final FutureTask<Void> execucao;
+
+    private volatile boolean cancelada;
+
+    private final SaidaContada saida;
+
+    <T> TarefaExportacao(final Exportador<T> exportador, final OutputStream destino, final Iterator<T> registros,
+            final Map<String, Object> parametros) {
+
+        this.saida = new SaidaContada(destino);
+        this.execucao = new FutureTask<Void>(new Callable<Void>() {
+
+            @Override
+            public Void call() throws Exception {
+
+                if (! TarefaExportacao.this.iniciada.compareAndSet(false, true)) {
+                    throw new CancellationException();
+                }
+
+                try {
+                    exportador.exportar(TarefaExportacao.this.saida, new Acompanhamento<T>(registros), parametros);
+                } finally {
+                    TarefaExportacao.this.termino.countDown();
+                }
+
+                return null;
+            }
+        });
+    }
+
+    /**
+     * Número de registros lidos até o momento.
+     *
+     * @return O número de registros processados.
+     */
+    public long getLinhas() {
+        return this.linhas.get();
+    }
+
+    /**
+     * Número de bytes escritos no destino até o momento.
+     *
+     * @return O número de bytes escritos.
+     */
+    public long getBytes() {
+        return this.saida.getTotal();
+    }
+
+    /**
+     * Cancela a exportação. Caso já tenha sido iniciada, a exportação é interrompida antes da leitura do próximo
+     * registro; utilize {@link #aguardarTermino()} para aguardar a interrupção.
+     *
+     * @param interromper
+     *            Indica se a thread que executa a exportação também deve ser interrompida
+     * @return <b>False</b> caso a exportação já tenha sido concluída e <b>true</b> caso contrário.
+     */
+    @Override
+    public boolean cancel(final boolean interromper) {
+
+        this.cancelada = true;
+
+        final boolean cancelamento = this.execucao.cancel(interromper);
+
+        if (this.iniciada.compareAndSet(false, true)) {
+            this.termino.countDown();
+        }
+
+        return cancelamento;
+    }
+
+    /**
+     * Aguarda até que a exportação deixe de escrever no destino, seja pela sua conclusão, falha ou cancelamento.
+     *
+     * @throws InterruptedException
+     *             Caso a thread seja interrompida durante a espera.
+     */
+    public void aguardarTermino() throws InterruptedException {
+        this.termino.await();
+    }
+
+    /**
+     * Aguarda, por no máximo o tempo informado, até que a exportação deixe de escrever no destino.
+     *
+     * @param tempo
+     *            Tempo máximo de espera
+     * @param unidade
+     *            Unidade do tempo de espera
+     * @return <b>True</b> caso a exportação tenha deixado de escrever e <b>false</b> caso o tempo tenha se esgotado.
+     * @throws InterruptedException
+     *             Caso a thread seja interrompida durante a espera.
+     */
+    public boolean aguardarTermino(final long tempo, final TimeUnit unidade) throws InterruptedException {
+        return this.termino.await(tempo, unidade);
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return this.execucao.isCancelled();
+    }
+
+    @Override
+    public boolean isDone() {
+        return this.execucao.isDone();
+    }
+
+    /**
+     * Aguarda a conclusão da exportação.
+     *
+     * @return Sempre <b>null</b>.
+     * @throws ExecutionException
+     *             Caso a exportação falhe. A causa é a exceção original, normalmente uma
+     *             {@link br.com.leuras.commons.exception.ExportacaoException ExportacaoException}.
+     * @throws CancellationException
+     *             Caso a exportação tenha sido cancelada.
+     */
+    @Override
+    public Void get() throws InterruptedException, ExecutionException {
+        return this.execucao.get();
+    }
+
+    @Override
+    public Void get(final long tempo, final TimeUnit unidade)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        return this.execucao.get(tempo, unidade);
+    }
+
+    /**
+     * Executa a exportação na thread corrente.
+     */
+    void executar() {
+        this.execucao.run();
+    }
+
+    /**
+     * Iterador que contabiliza os registros lidos e interrompe a leitura caso a exportação seja cancelada.
+     */
+    private final class Acompanhamento<T> implements Iterator<T> {
+
+        private final Iterator<T> registros;
+
+        Acompanhamento(final Iterator<T> registros) {
+            this.registros = registros;
+        }
+
+        @Override
+        public boolean hasNext() {
+
+            if (TarefaExportacao.this.cancelada) {
+                throw new CancellationException();
+            }
+
+            return this.registros.hasNext();
+        }
+
+        @Override
+        public T next() {
+
+            final T registro = this.registros.next();
+
+            TarefaExportacao.this.linhas.incrementAndGet();
+
+            return registro;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package br.com.leuras.commons.export;
+
+import java.util.Calendar;
+import java.util.Date;
+
+public enum TipoColunaEnum {
+    LOGICO, DATA, NUMERO, TEXTO, OUTRO;
+
+    /**
+     * Determina a categoria de uma coluna a partir do tipo declarado do atributo.
+     *
+     * @param tipo
+     *            Tipo declarado do atributo
+     * @return A categoria correspondente ao tipo.
+     */
+    public static TipoColunaEnum de(final Class<?> tipo) {
+
+        if (Boolean.class == tipo || boolean.class == tipo) {
+            return LOGICO;
+        }
+
+        if (Date.class.isAssignableFrom(tipo) || Calendar.class.isAssignableFrom(tipo)) {
+            return DATA;
+        }
+
+        if (Number.class.isAssignableFrom(tipo) || (tipo.isPrimitive() && char.class != tipo && void.class != tipo)) {
+            return NUMERO;
+        }
+
+        if (CharSequence.class.isAssignableFrom(tipo) || char.class == tipo || Character.class == tipo) {
+            return TEXTO;
+        }
+
+        return OUTRO;
+    }
+}
@@ -0,0 +1,350 @@
+package br.com.leuras.commons.export;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Acumula, a cada linha escrita, as agregações declaradas nas colunas de um plano. O acumulador de cada coluna é
+ * escolhido pelo tipo declarado do atributo, de modo que os totais preservem a exatidão dos valores:
+ * <ul>
+ * <li>{@link BigDecimal} e {@link BigInteger}: acumulador {@link BigDecimal}, sem arredondamento;</li>
+ * <li>{@link Long}, {@link Integer}, {@link Short} e {@link Byte}: acumulador <b>long</b>, transbordando para um
+ * {@link BigDecimal} caso a soma exceda o seu limite;</li>
+ * <li>{@link Date}: acumulador <b>long</b> do valor em milissegundos, admitindo apenas {@link AgregacaoEnum#MINIMO
+ * MINIMO}, {@link AgregacaoEnum#MAXIMO MAXIMO} e {@link AgregacaoEnum#CONTAGEM CONTAGEM};</li>
+ * <li>demais tipos ({@link Double}, {@link Float}, etc): acumulador <b>double</b>, com a compensação de Kahan para
+ * reduzir o erro de arredondamento em grandes volumes.</li>
+ * </ul>
+ *
+ * @see AgregacaoEnum AgregacaoEnum
+ */
+final class Totalizador {
+
+    private final AgregacaoEnum[] agregacoes;
+
+    private final Acumulador[] acumuladores;
+
+    private final double[] somas;
+
+    private final double[] compensacoes;
+
+    private final double[] minimos;
+
+    private final double[] maximos;
+
+    private final long[] somasInteiras;
+
+    private final long[] minimosInteiros;
+
+    private final long[] maximosInteiros;
+
+    private final BigDecimal[] somasDecimais;
+
+    private final BigDecimal[] minimosDecimais;
+
+    private final BigDecimal[] maximosDecimais;
+
+    private final long[] contagens;
+
+    private Totalizador(final List<ColunaExportavel> colunas) {
+
+        final int total = colunas.size();
+
+        this.agregacoes = new AgregacaoEnum[total];
+        this.acumuladores = new Acumulador[total];
+        this.somas = new double[total];
+        this.compensacoes = new double[total];
+        this.minimos = new double[total];
+        this.maximos = new double[total];
+        this.somasInteiras = new long[total];
+        this.minimosInteiros = new long[total];
+        this.maximosInteiros = new long[total];
+        this.somasDecimais = new BigDecimal[total];
+        this.minimosDecimais = new BigDecimal[total];
+        this.maximosDecimais = new BigDecimal[total];
+        this.contagens = new long[total];
+
+        for (int coluna = 0; coluna < total; coluna++) {
+            this.agregacoes[coluna] = colunas.get(coluna).getAgregacao();
+            this.acumuladores[coluna] = Acumulador.de(colunas.get(coluna));
+            this.minimos[coluna] = Double.POSITIVE_INFINITY;
+            this.maximos[coluna] = Double.NEGATIVE_INFINITY;
+            this.minimosInteiros[coluna] = Long.MAX_VALUE;
+            this.maximosInteiros[coluna] = Long.MIN_VALUE;
+        }
+    }
+
+    /**
+     * Cria um totalizador para o plano de colunas informado.
+     *
+     * @param plano
+     *            Plano de colunas
+     * @return O totalizador ou <b>null</b> caso nenhuma coluna declare uma agregação.
+     */
+    static Totalizador de(final PlanoColunas<?> plano) {
+
+        for (final ColunaExportavel coluna : plano.getColunas()) {
+            if (! AgregacaoEnum.NENHUMA.equals(coluna.getAgregacao())) {
+                return new Totalizador(plano.getColunas());
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Acumula os valores de uma linha.
+     *
+     * @param valores
+     *            Valores das colunas, na ordem do plano de colunas
+     */
+    void acumular(final Object[] valores) {
+
+        for (int coluna = 0; coluna < this.agregacoes.length; coluna++) {
+
+            final Object valor = valores[coluna];
+
+            if (valor == null || AgregacaoEnum.NENHUMA.equals(this.agregacoes[coluna])) {
+                continue;
+            }
+
+            if (AgregacaoEnum.CONTAGEM.equals(this.agregacoes[coluna])) {
+                this.contagens[coluna]++;
+                continue;
+            }
+
+            switch (this.acumuladores[coluna]) {
+                case DECIMAL:
+                    if (valor instanceof Number) {
+                        this.acumularDecimal(coluna, Totalizador.comoDecimal((Number) valor));
+                    }
+                    break;
+                case INTEIRO:
+                    if (valor instanceof Number) {
+                        this.acumularInteiro(coluna, ((Number) valor).longValue());
+                    }
+                    break;
+                case DATA:
+                    if (valor instanceof Date) {
+                        this.acumularData(coluna, ((Date) valor).getTime());
+                    }
+                    break;
+                default:
+                    if (valor instanceof Number) {
+                        this.acumularReal(coluna, ((Number) valor).doubleValue());
+                    }
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Obtém o resultado da agregação de uma coluna.
+     *
+     * @param coluna
+     *            Posição da coluna no plano
+     * @return O resultado ou <b>null</b> caso a coluna não declare uma agregação ou não haja valores a agregar. As
+     *         contagens são {@link Long}; as colunas {@link BigDecimal} e {@link BigInteger} resultam em
+     *         {@link BigDecimal}; as colunas inteiras resultam em {@link Long} (ou {@link BigDecimal}, caso a soma
+     *         exceda o limite de um <b>long</b>), com exceção da média, {@link Double}; as datas resultam em
+     *         {@link Date} e as demais colunas em {@link Double}.
+     */
+    Object resultado(final int coluna) {
+
+        final AgregacaoEnum agregacao = this.agregacoes[coluna];
+
+        if (AgregacaoEnum.CONTAGEM.equals(agregacao)) {
+            return Long.valueOf(this.contagens[coluna]);
+        }
+
+        if (AgregacaoEnum.NENHUMA.equals(agregacao) || this.contagens[coluna] == 0) {
+            return null;
+        }
+
+        switch (this.acumuladores[coluna]) {
+            case DECIMAL:
+                return this.resultadoDecimal(coluna, agregacao);
+            case INTEIRO:
+                return this.resultadoInteiro(coluna, agregacao);
+            case DATA:
+                return this.resultadoData(coluna, agregacao);
+            default:
+                return this.resultadoReal(coluna, agregacao);
+        }
+    }
+
+    private void acumularReal(final int coluna, final double numero) {
+
+        final double parcela = numero - this.compensacoes[coluna];
+        final double soma = this.somas[coluna] + parcela;
+
+        this.compensacoes[coluna] = (soma - this.somas[coluna]) - parcela;
+        this.somas[coluna] = soma;
+        this.minimos[coluna] = Math.min(this.minimos[coluna], numero);
+        this.maximos[coluna] = Math.max(this.maximos[coluna], numero);
+        this.contagens[coluna]++;
+    }
+
+    /**
+     * Acumula um valor inteiro. Caso a soma exceda o limite de um <b>long</b>, a soma parcial é transferida para o
+     * acumulador decimal da coluna.
+     */
+    private void acumularInteiro(final int coluna, final long numero) {
+
+        final long parcial = this.somasInteiras[coluna];
+        final long soma = parcial + numero;
+
+        if (((parcial ^ soma) & (numero ^ soma)) < 0) {
+            this.somasDecimais[coluna] = BigDecimal.valueOf(parcial).add(this.somaDecimal(coluna));
+            this.somasInteiras[coluna] = numero;
+        } else {
+            this.somasInteiras[coluna] = soma;
+        }
+
+        this.minimosInteiros[coluna] = Math.min(this.minimosInteiros[coluna], numero);
+        this.maximosInteiros[coluna] = Math.max(this.maximosInteiros[coluna], numero);
+        this.contagens[coluna]++;
+    }
+
+    private void acumularDecimal(final int coluna, final BigDecimal numero) {
+
+        this.somasDecimais[coluna] = this.somaDecimal(coluna).add(numero);
+
+        if (this.minimosDecimais[coluna] == null || numero.compareTo(this.minimosDecimais[coluna]) < 0) {
+            this.minimosDecimais[coluna] = numero;
+        }
+
+        if (this.maximosDecimais[coluna] == null || numero.compareTo(this.maximosDecimais[coluna]) > 0) {
+            this.maximosDecimais[coluna] = numero;
+        }
+
+        this.contagens[coluna]++;
+    }
+
+    private void acumularData(final int coluna, final long milissegundos) {
+
+        this.minimosInteiros[coluna] = Math.min(this.minimosInteiros[coluna], milissegundos);
+        this.maximosInteiros[coluna] = Math.max(this.maximosInteiros[coluna], milissegundos);
+        this.contagens[coluna]++;
+    }
+
+    private Object resultadoReal(final int coluna, final AgregacaoEnum agregacao) {
+
+        switch (agregacao) {
+            case SOMA:
+                return Double.valueOf(this.somas[coluna]);
+            case MEDIA:
+                return Double.valueOf(this.somas[coluna] / this.contagens[coluna]);
+            case MINIMO:
+                return Double.valueOf(this.minimos[coluna]);
+            case MAXIMO:
+                return Double.valueOf(this.maximos[coluna]);
+            default:
+                return null;
+        }
+    }
+
+    private Object resultadoInteiro(final int coluna, final AgregacaoEnum agregacao) {
+
+        switch (agregacao) {
+            case SOMA:
+                return this.somasDecimais[coluna] == null ? (Object) Long.valueOf(this.somasInteiras[coluna])
+                        : this.somasDecimais[coluna].add(BigDecimal.valueOf(this.somasInteiras[coluna]));
+            case MEDIA:
+                return Double.valueOf(BigDecimal.valueOf(this.somasInteiras[coluna]).add(this.somaDecimal(coluna))
+                        .divide(BigDecimal.valueOf(this.contagens[coluna]), MathContext.DECIMAL64).doubleValue());
+            case MINIMO:
+                return Long.valueOf(this.minimosInteiros[coluna]);
+            case MAXIMO:
+                return Long.valueOf(this.maximosInteiros[coluna]);
+            default:
+                return null;
+        }
+    }
+
+    private Object resultadoDecimal(final int coluna, final AgregacaoEnum agregacao) {
+
+        switch (agregacao) {
+            case SOMA:
+                return this.somasDecimais[coluna];
+            case MEDIA:
+                return this.somasDecimais[coluna].divide(BigDecimal.valueOf(this.contagens[coluna]),
+                        MathContext.DECIMAL128);
+            case MINIMO:
+                return this.minimosDecimais[coluna];
+            case MAXIMO:
+                return this.maximosDecimais[coluna];
+            default:
+                return null;
+        }
+    }
+
+    private Object resultadoData(final int coluna, final AgregacaoEnum agregacao) {
+
+        switch (agregacao) {
+            case MINIMO:
+                return new Date(this.minimosInteiros[coluna]);
+            case MAXIMO:
+                return new Date(this.maximosInteiros[coluna]);
+            default:
+                return null;
+        }
+    }
+
+    private BigDecimal somaDecimal(final int coluna) {
+        return this.somasDecimais[coluna] != null ? this.somasDecimais[coluna] : BigDecimal.ZERO;
+    }
+
+    private static BigDecimal comoDecimal(final Number valor) {
+
+        if (valor instanceof BigDecimal) {
+            return (BigDecimal) valor;
+        }
+
+        if (valor instanceof BigInteger) {
+            return new BigDecimal((BigInteger) valor);
+        }
+
+        if (valor instanceof Long || valor instanceof Integer || valor instanceof Short || valor instanceof Byte) {
+            return BigDecimal.valueOf(valor.longValue());
+        }
+
+        return new BigDecimal(valor.toString());
+    }
+
+    /**
+     * Acumulador utilizado por uma coluna, de acordo com o seu tipo declarado.
+     */
+    private enum Acumulador {
+
+        REAL, INTEIRO, DECIMAL, DATA;
+
+        static Acumulador de(final ColunaExportavel coluna) {
+
+            final Class<?> tipo = coluna.getTipo();
+
+            if (TipoColunaEnum.DATA.equals(coluna.getCategoria())) {
+                return DATA;
+            }
+
+            if (tipo == null) {
+                return REAL;
+            }
+
+            if (BigDecimal.class.equals(tipo) || BigInteger.class.equals(tipo)) {
+                return DECIMAL;
+            }
+
+            if (Long.class.equals(tipo) || Integer.class.equals(tipo) || Short.class.equals(tipo)
+                    || Byte.class.equals(tipo) || long.class.equals(tipo) || int.class.equals(tipo)
+                    || short.class.equals(tipo) || byte.class.equals(tipo)) {
+                return INTEIRO;
+            }
+
+            return REAL;
+        }
+    }
+}
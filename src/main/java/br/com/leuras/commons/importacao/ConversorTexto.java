@@ -0,0 +1,322 @@
+package br.com.leuras.commons.importacao;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Calendar;
+import java.util.Date;
+
+import br.com.leuras.commons.enumerator.SimNaoEnum;
+import br.com.leuras.commons.export.ColunaExportavel;
+import br.com.leuras.commons.export.FormatoAtributoEnum;
+import br.com.leuras.commons.util.NumeralUtils;
+
+/**
+ * Conversão de um trecho de um buffer de caracteres para o tipo da propriedade de destino, sem a criação de uma
+ * {@link String} intermediária. Números no formato brasileiro (<i>1.234,56</i>, <i>R$ 1.234,56</i>, <i>12,50%</i>),
+ * datas no formato <i>dd/MM/yyyy</i> (opcionalmente com <i>HH:mm</i> ou <i>HH:mm:ss</i>) e <i>Sim</i>/<i>Não</i> são
+ * lidos diretamente dos caracteres; os demais casos recorrem a {@link ConversorValores}.
+ */
+final class ConversorTexto {
+
+    private static final int MAXIMO_DIGITOS = 18;
+
+    private static final double[] POTENCIAS = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12,
+            1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+
+    private static final long[] POTENCIAS_INTEIRAS = { 1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L,
+            100000000L, 1000000000L, 10000000000L, 100000000000L, 1000000000000L, 10000000000000L, 100000000000000L,
+            1000000000000000L, 10000000000000000L, 100000000000000000L, 1000000000000000000L };
+
+    private ConversorTexto() {
+
+    }
+
+    /**
+     * Converte o trecho informado para o tipo da coluna.
+     *
+     * @param caracteres
+     *            Buffer de caracteres
+     * @param inicio
+     *            Posição inicial do trecho (inclusiva)
+     * @param fim
+     *            Posição final do trecho (exclusiva)
+     * @param aspasDuplicadas
+     *            Indica se o trecho contém aspas escapadas (<b>""</b>)
+     * @param coluna
+     *            Coluna de destino
+     * @param calendario
+     *            Calendário reutilizado na leitura das datas
+     * @return O valor convertido ou <b>null</b> caso o trecho esteja vazio ou contenha apenas espaços, inclusive para as
+     *         colunas de texto.
+     * @throws IllegalArgumentException
+     *             Caso o valor não possa ser convertido para o tipo da coluna.
+     */
+    static Object converter(final char[] caracteres, final int inicio, final int fim, final boolean aspasDuplicadas,
+            final ColunaExportavel coluna, final Calendar calendario) throws IllegalArgumentException {
+
+        int primeiro = inicio;
+        int ultimo = fim;
+
+        while (primeiro < ultimo && Character.isWhitespace(caracteres[primeiro])) {
+            primeiro++;
+        }
+
+        while (ultimo > primeiro && Character.isWhitespace(caracteres[ultimo - 1])) {
+            ultimo--;
+        }
+
+        if (primeiro == ultimo) {
+            return null;
+        }
+
+        final Class<?> tipo = ConversorValores.envoltorio(coluna.getTipo());
+
+        if (String.class == tipo) {
+            final String texto = new String(caracteres, inicio, fim - inicio);
+
+            return aspasDuplicadas ? texto.replace("\"\"", "\"") : texto;
+        }
+
+        Object valor = null;
+
+        if (Number.class.isAssignableFrom(tipo)) {
+            valor = ConversorTexto.numero(caracteres, primeiro, ultimo, tipo, coluna.getFormato());
+        } else if (Boolean.class == tipo) {
+            valor = ConversorTexto.logico(caracteres, primeiro, ultimo);
+        } else if (Date.class.isAssignableFrom(tipo) || Calendar.class.isAssignableFrom(tipo)) {
+            final Date data = ConversorTexto.data(caracteres, primeiro, ultimo, calendario);
+
+            valor = data != null ? ConversorValores.adaptar(data, tipo) : null;
+        }
+
+        if (valor == null) {
+            valor = ConversorValores.converter(new String(caracteres, primeiro, ultimo - primeiro), coluna);
+        }
+
+        return valor;
+    }
+
+    /**
+     * Lê um número no formato brasileiro, em que o ponto é aceito apenas como separador de milhar, em grupos de três
+     * dígitos antes da vírgula decimal. Retorna <b>null</b> quando o número possui mais dígitos do que um
+     * <b>long</b> comporta ou o tipo não é lido diretamente, deixando a conversão a cargo de {@link ConversorValores}.
+     * Para os tipos inteiros, valores fracionários ou fora do intervalo do tipo são rejeitados, como em
+     * {@link ConversorValores}.
+     */
+    private static Number numero(final char[] caracteres, final int inicio, final int fim, final Class<?> tipo,
+            final FormatoAtributoEnum formato) {
+
+        int posicao = inicio;
+
+        if (fim - posicao > 1 && caracteres[posicao] == 'R' && caracteres[posicao + 1] == '$') {
+            posicao += 2;
+
+            while (posicao < fim && Character.isWhitespace(caracteres[posicao])) {
+                posicao++;
+            }
+        }
+
+        final boolean negativo = posicao < fim && caracteres[posicao] == '-';
+
+        if (negativo) {
+            posicao++;
+        }
+
+        long mantissa = 0;
+        int digitos = 0;
+        int casas = -1;
+        int grupo = 0;
+        boolean milhares = false;
+        boolean percentual = false;
+
+        for (; posicao < fim; posicao++) {
+
+            final char caractere = caracteres[posicao];
+
+            if (caractere >= '0' && caractere <= '9') {
+
+                if (digitos == MAXIMO_DIGITOS) {
+                    return null;
+                }
+
+                mantissa = mantissa * 10 + (caractere - '0');
+                digitos++;
+
+                if (casas >= 0) {
+                    casas++;
+                } else {
+                    grupo++;
+                }
+
+            } else if (caractere == '.' && casas < 0 && ConversorTexto.grupoValido(grupo, milhares)) {
+                milhares = true;
+                grupo = 0;
+            } else if (caractere == ',' && casas < 0) {
+                casas = 0;
+            } else if (caractere == '%' && posicao == fim - 1) {
+                percentual = true;
+            } else {
+                throw new IllegalArgumentException(new String(caracteres, inicio, fim - inicio));
+            }
+        }
+
+        if (digitos == 0 || milhares && grupo != 3) {
+            throw new IllegalArgumentException(new String(caracteres, inicio, fim - inicio));
+        }
+
+        final long valor = negativo ? -mantissa : mantissa;
+        final int escala = Math.max(casas, 0) + (percentual ? 2 : 0);
+
+        if (BigDecimal.class == tipo) {
+
+            final BigDecimal decimal = BigDecimal.valueOf(valor, escala);
+
+            return FormatoAtributoEnum.MOEDA.equals(formato)
+                    ? decimal.setScale(NumeralUtils.DOIS, RoundingMode.HALF_EVEN) : decimal;
+        }
+
+        if (Double.class == tipo || Float.class == tipo) {
+
+            final double real = escala < POTENCIAS.length ? valor / POTENCIAS[escala] : valor / Math.pow(10, escala);
+
+            return Double.class == tipo ? (Number) real : (Number) (float) real;
+        }
+
+        if (Long.class != tipo && Integer.class != tipo && Short.class != tipo && Byte.class != tipo) {
+            return null;
+        }
+
+        final long inteiro = ConversorTexto.inteiro(valor, escala);
+
+        if (inteiro * ConversorTexto.potencia(escala) != valor
+                || Integer.class == tipo && (inteiro < Integer.MIN_VALUE || inteiro > Integer.MAX_VALUE)
+                || Short.class == tipo && (inteiro < Short.MIN_VALUE || inteiro > Short.MAX_VALUE)
+                || Byte.class == tipo && (inteiro < Byte.MIN_VALUE || inteiro > Byte.MAX_VALUE)) {
+            throw new IllegalArgumentException(String.format(ConversorValores.ME002,
+                    new String(caracteres, inicio, fim - inicio), tipo.getSimpleName()));
+        }
+
+        if (Long.class == tipo) {
+            return inteiro;
+        } else if (Integer.class == tipo) {
+            return (int) inteiro;
+        } else if (Short.class == tipo) {
+            return (short) inteiro;
+        }
+
+        return (byte) inteiro;
+    }
+
+    /**
+     * Indica se o grupo de dígitos que antecede um separador de milhar é válido: o primeiro grupo possui de um a três
+     * dígitos e os seguintes, exatamente três.
+     */
+    private static boolean grupoValido(final int grupo, final boolean milhares) {
+        return milhares ? grupo == 3 : grupo > 0 && grupo <= 3;
+    }
+
+    private static long inteiro(final long valor, final int escala) {
+        return escala < POTENCIAS_INTEIRAS.length ? valor / POTENCIAS_INTEIRAS[escala] : 0;
+    }
+
+    private static long potencia(final int escala) {
+        return escala < POTENCIAS_INTEIRAS.length ? POTENCIAS_INTEIRAS[escala] : 0;
+    }
+
+    private static Boolean logico(final char[] caracteres, final int inicio, final int fim) {
+
+        for (final SimNaoEnum opcao : SimNaoEnum.values()) {
+            if (ConversorTexto.igual(caracteres, inicio, fim, opcao.getLabel())
+                    || ConversorTexto.igual(caracteres, inicio, fim, opcao.getValue().toString())) {
+                return opcao.getValue();
+            }
+        }
+
+        throw new IllegalArgumentException(new String(caracteres, inicio, fim - inicio));
+    }
+
+    /**
+     * Lê uma data nos formatos <i>dd/MM/yyyy</i>, <i>dd/MM/yyyy HH:mm</i> ou <i>dd/MM/yyyy HH:mm:ss</i>. Retorna
+     * <b>null</b> para os demais formatos, deixando a conversão a cargo de {@link ConversorValores}.
+     */
+    private static Date data(final char[] caracteres, final int inicio, final int fim, final Calendar calendario) {
+
+        final int tamanho = fim - inicio;
+
+        if ((tamanho != 10 && tamanho != 16 && tamanho != 19) || caracteres[inicio + 2] != '/'
+                || caracteres[inicio + 5] != '/') {
+            return null;
+        }
+
+        final int dia = ConversorTexto.digitos(caracteres, inicio, 2);
+        final int mes = ConversorTexto.digitos(caracteres, inicio + 3, 2);
+        final int ano = ConversorTexto.digitos(caracteres, inicio + 6, 4);
+        int hora = 0;
+        int minuto = 0;
+        int segundo = 0;
+
+        if (tamanho > 10) {
+
+            if (caracteres[inicio + 10] != ' ' || caracteres[inicio + 13] != ':') {
+                return null;
+            }
+
+            hora = ConversorTexto.digitos(caracteres, inicio + 11, 2);
+            minuto = ConversorTexto.digitos(caracteres, inicio + 14, 2);
+
+            if (tamanho > 16) {
+
+                if (caracteres[inicio + 16] != ':') {
+                    return null;
+                }
+
+                segundo = ConversorTexto.digitos(caracteres, inicio + 17, 2);
+            }
+        }
+
+        if (dia < 0 || mes < 0 || ano < 0 || hora < 0 || minuto < 0 || segundo < 0) {
+            return null;
+        }
+
+        calendario.clear();
+        calendario.set(ano, mes - 1, dia, hora, minuto, segundo);
+
+        return calendario.getTime();
+    }
+
+    /**
+     * Lê um número inteiro de tamanho fixo. Retorna -1 caso algum caractere não seja um dígito.
+     */
+    private static int digitos(final char[] caracteres, final int inicio, final int tamanho) {
+
+        int valor = 0;
+
+        for (int posicao = inicio; posicao < inicio + tamanho; posicao++) {
+
+            final char caractere = caracteres[posicao];
+
+            if (caractere < '0' || caractere > '9') {
+                return -1;
+            }
+
+            valor = valor * 10 + (caractere - '0');
+        }
+
+        return valor;
+    }
+
+    private static boolean igual(final char[] caracteres, final int inicio, final int fim, final String texto) {
+
+        if (fim - inicio != texto.length()) {
+            return false;
+        }
+
+        for (int posicao = 0; posicao < texto.length(); posicao++) {
+            if (Character.toLowerCase(caracteres[inicio + posicao]) != Character.toLowerCase(texto.charAt(posicao))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
@@ -0,0 +1,300 @@
+package br.com.leuras.commons.importacao;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.text.DecimalFormat;
+import java.text.NumberFormat;
+import java.text.ParsePosition;
+import java.util.Calendar;
+import java.util.Date;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.poi.ss.usermodel.DateUtil;
+
+import br.com.leuras.commons.enumerator.SimNaoEnum;
+import br.com.leuras.commons.export.ColunaExportavel;
+import br.com.leuras.commons.export.FormatoAtributoEnum;
+import br.com.leuras.commons.util.Brasil;
+import br.com.leuras.commons.util.DataUtils;
+import br.com.leuras.commons.util.NumeralUtils;
+
+/**
+ * Conversão dos valores lidos das células (texto, número ou valor lógico) para o tipo da propriedade de destino. É a
+ * operação inversa da escrita feita pelos formatos de exportação: <i>Sim</i>/<i>Não</i> voltam a ser valores lógicos,
+ * datas gravadas como número de série do Excel ou como texto voltam a ser datas e valores como <i>R$ 1.234,56</i> ou
+ * <i>12,50%</i> voltam a ser números.
+ */
+final class ConversorValores {
+
+    protected static final String ME001 = "O tipo \"%s\" não é suportado na importação.";
+
+    protected static final String ME002 = "O valor \"%s\" não pode ser convertido para \"%s\" sem perda de precisão ou fora do intervalo do tipo.";
+
+    protected static final String ME003 = "O valor \"%s\" não é um número válido.";
+
+    private static final String MOEDA = "R$";
+
+    private static final String PERCENTUAL = "%";
+
+    private static final String[] FORMATOS_DATA = { DataUtils.Formato.PADRAO + " " + DataUtils.Formato.HORARIO_COMPLETO,
+            DataUtils.Formato.PADRAO_COMPLETO, DataUtils.Formato.PADRAO, DataUtils.Formato.UNIVERSAL_COMPLETO,
+            DataUtils.Formato.UNIVERSAL, DataUtils.Formato.HORARIO_COMPLETO, DataUtils.Formato.HORARIO };
+
+    private ConversorValores() {
+
+    }
+
+    /**
+     * Converte o valor de uma célula para o tipo da coluna informada.
+     *
+     * @param bruto
+     *            Valor da célula: {@link String}, {@link Double} ou {@link Boolean}
+     * @param coluna
+     *            Coluna de destino
+     * @return O valor convertido ou <b>null</b> caso a célula esteja vazia.
+     * @throws IllegalArgumentException
+     *             Caso o valor não possa ser convertido para o tipo da coluna.
+     */
+    static Object converter(final Object bruto, final ColunaExportavel coluna) throws IllegalArgumentException {
+
+        if (bruto == null || (bruto instanceof String && StringUtils.isBlank((String) bruto))) {
+            return null;
+        }
+
+        final Class<?> tipo = ConversorValores.envoltorio(coluna.getTipo());
+
+        if (tipo.isInstance(bruto)) {
+            return bruto;
+        }
+
+        if (String.class == tipo) {
+            return ConversorValores.texto(bruto);
+        }
+
+        if (Boolean.class == tipo) {
+            return ConversorValores.logico(bruto);
+        }
+
+        if (Date.class.isAssignableFrom(tipo) || Calendar.class.isAssignableFrom(tipo)) {
+            return ConversorValores.data(bruto, tipo);
+        }
+
+        if (Number.class.isAssignableFrom(tipo)) {
+            return ConversorValores.numero(bruto, tipo.asSubclass(Number.class), coluna.getFormato());
+        }
+
+        if (Character.class == tipo) {
+            return ConversorValores.texto(bruto).charAt(0);
+        }
+
+        if (tipo.isEnum()) {
+            return ConversorValores.enumeracao(bruto, tipo);
+        }
+
+        throw new IllegalArgumentException(String.format(ME001, tipo.getName()));
+    }
+
+    private static String texto(final Object bruto) {
+
+        if (bruto instanceof Boolean) {
+            return SimNaoEnum.valueOf((Boolean) bruto).getLabel();
+        }
+
+        if (bruto instanceof Double) {
+            return BigDecimal.valueOf((Double) bruto).stripTrailingZeros().toPlainString();
+        }
+
+        return ((String) bruto).trim();
+    }
+
+    private static Boolean logico(final Object bruto) {
+
+        if (bruto instanceof Double) {
+            return SimNaoEnum.valueOf(((Double) bruto).intValue()).getValue();
+        }
+
+        final String texto = ((String) bruto).trim();
+
+        for (final SimNaoEnum opcao : SimNaoEnum.values()) {
+            if (opcao.getLabel().equalsIgnoreCase(texto) || opcao.getValue().toString().equalsIgnoreCase(texto)) {
+                return opcao.getValue();
+            }
+        }
+
+        throw new IllegalArgumentException(texto);
+    }
+
+    private static Object data(final Object bruto, final Class<?> tipo) {
+
+        Date data = null;
+
+        if (bruto instanceof Double) {
+            data = DateUtil.getJavaDate((Double) bruto);
+        } else if (bruto instanceof String) {
+            for (int formato = 0; formato < FORMATOS_DATA.length && data == null; formato++) {
+                data = DataUtils.paraData(((String) bruto).trim(), null, FORMATOS_DATA[formato]);
+            }
+        }
+
+        if (data == null) {
+            throw new IllegalArgumentException(bruto.toString());
+        }
+
+        return ConversorValores.adaptar(data, tipo);
+    }
+
+    /**
+     * Adapta uma data ao tipo de destino: {@link Date}, {@link Calendar} ou os tipos de data do JDBC.
+     */
+    static Object adaptar(final Date data, final Class<?> tipo) {
+
+        if (Calendar.class.isAssignableFrom(tipo)) {
+            final Calendar calendario = Calendar.getInstance();
+            calendario.setTime(data);
+
+            return calendario;
+        }
+
+        if (java.sql.Timestamp.class == tipo) {
+            return new java.sql.Timestamp(data.getTime());
+        }
+
+        if (java.sql.Date.class == tipo) {
+            return new java.sql.Date(data.getTime());
+        }
+
+        return data;
+    }
+
+    /**
+     * Converte o valor de uma célula para o tipo numérico de destino. O valor é lido como {@link BigDecimal}, sem
+     * arredondamento, e convertido diretamente para o tipo de destino: valores fracionários ou fora do intervalo de um
+     * tipo inteiro são rejeitados.
+     */
+    private static Number numero(final Object bruto, final Class<? extends Number> tipo,
+            final FormatoAtributoEnum formato) {
+
+        final BigDecimal decimal;
+
+        if (bruto instanceof Double) {
+
+            final Double valor = (Double) bruto;
+
+            if (valor.isNaN() || valor.isInfinite()) {
+
+                if (Double.class == tipo || Float.class == tipo) {
+                    return Double.class == tipo ? valor : (Number) valor.floatValue();
+                }
+
+                throw new IllegalArgumentException(String.format(ME002, bruto, tipo.getSimpleName()));
+            }
+
+            decimal = BigDecimal.valueOf(valor);
+        } else if (bruto instanceof String) {
+            decimal = ConversorValores.decimal(((String) bruto).trim());
+        } else {
+            throw new IllegalArgumentException(bruto.toString());
+        }
+
+        final Number numero = ConversorValores.numero(decimal, tipo, bruto);
+
+        if (numero instanceof BigDecimal && FormatoAtributoEnum.MOEDA.equals(formato)) {
+            return ((BigDecimal) numero).setScale(NumeralUtils.DOIS, RoundingMode.HALF_EVEN);
+        }
+
+        return numero;
+    }
+
+    /**
+     * Lê um texto numérico no padrão brasileiro (<i>1.234,56</i>), com o símbolo da moeda (<i>R$ 1.234,56</i>) ou como
+     * percentual (<i>12,50%</i>). Todo o texto deve ser consumido pela leitura.
+     */
+    private static BigDecimal decimal(final String texto) {
+
+        final DecimalFormat formatador;
+        final String valor;
+
+        if (texto.endsWith(PERCENTUAL)) {
+            formatador = (DecimalFormat) NumberFormat.getPercentInstance(Brasil.Local.BR);
+            valor = texto;
+        } else {
+            formatador = (DecimalFormat) NumberFormat.getNumberInstance(Brasil.Local.BR);
+            valor = StringUtils.remove(texto, MOEDA).replace('\u00A0', ' ').trim();
+        }
+
+        formatador.setParseBigDecimal(true);
+
+        final ParsePosition posicao = new ParsePosition(0);
+        final Number numero = formatador.parse(valor, posicao);
+
+        if (numero == null || posicao.getIndex() != valor.length()) {
+            throw new IllegalArgumentException(String.format(ME003, texto));
+        }
+
+        return (BigDecimal) numero;
+    }
+
+    /**
+     * Converte um número decimal para o tipo de destino. Os tipos inteiros exigem um valor sem parte fracionária e
+     * dentro do seu intervalo.
+     */
+    private static Number numero(final BigDecimal valor, final Class<? extends Number> tipo, final Object bruto) {
+
+        try {
+
+            if (BigDecimal.class == tipo) {
+                return valor;
+            } else if (Double.class == tipo) {
+                return valor.doubleValue();
+            } else if (Float.class == tipo) {
+                return valor.floatValue();
+            } else if (BigInteger.class == tipo) {
+                return valor.toBigIntegerExact();
+            } else if (Long.class == tipo) {
+                return valor.longValueExact();
+            } else if (Integer.class == tipo) {
+                return valor.intValueExact();
+            } else if (Short.class == tipo) {
+                return valor.shortValueExact();
+            } else if (Byte.class == tipo) {
+                return valor.byteValueExact();
+            }
+
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException(String.format(ME002, bruto, tipo.getSimpleName()), e);
+        }
+
+        throw new IllegalArgumentException(String.format(ME001, tipo.getName()));
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static Object enumeracao(final Object bruto, final Class<?> tipo) {
+        return Enum.valueOf((Class<? extends Enum>) tipo, ConversorValores.texto(bruto));
+    }
+
+    static Class<?> envoltorio(final Class<?> tipo) {
+
+        if (! tipo.isPrimitive()) {
+            return tipo;
+        }
+
+        if (boolean.class == tipo) {
+            return Boolean.class;
+        } else if (char.class == tipo) {
+            return Character.class;
+        } else if (byte.class == tipo) {
+            return Byte.class;
+        } else if (short.class == tipo) {
+            return Short.class;
+        } else if (int.class == tipo) {
+            return Integer.class;
+        } else if (long.class == tipo) {
+            return Long.class;
+        } else if (float.class == tipo) {
+            return Float.class;
+        }
+
+        return Double.class;
+    }
+}
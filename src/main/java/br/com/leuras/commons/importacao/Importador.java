@@ -0,0 +1,309 @@
+package br.com.leuras.commons.importacao;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Constructor;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParser;
+import javax.xml.parsers.SAXParserFactory;
+
+import org.apache.poi.POIXMLDocument;
+import org.apache.poi.hssf.eventusermodel.HSSFEventFactory;
+import org.apache.poi.hssf.eventusermodel.HSSFRequest;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.poifs.filesystem.POIFSFileSystem;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.xml.sax.SAXException;
+
+import br.com.leuras.commons.exception.ImportacaoException;
+import br.com.leuras.commons.export.AtributoExportavel;
+import br.com.leuras.commons.export.ColunaExportavel;
+import br.com.leuras.commons.export.PlanoColunas;
+import br.com.leuras.commons.util.ArquivoUtils;
+
+/**
+ * Importador de planilhas do Excel (<b>.xls</b> e <b>.xlsx</b>) para objetos anotados com {@link AtributoExportavel}.
+ * É a operação inversa do {@link br.com.leuras.commons.export.Exportador Exportador}: as colunas da planilha são
+ * associadas às propriedades da classe pelo título definido em <i>coluna()</i>, e os valores são convertidos de volta
+ * para o tipo de cada propriedade (<i>Sim</i>/<i>Não</i>, datas, valores monetários e percentuais).
+ * <p>
+ * A leitura utiliza o modelo de eventos do POI, e não o modelo de objetos da planilha: cada registro é entregue ao
+ * {@link ReceptorImportacao} assim que a sua linha é lida, de modo que o consumo de memória não depende do número de
+ * linhas.
+ * </p>
+ *
+ * <pre>
+ * <code>
+ * final Importador{@literal <Funcionario>} importador = new Importador{@literal <>}(Funcionario.class);
+ *
+ * importador.importar(arquivo, new ReceptorImportacao{@literal <Funcionario>}() {
+ *
+ *     {@literal @}Override
+ *     public void receber(final Funcionario registro, final int linha) {
+ *         repositorio.salvar(registro);
+ *     }
+ * });
+ * </code>
+ * </pre>
+ *
+ * O importador não mantém estado entre as importações e pode ser compartilhado entre threads.
+ *
+ * @param <T>
+ *            Tipo dos registros
+ */
+public class Importador<T> {
+
+    protected static final String ME001 = "A classe \"%s\" não possui um construtor sem argumentos.";
+
+    protected static final String ME002 = "A classe \"%s\" não possui atributos exportáveis que possam ser escritos.";
+
+    protected static final String ME003 = "O conteúdo informado não é uma planilha do Excel (.xls ou .xlsx).";
+
+    private static final String DTD = "http://apache.org/xml/features/disallow-doctype-decl";
+
+    private final Map<String, ColunaExportavel> colunas;
+
+    private final Constructor<T> construtor;
+
+    /**
+     * Constrói uma nova instância de Importador para a classe informada.
+     *
+     * @param tipo
+     *            Classe dos registros. Deve possuir um construtor sem argumentos
+     * @throws IllegalArgumentException
+     *             Caso a classe não possua um construtor sem argumentos ou nenhum atributo exportável que possa ser
+     *             escrito.
+     */
+    public Importador(final Class<T> tipo) throws IllegalArgumentException {
+        this.construtor = Importador.construtor(tipo);
+        this.colunas = Importador.colunas(tipo);
+    }
+
+    /**
+     * Importa todos os registros de uma planilha. Adequado apenas a planilhas pequenas, já que os registros são mantidos
+     * em memória; para volumes maiores, utilize {@link #importar(InputStream, ReceptorImportacao)}.
+     *
+     * @param entrada
+     *            Conteúdo da planilha
+     * @return Os registros importados, na ordem das linhas.
+     * @throws IOException
+     *             Caso algum erro de entrada e saída ocorra durante a leitura.
+     * @throws ImportacaoException
+     *             Caso o conteúdo não seja uma planilha ou algum valor não possa ser convertido.
+     */
+    public List<T> importar(final InputStream entrada) throws IOException, ImportacaoException {
+
+        final List<T> registros = new ArrayList<>();
+
+        this.importar(entrada, new ReceptorImportacao<T>() {
+
+            @Override
+            public void receber(final T registro, final int linha) {
+                registros.add(registro);
+            }
+        });
+
+        return registros;
+    }
+
+    /**
+     * Importa os registros de uma planilha, entregando cada um ao receptor assim que a sua linha é lida. Planilhas
+     * <b>.xlsx</b> são copiadas para um arquivo temporário, o que permite descompactá-las sob demanda; quando o
+     * conteúdo já estiver em um arquivo, prefira {@link #importar(String, ReceptorImportacao)}.
+     *
+     * @param entrada
+     *            Conteúdo da planilha. Não é fechado ao final da importação
+     * @param receptor
+     *            Receptor dos registros
+     * @return O número de registros importados.
+     * @throws IOException
+     *             Caso algum erro de entrada e saída ocorra durante a leitura.
+     * @throws ImportacaoException
+     *             Caso o conteúdo não seja uma planilha, algum valor não possa ser convertido ou o receptor rejeite um
+     *             registro.
+     */
+    public int importar(final InputStream entrada, final ReceptorImportacao<T> receptor)
+            throws IOException, ImportacaoException {
+
+        final InputStream conteudo = entrada.markSupported() ? entrada : new BufferedInputStream(entrada);
+        final MontadorRegistros<T> montador = new MontadorRegistros<>(this.colunas, this.construtor, receptor);
+
+        if (POIFSFileSystem.hasPOIFSHeader(conteudo)) {
+            this.importarXls(conteudo, montador);
+
+        } else if (POIXMLDocument.hasOOXMLHeader(conteudo)) {
+            final File temporario = File.createTempFile("importacao", ".xlsx");
+
+            try {
+                Files.copy(conteudo, temporario.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                this.importarXlsx(temporario.getPath(), montador);
+            } finally {
+                temporario.delete();
+            }
+
+        } else {
+            throw new ImportacaoException(ME003);
+        }
+
+        return montador.getTotal();
+    }
+
+    /**
+     * Importa os registros de um arquivo de planilha, entregando cada um ao receptor assim que a sua linha é lida.
+     *
+     * @param arquivo
+     *            Arquivo
+     * @param receptor
+     *            Receptor dos registros
+     * @return O número de registros importados.
+     * @throws FileNotFoundException
+     *             Caso o caminho informado não exista.
+     * @throws SecurityException
+     *             Caso haja alguma restrição de acesso ao arquivo que impeça a sua leitura.
+     * @throws IOException
+     *             Caso algum erro de entrada e saída ocorra durante a leitura.
+     * @throws ImportacaoException
+     *             Caso o conteúdo não seja uma planilha, algum valor não possa ser convertido ou o receptor rejeite um
+     *             registro.
+     */
+    public int importar(final String arquivo, final ReceptorImportacao<T> receptor)
+            throws FileNotFoundException, SecurityException, IOException, ImportacaoException {
+
+        final MontadorRegistros<T> montador = new MontadorRegistros<>(this.colunas, this.construtor, receptor);
+
+        try (final InputStream entrada = new BufferedInputStream(ArquivoUtils.abrirParaLeitura(arquivo))) {
+
+            if (POIFSFileSystem.hasPOIFSHeader(entrada)) {
+                this.importarXls(entrada, montador);
+                return montador.getTotal();
+            }
+
+            if (! POIXMLDocument.hasOOXMLHeader(entrada)) {
+                throw new ImportacaoException(ME003);
+            }
+        }
+
+        this.importarXlsx(arquivo, montador);
+
+        return montador.getTotal();
+    }
+
+    /**
+     * Obtém o construtor sem argumentos da classe dos registros.
+     */
+    static <T> Constructor<T> construtor(final Class<T> tipo) throws IllegalArgumentException {
+
+        try {
+
+            final Constructor<T> construtor = tipo.getDeclaredConstructor();
+            construtor.setAccessible(true);
+
+            return construtor;
+
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException(String.format(ME001, tipo.getSimpleName()), e);
+        }
+    }
+
+    /**
+     * Obtém as colunas que podem ser escritas na classe dos registros, indexadas pelo título.
+     */
+    static Map<String, ColunaExportavel> colunas(final Class<?> tipo) throws IllegalArgumentException {
+
+        final Map<String, ColunaExportavel> colunas = new HashMap<>();
+
+        for (final ColunaExportavel coluna : PlanoColunas.de(tipo).getColunas()) {
+            if (coluna.getAcessor().isEscrita()) {
+                colunas.put(coluna.getTitulo().trim(), coluna);
+            }
+        }
+
+        if (colunas.isEmpty()) {
+            throw new IllegalArgumentException(String.format(ME002, tipo.getSimpleName()));
+        }
+
+        return Collections.unmodifiableMap(colunas);
+    }
+
+    private void importarXls(final InputStream entrada, final MontadorRegistros<T> montador)
+            throws IOException, ImportacaoException {
+
+        final HSSFRequest requisicao = new HSSFRequest();
+        requisicao.addListenerForAllRecords(new LeitorXls(montador));
+
+        try {
+            new HSSFEventFactory().processWorkbookEvents(requisicao, new POIFSFileSystem(entrada));
+        } catch (InterrupcaoImportacao e) {
+            throw e.getCause();
+        }
+
+        montador.concluir();
+    }
+
+    private void importarXlsx(final String arquivo, final MontadorRegistros<T> montador)
+            throws IOException, ImportacaoException {
+
+        OPCPackage pacote = null;
+
+        try {
+
+            pacote = OPCPackage.open(arquivo, PackageAccess.READ);
+
+            final ReadOnlySharedStringsTable textos = new ReadOnlySharedStringsTable(pacote);
+            final Iterator<InputStream> planilhas = new XSSFReader(pacote).getSheetsData();
+            final SAXParser leitor = Importador.leitor();
+
+            while (planilhas.hasNext()) {
+                try (final InputStream planilha = planilhas.next()) {
+                    montador.novaPlanilha();
+                    leitor.parse(planilha, new LeitorXlsx(textos, montador));
+                }
+            }
+
+            montador.concluir();
+
+        } catch (SAXException e) {
+
+            if (e.getException() instanceof ImportacaoException) {
+                throw (ImportacaoException) e.getException();
+            }
+
+            throw new ImportacaoException(e.getMessage(), e);
+
+        } catch (OpenXML4JException | ParserConfigurationException e) {
+            throw new ImportacaoException(e.getMessage(), e);
+        } finally {
+            if (pacote != null) {
+                pacote.revert();
+            }
+        }
+    }
+
+    /**
+     * Leitor SAX que recusa declarações DOCTYPE, evitando a resolução de entidades externas em arquivos enviados por
+     * usuários.
+     */
+    private static SAXParser leitor() throws ParserConfigurationException, SAXException {
+
+        final SAXParserFactory fabrica = SAXParserFactory.newInstance();
+        fabrica.setNamespaceAware(true);
+        fabrica.setFeature(DTD, true);
+
+        return fabrica.newSAXParser();
+    }
+}
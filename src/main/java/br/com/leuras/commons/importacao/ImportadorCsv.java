@@ -0,0 +1,361 @@
+package br.com.leuras.commons.importacao;
+
+import java.io.BufferedInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Constructor;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import br.com.leuras.commons.exception.ImportacaoException;
+import br.com.leuras.commons.export.AtributoExportavel;
+import br.com.leuras.commons.export.ColunaExportavel;
+import br.com.leuras.commons.util.ArquivoUtils;
+
+/**
+ * Importador de arquivos CSV para objetos anotados com {@link AtributoExportavel}. A primeira linha do arquivo deve
+ * conter os títulos das colunas, definidos em <i>coluna()</i>; colunas desconhecidas são ignoradas.
+ * <p>
+ * O conteúdo é lido por meio de um buffer de caracteres reutilizado e os campos são convertidos diretamente a partir
+ * dele, sem a criação de uma {@link String} por campo: números no formato brasileiro (<i>1.234,56</i>), datas no
+ * formato {@link br.com.leuras.commons.util.DataUtils.Formato#PADRAO PADRAO} e <i>Sim</i>/<i>Não</i>.
+ * </p>
+ *
+ * <pre>
+ * <code>
+ * final ImportadorCsv{@literal <Funcionario>} importador = new ImportadorCsv{@literal <>}(Funcionario.class);
+ * importador.setParalelismo(4);
+ *
+ * importador.importar(arquivo, receptor);
+ * </code>
+ * </pre>
+ *
+ * @param <T>
+ *            Tipo dos registros
+ */
+public class ImportadorCsv<T> {
+
+    protected static final String ME001 = "O paralelismo deve ser maior que zero.";
+
+    protected static final String ME002 = "O cabeçalho não possui nenhuma coluna da classe \"%s\".";
+
+    protected static final String ME003 = "A importação foi interrompida.";
+
+    /**
+     * Separador de campos utilizado por padrão.
+     */
+    public static final char SEPARADOR_PADRAO = ';';
+
+    private final Class<T> tipo;
+
+    private final Map<String, ColunaExportavel> colunas;
+
+    private final Constructor<T> construtor;
+
+    private final Charset codificacao;
+
+    private char separador = SEPARADOR_PADRAO;
+
+    private int paralelismo = 1;
+
+    private ForkJoinPool executor;
+
+    /**
+     * Constrói uma nova instância de ImportadorCsv para a classe informada, com a codificação UTF-8.
+     *
+     * @param tipo
+     *            Classe dos registros. Deve possuir um construtor sem argumentos
+     * @throws IllegalArgumentException
+     *             Caso a classe não possua um construtor sem argumentos ou nenhum atributo exportável que possa ser
+     *             escrito.
+     */
+    public ImportadorCsv(final Class<T> tipo) throws IllegalArgumentException {
+        this(tipo, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Constrói uma nova instância de ImportadorCsv para a classe informada.
+     *
+     * @param tipo
+     *            Classe dos registros. Deve possuir um construtor sem argumentos
+     * @param codificacao
+     *            Codificação dos arquivos
+     * @throws IllegalArgumentException
+     *             Caso a classe não possua um construtor sem argumentos ou nenhum atributo exportável que possa ser
+     *             escrito.
+     */
+    public ImportadorCsv(final Class<T> tipo, final Charset codificacao) throws IllegalArgumentException {
+        this.tipo = tipo;
+        this.construtor = Importador.construtor(tipo);
+        this.colunas = Importador.colunas(tipo);
+        this.codificacao = codificacao;
+    }
+
+    /**
+     * Importa todos os registros de um conteúdo CSV. Adequado apenas a conteúdos pequenos, já que os registros são
+     * mantidos em memória.
+     *
+     * @param entrada
+     *            Conteúdo CSV
+     * @return Os registros importados, na ordem das linhas.
+     * @throws IOException
+     *             Caso algum erro de entrada e saída ocorra durante a leitura.
+     * @throws ImportacaoException
+     *             Caso o cabeçalho não possua nenhuma coluna conhecida ou algum valor não possa ser convertido.
+     */
+    public List<T> importar(final InputStream entrada) throws IOException, ImportacaoException {
+
+        final List<T> registros = new ArrayList<>();
+
+        this.importar(entrada, new ReceptorImportacao<T>() {
+
+            @Override
+            public void receber(final T registro, final int linha) {
+                registros.add(registro);
+            }
+        });
+
+        return registros;
+    }
+
+    /**
+     * Importa os registros de um conteúdo CSV, entregando cada um ao receptor assim que a sua linha é lida. A leitura
+     * é sempre sequencial.
+     *
+     * @param entrada
+     *            Conteúdo CSV. Não é fechado ao final da importação
+     * @param receptor
+     *            Receptor dos registros
+     * @return O número de registros importados.
+     * @throws IOException
+     *             Caso algum erro de entrada e saída ocorra durante a leitura.
+     * @throws ImportacaoException
+     *             Caso o cabeçalho não possua nenhuma coluna conhecida, algum valor não possa ser convertido ou o
+     *             receptor rejeite um registro.
+     */
+    public int importar(final InputStream entrada, final ReceptorImportacao<T> receptor)
+            throws IOException, ImportacaoException {
+
+        final LeitorCsv<T> leitor = new LeitorCsv<>(new InputStreamReader(entrada, this.codificacao), this.separador);
+        final ColunaExportavel[] destinos = this.destinos(leitor.linha());
+
+        return leitor.ler(destinos, this.construtor, receptor, 2, new AtomicBoolean());
+    }
+
+    /**
+     * Importa os registros de um arquivo CSV, entregando cada um ao receptor assim que a sua linha é lida. Quando o
+     * paralelismo for maior que um, o arquivo é dividido em trechos terminados em quebras de linha, lidos ao mesmo
+     * tempo por threads diferentes; nesse caso, o receptor deve ser seguro para uso concorrente, os registros não são
+     * entregues na ordem do arquivo e os campos entre aspas não podem conter quebras de linha.
+     *
+     * @param arquivo
+     *            Arquivo
+     * @param receptor
+     *            Receptor dos registros
+     * @return O número de registros importados.
+     * @throws FileNotFoundException
+     *             Caso o caminho informado não exista.
+     * @throws SecurityException
+     *             Caso haja alguma restrição de acesso ao arquivo que impeça a sua leitura.
+     * @throws IOException
+     *             Caso algum erro de entrada e saída ocorra durante a leitura.
+     * @throws ImportacaoException
+     *             Caso o cabeçalho não possua nenhuma coluna conhecida, algum valor não possa ser convertido ou o
+     *             receptor rejeite um registro.
+     */
+    public int importar(final String arquivo, final ReceptorImportacao<T> receptor)
+            throws FileNotFoundException, SecurityException, IOException, ImportacaoException {
+
+        if (this.paralelismo == 1) {
+            try (final InputStream entrada = new BufferedInputStream(ArquivoUtils.abrirParaLeitura(arquivo))) {
+                return this.importar(entrada, receptor);
+            }
+        }
+
+        try (final RandomAccessFile acesso = new RandomAccessFile(arquivo, "r")) {
+            return this.importarParalelo(acesso.getChannel(), receptor);
+        }
+    }
+
+    public char getSeparador() {
+        return this.separador;
+    }
+
+    public void setSeparador(final char separador) {
+        this.separador = separador;
+    }
+
+    public Charset getCodificacao() {
+        return this.codificacao;
+    }
+
+    public int getParalelismo() {
+        return this.paralelismo;
+    }
+
+    /**
+     * Define o número de threads utilizadas na importação de arquivos. O pool de threads é criado nesta chamada e
+     * compartilhado por todas as importações desta instância; o pool anterior, caso exista, é encerrado após a
+     * conclusão das tarefas já submetidas.
+     *
+     * @param paralelismo
+     *            Número de threads
+     * @throws IllegalArgumentException
+     *             Caso o paralelismo informado seja menor ou igual a zero.
+     * @see #importar(String, ReceptorImportacao)
+     */
+    public void setParalelismo(final int paralelismo) throws IllegalArgumentException {
+
+        if (paralelismo <= 0) {
+            throw new IllegalArgumentException(ME001);
+        }
+
+        if (paralelismo != this.paralelismo) {
+
+            final ForkJoinPool anterior = this.executor;
+
+            this.executor = paralelismo > 1 ? new ForkJoinPool(paralelismo) : null;
+            this.paralelismo = paralelismo;
+
+            if (anterior != null) {
+                anterior.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Divide o arquivo em trechos terminados em quebras de linha. As linhas de cada trecho são contadas antes da
+     * leitura, de modo que o número da linha entregue ao receptor corresponda à linha do arquivo.
+     */
+    private int importarParalelo(final FileChannel canal, final ReceptorImportacao<T> receptor)
+            throws IOException, ImportacaoException {
+
+        final long inicioDados = TrechoArquivo.proximaLinha(canal, 0);
+        final LeitorCsv<T> cabecalho = new LeitorCsv<>(
+                new InputStreamReader(new TrechoArquivo(canal, 0, inicioDados), this.codificacao), this.separador);
+        final ColunaExportavel[] destinos = this.destinos(cabecalho.linha());
+
+        final long[] limites = new long[this.paralelismo + 1];
+        limites[0] = inicioDados;
+        limites[this.paralelismo] = canal.size();
+
+        for (int trecho = 1; trecho < this.paralelismo; trecho++) {
+            final long estimativa = inicioDados + (canal.size() - inicioDados) * trecho / this.paralelismo;
+
+            limites[trecho] = Math.max(limites[trecho - 1], TrechoArquivo.proximaLinha(canal, estimativa));
+        }
+
+        final ForkJoinPool executor = this.executor;
+        final AtomicBoolean cancelada = new AtomicBoolean();
+        final List<Future<Integer>> pendentes = new ArrayList<>();
+
+        try {
+
+            for (int trecho = 0; trecho < this.paralelismo; trecho++) {
+                final TrechoArquivo conteudo = new TrechoArquivo(canal, limites[trecho], limites[trecho + 1]);
+
+                pendentes.add(executor.submit(new Callable<Integer>() {
+
+                    @Override
+                    public Integer call() throws IOException {
+                        return conteudo.contarLinhas();
+                    }
+                }));
+            }
+
+            int linha = 2;
+            final int[] primeirasLinhas = new int[this.paralelismo];
+
+            for (int trecho = 0; trecho < this.paralelismo; trecho++) {
+                primeirasLinhas[trecho] = linha;
+                linha += ImportadorCsv.aguardar(pendentes.get(trecho), cancelada);
+            }
+
+            pendentes.clear();
+
+            for (int trecho = 0; trecho < this.paralelismo; trecho++) {
+                final LeitorCsv<T> leitor = new LeitorCsv<>(new InputStreamReader(
+                        new TrechoArquivo(canal, limites[trecho], limites[trecho + 1]), this.codificacao),
+                        this.separador);
+                final int primeiraLinha = primeirasLinhas[trecho];
+
+                pendentes.add(executor.submit(new Callable<Integer>() {
+
+                    @Override
+                    public Integer call() throws IOException, ImportacaoException {
+                        return leitor.ler(destinos, ImportadorCsv.this.construtor, receptor, primeiraLinha, cancelada);
+                    }
+                }));
+            }
+
+            int total = 0;
+
+            for (final Future<Integer> pendente : pendentes) {
+                total += ImportadorCsv.aguardar(pendente, cancelada);
+            }
+
+            return total;
+
+        } finally {
+
+            for (final Future<Integer> pendente : pendentes) {
+                pendente.cancel(true);
+            }
+        }
+    }
+
+    private ColunaExportavel[] destinos(final String[] titulos) throws ImportacaoException {
+
+        final ColunaExportavel[] destinos = new ColunaExportavel[titulos != null ? titulos.length : 0];
+        boolean encontrada = false;
+
+        for (int campo = 0; campo < destinos.length; campo++) {
+            destinos[campo] = this.colunas.get(titulos[campo].trim());
+            encontrada |= destinos[campo] != null;
+        }
+
+        if (! encontrada) {
+            throw new ImportacaoException(String.format(ME002, this.tipo.getSimpleName()));
+        }
+
+        return destinos;
+    }
+
+    private static int aguardar(final Future<Integer> pendente, final AtomicBoolean cancelada)
+            throws IOException, ImportacaoException {
+
+        try {
+
+            return pendente.get();
+
+        } catch (InterruptedException e) {
+            cancelada.set(true);
+            Thread.currentThread().interrupt();
+            throw new ImportacaoException(ME003, e);
+        } catch (ExecutionException e) {
+            cancelada.set(true);
+
+            if (e.getCause() instanceof ImportacaoException) {
+                throw (ImportacaoException) e.getCause();
+            }
+
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+
+            throw new ImportacaoException(e.getCause().getMessage(), e.getCause());
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package br.com.leuras.commons.importacao;
+
+import br.com.leuras.commons.exception.ImportacaoException;
+
+/**
+ * Transporta, através do leitor de eventos do POI, uma falha na montagem dos registros. O {@link Importador} a converte
+ * novamente na {@link ImportacaoException} original.
+ */
+final class InterrupcaoImportacao extends RuntimeException {
+
+    private static final long serialVersionUID = 6152873095140281736L;
+
+    InterrupcaoImportacao(final ImportacaoException causa) {
+        super(causa.getMessage(), causa);
+    }
+
+    @Override
+    public synchronized ImportacaoException getCause() {
+        return (ImportacaoException) super.getCause();
+    }
+}
@@ -0,0 +1,325 @@
+package br.com.leuras.commons.importacao;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import br.com.leuras.commons.exception.ImportacaoException;
+import br.com.leuras.commons.export.ColunaExportavel;
+
+/**
+ * Leitor de linhas CSV sobre um buffer de caracteres reutilizado. Os campos de cada linha são identificados como
+ * trechos do buffer (posição inicial e final), sem a criação de uma {@link String} por campo; a conversão para o tipo
+ * de cada propriedade é feita diretamente sobre os caracteres por {@link ConversorTexto}.
+ * <p>
+ * Campos entre aspas podem conter o separador, quebras de linha e aspas escapadas (<b>""</b>).
+ * </p>
+ *
+ * @param <T>
+ *            Tipo dos registros
+ */
+final class LeitorCsv<T> {
+
+    static final int TAMANHO_BUFFER = 64 * 1024;
+
+    private static final char ASPAS = '"';
+
+    private static final char BOM = '\uFEFF';
+
+    private final Reader entrada;
+
+    private final char separador;
+
+    private final Calendar calendario = Calendar.getInstance();
+
+    private char[] caracteres = new char[TAMANHO_BUFFER];
+
+    private int posicao;
+
+    private int limite;
+
+    private boolean concluida;
+
+    private int campos;
+
+    private int[] inicios = new int[16];
+
+    private int[] fins = new int[16];
+
+    private boolean[] escapados = new boolean[16];
+
+    private int quebrasInternas;
+
+    LeitorCsv(final Reader entrada, final char separador) {
+        this.entrada = entrada;
+        this.separador = separador;
+        this.calendario.setLenient(false);
+    }
+
+    /**
+     * Lê a próxima linha como uma lista de textos, utilizada na leitura do cabeçalho.
+     *
+     * @return Os campos da linha ou <b>null</b> ao final do conteúdo.
+     */
+    String[] linha() throws IOException {
+
+        if (! this.proximaLinha()) {
+            return null;
+        }
+
+        final String[] textos = new String[this.campos];
+
+        for (int campo = 0; campo < this.campos; campo++) {
+            textos[campo] = new String(this.caracteres, this.inicios[campo], this.fins[campo] - this.inicios[campo]);
+
+            if (this.escapados[campo]) {
+                textos[campo] = textos[campo].replace("\"\"", "\"");
+            }
+        }
+
+        if (textos.length > 0 && ! textos[0].isEmpty() && textos[0].charAt(0) == BOM) {
+            textos[0] = textos[0].substring(1);
+        }
+
+        return textos;
+    }
+
+    /**
+     * Lê todas as linhas restantes, entregando um registro por linha ao receptor.
+     *
+     * @param destinos
+     *            Coluna de destino de cada campo, na ordem do cabeçalho. Campos sem destino são ignorados
+     * @param construtor
+     *            Construtor dos registros
+     * @param receptor
+     *            Receptor dos registros
+     * @param primeiraLinha
+     *            Número da primeira linha a ser lida, utilizado nas mensagens e entregue ao receptor
+     * @param cancelada
+     *            Sinaliza a interrupção da leitura por outra parte da importação
+     * @return O número de registros lidos.
+     */
+    int ler(final ColunaExportavel[] destinos, final Constructor<T> construtor,
+            final ReceptorImportacao<T> receptor, final int primeiraLinha, final AtomicBoolean cancelada)
+            throws IOException, ImportacaoException {
+
+        int linha = primeiraLinha;
+        int total = 0;
+
+        while (! cancelada.get() && this.proximaLinha()) {
+
+            if (! this.isVazia()) {
+                receptor.receber(this.registro(destinos, construtor, linha), linha);
+                total++;
+            }
+
+            linha += 1 + this.quebrasInternas;
+        }
+
+        return total;
+    }
+
+    private T registro(final ColunaExportavel[] destinos, final Constructor<T> construtor, final int linha)
+            throws ImportacaoException {
+
+        final T registro;
+
+        try {
+            registro = construtor.newInstance();
+        } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+            throw new ImportacaoException(String.format(MontadorRegistros.ME002, linha), e);
+        }
+
+        for (int campo = 0; campo < this.campos && campo < destinos.length; campo++) {
+
+            final ColunaExportavel destino = destinos[campo];
+
+            if (destino == null) {
+                continue;
+            }
+
+            try {
+
+                final Object valor = ConversorTexto.converter(this.caracteres, this.inicios[campo], this.fins[campo],
+                        this.escapados[campo], destino, this.calendario);
+
+                if (valor != null || ! destino.getTipo().isPrimitive()) {
+                    destino.getAcessor().set(registro, valor);
+                }
+
+            } catch (IllegalArgumentException e) {
+                throw new ImportacaoException(String.format(MontadorRegistros.ME001, this.texto(campo),
+                        destino.getTitulo(), linha), e);
+            } catch (InvocationTargetException e) {
+                throw new ImportacaoException(String.format(MontadorRegistros.ME001, this.texto(campo),
+                        destino.getTitulo(), linha), e.getCause());
+            }
+        }
+
+        return registro;
+    }
+
+    private String texto(final int campo) {
+        return new String(this.caracteres, this.inicios[campo], this.fins[campo] - this.inicios[campo]);
+    }
+
+    private boolean isVazia() {
+        return this.campos == 1 && this.inicios[0] == this.fins[0];
+    }
+
+    /**
+     * Identifica os campos da próxima linha, recarregando o buffer quando a linha ultrapassa o seu final.
+     *
+     * @return <b>False</b> ao final do conteúdo.
+     */
+    private boolean proximaLinha() throws IOException {
+
+        while (true) {
+
+            final int proxima = this.varrer();
+
+            if (proxima >= 0) {
+                this.posicao = proxima;
+                return true;
+            }
+
+            if (this.concluida) {
+                return false;
+            }
+
+            this.recarregar();
+        }
+    }
+
+    /**
+     * Percorre a linha iniciada na posição corrente.
+     *
+     * @return A posição seguinte ao final da linha ou -1 caso a linha não esteja completa no buffer.
+     */
+    private int varrer() {
+
+        final char[] buffer = this.caracteres;
+        final int fim = this.limite;
+
+        if (this.posicao >= fim) {
+            return -1;
+        }
+
+        int atual = this.posicao;
+        int inicio = atual;
+        boolean entreAspas = false;
+        boolean citado = false;
+        boolean escapado = false;
+        int quebras = 0;
+
+        this.campos = 0;
+
+        while (atual < fim) {
+
+            final char caractere = buffer[atual];
+
+            if (entreAspas) {
+
+                if (caractere == ASPAS) {
+
+                    if (atual + 1 >= fim && ! this.concluida) {
+                        return -1;
+                    }
+
+                    if (atual + 1 < fim && buffer[atual + 1] == ASPAS) {
+                        escapado = true;
+                        atual += 2;
+                        continue;
+                    }
+
+                    entreAspas = false;
+
+                } else if (caractere == '\n') {
+                    quebras++;
+                }
+
+            } else if (caractere == ASPAS && atual == inicio) {
+                entreAspas = true;
+                citado = true;
+
+            } else if (caractere == this.separador) {
+                this.campo(inicio, atual, citado, escapado);
+                inicio = atual + 1;
+                citado = false;
+                escapado = false;
+
+            } else if (caractere == '\n' || caractere == '\r') {
+
+                final int fimLinha = atual;
+
+                if (caractere == '\r') {
+
+                    if (atual + 1 >= fim && ! this.concluida) {
+                        return -1;
+                    }
+
+                    if (atual + 1 < fim && buffer[atual + 1] == '\n') {
+                        atual++;
+                    }
+                }
+
+                this.campo(inicio, fimLinha, citado, escapado);
+                this.quebrasInternas = quebras;
+
+                return atual + 1;
+            }
+
+            atual++;
+        }
+
+        if (! this.concluida) {
+            return -1;
+        }
+
+        this.campo(inicio, atual, citado, escapado);
+        this.quebrasInternas = quebras;
+
+        return atual;
+    }
+
+    private void campo(final int inicio, final int fim, final boolean citado, final boolean escapado) {
+
+        if (this.campos == this.inicios.length) {
+            this.inicios = Arrays.copyOf(this.inicios, this.campos * 2);
+            this.fins = Arrays.copyOf(this.fins, this.campos * 2);
+            this.escapados = Arrays.copyOf(this.escapados, this.campos * 2);
+        }
+
+        this.inicios[this.campos] = citado ? inicio + 1 : inicio;
+        this.fins[this.campos] = citado ? Math.max(inicio + 1, fim - 1) : fim;
+        this.escapados[this.campos] = escapado;
+        this.campos++;
+    }
+
+    /**
+     * Descarta as linhas já lidas e completa o buffer com o conteúdo seguinte. Caso uma única linha ocupe todo o buffer,
+     * o buffer é ampliado.
+     */
+    private void recarregar() throws IOException {
+
+        if (this.posicao > 0) {
+            System.arraycopy(this.caracteres, this.posicao, this.caracteres, 0, this.limite - this.posicao);
+            this.limite -= this.posicao;
+            this.posicao = 0;
+        } else if (this.limite == this.caracteres.length) {
+            this.caracteres = Arrays.copyOf(this.caracteres, this.caracteres.length * 2);
+        }
+
+        final int lidos = this.entrada.read(this.caracteres, this.limite, this.caracteres.length - this.limite);
+
+        if (lidos < 0) {
+            this.concluida = true;
+        } else {
+            this.limite += lidos;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package br.com.leuras.commons.importacao;
+
+import org.apache.poi.hssf.eventusermodel.HSSFListener;
+import org.apache.poi.hssf.record.BOFRecord;
+import org.apache.poi.hssf.record.BoolErrRecord;
+import org.apache.poi.hssf.record.CellValueRecordInterface;
+import org.apache.poi.hssf.record.FormulaRecord;
+import org.apache.poi.hssf.record.LabelRecord;
+import org.apache.poi.hssf.record.LabelSSTRecord;
+import org.apache.poi.hssf.record.NumberRecord;
+import org.apache.poi.hssf.record.Record;
+import org.apache.poi.hssf.record.SSTRecord;
+import org.apache.poi.hssf.record.StringRecord;
+import org.apache.poi.ss.usermodel.Cell;
+
+import br.com.leuras.commons.exception.ImportacaoException;
+
+/**
+ * Leitor de planilhas no formato <b>.xls</b> baseado no modelo de eventos do POI: os registros binários do documento
+ * são percorridos uma única vez, sem a criação de objetos de linha ou de célula.
+ */
+final class LeitorXls implements HSSFListener {
+
+    private final MontadorRegistros<?> montador;
+
+    private SSTRecord textos;
+
+    private CellValueRecordInterface formulaTexto;
+
+    LeitorXls(final MontadorRegistros<?> montador) {
+        this.montador = montador;
+    }
+
+    @Override
+    public void processRecord(final Record registro) {
+
+        try {
+
+            switch (registro.getSid()) {
+                case BOFRecord.sid:
+                    if (((BOFRecord) registro).getType() == BOFRecord.TYPE_WORKSHEET) {
+                        this.montador.novaPlanilha();
+                    }
+                    break;
+                case SSTRecord.sid:
+                    this.textos = (SSTRecord) registro;
+                    break;
+                case LabelSSTRecord.sid:
+                    final LabelSSTRecord rotulo = (LabelSSTRecord) registro;
+                    this.celula(rotulo, this.textos.getString(rotulo.getSSTIndex()).getString());
+                    break;
+                case LabelRecord.sid:
+                    this.celula((LabelRecord) registro, ((LabelRecord) registro).getValue());
+                    break;
+                case NumberRecord.sid:
+                    this.celula((NumberRecord) registro, ((NumberRecord) registro).getValue());
+                    break;
+                case BoolErrRecord.sid:
+                    final BoolErrRecord logico = (BoolErrRecord) registro;
+                    this.celula(logico, logico.isBoolean() ? logico.getBooleanValue() : null);
+                    break;
+                case FormulaRecord.sid:
+                    this.formula((FormulaRecord) registro);
+                    break;
+                case StringRecord.sid:
+                    if (this.formulaTexto != null) {
+                        this.celula(this.formulaTexto, ((StringRecord) registro).getString());
+                        this.formulaTexto = null;
+                    }
+                    break;
+                default:
+                    break;
+            }
+
+        } catch (ImportacaoException e) {
+            throw new InterrupcaoImportacao(e);
+        }
+    }
+
+    /**
+     * O resultado textual de uma fórmula é gravado no registro seguinte ({@link StringRecord}).
+     */
+    private void formula(final FormulaRecord formula) throws ImportacaoException {
+
+        if (formula.hasCachedResultString()) {
+            this.formulaTexto = formula;
+        } else if (formula.getCachedResultType() == Cell.CELL_TYPE_BOOLEAN) {
+            this.celula(formula, formula.getCachedBooleanValue());
+        } else if (formula.getCachedResultType() == Cell.CELL_TYPE_NUMERIC) {
+            this.celula(formula, formula.getValue());
+        }
+    }
+
+    private void celula(final CellValueRecordInterface celula, final Object valor) throws ImportacaoException {
+        this.montador.celula(celula.getRow(), celula.getColumn(), valor);
+    }
+}
@@ -0,0 +1,134 @@
+package br.com.leuras.commons.importacao;
+
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+import br.com.leuras.commons.exception.ImportacaoException;
+
+/**
+ * Leitor de planilhas no formato <b>.xlsx</b> baseado em SAX: o XML de cada planilha é percorrido à medida que é
+ * descompactado, sem a montagem do modelo de objetos do documento.
+ */
+final class LeitorXlsx extends DefaultHandler {
+
+    private static final String LINHA = "row";
+
+    private static final String CELULA = "c";
+
+    private static final String VALOR = "v";
+
+    private static final String TEXTO = "t";
+
+    private static final String REFERENCIA = "r";
+
+    private static final String TIPO = "t";
+
+    private final ReadOnlySharedStringsTable textos;
+
+    private final MontadorRegistros<?> montador;
+
+    private final StringBuilder conteudo = new StringBuilder();
+
+    private boolean lendo;
+
+    private int linha = -1;
+
+    private int coluna = -1;
+
+    private String tipo;
+
+    LeitorXlsx(final ReadOnlySharedStringsTable textos, final MontadorRegistros<?> montador) {
+        this.textos = textos;
+        this.montador = montador;
+    }
+
+    @Override
+    public void startElement(final String uri, final String nomeLocal, final String nome, final Attributes atributos) {
+
+        if (LINHA.equals(nomeLocal)) {
+            final String referencia = atributos.getValue(REFERENCIA);
+
+            this.linha = referencia != null ? Integer.parseInt(referencia) - 1 : this.linha + 1;
+            this.coluna = -1;
+
+        } else if (CELULA.equals(nomeLocal)) {
+            final String referencia = atributos.getValue(REFERENCIA);
+
+            this.coluna = referencia != null ? LeitorXlsx.coluna(referencia) : this.coluna + 1;
+            this.tipo = atributos.getValue(TIPO);
+            this.conteudo.setLength(0);
+
+        } else if (VALOR.equals(nomeLocal) || TEXTO.equals(nomeLocal)) {
+            this.lendo = true;
+        }
+    }
+
+    @Override
+    public void characters(final char[] caracteres, final int inicio, final int tamanho) {
+
+        if (this.lendo) {
+            this.conteudo.append(caracteres, inicio, tamanho);
+        }
+    }
+
+    @Override
+    public void endElement(final String uri, final String nomeLocal, final String nome) throws SAXException {
+
+        if (VALOR.equals(nomeLocal) || TEXTO.equals(nomeLocal)) {
+            this.lendo = false;
+
+        } else if (CELULA.equals(nomeLocal)) {
+            try {
+                this.montador.celula(this.linha, this.coluna, this.valor());
+            } catch (ImportacaoException e) {
+                throw new SAXException(e);
+            }
+        }
+    }
+
+    private Object valor() {
+
+        if (this.conteudo.length() == 0 || "e".equals(this.tipo)) {
+            return null;
+        }
+
+        final String valor = this.conteudo.toString();
+
+        if ("s".equals(this.tipo)) {
+            return this.textos.getEntryAt(Integer.parseInt(valor));
+        }
+
+        if ("b".equals(this.tipo)) {
+            return "1".equals(valor);
+        }
+
+        if ("str".equals(this.tipo) || "inlineStr".equals(this.tipo)) {
+            return valor;
+        }
+
+        return Double.valueOf(valor);
+    }
+
+    /**
+     * Obtém o índice da coluna a partir de uma referência de célula, por exemplo: <i>AB12</i> resulta em 27.
+     */
+    static int coluna(final String referencia) {
+
+        int coluna = 0;
+
+        for (int posicao = 0; posicao < referencia.length(); posicao++) {
+
+            final char caractere = referencia.charAt(posicao);
+
+            if (caractere < 'A' || caractere > 'Z') {
+                break;
+            }
+
+            coluna = coluna * 26 + (caractere - 'A' + 1);
+        }
+
+        return coluna - 1;
+    }
+}
@@ -0,0 +1,207 @@
+package br.com.leuras.commons.importacao;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Arrays;
+import java.util.Map;
+
+import br.com.leuras.commons.exception.ImportacaoException;
+import br.com.leuras.commons.export.AgregacaoEnum;
+import br.com.leuras.commons.export.ColunaExportavel;
+
+/**
+ * Monta os registros a partir das células entregues, em ordem, pelos leitores de planilha. A primeira linha de cada
+ * planilha que contém ao menos um título de coluna conhecido é tratada como cabeçalho e define a posição das colunas;
+ * as linhas anteriores (como o título do documento) são ignoradas. Cada linha seguinte dá origem a um registro,
+ * entregue imediatamente ao receptor, exceto a linha de totais escrita na exportação, reconhecida pelo rótulo
+ * {@link AgregacaoEnum#ROTULO_TOTAIS} na primeira coluna.
+ *
+ * @param <T>
+ *            Tipo dos registros
+ */
+final class MontadorRegistros<T> {
+
+    protected static final String ME001 = "Não foi possível converter o valor \"%s\" da coluna \"%s\" na linha %d.";
+
+    protected static final String ME002 = "Não foi possível criar o registro da linha %d.";
+
+    private static final int COLUNAS_INICIAIS = 32;
+
+    private final Map<String, ColunaExportavel> colunas;
+
+    private final Constructor<T> construtor;
+
+    private final ReceptorImportacao<T> receptor;
+
+    private ColunaExportavel[] cabecalho;
+
+    private Object[] celulas = new Object[COLUNAS_INICIAIS];
+
+    private int ultimaColuna = -1;
+
+    private int linhaAtual = -1;
+
+    private int total;
+
+    MontadorRegistros(final Map<String, ColunaExportavel> colunas, final Constructor<T> construtor,
+            final ReceptorImportacao<T> receptor) {
+        this.colunas = colunas;
+        this.construtor = construtor;
+        this.receptor = receptor;
+    }
+
+    /**
+     * Indica o início de uma nova planilha, cujo cabeçalho deve ser localizado novamente.
+     */
+    void novaPlanilha() throws ImportacaoException {
+        this.concluirLinha();
+        this.cabecalho = null;
+    }
+
+    /**
+     * Recebe o valor de uma célula. As células devem ser entregues em ordem de linha.
+     *
+     * @param linha
+     *            Índice da linha, iniciando em zero
+     * @param coluna
+     *            Índice da coluna, iniciando em zero
+     * @param valor
+     *            Valor da célula: {@link String}, {@link Double}, {@link Boolean} ou <b>null</b>
+     */
+    void celula(final int linha, final int coluna, final Object valor) throws ImportacaoException {
+
+        if (linha != this.linhaAtual) {
+            this.concluirLinha();
+            this.linhaAtual = linha;
+        }
+
+        if (coluna >= this.celulas.length) {
+            this.celulas = Arrays.copyOf(this.celulas, Math.max(coluna + 1, this.celulas.length * 2));
+        }
+
+        this.celulas[coluna] = valor;
+        this.ultimaColuna = Math.max(this.ultimaColuna, coluna);
+    }
+
+    /**
+     * Conclui a leitura, entregando o registro da última linha pendente.
+     */
+    void concluir() throws ImportacaoException {
+        this.concluirLinha();
+    }
+
+    /**
+     * Número de registros entregues ao receptor.
+     */
+    int getTotal() {
+        return this.total;
+    }
+
+    private void concluirLinha() throws ImportacaoException {
+
+        if (this.ultimaColuna >= 0) {
+
+            if (this.cabecalho == null) {
+                this.localizarCabecalho();
+            } else {
+                this.registro();
+            }
+
+            Arrays.fill(this.celulas, 0, this.ultimaColuna + 1, null);
+        }
+
+        this.ultimaColuna = -1;
+        this.linhaAtual = -1;
+    }
+
+    private void localizarCabecalho() {
+
+        final ColunaExportavel[] encontradas = new ColunaExportavel[this.ultimaColuna + 1];
+        boolean cabecalho = false;
+
+        for (int coluna = 0; coluna <= this.ultimaColuna; coluna++) {
+            if (this.celulas[coluna] instanceof String) {
+                encontradas[coluna] = this.colunas.get(((String) this.celulas[coluna]).trim());
+                cabecalho |= encontradas[coluna] != null;
+            }
+        }
+
+        if (cabecalho) {
+            this.cabecalho = encontradas;
+        }
+    }
+
+    private void registro() throws ImportacaoException {
+
+        if (this.isVazia() || this.isTotais()) {
+            return;
+        }
+
+        final int linha = this.linhaAtual + 1;
+        final T registro;
+
+        try {
+            registro = this.construtor.newInstance();
+        } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+            throw new ImportacaoException(String.format(ME002, linha), e);
+        }
+
+        for (int coluna = 0; coluna < this.cabecalho.length && coluna <= this.ultimaColuna; coluna++) {
+
+            final ColunaExportavel destino = this.cabecalho[coluna];
+
+            if (destino == null) {
+                continue;
+            }
+
+            final Object bruto = this.celulas[coluna];
+
+            try {
+
+                final Object valor = ConversorValores.converter(bruto, destino);
+
+                if (valor != null || ! destino.getTipo().isPrimitive()) {
+                    destino.getAcessor().set(registro, valor);
+                }
+
+            } catch (IllegalArgumentException e) {
+                throw new ImportacaoException(String.format(ME001, bruto, destino.getTitulo(), linha), e);
+            } catch (InvocationTargetException e) {
+                throw new ImportacaoException(String.format(ME001, bruto, destino.getTitulo(), linha), e.getCause());
+            }
+        }
+
+        this.receptor.receber(registro, linha);
+        this.total++;
+    }
+
+    private boolean isVazia() {
+
+        for (int coluna = 0; coluna <= this.ultimaColuna; coluna++) {
+
+            final Object valor = this.celulas[coluna];
+
+            if (valor != null && ! (valor instanceof String && ((String) valor).trim().isEmpty())) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Indica se a linha atual é a linha de totais, cuja primeira coluna, sem agregação, recebe o rótulo
+     * {@link AgregacaoEnum#ROTULO_TOTAIS} na exportação.
+     */
+    private boolean isTotais() {
+
+        if (this.cabecalho.length == 0 || ! (this.celulas[0] instanceof String)) {
+            return false;
+        }
+
+        final ColunaExportavel primeira = this.cabecalho[0];
+
+        return (primeira == null || AgregacaoEnum.NENHUMA.equals(primeira.getAgregacao()))
+                && AgregacaoEnum.ROTULO_TOTAIS.equals(((String) this.celulas[0]).trim());
+    }
+}
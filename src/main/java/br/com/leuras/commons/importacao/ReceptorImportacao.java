@@ -0,0 +1,25 @@
+package br.com.leuras.commons.importacao;
+
+import br.com.leuras.commons.exception.ImportacaoException;
+
+/**
+ * Recebe, um a um, os registros lidos por um {@link Importador}. Cada registro é entregue assim que a sua linha é lida,
+ * de modo que a planilha nunca é mantida por inteiro em memória.
+ *
+ * @param <T>
+ *            Tipo dos registros
+ */
+public interface ReceptorImportacao<T> {
+
+    /**
+     * Recebe um registro importado.
+     *
+     * @param registro
+     *            Registro preenchido com os valores da linha
+     * @param linha
+     *            Número da linha de origem na planilha, iniciando em um
+     * @throws ImportacaoException
+     *             Caso o registro seja rejeitado, interrompendo a importação.
+     */
+    void receber(T registro, int linha) throws ImportacaoException;
+}
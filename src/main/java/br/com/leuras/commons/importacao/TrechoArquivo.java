@@ -0,0 +1,101 @@
+package br.com.leuras.commons.importacao;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Fluxo de leitura de um trecho de um arquivo. A leitura é posicional, de modo que vários trechos do mesmo canal podem
+ * ser lidos ao mesmo tempo por threads diferentes.
+ */
+final class TrechoArquivo extends InputStream {
+
+    private final FileChannel canal;
+
+    private final long fim;
+
+    private long posicao;
+
+    TrechoArquivo(final FileChannel canal, final long inicio, final long fim) {
+        this.canal = canal;
+        this.posicao = inicio;
+        this.fim = fim;
+    }
+
+    @Override
+    public int read() throws IOException {
+
+        final byte[] octeto = new byte[1];
+
+        return this.read(octeto, 0, 1) < 0 ? -1 : octeto[0] & 0xFF;
+    }
+
+    @Override
+    public int read(final byte[] destino, final int inicio, final int tamanho) throws IOException {
+
+        if (this.posicao >= this.fim) {
+            return -1;
+        }
+
+        final int maximo = (int) Math.min(tamanho, this.fim - this.posicao);
+        final int lidos = this.canal.read(ByteBuffer.wrap(destino, inicio, maximo), this.posicao);
+
+        if (lidos > 0) {
+            this.posicao += lidos;
+        }
+
+        return lidos;
+    }
+
+    /**
+     * Conta as quebras de linha (<b>\n</b>) do trecho sem decodificar o seu conteúdo.
+     *
+     * @return O número de quebras de linha.
+     */
+    int contarLinhas() throws IOException {
+
+        final byte[] buffer = new byte[LeitorCsv.TAMANHO_BUFFER];
+        int linhas = 0;
+        int lidos;
+
+        while ((lidos = this.read(buffer, 0, buffer.length)) > 0) {
+            for (int posicao = 0; posicao < lidos; posicao++) {
+                if (buffer[posicao] == '\n') {
+                    linhas++;
+                }
+            }
+        }
+
+        return linhas;
+    }
+
+    /**
+     * Obtém a posição seguinte à primeira quebra de linha a partir da posição informada.
+     *
+     * @param canal
+     *            Canal do arquivo
+     * @param inicio
+     *            Posição inicial da busca
+     * @return A posição seguinte à quebra de linha ou o tamanho do arquivo, caso não haja quebra de linha.
+     */
+    static long proximaLinha(final FileChannel canal, final long inicio) throws IOException {
+
+        final TrechoArquivo trecho = new TrechoArquivo(canal, inicio, canal.size());
+        final byte[] buffer = new byte[8 * 1024];
+        long posicao = inicio;
+        int lidos;
+
+        while ((lidos = trecho.read(buffer, 0, buffer.length)) > 0) {
+            for (int indice = 0; indice < lidos; indice++) {
+                if (buffer[indice] == '\n') {
+                    return posicao + indice + 1;
+                }
+            }
+
+            posicao += lidos;
+        }
+
+        return canal.size();
+    }
+}
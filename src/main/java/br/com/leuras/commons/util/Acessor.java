@@ -0,0 +1,80 @@
+package br.com.leuras.commons.util;
+
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * Acesso de leitura e escrita a uma propriedade de um objeto. As instâncias são obtidas por meio de
+ * {@link ObjetoUtils#acessor(Class, String) ObjetoUtils.acessor}, resolvidas uma única vez por classe e propriedade, e
+ * podem ser compartilhadas entre threads.
+ *
+ * <pre>
+ * <code>
+ * final Acessor nome = ObjetoUtils.acessor(Pessoa.class, "nome");
+ *
+ * nome.set(pessoa, "Maria");
+ * System.out.println(nome.get(pessoa)); // Maria
+ * </code>
+ * </pre>
+ *
+ * @see ObjetoUtils ObjetoUtils
+ */
+public interface Acessor {
+
+    /**
+     * Obtém o valor da propriedade.
+     *
+     * @param instancia
+     *            Objeto
+     * @return O valor da propriedade.
+     * @throws InvocationTargetException
+     *             Caso o método de leitura dispare alguma exceção.
+     * @throws UnsupportedOperationException
+     *             Caso a propriedade não possa ser lida.
+     */
+    Object get(Object instancia) throws InvocationTargetException, UnsupportedOperationException;
+
+    /**
+     * Atribui um valor à propriedade.
+     *
+     * @param instancia
+     *            Objeto
+     * @param valor
+     *            Valor a ser atribuído
+     * @throws InvocationTargetException
+     *             Caso o método de escrita dispare alguma exceção.
+     * @throws IllegalArgumentException
+     *             Caso o valor não seja compatível com o tipo da propriedade.
+     * @throws UnsupportedOperationException
+     *             Caso a propriedade não possa ser escrita.
+     */
+    void set(Object instancia, Object valor)
+            throws InvocationTargetException, IllegalArgumentException, UnsupportedOperationException;
+
+    /**
+     * Nome da propriedade.
+     *
+     * @return O nome da propriedade.
+     */
+    String getPropriedade();
+
+    /**
+     * Tipo da propriedade.
+     *
+     * @return O tipo da propriedade.
+     */
+    Class<?> getTipo();
+
+    /**
+     * Indica se a propriedade pode ser lida.
+     *
+     * @return <b>True</b> caso a propriedade possa ser lida e <b>false</b> caso contrário.
+     */
+    boolean isLeitura();
+
+    /**
+     * Indica se a propriedade pode ser escrita.
+     *
+     * @return <b>True</b> caso a propriedade possa ser escrita e <b>false</b> caso contrário.
+     */
+    boolean isEscrita();
+}
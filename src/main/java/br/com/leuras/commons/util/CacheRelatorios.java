@@ -0,0 +1,286 @@
+package br.com.leuras.commons.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JasperReport;
+import net.sf.jasperreports.engine.util.JRLoader;
+
+/**
+ * Cache de relatórios compilados <i>(*.jasper)</i>, evitando a desserialização do arquivo a cada processamento. Os
+ * relatórios são identificados pelo caminho canônico do arquivo e recarregados sempre que a data de modificação ou o
+ * tamanho do arquivo mudarem. Ao atingir a capacidade, o relatório usado há mais tempo é descartado.
+ * <p>
+ * A carga de um relatório ocorre fora da região sincronizada, de modo que a leitura de um arquivo não bloqueia o acesso
+ * aos demais relatórios. As solicitações simultâneas da mesma versão de um arquivo compartilham uma única carga, e um
+ * relatório carregado só substitui o do cache caso o arquivo de origem seja tão ou mais recente que o do relatório
+ * existente.
+ * </p>
+ */
+public final class CacheRelatorios {
+
+    protected static final String ME001 = "A capacidade do cache deve ser maior que zero.";
+
+    protected static final String ME002 = "O arquivo '%s' não é um relatório compilado.";
+
+    protected static final String ME003 = "A carga do relatório '%s' foi interrompida.";
+
+    private final int capacidade;
+
+    private final Map<String, Entrada> entradas;
+
+    /**
+     * Cargas em andamento, identificadas pelo caminho e pela versão (data de modificação e tamanho) do arquivo.
+     */
+    private final ConcurrentMap<String, FutureTask<Entrada>> cargas = new ConcurrentHashMap<>();
+
+    private final AtomicLong acertos = new AtomicLong();
+
+    private final AtomicLong falhas = new AtomicLong();
+
+    private final AtomicLong remocoes = new AtomicLong();
+
+    /**
+     * Constrói um novo cache.
+     *
+     * @param capacidade
+     *            Número máximo de relatórios mantidos
+     * @throws IllegalArgumentException
+     *             Caso a capacidade não seja maior que zero.
+     */
+    public CacheRelatorios(final int capacidade) throws IllegalArgumentException {
+
+        if (capacidade <= 0) {
+            throw new IllegalArgumentException(ME001);
+        }
+
+        this.capacidade = capacidade;
+        this.entradas = new LinkedHashMap<String, Entrada>(16, 0.75f, true) {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Entrada> maisAntiga) {
+
+                if (this.size() > CacheRelatorios.this.capacidade) {
+                    CacheRelatorios.this.remocoes.incrementAndGet();
+                    return true;
+                }
+
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Obtém o relatório compilado do arquivo informado, carregando-o caso não esteja no cache ou o arquivo tenha sido
+     * alterado desde a última carga. Caso a mesma versão do arquivo já esteja sendo carregada por outra thread, aguarda
+     * o término dessa carga.
+     *
+     * @param jasper
+     *            Arquivo Jasper <i>(*.jasper)</i>
+     * @return O relatório compilado.
+     * @throws JRException
+     *             Caso o arquivo não exista ou não contenha um relatório compilado.
+     */
+    public JasperReport obter(final String jasper) throws JRException {
+
+        final File origem = CacheRelatorios.canonico(jasper);
+        final String chave = origem.getPath();
+        final long modificacao = origem.lastModified();
+        final long tamanho = origem.length();
+
+        Entrada entrada;
+
+        synchronized (this.entradas) {
+            entrada = this.entradas.get(chave);
+        }
+
+        if (entrada != null && entrada.modificacao == modificacao && entrada.tamanho == tamanho) {
+            this.acertos.incrementAndGet();
+            return entrada.relatorio;
+        }
+
+        this.falhas.incrementAndGet();
+
+        final String versao = String.format("%s@%d:%d", chave, modificacao, tamanho);
+        final FutureTask<Entrada> tarefa = new FutureTask<>(new Callable<Entrada>() {
+
+            @Override
+            public Entrada call() throws JRException {
+                return CacheRelatorios.this.carregar(origem, jasper, modificacao, tamanho);
+            }
+        });
+
+        FutureTask<Entrada> carga = this.cargas.putIfAbsent(versao, tarefa);
+
+        if (carga == null) {
+
+            carga = tarefa;
+
+            try {
+                tarefa.run();
+            } finally {
+                this.cargas.remove(versao, tarefa);
+            }
+        }
+
+        try {
+
+            return carga.get().relatorio;
+
+        } catch (ExecutionException e) {
+
+            final Throwable causa = e.getCause();
+
+            if (causa instanceof JRException) {
+                throw (JRException) causa;
+            }
+
+            if (causa instanceof RuntimeException) {
+                throw (RuntimeException) causa;
+            }
+
+            if (causa instanceof Error) {
+                throw (Error) causa;
+            }
+
+            throw new JRException(causa);
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JRException(String.format(ME003, jasper), e);
+        }
+    }
+
+    /**
+     * Carrega o relatório do arquivo e o armazena no cache, exceto se o relatório existente tiver sido carregado de uma
+     * versão mais recente do arquivo.
+     */
+    private Entrada carregar(final File origem, final String jasper, final long modificacao, final long tamanho)
+            throws JRException {
+
+        final Object artefato = JRLoader.loadObject(origem);
+
+        if (! (artefato instanceof JasperReport)) {
+            throw new JRException(String.format(ME002, jasper));
+        }
+
+        final String chave = origem.getPath();
+        final Entrada entrada = new Entrada((JasperReport) artefato, modificacao, tamanho);
+
+        synchronized (this.entradas) {
+
+            final Entrada atual = this.entradas.get(chave);
+
+            if (atual == null || atual.modificacao <= modificacao) {
+                this.entradas.put(chave, entrada);
+            }
+        }
+
+        return entrada;
+    }
+
+    /**
+     * Remove do cache o relatório do arquivo informado.
+     *
+     * @param jasper
+     *            Arquivo Jasper <i>(*.jasper)</i>
+     * @throws JRException
+     *             Caso não seja possível resolver o caminho do arquivo.
+     */
+    public void remover(final String jasper) throws JRException {
+
+        final String chave = CacheRelatorios.canonico(jasper).getPath();
+
+        synchronized (this.entradas) {
+            this.entradas.remove(chave);
+        }
+    }
+
+    /**
+     * Remove todos os relatórios do cache. Os contadores são preservados.
+     */
+    public void limpar() {
+        synchronized (this.entradas) {
+            this.entradas.clear();
+        }
+    }
+
+    /**
+     * Número de relatórios atualmente no cache.
+     *
+     * @return O número de relatórios.
+     */
+    public int getTamanho() {
+        synchronized (this.entradas) {
+            return this.entradas.size();
+        }
+    }
+
+    public int getCapacidade() {
+        return this.capacidade;
+    }
+
+    /**
+     * Número de requisições atendidas pelo cache, sem a carga do arquivo.
+     *
+     * @return O número de acertos.
+     */
+    public long getAcertos() {
+        return this.acertos.get();
+    }
+
+    /**
+     * Número de requisições que exigiram a carga do arquivo, por ausência do relatório no cache ou alteração do arquivo.
+     *
+     * @return O número de falhas.
+     */
+    public long getFalhas() {
+        return this.falhas.get();
+    }
+
+    /**
+     * Número de relatórios descartados por exceder a capacidade do cache.
+     *
+     * @return O número de remoções.
+     */
+    public long getRemocoes() {
+        return this.remocoes.get();
+    }
+
+    private static File canonico(final String jasper) throws JRException {
+        try {
+            return new File(jasper).getCanonicalFile();
+        } catch (IOException e) {
+            throw new JRException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Relatório carregado e a versão do arquivo de origem.
+     */
+    private static final class Entrada {
+
+        private final JasperReport relatorio;
+
+        private final long modificacao;
+
+        private final long tamanho;
+
+        Entrada(final JasperReport relatorio, final long modificacao, final long tamanho) {
+            this.relatorio = relatorio;
+            this.modificacao = modificacao;
+            this.tamanho = tamanho;
+        }
+    }
+}
@@ -1,20 +1,51 @@
 package br.com.leuras.commons.util;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.ref.SoftReference;
+import java.lang.reflect.AccessibleObject;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.commons.lang3.StringUtils;
 
 public final class ObjetoUtils {
-    
+
+    static final String ME001 = "Nenhum método de acesso à propriedade '%s' foi encontrado na classe '%s'.";
+
+    static final String ME002 = "A propriedade '%s' não pode ser lida.";
+
+    static final String ME003 = "A propriedade '%s' não pode ser escrita.";
+
+    static final String ME004 = "O valor informado não é compatível com o tipo '%s' da propriedade '%s'.";
+
+    /**
+     * Acessores resolvidos, agrupados pela classe que declara a propriedade, o atributo ou o método. As chaves são
+     * referências fracas e, como os acessores referenciam a própria classe, os grupos são mantidos por referências
+     * flexíveis (<i>soft</i>), de modo que a classe e o seu carregador possam ser descarregados.
+     */
+    private static final Map<Class<?>, SoftReference<Acessores>> ACESSORES = new WeakHashMap<>();
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final MethodType LEITURA = MethodType.methodType(Object.class, Object.class);
+
+    private static final MethodType ESCRITA = MethodType.methodType(void.class, Object.class, Object.class);
+
     private ObjetoUtils() {
-        
+
     }
-    
+
     /**
      * Invoca um método <b>set</b> de um atributo por reflexão.
-     * 
+     *
      * @param instance
      *            Objeto
      * @param field
@@ -33,18 +64,18 @@ public final class ObjetoUtils {
     public static void invokeSet(final Object instance, final Field field, final Object value)
             throws NoSuchMethodException, IllegalAccessException, IllegalArgumentException, InvocationTargetException {
 
-        final Class<?> objClass = instance.getClass();
-        final String method = String.format("set%s", StringUtils.capitalize(field.getName()));
+        final Acessor acessor = ObjetoUtils.acessor(instance.getClass(), field.getName());
 
-        final Method objMethod = objClass.getMethod(method, field.getType());
-        objMethod.setAccessible(true);
+        if (! acessor.isEscrita()) {
+            throw new NoSuchMethodException(String.format(ME003, field.getName()));
+        }
 
-        objMethod.invoke(instance, value);
+        acessor.set(instance, value);
     }
-    
+
     /**
      * Invoca um método <b>get</b> de um atributo por reflexão.
-     * 
+     *
      * @param instance
      *            Objeto
      * @param field
@@ -62,14 +93,453 @@ public final class ObjetoUtils {
     public static Object invokeGet(final Object instance, final Field field)
             throws NoSuchMethodException, IllegalAccessException, IllegalArgumentException, InvocationTargetException {
 
-        Class<?> objClass = instance.getClass();
-        String method = String.format("get%s", StringUtils.capitalize(field.getName()));
+        final Acessor acessor = ObjetoUtils.acessor(instance.getClass(), field.getName());
+
+        if (! acessor.isLeitura()) {
+            throw new NoSuchMethodException(String.format(ME002, field.getName()));
+        }
+
+        return acessor.get(instance);
+    }
+
+    /**
+     * Obtém um acessor para a propriedade informada, resolvido a partir dos métodos públicos da classe segundo a
+     * convenção JavaBeans: <b>get</b>/<b>is</b> seguido do nome capitalizado para a leitura e <b>set</b> para a escrita.
+     * Os métodos são localizados uma única vez e convertidos em <i>method handles</i>, eliminando a busca e a verificação
+     * de acesso a cada chamada. Como os <i>handles</i> são mantidos em instâncias e não em constantes, a JIT não consegue
+     * incorporá-los ao chamador, de modo que o custo permanece acima do de uma chamada direta; quando esse custo for
+     * relevante, prefira o {@code ExtratorExportavel} gerado em tempo de compilação. Caso os métodos não possam ser
+     * convertidos, o acessor recorre à reflexão convencional.
+     *
+     * <pre>
+     * <code>
+     * final Acessor nome = ObjetoUtils.acessor(Pessoa.class, "nome");
+     *
+     * for (final Pessoa pessoa : pessoas) {
+     *     System.out.println(nome.get(pessoa));
+     * }
+     * </code>
+     * </pre>
+     *
+     * @param classe
+     *            Classe
+     * @param propriedade
+     *            Nome da propriedade
+     * @return O acessor da propriedade. Enquanto mantido em cache, chamadas posteriores com os mesmos parâmetros retornam
+     *         a mesma instância.
+     * @throws NoSuchMethodException
+     *             Caso a classe não possua método de leitura nem de escrita para a propriedade.
+     */
+    public static Acessor acessor(final Class<?> classe, final String propriedade) throws NoSuchMethodException {
+
+        final ConcurrentMap<String, Acessor> acessores = ObjetoUtils.acessores(classe).propriedades;
+
+        Acessor acessor = acessores.get(propriedade);
+
+        if (acessor == null) {
+            final Acessor novo = ObjetoUtils.criarAcessor(classe, propriedade);
+
+            acessor = acessores.putIfAbsent(propriedade, novo);
+
+            if (acessor == null) {
+                acessor = novo;
+            }
+        }
+
+        return acessor;
+    }
+
+    /**
+     * Obtém um acessor somente leitura para o método informado, que deve ser um método de instância sem parâmetros e
+     * com retorno. Permite ler valores expostos por métodos que não seguem a convenção JavaBeans.
+     *
+     * @param metodo
+     *            Método de leitura
+     * @return O acessor do método. Enquanto mantido em cache, chamadas posteriores com o mesmo método retornam a mesma
+     *         instância.
+     * @throws IllegalArgumentException
+     *             Caso o método possua parâmetros, não possua retorno ou seja estático.
+     */
+    public static Acessor acessor(final Method metodo) throws IllegalArgumentException {
+
+        final ConcurrentMap<Method, Acessor> acessores = ObjetoUtils.acessores(metodo.getDeclaringClass()).metodos;
+
+        Acessor acessor = acessores.get(metodo);
+
+        if (acessor == null) {
+            final Acessor novo = ObjetoUtils.criarAcessor(metodo);
+
+            acessor = acessores.putIfAbsent(metodo, novo);
+
+            if (acessor == null) {
+                acessor = novo;
+            }
+        }
+
+        return acessor;
+    }
+
+    /**
+     * Obtém um acessor que lê e escreve diretamente no atributo informado, dispensando os métodos <b>get</b> e
+     * <b>set</b>. Atributos <i>final</i> podem apenas ser lidos.
+     *
+     * @param atributo
+     *            Atributo
+     * @return O acessor do atributo. Enquanto mantido em cache, chamadas posteriores com o mesmo atributo retornam a
+     *         mesma instância.
+     */
+    public static Acessor acessor(final Field atributo) {
+
+        final ConcurrentMap<Field, Acessor> acessores = ObjetoUtils.acessores(atributo.getDeclaringClass()).atributos;
+
+        Acessor acessor = acessores.get(atributo);
+
+        if (acessor == null) {
+            final Acessor novo = ObjetoUtils.criarAcessor(atributo);
+
+            acessor = acessores.putIfAbsent(atributo, novo);
+
+            if (acessor == null) {
+                acessor = novo;
+            }
+        }
+
+        return acessor;
+    }
+
+    /**
+     * Obtém o grupo de acessores da classe informada, criando-o caso não exista ou tenha sido descartado.
+     */
+    private static Acessores acessores(final Class<?> classe) {
+
+        synchronized (ACESSORES) {
+
+            final SoftReference<Acessores> referencia = ACESSORES.get(classe);
+            Acessores acessores = referencia != null ? referencia.get() : null;
+
+            if (acessores == null) {
+                acessores = new Acessores();
+                ACESSORES.put(classe, new SoftReference<>(acessores));
+            }
+
+            return acessores;
+        }
+    }
+
+    private static Acessor criarAcessor(final Class<?> classe, final String propriedade) throws NoSuchMethodException {
+
+        final Method leitura = ObjetoUtils.metodoLeitura(classe, propriedade);
+        final Method escrita = ObjetoUtils.metodoEscrita(classe, propriedade, leitura != null ? leitura.getReturnType() : null);
+
+        if (leitura == null && escrita == null) {
+            throw new NoSuchMethodException(String.format(ME001, propriedade, classe.getName()));
+        }
+
+        final Class<?> tipo = leitura != null ? leitura.getReturnType() : escrita.getParameterTypes()[0];
+
+        try {
+
+            final MethodHandle get = leitura != null ? LOOKUP.unreflect(ObjetoUtils.acessivel(leitura)).asType(LEITURA) : null;
+            final MethodHandle set = escrita != null ? LOOKUP.unreflect(ObjetoUtils.acessivel(escrita)).asType(ESCRITA) : null;
+
+            return new AcessorCompilado(propriedade, tipo, get, set);
+
+        } catch (IllegalAccessException | RuntimeException e) {
+            return new AcessorReflexivo(propriedade, tipo, leitura, escrita);
+        }
+    }
+
+    private static Acessor criarAcessor(final Method metodo) throws IllegalArgumentException {
+
+        if (! ObjetoUtils.isLeitura(metodo)) {
+            throw new IllegalArgumentException(String.format(ME002, metodo.getName()));
+        }
+
+        try {
+
+            final MethodHandle get = LOOKUP.unreflect(ObjetoUtils.acessivel(metodo)).asType(LEITURA);
+
+            return new AcessorCompilado(metodo.getName(), metodo.getReturnType(), get, null);
+
+        } catch (IllegalAccessException | RuntimeException e) {
+            return new AcessorReflexivo(metodo.getName(), metodo.getReturnType(), metodo, null);
+        }
+    }
+
+    private static Acessor criarAcessor(final Field atributo) {
+
+        final boolean escrita = ! Modifier.isFinal(atributo.getModifiers());
+
+        ObjetoUtils.acessivel(atributo);
+
+        try {
+
+            final MethodHandle get = LOOKUP.unreflectGetter(atributo).asType(LEITURA);
+            final MethodHandle set = escrita ? LOOKUP.unreflectSetter(atributo).asType(ESCRITA) : null;
+
+            return new AcessorCompilado(atributo.getName(), atributo.getType(), get, set);
+
+        } catch (IllegalAccessException | RuntimeException e) {
+            return new AcessorReflexivo(atributo.getName(), atributo.getType(), atributo, escrita ? atributo : null);
+        }
+    }
+
+    private static Method metodoLeitura(final Class<?> classe, final String propriedade) {
+
+        final String sufixo = StringUtils.capitalize(propriedade);
+
+        for (final String nome : new String[] { "get" + sufixo, "is" + sufixo }) {
+            try {
+
+                final Method metodo = classe.getMethod(nome);
+
+                if (ObjetoUtils.isLeitura(metodo)) {
+                    return metodo;
+                }
+
+            } catch (NoSuchMethodException e) {
+                continue;
+            }
+        }
+
+        return null;
+    }
+
+    private static boolean isLeitura(final Method metodo) {
+        return metodo.getParameterTypes().length == 0 && void.class != metodo.getReturnType()
+                && ! Modifier.isStatic(metodo.getModifiers());
+    }
+
+    private static Method metodoEscrita(final Class<?> classe, final String propriedade, final Class<?> tipo) {
+
+        final String nome = "set" + StringUtils.capitalize(propriedade);
+        Method candidato = null;
+
+        for (final Method metodo : classe.getMethods()) {
+            if (nome.equals(metodo.getName()) && metodo.getParameterTypes().length == 1
+                    && ! Modifier.isStatic(metodo.getModifiers())) {
+
+                if (tipo == null || tipo == metodo.getParameterTypes()[0]) {
+                    return metodo;
+                }
+
+                candidato = metodo;
+            }
+        }
+
+        return candidato;
+    }
+
+    private static <A extends AccessibleObject> A acessivel(final A membro) {
+
+        try {
+            membro.setAccessible(true);
+        } catch (RuntimeException e) {
+            // Mantém o acesso padrão caso a JVM não permita a alteração.
+        }
+
+        return membro;
+    }
+
+    private static Class<?> comoObjeto(final Class<?> tipo) {
+
+        if (! tipo.isPrimitive()) {
+            return tipo;
+        }
+
+        if (int.class == tipo) {
+            return Integer.class;
+        } else if (long.class == tipo) {
+            return Long.class;
+        } else if (boolean.class == tipo) {
+            return Boolean.class;
+        } else if (double.class == tipo) {
+            return Double.class;
+        } else if (float.class == tipo) {
+            return Float.class;
+        } else if (short.class == tipo) {
+            return Short.class;
+        } else if (byte.class == tipo) {
+            return Byte.class;
+        } else if (char.class == tipo) {
+            return Character.class;
+        }
+
+        return Void.class;
+    }
+
+    /**
+     * Acessores de uma classe, por propriedade, atributo e método.
+     */
+    private static final class Acessores {
+
+        private final ConcurrentMap<String, Acessor> propriedades = new ConcurrentHashMap<>();
+
+        private final ConcurrentMap<Field, Acessor> atributos = new ConcurrentHashMap<>();
+
+        private final ConcurrentMap<Method, Acessor> metodos = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Base dos acessores, responsável pelas validações comuns às duas estratégias de acesso.
+     */
+    private abstract static class AcessorBase implements Acessor {
+
+        private final String propriedade;
+
+        private final Class<?> tipo;
+
+        private final Class<?> tipoObjeto;
+
+        AcessorBase(final String propriedade, final Class<?> tipo) {
+            this.propriedade = propriedade;
+            this.tipo = tipo;
+            this.tipoObjeto = ObjetoUtils.comoObjeto(tipo);
+        }
+
+        @Override
+        public String getPropriedade() {
+            return this.propriedade;
+        }
+
+        @Override
+        public Class<?> getTipo() {
+            return this.tipo;
+        }
+
+        protected void validarLeitura() throws UnsupportedOperationException {
+            if (! this.isLeitura()) {
+                throw new UnsupportedOperationException(String.format(ME002, this.propriedade));
+            }
+        }
+
+        protected void validarEscrita(final Object valor) throws IllegalArgumentException, UnsupportedOperationException {
+
+            if (! this.isEscrita()) {
+                throw new UnsupportedOperationException(String.format(ME003, this.propriedade));
+            }
+
+            if (valor == null ? this.tipo.isPrimitive() : ! this.tipoObjeto.isInstance(valor)) {
+                throw new IllegalArgumentException(String.format(ME004, this.tipo.getName(), this.propriedade));
+            }
+        }
+    }
+
+    /**
+     * Acessor baseado em <i>method handles</i>, cuja invocação pode ser otimizada pela JIT.
+     */
+    private static final class AcessorCompilado extends AcessorBase {
+
+        private final MethodHandle leitura;
+
+        private final MethodHandle escrita;
+
+        AcessorCompilado(final String propriedade, final Class<?> tipo, final MethodHandle leitura,
+                final MethodHandle escrita) {
+            super(propriedade, tipo);
+            this.leitura = leitura;
+            this.escrita = escrita;
+        }
+
+        @Override
+        public Object get(final Object instancia) throws InvocationTargetException {
+
+            this.validarLeitura();
+
+            try {
+                return (Object) this.leitura.invokeExact(instancia);
+            } catch (Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new InvocationTargetException(e);
+            }
+        }
+
+        @Override
+        public void set(final Object instancia, final Object valor) throws InvocationTargetException {
+
+            this.validarEscrita(valor);
+
+            try {
+                this.escrita.invokeExact(instancia, valor);
+            } catch (Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new InvocationTargetException(e);
+            }
+        }
+
+        @Override
+        public boolean isLeitura() {
+            return this.leitura != null;
+        }
+
+        @Override
+        public boolean isEscrita() {
+            return this.escrita != null;
+        }
+    }
+
+    /**
+     * Acessor baseado em reflexão convencional, utilizado quando não é possível obter os <i>method handles</i>.
+     */
+    private static final class AcessorReflexivo extends AcessorBase {
+
+        private final AccessibleObject leitura;
+
+        private final AccessibleObject escrita;
+
+        AcessorReflexivo(final String propriedade, final Class<?> tipo, final AccessibleObject leitura,
+                final AccessibleObject escrita) {
+            super(propriedade, tipo);
+            this.leitura = leitura;
+            this.escrita = escrita;
+        }
+
+        @Override
+        public Object get(final Object instancia) throws InvocationTargetException {
+
+            this.validarLeitura();
+
+            try {
+
+                if (this.leitura instanceof Method) {
+                    return ((Method) this.leitura).invoke(instancia);
+                }
+
+                return ((Field) this.leitura).get(instancia);
+
+            } catch (IllegalAccessException e) {
+                throw new InvocationTargetException(e);
+            }
+        }
+
+        @Override
+        public void set(final Object instancia, final Object valor) throws InvocationTargetException {
+
+            this.validarEscrita(valor);
+
+            try {
+
+                if (this.escrita instanceof Method) {
+                    ((Method) this.escrita).invoke(instancia, valor);
+                } else {
+                    ((Field) this.escrita).set(instancia, valor);
+                }
+
+            } catch (IllegalAccessException e) {
+                throw new InvocationTargetException(e);
+            }
+        }
 
-        Method objMethod = objClass.getMethod(method);
-        objMethod.setAccessible(true);
+        @Override
+        public boolean isLeitura() {
+            return this.leitura != null;
+        }
 
-        return objMethod.invoke(instance);
+        @Override
+        public boolean isEscrita() {
+            return this.escrita != null;
+        }
     }
-    
-    
 }
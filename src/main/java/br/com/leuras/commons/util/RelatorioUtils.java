@@ -3,22 +3,54 @@ package br.com.leuras.commons.util;
 import java.io.ByteArrayOutputStream;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-
+import java.util.WeakHashMap;
+
+import br.com.leuras.commons.enumerator.SimNaoEnum;
+import br.com.leuras.commons.exception.ExportacaoException;
+import br.com.leuras.commons.export.AgregacaoEnum;
+import br.com.leuras.commons.export.ColunaExportavel;
+import br.com.leuras.commons.export.FormatoAtributoEnum;
+import br.com.leuras.commons.export.PlanoColunas;
+import br.com.leuras.commons.export.TipoColunaEnum;
 import net.sf.jasperreports.engine.JRDataSource;
 import net.sf.jasperreports.engine.JREmptyDataSource;
 import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JRField;
+import net.sf.jasperreports.engine.JRParameter;
+import net.sf.jasperreports.engine.JasperCompileManager;
+import net.sf.jasperreports.engine.JasperExportManager;
 import net.sf.jasperreports.engine.JasperFillManager;
 import net.sf.jasperreports.engine.JasperPrint;
 import net.sf.jasperreports.engine.JasperReport;
 import net.sf.jasperreports.engine.JasperRunManager;
 import net.sf.jasperreports.engine.data.JRBeanCollectionDataSource;
+import net.sf.jasperreports.engine.design.JRDesignBand;
+import net.sf.jasperreports.engine.design.JRDesignExpression;
+import net.sf.jasperreports.engine.design.JRDesignField;
+import net.sf.jasperreports.engine.design.JRDesignSection;
+import net.sf.jasperreports.engine.design.JRDesignStaticText;
+import net.sf.jasperreports.engine.design.JRDesignTextElement;
+import net.sf.jasperreports.engine.design.JRDesignTextField;
+import net.sf.jasperreports.engine.design.JRDesignVariable;
+import net.sf.jasperreports.engine.design.JasperDesign;
 import net.sf.jasperreports.engine.export.JRXlsExporter;
 import net.sf.jasperreports.engine.export.ooxml.JRDocxExporter;
-import net.sf.jasperreports.engine.util.JRLoader;
+import net.sf.jasperreports.engine.type.CalculationEnum;
+import net.sf.jasperreports.engine.type.HorizontalAlignEnum;
+import net.sf.jasperreports.engine.type.OrientationEnum;
+import net.sf.jasperreports.engine.type.ResetTypeEnum;
+import net.sf.jasperreports.engine.type.WhenNoDataTypeEnum;
 import net.sf.jasperreports.export.OutputStreamExporterOutput;
 import net.sf.jasperreports.export.SimpleDocxReportConfiguration;
 import net.sf.jasperreports.export.SimpleExporterInput;
@@ -27,6 +59,40 @@ import net.sf.jasperreports.export.SimpleXlsReportConfiguration;
 
 public final class RelatorioUtils {
 
+    protected static final String ME001 = "A classe '%s' não possui atributos exportáveis.";
+
+    private static final String PADRAO_NUMERO = "#,##0.##";
+
+    private static final String PADRAO_MOEDA = "\u00A4 #,##0.00";
+
+    private static final String PADRAO_PERCENTUAL = "#,##0.00%";
+
+    private static final int LARGURA_RETRATO = 595;
+
+    private static final int ALTURA_RETRATO = 842;
+
+    private static final int MARGEM = 20;
+
+    private static final int COLUNAS_RETRATO = 6;
+
+    private static final int ALTURA_TITULO = 30;
+
+    private static final int ALTURA_LINHA = 16;
+
+    private static final int TAMANHO_FONTE_TITULO = 12;
+
+    private static final int TAMANHO_FONTE = 8;
+
+    private static final int CAPACIDADE_CACHE = 64;
+
+    /**
+     * Relatórios compilados por classe. As chaves são referências fracas, de modo que o relatório é descartado quando a
+     * classe deixa de ser utilizada (por exemplo, ao descarregar a aplicação que a definiu).
+     */
+    private static final Map<Class<?>, JasperReport> COMPILADOS = new WeakHashMap<>();
+
+    private static final CacheRelatorios RELATORIOS = new CacheRelatorios(CAPACIDADE_CACHE);
+
     private RelatorioUtils() {
 
     }
@@ -48,11 +114,227 @@ public final class RelatorioUtils {
             throws JRException {
 
         final JRDataSource datasource = RelatorioUtils.getDataSource(dados);
-        final byte[] buffer = JasperRunManager.runReportToPdf(jasper, parametros, datasource);
+        final byte[] buffer = JasperRunManager.runReportToPdf(RELATORIOS.obter(jasper), parametros, datasource);
 
         return buffer;
     }
 
+    /**
+     * Cache dos relatórios compilados <i>(*.jasper)</i> utilizados pelos métodos que recebem o caminho do arquivo. Os
+     * relatórios são recarregados quando o arquivo é alterado, e os contadores permitem acompanhar a eficácia do cache.
+     * 
+     * @return O cache de relatórios.
+     */
+    public static CacheRelatorios getCache() {
+        return RELATORIOS;
+    }
+
+    /**
+     * Processa e exporta em formato <i>PDF</i> um relatório tabular gerado a partir das anotações da classe informada
+     * (veja {@link #compilar(Class)}). Os registros são lidos por meio do {@link PlanoColunas} da classe, e não por
+     * reflexão a cada campo, e os valores formatados de acordo com a localidade brasileira, salvo se outra for informada
+     * no parâmetro {@link JRParameter#REPORT_LOCALE}.
+     * 
+     * @param tipo
+     *            Classe exportável
+     * @param parametros
+     *            Parâmetros a serem passados para o documento. Pode ser nulo
+     * @param dados
+     *            Coleção de registros a serem exportados
+     * @return Conteúdo do documento <i>PDF</i> em forma de um array de bytes.
+     * @throws JRException
+     *             Caso a classe não possua atributos exportáveis ou algum erro de processamento do jasper ocorra durante
+     *             a exportação para <i>PDF</i>.
+     */
+    public static <T> byte[] emPdf(final Class<T> tipo, final Map<String, Object> parametros, final List<T> dados)
+            throws JRException {
+
+        final JasperReport artefato = RelatorioUtils.compilar(tipo);
+        final Iterator<T> registros = dados != null ? dados.iterator() : Collections.<T> emptyIterator();
+
+        final Map<String, Object> valores = parametros != null ? new HashMap<>(parametros) : new HashMap<String, Object>();
+
+        if (! valores.containsKey(JRParameter.REPORT_LOCALE)) {
+            valores.put(JRParameter.REPORT_LOCALE, Brasil.Local.BR);
+        }
+
+        return JasperRunManager.runReportToPdf(artefato, valores, new DadosExportaveis<>(PlanoColunas.de(tipo), registros));
+    }
+
+    /**
+     * Obtém o relatório compilado a partir do desenho gerado para a classe informada (veja {@link #desenhar(Class)}). A
+     * compilação ocorre na primeira chamada e o relatório é reaproveitado nas seguintes.
+     * 
+     * @param tipo
+     *            Classe exportável
+     * @return O relatório compilado.
+     * @throws JRException
+     *             Caso a classe não possua atributos exportáveis ou o desenho não possa ser compilado.
+     */
+    public static JasperReport compilar(final Class<?> tipo) throws JRException {
+
+        synchronized (COMPILADOS) {
+
+            final JasperReport artefato = COMPILADOS.get(tipo);
+
+            if (artefato != null) {
+                return artefato;
+            }
+        }
+
+        final JasperReport novo = JasperCompileManager.compileReport(RelatorioUtils.desenhar(tipo));
+
+        synchronized (COMPILADOS) {
+
+            final JasperReport artefato = COMPILADOS.get(tipo);
+
+            if (artefato != null) {
+                return artefato;
+            }
+
+            COMPILADOS.put(tipo, novo);
+        }
+
+        return novo;
+    }
+
+    /**
+     * Gera o desenho de um relatório tabular a partir das anotações da classe informada: o título definido em
+     * {@code Exportavel}, uma coluna por atributo exportável, na ordem e com o título definidos em
+     * {@code AtributoExportavel}, e os valores formatados de acordo com {@link FormatoAtributoEnum}. As colunas que
+     * definem uma {@link AgregacaoEnum} são totalizadas ao final do relatório. Classes com mais de seis colunas são
+     * desenhadas em paisagem.
+     * 
+     * @param tipo
+     *            Classe exportável
+     * @return O desenho do relatório.
+     * @throws JRException
+     *             Caso a classe não possua atributos exportáveis.
+     */
+    public static JasperDesign desenhar(final Class<?> tipo) throws JRException {
+
+        final PlanoColunas<?> plano = PlanoColunas.de(tipo);
+        final List<ColunaExportavel> colunas = plano.getColunas();
+
+        if (colunas.isEmpty()) {
+            throw new JRException(String.format(ME001, tipo.getName()));
+        }
+
+        final boolean paisagem = colunas.size() > COLUNAS_RETRATO;
+        final int largura = (paisagem ? ALTURA_RETRATO : LARGURA_RETRATO) - 2 * MARGEM;
+
+        final JasperDesign desenho = new JasperDesign();
+
+        desenho.setName(tipo.getSimpleName());
+        desenho.setOrientation(paisagem ? OrientationEnum.LANDSCAPE : OrientationEnum.PORTRAIT);
+        desenho.setPageWidth(paisagem ? ALTURA_RETRATO : LARGURA_RETRATO);
+        desenho.setPageHeight(paisagem ? LARGURA_RETRATO : ALTURA_RETRATO);
+        desenho.setColumnWidth(largura);
+        desenho.setLeftMargin(MARGEM);
+        desenho.setRightMargin(MARGEM);
+        desenho.setTopMargin(MARGEM);
+        desenho.setBottomMargin(MARGEM);
+        desenho.setWhenNoDataType(WhenNoDataTypeEnum.ALL_SECTIONS_NO_DETAIL);
+
+        if (! plano.getTitulo().isEmpty()) {
+
+            final JRDesignBand titulo = new JRDesignBand();
+            final JRDesignStaticText texto = new JRDesignStaticText();
+
+            RelatorioUtils.posicionar(texto, 0, largura, ALTURA_TITULO, TAMANHO_FONTE_TITULO, true, HorizontalAlignEnum.CENTER);
+            texto.setText(plano.getTitulo());
+
+            titulo.setHeight(ALTURA_TITULO);
+            titulo.addElement(texto);
+            desenho.setTitle(titulo);
+        }
+
+        final JRDesignBand cabecalho = new JRDesignBand();
+        final JRDesignBand detalhe = new JRDesignBand();
+        final JRDesignBand totais = new JRDesignBand();
+
+        final int larguraColuna = largura / colunas.size();
+        boolean totalizado = false;
+
+        for (int posicao = 0; posicao < colunas.size(); posicao++) {
+
+            final ColunaExportavel coluna = colunas.get(posicao);
+            final Class<?> classe = RelatorioUtils.classe(coluna);
+            final HorizontalAlignEnum alinhamento = RelatorioUtils.alinhamento(coluna);
+            final String padrao = RelatorioUtils.padrao(coluna);
+
+            final int x = posicao * larguraColuna;
+            final int tamanho = posicao < colunas.size() - 1 ? larguraColuna : largura - x;
+
+            final JRDesignField campo = new JRDesignField();
+
+            campo.setName(coluna.getAtributo());
+            campo.setValueClass(classe);
+            desenho.addField(campo);
+
+            final JRDesignStaticText titulo = new JRDesignStaticText();
+
+            RelatorioUtils.posicionar(titulo, x, tamanho, ALTURA_LINHA, TAMANHO_FONTE, true, alinhamento);
+            titulo.setText(coluna.getTitulo());
+            cabecalho.addElement(titulo);
+
+            final JRDesignTextField valor = new JRDesignTextField();
+
+            RelatorioUtils.posicionar(valor, x, tamanho, ALTURA_LINHA, TAMANHO_FONTE, false, alinhamento);
+            valor.setExpression(RelatorioUtils.expressao("$F{" + coluna.getAtributo() + "}"));
+            valor.setPattern(padrao);
+            valor.setBlankWhenNull(true);
+            valor.setStretchWithOverflow(true);
+            detalhe.addElement(valor);
+
+            final CalculationEnum calculo = RelatorioUtils.calculo(coluna);
+
+            if (calculo != null) {
+
+                final JRDesignVariable variavel = new JRDesignVariable();
+                final String nome = "TOTAL_" + coluna.getAtributo();
+
+                variavel.setName(nome);
+                variavel.setValueClass(CalculationEnum.COUNT.equals(calculo) ? Long.class : classe);
+                variavel.setCalculation(calculo);
+                variavel.setResetType(ResetTypeEnum.REPORT);
+                variavel.setExpression(RelatorioUtils.expressao("$F{" + coluna.getAtributo() + "}"));
+                desenho.addVariable(variavel);
+
+                final JRDesignTextField total = new JRDesignTextField();
+
+                RelatorioUtils.posicionar(total, x, tamanho, ALTURA_LINHA, TAMANHO_FONTE, true, alinhamento);
+                total.setExpression(RelatorioUtils.expressao("$V{" + nome + "}"));
+                total.setPattern(CalculationEnum.COUNT.equals(calculo) ? PADRAO_NUMERO : padrao);
+                total.setBlankWhenNull(true);
+                totais.addElement(total);
+
+                totalizado = true;
+
+            } else if (posicao == 0) {
+
+                final JRDesignStaticText rotulo = new JRDesignStaticText();
+
+                RelatorioUtils.posicionar(rotulo, x, tamanho, ALTURA_LINHA, TAMANHO_FONTE, true, HorizontalAlignEnum.LEFT);
+                rotulo.setText(AgregacaoEnum.ROTULO_TOTAIS);
+                totais.addElement(rotulo);
+            }
+        }
+
+        cabecalho.setHeight(ALTURA_LINHA);
+        desenho.setColumnHeader(cabecalho);
+
+        detalhe.setHeight(ALTURA_LINHA);
+        ((JRDesignSection) desenho.getDetailSection()).addBand(detalhe);
+
+        if (totalizado) {
+            totais.setHeight(ALTURA_LINHA);
+            desenho.setSummary(totais);
+        }
+
+        return desenho;
+    }
+
     /**
      * Processa e exporta um documento jasper em formato <i>HTML</i>.
      * 
@@ -74,7 +356,9 @@ public final class RelatorioUtils {
         final JRDataSource datasource = RelatorioUtils.getDataSource(dados);
         final String temporiario = ArquivoUtils.TEMP + ArquivoUtils.SEPARADOR + System.currentTimeMillis() + Math.random();
 
-        JasperRunManager.runReportToHtmlFile(jasper, temporiario, parametros, datasource);
+        final JasperPrint documento = JasperFillManager.fillReport(RELATORIOS.obter(jasper), parametros, datasource);
+
+        JasperExportManager.exportReportToHtmlFile(documento, temporiario);
 
         final FileInputStream stream = ArquivoUtils.abrirParaLeitura(temporiario);
         final byte[] buffer = new byte[stream.available()];
@@ -129,7 +413,7 @@ public final class RelatorioUtils {
 
         final JRDataSource datasource = RelatorioUtils.getDataSource(dados);
 
-        final JasperReport artefato = (JasperReport) JRLoader.loadObjectFromFile(jasper);
+        final JasperReport artefato = RELATORIOS.obter(jasper);
         final JasperPrint documento = JasperFillManager.fillReport(artefato, parametros, datasource);
 
         final JRXlsExporter xls = new JRXlsExporter();
@@ -190,7 +474,7 @@ public final class RelatorioUtils {
 
         final JRDataSource datasource = RelatorioUtils.getDataSource(dados);
 
-        final JasperReport artefato = (JasperReport) JRLoader.loadObjectFromFile(jasper);
+        final JasperReport artefato = RELATORIOS.obter(jasper);
         final JasperPrint documento = JasperFillManager.fillReport(artefato, parametros, datasource);
 
         final JRDocxExporter docx = new JRDocxExporter();
@@ -209,6 +493,115 @@ public final class RelatorioUtils {
         return buffer;
     }
 
+    /**
+     * Classe dos valores da coluna no relatório: números são representados por {@link BigDecimal}, permitindo a
+     * totalização de qualquer tipo numérico, e valores lógicos e demais tipos, por sua representação textual.
+     */
+    private static Class<?> classe(final ColunaExportavel coluna) {
+
+        if (TipoColunaEnum.NUMERO.equals(coluna.getCategoria())) {
+            return BigDecimal.class;
+        }
+
+        if (TipoColunaEnum.DATA.equals(coluna.getCategoria())) {
+            return Date.class;
+        }
+
+        return String.class;
+    }
+
+    private static String padrao(final ColunaExportavel coluna) {
+
+        if (TipoColunaEnum.DATA.equals(coluna.getCategoria())) {
+            return FormatoAtributoEnum.padraoData(coluna.getFormato());
+        }
+
+        if (TipoColunaEnum.NUMERO.equals(coluna.getCategoria())) {
+
+            if (FormatoAtributoEnum.MOEDA.equals(coluna.getFormato())) {
+                return PADRAO_MOEDA;
+            }
+
+            if (FormatoAtributoEnum.PERCENTUAL.equals(coluna.getFormato())) {
+                return PADRAO_PERCENTUAL;
+            }
+
+            return PADRAO_NUMERO;
+        }
+
+        return null;
+    }
+
+    private static HorizontalAlignEnum alinhamento(final ColunaExportavel coluna) {
+
+        if (TipoColunaEnum.NUMERO.equals(coluna.getCategoria())) {
+            return HorizontalAlignEnum.RIGHT;
+        }
+
+        if (TipoColunaEnum.DATA.equals(coluna.getCategoria()) || TipoColunaEnum.LOGICO.equals(coluna.getCategoria())) {
+            return HorizontalAlignEnum.CENTER;
+        }
+
+        return HorizontalAlignEnum.LEFT;
+    }
+
+    /**
+     * Cálculo da totalização da coluna. Apenas a contagem se aplica a colunas não numéricas, e o mínimo e o máximo
+     * também a datas.
+     */
+    private static CalculationEnum calculo(final ColunaExportavel coluna) {
+
+        final AgregacaoEnum agregacao = coluna.getAgregacao();
+        final TipoColunaEnum categoria = coluna.getCategoria();
+
+        if (AgregacaoEnum.CONTAGEM.equals(agregacao)) {
+            return CalculationEnum.COUNT;
+        }
+
+        if (AgregacaoEnum.MINIMO.equals(agregacao) && RelatorioUtils.isComparavel(categoria)) {
+            return CalculationEnum.LOWEST;
+        }
+
+        if (AgregacaoEnum.MAXIMO.equals(agregacao) && RelatorioUtils.isComparavel(categoria)) {
+            return CalculationEnum.HIGHEST;
+        }
+
+        if (AgregacaoEnum.SOMA.equals(agregacao) && TipoColunaEnum.NUMERO.equals(categoria)) {
+            return CalculationEnum.SUM;
+        }
+
+        if (AgregacaoEnum.MEDIA.equals(agregacao) && TipoColunaEnum.NUMERO.equals(categoria)) {
+            return CalculationEnum.AVERAGE;
+        }
+
+        return null;
+    }
+
+    private static boolean isComparavel(final TipoColunaEnum categoria) {
+        return TipoColunaEnum.NUMERO.equals(categoria) || TipoColunaEnum.DATA.equals(categoria);
+    }
+
+    private static void posicionar(final JRDesignTextElement elemento, final int x, final int largura, final int altura,
+            final int fonte, final boolean negrito, final HorizontalAlignEnum alinhamento) {
+
+        elemento.setX(x);
+        elemento.setY(0);
+        elemento.setWidth(largura);
+        elemento.setHeight(altura);
+        elemento.setFontSize(fonte);
+        elemento.setBold(negrito);
+        elemento.setHorizontalAlignment(alinhamento);
+    }
+
+    private static JRDesignExpression expressao(final String texto) {
+
+        final JRDesignExpression expressao = new JRDesignExpression();
+
+        expressao.setText(texto);
+
+        return expressao;
+    }
+
     private static JRDataSource getDataSource(final List<?> dados) {
 
         JRDataSource datasource = null;
@@ -220,4 +613,89 @@ public final class RelatorioUtils {
         }
         return datasource;
     }
+
+    /**
+     * Fonte de dados que percorre os registros uma única vez, obtendo os valores das colunas por meio do
+     * {@link PlanoColunas}. Os valores são convertidos para as classes dos campos definidas no desenho do relatório.
+     */
+    private static final class DadosExportaveis<T> implements JRDataSource {
+
+        private final PlanoColunas<T> plano;
+
+        private final Iterator<T> registros;
+
+        private final Map<String, Integer> posicoes = new HashMap<>();
+
+        private final Object[] valores;
+
+        DadosExportaveis(final PlanoColunas<T> plano, final Iterator<T> registros) {
+            this.plano = plano;
+            this.registros = registros;
+            this.valores = new Object[plano.getTotalColunas()];
+
+            for (int posicao = 0; posicao < this.valores.length; posicao++) {
+                this.posicoes.put(plano.getColunas().get(posicao).getAtributo(), posicao);
+            }
+        }
+
+        @Override
+        public boolean next() throws JRException {
+
+            if (! this.registros.hasNext()) {
+                return false;
+            }
+
+            try {
+                this.plano.valores(this.registros.next(), this.valores);
+            } catch (ExportacaoException e) {
+                throw new JRException(e.getMessage(), e);
+            }
+
+            return true;
+        }
+
+        @Override
+        public Object getFieldValue(final JRField campo) throws JRException {
+
+            final Integer posicao = this.posicoes.get(campo.getName());
+
+            if (posicao == null) {
+                return null;
+            }
+
+            return DadosExportaveis.converter(this.valores[posicao]);
+        }
+
+        private static Object converter(final Object valor) {
+
+            if (valor == null || valor instanceof BigDecimal || valor instanceof Date) {
+                return valor;
+            }
+
+            if (valor instanceof BigInteger) {
+                return new BigDecimal((BigInteger) valor);
+            }
+
+            if (valor instanceof Long || valor instanceof Integer || valor instanceof Short || valor instanceof Byte) {
+                return BigDecimal.valueOf(((Number) valor).longValue());
+            }
+
+            if (valor instanceof Number) {
+
+                final double numero = ((Number) valor).doubleValue();
+
+                return Double.isNaN(numero) || Double.isInfinite(numero) ? null : BigDecimal.valueOf(numero);
+            }
+
+            if (valor instanceof Calendar) {
+                return ((Calendar) valor).getTime();
+            }
+
+            if (valor instanceof Boolean) {
+                return ((Boolean) valor) ? SimNaoEnum.SIM.getLabel() : SimNaoEnum.NAO.getLabel();
+            }
+
+            return valor.toString();
+        }
+    }
 }
@@ -0,0 +1,98 @@
+package br.com.leuras.commons.export;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+import org.hamcrest.CoreMatchers;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class AreaPreparacaoTest {
+
+    @Test
+    public void lerEmMemoriaTest() throws Exception {
+        // Cenário
+        final Date data = new Date();
+
+        try (final AreaPreparacao area = new AreaPreparacao(AreaPreparacao.TAMANHO_ARENA)) {
+
+            area.acrescentar(new Object[] { "Caneta", 10, new BigDecimal("1234.50"), data, true, null });
+            area.acrescentar(new Object[] { "Papel", 5L, 0.125, null, false, 'x' });
+
+            // Ação
+            final Object[] primeira = new Object[6];
+            final Object[] segunda = new Object[6];
+
+            final boolean lidaPrimeira = area.ler(primeira);
+            final boolean lidaSegunda = area.ler(segunda);
+            final boolean fim = area.ler(new Object[6]);
+
+            // Verificação
+            Assert.assertThat(lidaPrimeira && lidaSegunda, CoreMatchers.is(true));
+            Assert.assertThat(fim, CoreMatchers.is(false));
+            Assert.assertThat(area.isArquivo(), CoreMatchers.is(false));
+            Assert.assertArrayEquals(new Object[] { "Caneta", 10, new BigDecimal("1234.50"), data, true, null }, primeira);
+            Assert.assertArrayEquals(new Object[] { "Papel", 5L, 0.125, null, false, 'x' }, segunda);
+        }
+    }
+
+    @Test
+    public void lerDoArquivoTest() throws Exception {
+        // Cenário
+        final int total = 100000;
+
+        try (final AreaPreparacao area = new AreaPreparacao(AreaPreparacao.TAMANHO_ARENA)) {
+
+            for (int i = 0; i < total; i++) {
+                area.acrescentar(new Object[] { String.format("Registro %d", i), i, BigDecimal.valueOf(i, 2) });
+            }
+
+            // Ação
+            final Object[] valores = new Object[3];
+            int lidas = 0;
+
+            while (area.ler(valores)) {
+
+                // Verificação
+                Assert.assertThat(valores[0], CoreMatchers.is((Object) String.format("Registro %d", lidas)));
+                Assert.assertThat(valores[1], CoreMatchers.is((Object) lidas));
+                Assert.assertThat(valores[2], CoreMatchers.is((Object) BigDecimal.valueOf(lidas, 2)));
+
+                lidas++;
+            }
+
+            Assert.assertThat(lidas, CoreMatchers.is(total));
+            Assert.assertThat(area.getLinhas(), CoreMatchers.is((long) total));
+            Assert.assertThat(area.isArquivo(), CoreMatchers.is(true));
+        }
+    }
+
+    @Test
+    public void closeDevolveArenasTest() throws Exception {
+        // Cenário
+        final int antes = AreaPreparacao.getArenasLivres();
+        final AreaPreparacao area = new AreaPreparacao(2 * AreaPreparacao.TAMANHO_ARENA);
+
+        for (int i = 0; i < 50000; i++) {
+            area.acrescentar(new Object[] { String.format("Registro %d", i), i, BigDecimal.valueOf(i, 2) });
+        }
+
+        area.ler(new Object[3]);
+
+        // Ação
+        area.close();
+
+        final int depois = AreaPreparacao.getArenasLivres();
+
+        try (final AreaPreparacao reaproveitada = new AreaPreparacao(AreaPreparacao.TAMANHO_ARENA)) {
+
+            reaproveitada.acrescentar(new Object[] { "Caneta" });
+            reaproveitada.ler(new Object[1]);
+
+            // Verificação
+            Assert.assertThat(area.isArquivo(), CoreMatchers.is(true));
+            Assert.assertThat(depois, CoreMatchers.is(Math.max(antes, 2)));
+            Assert.assertThat(AreaPreparacao.getArenasLivres(), CoreMatchers.is(depois - 1));
+        }
+    }
+}
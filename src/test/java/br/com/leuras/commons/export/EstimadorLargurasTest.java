@@ -0,0 +1,53 @@
+package br.com.leuras.commons.export;
+
+import org.hamcrest.CoreMatchers;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class EstimadorLargurasTest {
+
+    @Test
+    public void caracteresMoedaTest() {
+        // Ação
+        final int caracteres = EstimadorLarguras.caracteres(1234567.89, RegistroEstilos.MOEDA);
+
+        // Verificação
+        Assert.assertThat(caracteres, CoreMatchers.is("R$ 1.234.567,89".length()));
+    }
+
+    @Test
+    public void caracteresPercentualTest() {
+        // Ação
+        final int caracteres = EstimadorLarguras.caracteres(-0.125, RegistroEstilos.PERCENTUAL);
+
+        // Verificação
+        Assert.assertThat(caracteres, CoreMatchers.is("-12,50%".length()));
+    }
+
+    @Test
+    public void caracteresFormatoGeralTest() {
+        // Ação
+        final int inteiro = EstimadorLarguras.caracteres(1500, null);
+        final int decimal = EstimadorLarguras.caracteres(15.25, null);
+
+        // Verificação
+        Assert.assertThat(inteiro, CoreMatchers.is(4));
+        Assert.assertThat(decimal, CoreMatchers.is(5));
+    }
+
+    @Test
+    public void amostraTest() {
+        // Cenário
+        final EstimadorLarguras estimador = new EstimadorLarguras(1, 2);
+
+        // Ação
+        estimador.linha();
+        final boolean primeira = estimador.isAmostrando();
+        estimador.linha();
+        final boolean segunda = estimador.isAmostrando();
+
+        // Verificação
+        Assert.assertTrue(primeira);
+        Assert.assertFalse(segunda);
+    }
+}
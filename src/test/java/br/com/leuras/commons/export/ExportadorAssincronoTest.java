@@ -0,0 +1,237 @@
+package br.com.leuras.commons.export;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.hamcrest.CoreMatchers;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import br.com.leuras.commons.exception.ExportacaoException;
+
+public class ExportadorAssincronoTest {
+
+    private ExportadorAssincrono assincrono;
+
+    @Before
+    public void setup() {
+        this.assincrono = new ExportadorAssincrono(1, 1);
+    }
+
+    @After
+    public void finalizar() throws Exception {
+        this.assincrono.encerrar();
+        this.assincrono.aguardarEncerramento(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void submeterTest() throws Exception {
+        // Cenário
+        final List<Item> registros = new ArrayList<>();
+        final ByteArrayOutputStream destino = new ByteArrayOutputStream();
+
+        for (int i = 0; i < 5000; i++) {
+            registros.add(new Item("Item " + i));
+        }
+
+        // Ação
+        final TarefaExportacao tarefa = this.assincrono.submeter(this.exportador(), destino, registros.iterator());
+
+        tarefa.get(5, TimeUnit.SECONDS);
+
+        // Verificação
+        Assert.assertThat(tarefa.isDone(), CoreMatchers.is(true));
+        Assert.assertThat(tarefa.getLinhas(), CoreMatchers.is(5000L));
+        Assert.assertThat(tarefa.getBytes(), CoreMatchers.is((long) destino.size()));
+        Assert.assertThat(this.aguardarOcioso(), CoreMatchers.is(0));
+    }
+
+    @Test
+    public void cancelarTest() throws Exception {
+        // Cenário
+        final CountDownLatch iniciada = new CountDownLatch(1);
+        final Iterator<Item> infinito = new Iterator<Item>() {
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public Item next() {
+                iniciada.countDown();
+                return new Item("Item");
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+
+        final TarefaExportacao tarefa = this.assincrono.submeter(this.exportador(), new ByteArrayOutputStream(), infinito);
+
+        iniciada.await(5, TimeUnit.SECONDS);
+
+        // Ação
+        tarefa.cancel(false);
+
+        // Verificação
+        try {
+
+            tarefa.get();
+            Assert.fail();
+
+        } catch (CancellationException e) {
+            Assert.assertThat(tarefa.isCancelled(), CoreMatchers.is(true));
+        }
+
+        Assert.assertThat(tarefa.aguardarTermino(5, TimeUnit.SECONDS), CoreMatchers.is(true));
+        Assert.assertThat(this.aguardarOcioso(), CoreMatchers.is(0));
+    }
+
+    @Test
+    public void aguardarTerminoTest() throws Exception {
+        // Cenário
+        final CountDownLatch iniciada = new CountDownLatch(1);
+        final CountDownLatch liberar = new CountDownLatch(1);
+        final Iterator<Item> bloqueado = new Iterator<Item>() {
+
+            private boolean lido;
+
+            @Override
+            public boolean hasNext() {
+                return ! this.lido;
+            }
+
+            @Override
+            public Item next() {
+
+                iniciada.countDown();
+
+                try {
+                    liberar.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+
+                this.lido = true;
+
+                return new Item("Item");
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+
+        final TarefaExportacao tarefa = this.assincrono.submeter(this.exportador(), new ByteArrayOutputStream(), bloqueado);
+
+        iniciada.await(5, TimeUnit.SECONDS);
+
+        // Ação
+        tarefa.cancel(false);
+
+        final boolean encerradaNoCancelamento = tarefa.aguardarTermino(50, TimeUnit.MILLISECONDS);
+
+        liberar.countDown();
+
+        // Verificação
+        Assert.assertThat(tarefa.isDone(), CoreMatchers.is(true));
+        Assert.assertThat(encerradaNoCancelamento, CoreMatchers.is(false));
+        Assert.assertThat(tarefa.aguardarTermino(5, TimeUnit.SECONDS), CoreMatchers.is(true));
+    }
+
+    @Test
+    public void capacidadeAtingidaTest() throws Exception {
+        // Cenário
+        final CountDownLatch liberar = new CountDownLatch(1);
+        final Iterator<Item> bloqueado = new Iterator<Item>() {
+
+            @Override
+            public boolean hasNext() {
+                try {
+                    return ! liberar.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    return false;
+                }
+            }
+
+            @Override
+            public Item next() {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+
+        final TarefaExportacao tarefa = this.assincrono.submeter(this.exportador(), new ByteArrayOutputStream(), bloqueado);
+
+        // Ação
+        try {
+
+            this.assincrono.submeter(this.exportador(), new ByteArrayOutputStream(), new ArrayList<Item>().iterator());
+            Assert.fail();
+
+        } catch (ExportacaoException e) {
+            Assert.assertThat(e.getMessage(), CoreMatchers.is(String.format(ExportadorAssincrono.ME003, 1)));
+        }
+
+        // Verificação
+        liberar.countDown();
+        tarefa.get(5, TimeUnit.SECONDS);
+
+        Assert.assertThat(this.aguardarOcioso(), CoreMatchers.is(0));
+    }
+
+    @Test
+    public void capacidadeInvalidaTest() {
+        try {
+
+            new ExportadorAssincrono(2, 1);
+            Assert.fail();
+
+        } catch (IllegalArgumentException e) {
+            Assert.assertThat(e.getMessage(), CoreMatchers.is(ExportadorAssincrono.ME002));
+        }
+    }
+
+    private Exportador<Item> exportador() {
+        return new Exportador<Item>(new FormatoExportavelCsv<Item>(Item.class));
+    }
+
+    private int aguardarOcioso() throws InterruptedException {
+
+        for (int i = 0; i < 500 && this.assincrono.getEmAndamento() > 0; i++) {
+            Thread.sleep(10);
+        }
+
+        return this.assincrono.getEmAndamento();
+    }
+
+    @Exportavel(titulo = "Itens")
+    public static class Item {
+
+        @AtributoExportavel(coluna = "Descrição")
+        private String descricao;
+
+        public Item(String descricao) {
+            this.descricao = descricao;
+        }
+
+        public String getDescricao() {
+            return descricao;
+        }
+    }
+}
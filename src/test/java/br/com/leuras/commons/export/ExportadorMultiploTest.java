@@ -0,0 +1,132 @@
+package br.com.leuras.commons.export;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hamcrest.CoreMatchers;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ExportadorMultiploTest {
+
+    private static final AtomicInteger LEITURAS = new AtomicInteger();
+
+    private List<Item> registros = new ArrayList<>();
+
+    @Before
+    public void setup() {
+
+        LEITURAS.set(0);
+
+        for (int i = 1; i <= 100; i++) {
+            this.registros.add(new Item("Item " + i, i));
+        }
+    }
+
+    @Test
+    public void exportarUmaLeituraTest() throws Exception {
+        // Cenário
+        final FormatoExportavelCsv<Item> pontoVirgula = new FormatoExportavelCsv<Item>(Item.class);
+        final FormatoExportavelCsv<Item> virgula = new FormatoExportavelCsv<Item>(Item.class);
+
+        virgula.setSeparador(',');
+
+        final ByteArrayOutputStream primeiro = new ByteArrayOutputStream();
+        final ByteArrayOutputStream segundo = new ByteArrayOutputStream();
+
+        // Ação
+        new ExportadorMultiplo<Item>(pontoVirgula, virgula).exportar(Arrays.asList(primeiro, segundo),
+                this.registros.iterator());
+
+        // Verificação
+        Assert.assertThat(LEITURAS.get(), CoreMatchers.is(100));
+
+        final String[] linhas = new String(primeiro.toByteArray(), StandardCharsets.UTF_8).split("\r\n");
+
+        Assert.assertThat(linhas.length, CoreMatchers.is(101));
+        Assert.assertThat(linhas[0], CoreMatchers.is("Descrição;Quantidade"));
+        Assert.assertThat(linhas[100], CoreMatchers.is("Item 100;100"));
+        Assert.assertThat(new String(segundo.toByteArray(), StandardCharsets.UTF_8),
+                CoreMatchers.is(new String(primeiro.toByteArray(), StandardCharsets.UTF_8).replace(';', ',')));
+    }
+
+    @Test
+    public void exportarIgualIndividualTest() throws Exception {
+        // Cenário
+        final FormatoExportavelCsv<Item> csv = new FormatoExportavelCsv<Item>(Item.class);
+        final FormatoExportavelXlsx<Item> xlsx = new FormatoExportavelXlsx<Item>(Item.class);
+
+        final byte[] individual = new Exportador<Item>(csv).exportar(this.registros);
+
+        LEITURAS.set(0);
+
+        // Ação
+        final List<byte[]> documentos = new ExportadorMultiplo<Item>(xlsx, csv).exportar(this.registros);
+
+        // Verificação
+        Assert.assertThat(LEITURAS.get(), CoreMatchers.is(100));
+        Assert.assertThat(documentos.size(), CoreMatchers.is(2));
+        Assert.assertThat(documentos.get(0).length > 0, CoreMatchers.is(true));
+        Assert.assertThat(Arrays.equals(documentos.get(1), individual), CoreMatchers.is(true));
+    }
+
+    @Test
+    public void planosDiferentesTest() throws Exception {
+        // Cenário
+        final ResultSetMetaData metadados = (ResultSetMetaData) Proxy.newProxyInstance(
+                this.getClass().getClassLoader(), new Class<?>[] { ResultSetMetaData.class }, new InvocationHandler() {
+
+                    @Override
+                    public Object invoke(final Object proxy, final Method metodo, final Object[] argumentos) {
+                        return 0;
+                    }
+                });
+
+        final FormatoExportavelCsv<ResultSet> csv = new FormatoExportavelCsv<>(PlanoColunas.de(metadados, "Itens"));
+        final FormatoExportavelCsv<ResultSet> outro = new FormatoExportavelCsv<>(PlanoColunas.de(metadados, "Itens"));
+
+        try {
+            // Ação
+            new ExportadorMultiplo<ResultSet>(csv, outro);
+            Assert.fail();
+
+        } catch (IllegalArgumentException e) {
+            // Verificação
+            Assert.assertThat(e.getMessage(), CoreMatchers.is(ExportadorMultiplo.ME002));
+        }
+    }
+
+    @Exportavel(titulo = "Itens")
+    public static class Item {
+
+        private String descricao;
+
+        private int quantidade;
+
+        public Item(final String descricao, final int quantidade) {
+            this.descricao = descricao;
+            this.quantidade = quantidade;
+        }
+
+        @AtributoExportavel(coluna = "Descrição", ordem = 1)
+        public String getDescricao() {
+            LEITURAS.incrementAndGet();
+            return this.descricao;
+        }
+
+        @AtributoExportavel(coluna = "Quantidade", ordem = 2)
+        public int getQuantidade() {
+            return this.quantidade;
+        }
+    }
+}
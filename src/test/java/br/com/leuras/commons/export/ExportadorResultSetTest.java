@@ -0,0 +1,190 @@
+package br.com.leuras.commons.export;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+
+import org.hamcrest.CoreMatchers;
+import org.junit.Assert;
+import org.junit.Test;
+
+import br.com.leuras.commons.exception.ExportacaoException;
+
+public class ExportadorResultSetTest {
+
+    private static final String[] ROTULOS = { "NOME", "CADASTRO", "SALARIO", "DEPENDENTES" };
+
+    private static final int[] TIPOS = { Types.VARCHAR, Types.DATE, Types.DECIMAL, Types.INTEGER };
+
+    @Test
+    public void exportarTodasColunasTest() throws Exception {
+        // Cenário
+        final Consulta consulta = new Consulta(new Object[][] {
+                { "Maria", this.data(2019, Calendar.MARCH, 7), new BigDecimal("1234.5"), 2 },
+                { "João", null, null, null } });
+
+        final PlanoColunas<ResultSet> plano = PlanoColunas.de(consulta.getMetaData(), "Funcionários");
+
+        // Ação
+        final byte[] bytes = new ExportadorResultSet(new FormatoExportavelCsv<>(plano)).exportar(consulta.getResultSet());
+
+        // Verificação
+        final String conteudo = new String(bytes, StandardCharsets.UTF_8);
+
+        Assert.assertThat(plano.getTitulo(), CoreMatchers.is("Funcionários"));
+        Assert.assertThat(plano.getColunas().get(1).getFormato(), CoreMatchers.is(FormatoAtributoEnum.DATA));
+        Assert.assertThat(plano.getColunas().get(2).getTipo(), CoreMatchers.is((Object) BigDecimal.class));
+        Assert.assertThat(conteudo, CoreMatchers.is(
+                "NOME;CADASTRO;SALARIO;DEPENDENTES\r\n"
+                + "Maria;07/03/2019;1234,5;2\r\n"
+                + "João;;;\r\n"));
+    }
+
+    @Test
+    public void exportarDescritoresTest() throws Exception {
+        // Cenário
+        final Consulta consulta = new Consulta(new Object[][] {
+                { "Maria", this.data(2019, Calendar.MARCH, 7), new BigDecimal("1234.5"), 2 } });
+
+        final PlanoColunas<ResultSet> plano = PlanoColunas.de(consulta.getMetaData(), "Funcionários",
+                new DescritorColuna("salario", "Salário", FormatoAtributoEnum.MOEDA),
+                new DescritorColuna("nome", "Nome"));
+
+        // Ação
+        final byte[] bytes = new ExportadorResultSet(new FormatoExportavelCsv<>(plano)).exportar(consulta.getResultSet());
+
+        // Verificação
+        final String conteudo = new String(bytes, StandardCharsets.UTF_8);
+
+        Assert.assertThat(conteudo, CoreMatchers.is("Salário;Nome\r\n1234,50;Maria\r\n"));
+    }
+
+    @Test
+    public void colunaInexistenteTest() throws Exception {
+        // Cenário
+        final Consulta consulta = new Consulta(new Object[0][]);
+
+        try {
+            // Ação
+            PlanoColunas.de(consulta.getMetaData(), "Funcionários", new DescritorColuna("cargo", "Cargo"));
+            Assert.fail();
+
+        } catch (ExportacaoException e) {
+            // Verificação
+            Assert.assertThat(e.getMessage(), CoreMatchers.is(String.format(PlanoColunas.ME001, "cargo")));
+        }
+    }
+
+    @Test
+    public void falhaLeituraTest() throws Exception {
+        // Cenário
+        final Consulta consulta = new Consulta(null);
+        final PlanoColunas<ResultSet> plano = PlanoColunas.de(consulta.getMetaData(), "Funcionários");
+
+        try {
+            // Ação
+            new ExportadorResultSet(new FormatoExportavelCsv<>(plano)).exportar(consulta.getResultSet());
+            Assert.fail();
+
+        } catch (ExportacaoException e) {
+            // Verificação
+            Assert.assertThat(e.getMessage(), CoreMatchers.is("Conexão encerrada."));
+        }
+    }
+
+    @Test
+    public void paralelismoTest() {
+        // Cenário
+        final ExportadorResultSet exportador = new ExportadorResultSet(new FormatoExportavelCsv<>(
+                PlanoColunas.de(ResultSet.class)));
+
+        try {
+            // Ação
+            exportador.setParalelismo(4);
+            Assert.fail();
+
+        } catch (IllegalArgumentException e) {
+            // Verificação
+            Assert.assertThat(e.getMessage(), CoreMatchers.is(ExportadorResultSet.ME008));
+        }
+    }
+
+    private java.util.Date data(final int ano, final int mes, final int dia) {
+        return new java.sql.Date(new GregorianCalendar(ano, mes, dia).getTimeInMillis());
+    }
+
+    /**
+     * Consulta simulada, sem banco de dados. Quando as linhas são nulas, o avanço do cursor falha como em uma conexão
+     * encerrada.
+     */
+    private static class Consulta implements InvocationHandler {
+
+        private final Object[][] linhas;
+
+        private int linha = -1;
+
+        private Object ultimo;
+
+        Consulta(final Object[][] linhas) {
+            this.linhas = linhas;
+        }
+
+        ResultSet getResultSet() {
+            return (ResultSet) Proxy.newProxyInstance(this.getClass().getClassLoader(),
+                    new Class<?>[] { ResultSet.class }, this);
+        }
+
+        ResultSetMetaData getMetaData() {
+            return (ResultSetMetaData) Proxy.newProxyInstance(this.getClass().getClassLoader(),
+                    new Class<?>[] { ResultSetMetaData.class }, new InvocationHandler() {
+
+                        @Override
+                        public Object invoke(final Object proxy, final Method metodo, final Object[] argumentos) {
+
+                            switch (metodo.getName()) {
+                                case "getColumnCount":
+                                    return ROTULOS.length;
+                                case "getColumnLabel":
+                                    return ROTULOS[(Integer) argumentos[0] - 1];
+                                case "getColumnType":
+                                    return TIPOS[(Integer) argumentos[0] - 1];
+                                default:
+                                    throw new UnsupportedOperationException(metodo.getName());
+                            }
+                        }
+                    });
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method metodo, final Object[] argumentos) throws SQLException {
+
+            switch (metodo.getName()) {
+                case "next":
+                    if (this.linhas == null) {
+                        throw new SQLException("Conexão encerrada.");
+                    }
+                    return ++this.linha < this.linhas.length;
+                case "wasNull":
+                    return this.ultimo == null;
+                case "getInt":
+                    this.ultimo = this.linhas[this.linha][(Integer) argumentos[0] - 1];
+                    return this.ultimo != null ? this.ultimo : 0;
+                case "getString":
+                case "getDate":
+                case "getBigDecimal":
+                    this.ultimo = this.linhas[this.linha][(Integer) argumentos[0] - 1];
+                    return this.ultimo;
+                default:
+                    throw new UnsupportedOperationException(metodo.getName());
+            }
+        }
+    }
+}
@@ -1,13 +1,22 @@
 package br.com.leuras.commons.export;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.nio.channels.FileChannel;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
 import org.hamcrest.CoreMatchers;
 import org.junit.Assert;
 import org.junit.Before;
@@ -20,6 +29,7 @@ import br.com.leuras.commons.export.Exportavel;
 import br.com.leuras.commons.export.FormatoAtributoEnum;
 import br.com.leuras.commons.export.FormatoExportavel;
 import br.com.leuras.commons.export.FormatoExportavelExcel;
+import br.com.leuras.commons.export.FormatoExportavelXlsx;
 import br.com.leuras.commons.util.ArquivoUtils;
 
 public class ExportadorTest {
@@ -49,6 +59,397 @@ public class ExportadorTest {
         Assert.assertTrue(new File(arquivo).exists());
     }
     
+    @Test
+    public void exportarXlsxTest() throws Exception {
+        // Cenário
+        final String arquivo = String.format("%s/%s.xlsx", ArquivoUtils.TEMP, System.currentTimeMillis());
+
+        // Ação
+        final Exportador<Funcionario> exportador = new Exportador<Funcionario>(new FormatoExportavelXlsx<Funcionario>(Funcionario.class));
+
+        exportador.exportar(arquivo, this.registros);
+
+        // Verificação
+        Assert.assertTrue(new File(arquivo).exists());
+    }
+
+    @Test
+    public void exportarXlsxAcimaLimiteXlsTest() throws Exception {
+        // Cenário
+        final List<Funcionario> volume = new ArrayList<>();
+
+        for (int i = 0; i < 70000; i++) {
+            volume.add(this.registros.get(i % this.registros.size()));
+        }
+
+        // Ação
+        final Exportador<Funcionario> exportador = new Exportador<Funcionario>(new FormatoExportavelXlsx<Funcionario>(Funcionario.class, 50));
+
+        final byte[] buffer = exportador.exportar(volume);
+
+        // Verificação
+        Assert.assertNotNull(buffer);
+        Assert.assertTrue(buffer.length > 0);
+    }
+
+    @Test
+    public void janelaInvalidaXlsxTest() throws Exception {
+        try {
+
+            new FormatoExportavelXlsx<Funcionario>(Funcionario.class, 0);
+            Assert.fail();
+
+        } catch (IllegalArgumentException e) {
+            Assert.assertThat(e.getMessage(), CoreMatchers.is("A janela de linhas em memória deve ser maior que zero."));
+        }
+    }
+
+    @Test
+    public void exportarParaFluxoTest() throws Exception {
+        // Cenário
+        final ByteArrayOutputStream destino = new ByteArrayOutputStream();
+
+        // Ação
+        final Exportador<Funcionario> exportador = new Exportador<Funcionario>(new FormatoExportavelXlsx<Funcionario>(Funcionario.class));
+
+        exportador.exportar(destino, this.registros.iterator());
+
+        // Verificação
+        Assert.assertTrue(destino.size() > 0);
+    }
+
+    @Test
+    public void exportarFormatoSemFluxoParaFluxoTest() throws Exception {
+        // Cenário
+        final ByteArrayOutputStream destino = new ByteArrayOutputStream();
+        final List<Funcionario> recebidos = new ArrayList<>();
+
+        final FormatoExportavel<Funcionario> formato = new FormatoExportavel<Funcionario>() {
+
+            @Override
+            public void cabecalho(Map<String, Object> parametros) throws ExportacaoException {
+
+            }
+
+            @Override
+            public void detalhes(List<Funcionario> registros) throws ExportacaoException {
+                recebidos.addAll(registros);
+            }
+
+            @Override
+            public void rodape(Map<String, Object> parametros) throws ExportacaoException {
+
+            }
+
+            @Override
+            public byte[] getBytes() throws ExportacaoException {
+                return new byte[] { 1, 2, 3 };
+            }
+
+            @Override
+            public Class<Funcionario> getType() {
+                return Funcionario.class;
+            }
+        };
+
+        // Ação
+        new Exportador<Funcionario>(formato).exportar(destino, this.registros.iterator());
+
+        // Verificação
+        Assert.assertThat(recebidos.size(), CoreMatchers.is(this.registros.size()));
+        Assert.assertThat(destino.size(), CoreMatchers.is(3));
+    }
+
+    @Test
+    public void exportarParaCanalTest() throws Exception {
+        // Cenário
+        final File arquivo = File.createTempFile("exportador_", ".xls");
+
+        // Ação
+        final Exportador<Funcionario> exportador = new Exportador<Funcionario>(new FormatoExportavelExcel<Funcionario>(Funcionario.class));
+
+        try (final FileChannel canal = new FileOutputStream(arquivo).getChannel()) {
+            exportador.exportar(canal, this.registros, new HashMap<String, Object>());
+        }
+
+        // Verificação
+        Assert.assertTrue(arquivo.length() > 0L);
+    }
+
+    @Test
+    public void exportarExcelFormatosNativosTest() throws Exception {
+        // Cenário
+        final List<Funcionario> volume = new ArrayList<>();
+
+        for (int i = 0; i < 1000; i++) {
+            volume.add(this.registros.get(i % this.registros.size()));
+        }
+
+        // Ação
+        final byte[] poucos = new Exportador<Funcionario>(new FormatoExportavelExcel<Funcionario>(Funcionario.class)).exportar(this.registros);
+        final byte[] muitos = new Exportador<Funcionario>(new FormatoExportavelExcel<Funcionario>(Funcionario.class)).exportar(volume);
+
+        // Verificação
+        final HSSFWorkbook documento = new HSSFWorkbook(new ByteArrayInputStream(poucos));
+        final Row linha = documento.getSheetAt(0).getRow(2);
+
+        Assert.assertThat(linha.getCell(1).getCellType(), CoreMatchers.is(Cell.CELL_TYPE_NUMERIC));
+        Assert.assertThat(linha.getCell(1).getCellStyle().getDataFormatString(), CoreMatchers.is(RegistroEstilos.DATA_HORA));
+        Assert.assertThat(linha.getCell(2).getNumericCellValue(), CoreMatchers.is(6500.50));
+        Assert.assertThat(linha.getCell(2).getCellStyle().getDataFormatString(), CoreMatchers.is(RegistroEstilos.MOEDA));
+        Assert.assertThat(new HSSFWorkbook(new ByteArrayInputStream(muitos)).getNumCellStyles(), CoreMatchers.is(documento.getNumCellStyles()));
+    }
+
+    @Test
+    public void exportarExcelLarguraEstimadaTest() throws Exception {
+        // Cenário
+        final FormatoExportavelExcel<Funcionario> formato = new FormatoExportavelExcel<Funcionario>(Funcionario.class);
+
+        formato.setLarguraColuna(LarguraColunaEnum.ESTIMADA);
+        formato.setAmostraLargura(100);
+
+        // Ação
+        final byte[] bytes = new Exportador<Funcionario>(formato).exportar(this.registros);
+
+        // Verificação
+        final HSSFWorkbook documento = new HSSFWorkbook(new ByteArrayInputStream(bytes));
+
+        Assert.assertThat(documento.getSheetAt(0).getColumnWidth(0), CoreMatchers.is(("Nome do Funcionário".length() + 2 + 2) * 256));
+    }
+
+    @Test
+    public void amostraLarguraInvalidaTest() throws Exception {
+        try {
+
+            new FormatoExportavelXlsx<Funcionario>(Funcionario.class).setAmostraLargura(-1);
+            Assert.fail();
+
+        } catch (IllegalArgumentException e) {
+            Assert.assertThat(e.getMessage(), CoreMatchers.is(FormatoExportavelPlanilha.ME002));
+        }
+    }
+
+    @Test
+    public void exportarExcelParaleloTest() throws Exception {
+        // Cenário
+        final List<Funcionario> volume = new ArrayList<>();
+
+        for (int i = 0; i < 5000; i++) {
+            volume.add(new Funcionario(String.format("Funcionário %d", i), new Date(), BigDecimal.valueOf(i)));
+        }
+
+        final Exportador<Funcionario> exportador = new Exportador<Funcionario>(new FormatoExportavelExcel<Funcionario>(Funcionario.class));
+
+        exportador.setParalelismo(4);
+        exportador.setTamanhoLote(250);
+
+        // Ação
+        final byte[] bytes = exportador.exportar(volume);
+
+        // Verificação
+        final HSSFWorkbook documento = new HSSFWorkbook(new ByteArrayInputStream(bytes));
+
+        for (int i = 0; i < volume.size(); i++) {
+            Assert.assertThat(documento.getSheetAt(0).getRow(i + 2).getCell(0).getStringCellValue(), CoreMatchers.is(volume.get(i).getNome()));
+        }
+    }
+
+    @Test
+    public void paralelismoInvalidoTest() throws Exception {
+        try {
+
+            new Exportador<Funcionario>(new FormatoExportavelExcel<Funcionario>(Funcionario.class)).setParalelismo(0);
+            Assert.fail();
+
+        } catch (IllegalArgumentException e) {
+            Assert.assertThat(e.getMessage(), CoreMatchers.is(Exportador.ME001));
+        }
+    }
+
+    @Test
+    public void exportarExcelVariasPlanilhasTest() throws Exception {
+        // Cenário
+        final FormatoExportavelExcel<Funcionario> formato = new FormatoExportavelExcel<Funcionario>(Funcionario.class);
+
+        formato.setLinhasPorPlanilha(3);
+
+        // Ação
+        final byte[] bytes = new Exportador<Funcionario>(formato).exportar(this.registros);
+
+        // Verificação
+        final HSSFWorkbook documento = new HSSFWorkbook(new ByteArrayInputStream(bytes));
+
+        Assert.assertThat(documento.getNumberOfSheets(), CoreMatchers.is(2));
+        Assert.assertThat(documento.getSheetAt(1).getRow(0).getCell(0).getStringCellValue(), CoreMatchers.is("Listagem de Funcionários"));
+        Assert.assertThat(documento.getSheetAt(1).getRow(1).getCell(0).getStringCellValue(), CoreMatchers.is("Nome do Funcionário"));
+        Assert.assertThat(documento.getSheetAt(1).getRow(2).getCell(0).getStringCellValue(), CoreMatchers.is("Tiago Arnaldo"));
+        Assert.assertThat(documento.getSheetAt(1).getLastRowNum(), CoreMatchers.is(2));
+    }
+
+    @Test
+    public void exportarExcelAcimaLimiteXlsTest() throws Exception {
+        // Cenário
+        final List<Funcionario> volume = new ArrayList<>();
+
+        for (int i = 0; i < FormatoExportavelExcel.LIMITE_LINHAS + 10; i++) {
+            volume.add(this.registros.get(i % this.registros.size()));
+        }
+
+        // Ação
+        final byte[] bytes = new Exportador<Funcionario>(new FormatoExportavelExcel<Funcionario>(Funcionario.class)).exportar(volume);
+
+        // Verificação
+        final HSSFWorkbook documento = new HSSFWorkbook(new ByteArrayInputStream(bytes));
+
+        Assert.assertThat(documento.getNumberOfSheets(), CoreMatchers.is(2));
+        Assert.assertThat(documento.getSheetAt(1).getLastRowNum(), CoreMatchers.is(11));
+    }
+
+    @Test
+    public void exportarExcelReutilizadoTest() throws Exception {
+        // Cenário
+        final Exportador<Funcionario> exportador = new Exportador<Funcionario>(new FormatoExportavelExcel<Funcionario>(Funcionario.class));
+
+        // Ação
+        final byte[] primeira = exportador.exportar(this.registros);
+        final byte[] segunda = exportador.exportar(this.registros.subList(0, 1));
+
+        // Verificação
+        final HSSFWorkbook documento = new HSSFWorkbook(new ByteArrayInputStream(segunda));
+
+        Assert.assertThat(new HSSFWorkbook(new ByteArrayInputStream(primeira)).getSheetAt(0).getLastRowNum(), CoreMatchers.is(this.registros.size() + 1));
+        Assert.assertThat(documento.getNumberOfSheets(), CoreMatchers.is(1));
+        Assert.assertThat(documento.getSheetAt(0).getLastRowNum(), CoreMatchers.is(2));
+    }
+
+    @Test
+    public void exportarExcelTotaisTest() throws Exception {
+        // Cenário
+        final Date ontem = new Date(System.currentTimeMillis() - 86400000L);
+        final Date hoje = new Date();
+        final List<Venda> vendas = new ArrayList<>();
+
+        vendas.add(new Venda("Lívia Dantas", new BigDecimal("150.25"), 2, ontem, "P-1"));
+        vendas.add(new Venda("Pablo Mustafa", new BigDecimal("49.75"), 4, hoje, null));
+        vendas.add(new Venda("Tiago Arnaldo", new BigDecimal("300.00"), null, ontem, "P-3"));
+
+        // Ação
+        final byte[] bytes = new Exportador<Venda>(new FormatoExportavelExcel<Venda>(Venda.class)).exportar(vendas);
+
+        // Verificação
+        final Row totais = new HSSFWorkbook(new ByteArrayInputStream(bytes)).getSheetAt(0).getRow(5);
+
+        Assert.assertThat(totais.getCell(0).getStringCellValue(), CoreMatchers.is(AgregacaoEnum.ROTULO_TOTAIS));
+        Assert.assertThat(totais.getCell(1).getNumericCellValue(), CoreMatchers.is(500.0));
+        Assert.assertThat(totais.getCell(2).getNumericCellValue(), CoreMatchers.is(3.0));
+        Assert.assertThat(totais.getCell(3).getDateCellValue(), CoreMatchers.is(hoje));
+        Assert.assertThat(totais.getCell(4).getNumericCellValue(), CoreMatchers.is(2.0));
+    }
+
+    @Test
+    public void exportarExcelTotaisVariasPlanilhasTest() throws Exception {
+        // Cenário
+        final List<Venda> vendas = new ArrayList<>();
+
+        vendas.add(new Venda("Lívia Dantas", new BigDecimal("150.25"), 2, new Date(), "P-1"));
+        vendas.add(new Venda("Pablo Mustafa", new BigDecimal("49.75"), 4, new Date(), null));
+
+        final FormatoExportavelExcel<Venda> formato = new FormatoExportavelExcel<Venda>(Venda.class);
+
+        formato.setLinhasPorPlanilha(2);
+
+        // Ação
+        final byte[] bytes = new Exportador<Venda>(formato).exportar(vendas);
+
+        // Verificação
+        final HSSFWorkbook documento = new HSSFWorkbook(new ByteArrayInputStream(bytes));
+        final Sheet ultima = documento.getSheetAt(1);
+
+        Assert.assertThat(documento.getNumberOfSheets(), CoreMatchers.is(2));
+        Assert.assertThat(documento.getSheetAt(0).getLastRowNum(), CoreMatchers.is(2));
+        Assert.assertThat(ultima.getRow(2).getCell(0).getStringCellValue(), CoreMatchers.is("Pablo Mustafa"));
+        Assert.assertThat(ultima.getRow(3).getCell(0).getStringCellValue(), CoreMatchers.is(AgregacaoEnum.ROTULO_TOTAIS));
+        Assert.assertThat(ultima.getRow(3).getCell(1).getNumericCellValue(), CoreMatchers.is(200.0));
+    }
+
+    @Test
+    public void exportarExcelPreparacaoTest() throws Exception {
+        // Cenário
+        final List<Funcionario> volume = new ArrayList<>();
+
+        for (int i = 0; i < 5000; i++) {
+            volume.add(new Funcionario(String.format("Funcionário %d", i), new Date(), BigDecimal.valueOf(i)));
+        }
+
+        final FormatoExportavelExcel<Funcionario> formato = new FormatoExportavelExcel<Funcionario>(Funcionario.class);
+
+        formato.setPreparacao(true);
+        formato.setLimitePreparacao(0);
+        formato.setLinhasPorPlanilha(3000);
+
+        // Ação
+        final byte[] bytes = new Exportador<Funcionario>(formato).exportar(volume);
+
+        // Verificação
+        final HSSFWorkbook documento = new HSSFWorkbook(new ByteArrayInputStream(bytes));
+
+        Assert.assertThat(documento.getNumberOfSheets(), CoreMatchers.is(2));
+
+        for (int i = 0; i < volume.size(); i++) {
+            final Row linha = documento.getSheetAt(i / 3000).getRow(i % 3000 + 2);
+
+            Assert.assertThat(linha.getCell(0).getStringCellValue(), CoreMatchers.is(volume.get(i).getNome()));
+            Assert.assertThat(linha.getCell(2).getNumericCellValue(), CoreMatchers.is((double) i));
+        }
+    }
+
+    @Test
+    public void exportarExcelTotaisPreparacaoTest() throws Exception {
+        // Cenário
+        final List<Venda> vendas = new ArrayList<>();
+
+        vendas.add(new Venda("Lívia Dantas", new BigDecimal("150.25"), 2, new Date(), "P-1"));
+        vendas.add(new Venda("Pablo Mustafa", new BigDecimal("49.75"), 4, new Date(), null));
+
+        final FormatoExportavelExcel<Venda> formato = new FormatoExportavelExcel<Venda>(Venda.class);
+
+        formato.setPreparacao(true);
+
+        // Ação
+        final byte[] bytes = new Exportador<Venda>(formato).exportar(vendas);
+
+        // Verificação
+        final Row totais = new HSSFWorkbook(new ByteArrayInputStream(bytes)).getSheetAt(0).getRow(4);
+
+        Assert.assertThat(totais.getCell(0).getStringCellValue(), CoreMatchers.is(AgregacaoEnum.ROTULO_TOTAIS));
+        Assert.assertThat(totais.getCell(1).getNumericCellValue(), CoreMatchers.is(200.0));
+        Assert.assertThat(totais.getCell(2).getNumericCellValue(), CoreMatchers.is(3.0));
+    }
+
+    @Test
+    public void limitePreparacaoInvalidoTest() throws Exception {
+        try {
+
+            new FormatoExportavelExcel<Funcionario>(Funcionario.class).setLimitePreparacao(-1);
+            Assert.fail();
+
+        } catch (IllegalArgumentException e) {
+            Assert.assertThat(e.getMessage(), CoreMatchers.is(FormatoExportavelPlanilha.ME004));
+        }
+    }
+
+    @Test
+    public void concluirSemDestinoTest() throws Exception {
+        try {
+
+            new FormatoExportavelExcel<Funcionario>(Funcionario.class).concluir();
+            Assert.fail();
+
+        } catch (ExportacaoException e) {
+            Assert.assertThat(e.getMessage(), CoreMatchers.is(FormatoExportavelPlanilha.ME001));
+        }
+    }
+
     @Test
     public void classeNaoExportavelTest() throws Exception {
         try {
@@ -114,6 +515,53 @@ public class ExportadorTest {
         }
     }
     
+    @Exportavel(titulo = "Vendas")
+    public class Venda {
+
+        @AtributoExportavel(coluna = "Vendedor")
+        private String vendedor;
+
+        @AtributoExportavel(coluna = "Valor", formato = FormatoAtributoEnum.MOEDA, agregacao = AgregacaoEnum.SOMA)
+        private BigDecimal valor;
+
+        @AtributoExportavel(coluna = "Itens", agregacao = AgregacaoEnum.MEDIA)
+        private Integer itens;
+
+        @AtributoExportavel(coluna = "Data", formato = FormatoAtributoEnum.DATA, agregacao = AgregacaoEnum.MAXIMO)
+        private Date data;
+
+        @AtributoExportavel(coluna = "Pedido", agregacao = AgregacaoEnum.CONTAGEM)
+        private String pedido;
+
+        public Venda(String vendedor, BigDecimal valor, Integer itens, Date data, String pedido) {
+            this.vendedor = vendedor;
+            this.valor = valor;
+            this.itens = itens;
+            this.data = data;
+            this.pedido = pedido;
+        }
+
+        public String getVendedor() {
+            return vendedor;
+        }
+
+        public BigDecimal getValor() {
+            return valor;
+        }
+
+        public Integer getItens() {
+            return itens;
+        }
+
+        public Date getData() {
+            return data;
+        }
+
+        public String getPedido() {
+            return pedido;
+        }
+    }
+
     @Exportavel(titulo = "Listagem de Funcionários")
     public class Funcionario {
         
@@ -0,0 +1,116 @@
+package br.com.leuras.commons.export;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.hamcrest.CoreMatchers;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import br.com.leuras.commons.exception.ExportacaoException;
+
+public class FonteDadosTest {
+
+    private List<Item> registros = new ArrayList<>();
+
+    private Exportador<Item> exportador = new Exportador<Item>(new FormatoExportavelCsv<Item>(Item.class));
+
+    @Before
+    public void setup() {
+        for (int i = 0; i < 2500; i++) {
+            this.registros.add(new Item("Item " + i));
+        }
+    }
+
+    @Test
+    public void exportarPaginadoTest() throws Exception {
+        // Cenário
+        final Paginas paginas = new Paginas(this.registros, 100, -1);
+        final ByteArrayOutputStream destino = new ByteArrayOutputStream();
+
+        // Ação
+        this.exportador.exportar(destino, paginas);
+
+        // Verificação
+        Assert.assertTrue(Arrays.equals(destino.toByteArray(), this.exportador.exportar(this.registros)));
+        Assert.assertThat(paginas.solicitadas, CoreMatchers.is(26));
+        Assert.assertThat(paginas.leitor.equals(Thread.currentThread()), CoreMatchers.is(false));
+    }
+
+    @Test
+    public void falhaNaPaginaTest() throws Exception {
+        try {
+
+            this.exportador.exportar(new ByteArrayOutputStream(), new Paginas(this.registros, 100, 3));
+            Assert.fail();
+
+        } catch (ExportacaoException e) {
+            Assert.assertThat(e.getMessage(), CoreMatchers.is("Falha na página 3."));
+        }
+    }
+
+    @Test
+    public void fonteVaziaTest() throws Exception {
+        // Cenário
+        final ByteArrayOutputStream destino = new ByteArrayOutputStream();
+
+        // Ação
+        this.exportador.exportar(destino, new Paginas(Collections.<Item> emptyList(), 100, -1));
+
+        // Verificação
+        Assert.assertThat(new String(destino.toByteArray(), "UTF-8"), CoreMatchers.is("Descrição\r\n"));
+    }
+
+    private static final class Paginas implements FonteDados<Item> {
+
+        private final List<Item> registros;
+
+        private final int tamanho;
+
+        private final int falha;
+
+        private int solicitadas;
+
+        private Thread leitor;
+
+        Paginas(final List<Item> registros, final int tamanho, final int falha) {
+            this.registros = registros;
+            this.tamanho = tamanho;
+            this.falha = falha;
+        }
+
+        @Override
+        public List<Item> proximaPagina() throws ExportacaoException {
+
+            final int inicio = this.solicitadas++ * this.tamanho;
+
+            this.leitor = Thread.currentThread();
+
+            if (this.solicitadas == this.falha) {
+                throw new ExportacaoException(String.format("Falha na página %d.", this.falha));
+            }
+
+            return this.registros.subList(Math.min(inicio, this.registros.size()),
+                    Math.min(inicio + this.tamanho, this.registros.size()));
+        }
+    }
+
+    @Exportavel(titulo = "Itens")
+    public static class Item {
+
+        @AtributoExportavel(coluna = "Descrição")
+        private String descricao;
+
+        public Item(String descricao) {
+            this.descricao = descricao;
+        }
+
+        public String getDescricao() {
+            return descricao;
+        }
+    }
+}
@@ -0,0 +1,332 @@
+package br.com.leuras.commons.export;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.hamcrest.CoreMatchers;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import br.com.leuras.commons.exception.ExportacaoException;
+
+public class FormatoExportavelCsvTest {
+
+    private List<Produto> registros = new ArrayList<>();
+
+    @Before
+    public void setup() {
+
+        final Date cadastro = new GregorianCalendar(2019, Calendar.MARCH, 7).getTime();
+
+        this.registros.add(new Produto("Caneta", cadastro, new BigDecimal("1234.5"), 0.125, true));
+        this.registros.add(new Produto("Papel \"A4\"; 500 folhas", cadastro, new BigDecimal("25"), 0.5, false));
+    }
+
+    @Test
+    public void exportarTest() throws Exception {
+        // Ação
+        final byte[] bytes = new Exportador<Produto>(new FormatoExportavelCsv<Produto>(Produto.class)).exportar(this.registros);
+
+        // Verificação
+        final String conteudo = new String(bytes, StandardCharsets.UTF_8);
+
+        Assert.assertThat(conteudo, CoreMatchers.is(
+                "Descrição;Cadastro;Preço;Desconto;Ativo\r\n"
+                + "Caneta;07/03/2019;1234,50;12,50%;Sim\r\n"
+                + "\"Papel \"\"A4\"\"; 500 folhas\";07/03/2019;25,00;50,00%;Não\r\n"));
+    }
+
+    @Test
+    public void exportarParaFluxoTest() throws Exception {
+        // Cenário
+        final List<Produto> volume = new ArrayList<>();
+        final ByteArrayOutputStream destino = new ByteArrayOutputStream();
+
+        for (int i = 0; i < 10000; i++) {
+            volume.add(this.registros.get(0));
+        }
+
+        final FormatoExportavelCsv<Produto> formato = new FormatoExportavelCsv<Produto>(Produto.class, StandardCharsets.ISO_8859_1);
+
+        formato.setSeparador(',');
+        formato.setDecimal('.');
+
+        // Ação
+        new Exportador<Produto>(formato).exportar(destino, volume.iterator());
+
+        // Verificação
+        final String[] linhas = new String(destino.toByteArray(), StandardCharsets.ISO_8859_1).split("\r\n");
+
+        Assert.assertThat(linhas.length, CoreMatchers.is(10001));
+        Assert.assertThat(linhas[0], CoreMatchers.is("Descrição,Cadastro,Preço,Desconto,Ativo"));
+        Assert.assertThat(linhas[10000], CoreMatchers.is("Caneta,07/03/2019,1234.50,12.50%,Sim"));
+    }
+
+    @Test
+    public void separadorIgualDecimalTest() throws Exception {
+        // Cenário
+        final FormatoExportavelCsv<Produto> formato = new FormatoExportavelCsv<Produto>(Produto.class);
+
+        formato.setSeparador(',');
+
+        // Ação
+        final byte[] bytes = new Exportador<Produto>(formato).exportar(this.registros.subList(0, 1));
+
+        // Verificação
+        final String[] linhas = new String(bytes, StandardCharsets.UTF_8).split("\r\n");
+
+        Assert.assertThat(linhas[1], CoreMatchers.is("Caneta,07/03/2019,\"1234,50\",\"12,50%\",Sim"));
+    }
+
+    @Test
+    public void valorNaoFinitoTest() throws Exception {
+        // Cenário
+        final Date cadastro = new GregorianCalendar(2019, Calendar.MARCH, 7).getTime();
+        final List<Produto> registros = Arrays.asList(new Produto("Caneta", cadastro, null, Double.NaN, true),
+                new Produto("Papel", cadastro, null, Double.NEGATIVE_INFINITY, false));
+
+        // Ação
+        final byte[] bytes = new Exportador<Produto>(new FormatoExportavelCsv<Produto>(Produto.class)).exportar(registros);
+
+        // Verificação
+        final String[] linhas = new String(bytes, StandardCharsets.UTF_8).split("\r\n");
+
+        Assert.assertThat(linhas[1], CoreMatchers.is("Caneta;07/03/2019;;NaN;Sim"));
+        Assert.assertThat(linhas[2], CoreMatchers.is("Papel;07/03/2019;;-Infinity;Não"));
+    }
+
+    @Test
+    public void exportarParaleloTest() throws Exception {
+        // Cenário
+        final List<Produto> volume = new ArrayList<>();
+
+        for (int i = 0; i < 25000; i++) {
+            final Produto produto = this.registros.get(i % this.registros.size());
+            volume.add(new Produto(produto.getDescricao() + i, produto.getCadastro(), produto.getPreco(), produto.getDesconto(), produto.getAtivo()));
+        }
+
+        final Exportador<Produto> paralelo = new Exportador<Produto>(new FormatoExportavelCsv<Produto>(Produto.class));
+
+        paralelo.setParalelismo(4);
+        paralelo.setTamanhoLote(1000);
+
+        // Ação
+        final byte[] sequencial = new Exportador<Produto>(new FormatoExportavelCsv<Produto>(Produto.class)).exportar(volume);
+        final ByteArrayOutputStream destino = new ByteArrayOutputStream();
+
+        paralelo.exportar(destino, volume.iterator());
+
+        // Verificação
+        Assert.assertTrue(Arrays.equals(destino.toByteArray(), sequencial));
+    }
+
+    @Test
+    public void exportarTextoMaiorQueBufferTest() throws Exception {
+        // Cenário
+        final StringBuilder descricao = new StringBuilder();
+        final List<Produto> volume = new ArrayList<>();
+
+        while (descricao.length() < 20000) {
+            descricao.append("Descrição ");
+        }
+
+        for (int i = 0; i < 50; i++) {
+            volume.add(new Produto(descricao.toString() + i, null, BigDecimal.ONE, 0.1, true));
+        }
+
+        final Exportador<Produto> paralelo = new Exportador<Produto>(new FormatoExportavelCsv<Produto>(Produto.class));
+
+        paralelo.setParalelismo(2);
+        paralelo.setTamanhoLote(10);
+
+        // Ação
+        final byte[] sequencial = new Exportador<Produto>(new FormatoExportavelCsv<Produto>(Produto.class)).exportar(volume);
+        final ByteArrayOutputStream destino = new ByteArrayOutputStream();
+
+        paralelo.exportar(destino, volume.iterator());
+
+        // Verificação
+        final String[] linhas = new String(sequencial, StandardCharsets.UTF_8).split("\r\n");
+
+        Assert.assertThat(linhas.length, CoreMatchers.is(51));
+        Assert.assertThat(linhas[50], CoreMatchers.is(descricao.toString() + "49;;1,00;10,00%;Sim"));
+        Assert.assertTrue(Arrays.equals(destino.toByteArray(), sequencial));
+    }
+
+    @Test
+    public void reutilizarTest() throws Exception {
+        // Cenário
+        final Exportador<Produto> exportador = new Exportador<Produto>(new FormatoExportavelCsv<Produto>(Produto.class));
+        final ByteArrayOutputStream destino = new ByteArrayOutputStream();
+
+        // Ação
+        final byte[] primeira = exportador.exportar(this.registros);
+
+        exportador.exportar(destino, this.registros.iterator());
+
+        final byte[] terceira = exportador.exportar(this.registros);
+
+        // Verificação
+        Assert.assertTrue(Arrays.equals(destino.toByteArray(), primeira));
+        Assert.assertTrue(Arrays.equals(terceira, primeira));
+    }
+
+    @Test
+    public void compartilharEntreThreadsTest() throws Exception {
+        // Cenário
+        final List<Produto> volume = new ArrayList<>();
+
+        for (int i = 0; i < 5000; i++) {
+            volume.add(this.registros.get(i % this.registros.size()));
+        }
+
+        final Exportador<Produto> exportador = new Exportador<Produto>(new FormatoExportavelCsv<Produto>(Produto.class));
+        final byte[] esperado = exportador.exportar(volume);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        final List<Future<byte[]>> exportacoes = new ArrayList<>();
+
+        // Ação
+        try {
+
+            for (int i = 0; i < 16; i++) {
+                exportacoes.add(executor.submit(new Callable<byte[]>() {
+
+                    @Override
+                    public byte[] call() throws Exception {
+                        return exportador.exportar(volume);
+                    }
+                }));
+            }
+
+            // Verificação
+            for (final Future<byte[]> exportacao : exportacoes) {
+                Assert.assertTrue(Arrays.equals(exportacao.get(), esperado));
+            }
+
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void getBytesAposIniciarTest() throws Exception {
+        try {
+
+            final FormatoExportavelCsv<Produto> formato = new FormatoExportavelCsv<Produto>(Produto.class);
+
+            formato.iniciar(new ByteArrayOutputStream());
+            formato.getBytes();
+            Assert.fail();
+
+        } catch (ExportacaoException e) {
+            Assert.assertThat(e.getMessage(), CoreMatchers.is(FormatoExportavelCsv.ME002));
+        }
+    }
+
+    @Test
+    public void falhaDescartaContextoTest() throws Exception {
+        // Cenário
+        final FormatoExportavelCsv<Produto> formato = new FormatoExportavelCsv<Produto>(Produto.class);
+        final byte[] esperado = new Exportador<Produto>(new FormatoExportavelCsv<Produto>(Produto.class)).exportar(this.registros);
+        final Iterator<Produto> falho = new Iterator<Produto>() {
+
+            private int lidos;
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public Produto next() {
+
+                if (this.lidos++ > 0) {
+                    throw new IllegalStateException();
+                }
+
+                return FormatoExportavelCsvTest.this.registros.get(0);
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+
+        try {
+
+            formato.detalhes(falho);
+            Assert.fail();
+
+        } catch (IllegalStateException e) {
+
+            // Ação
+            formato.detalhes(this.registros);
+
+            final byte[] bytes = formato.getBytes();
+
+            // Verificação
+            Assert.assertTrue(Arrays.equals(bytes, esperado));
+        }
+    }
+
+    @Exportavel(titulo = "Produtos")
+    public class Produto {
+
+        @AtributoExportavel(coluna = "Descrição")
+        private String descricao;
+
+        @AtributoExportavel(coluna = "Cadastro", formato = FormatoAtributoEnum.DATA)
+        private Date cadastro;
+
+        @AtributoExportavel(coluna = "Preço", formato = FormatoAtributoEnum.MOEDA)
+        private BigDecimal preco;
+
+        @AtributoExportavel(coluna = "Desconto", formato = FormatoAtributoEnum.PERCENTUAL)
+        private Double desconto;
+
+        @AtributoExportavel(coluna = "Ativo")
+        private Boolean ativo;
+
+        public Produto(String descricao, Date cadastro, BigDecimal preco, Double desconto, Boolean ativo) {
+            this.descricao = descricao;
+            this.cadastro = cadastro;
+            this.preco = preco;
+            this.desconto = desconto;
+            this.ativo = ativo;
+        }
+
+        public String getDescricao() {
+            return descricao;
+        }
+
+        public Date getCadastro() {
+            return cadastro;
+        }
+
+        public BigDecimal getPreco() {
+            return preco;
+        }
+
+        public Double getDesconto() {
+            return desconto;
+        }
+
+        public Boolean getAtivo() {
+            return ativo;
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package br.com.leuras.commons.export;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.hamcrest.CoreMatchers;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import br.com.leuras.commons.exception.ExportacaoExcelException;
+
+public class FormatoExportavelModeloTest {
+
+    private List<Funcionario> registros = new ArrayList<>();
+
+    @Before
+    public void setup() {
+        this.registros.add(new Funcionario("Fernando Libório", new BigDecimal("6500.50")));
+        this.registros.add(new Funcionario("Lívia Dantas", new BigDecimal("7200.45")));
+        this.registros.add(new Funcionario("Pablo Mustafa", new BigDecimal("8100.13")));
+    }
+
+    @Test
+    public void exportarTest() throws Exception {
+        // Cenário
+        final File arquivo = FormatoExportavelModeloTest.modelo("nome", "salario");
+        final ModeloPlanilha modelo = ModeloPlanilha.de(arquivo.getPath());
+        final Map<String, Object> parametros = new HashMap<>();
+
+        parametros.put("empresa", "Leuras Ltda.");
+        parametros.put("responsavel", "Tiago Arnaldo");
+
+        // Ação
+        final byte[] bytes = new Exportador<Funcionario>(new FormatoExportavelModelo<Funcionario>(Funcionario.class, modelo))
+                .exportar(this.registros, parametros);
+
+        // Verificação
+        final Sheet planilha = new HSSFWorkbook(new ByteArrayInputStream(bytes)).getSheetAt(0);
+
+        Assert.assertThat(planilha.getRow(0).getCell(0).getStringCellValue(), CoreMatchers.is("Leuras Ltda."));
+        Assert.assertThat(planilha.getRow(1).getCell(0).getStringCellValue(), CoreMatchers.is("Nome"));
+
+        for (int i = 0; i < this.registros.size(); i++) {
+            final Row linha = planilha.getRow(i + 2);
+
+            Assert.assertThat(linha.getCell(0).getStringCellValue(), CoreMatchers.is(this.registros.get(i).getNome()));
+            Assert.assertThat(linha.getCell(1).getNumericCellValue(), CoreMatchers.is(this.registros.get(i).getSalario().doubleValue()));
+            Assert.assertThat(linha.getCell(2).getStringCellValue(), CoreMatchers.is("CLT"));
+        }
+
+        Assert.assertThat(planilha.getRow(5).getCell(0).getStringCellValue(), CoreMatchers.is("Total"));
+        Assert.assertEquals(21801.08, planilha.getRow(5).getCell(1).getNumericCellValue(), 0.001);
+        Assert.assertThat(planilha.getRow(6).getCell(0).getStringCellValue(), CoreMatchers.is("Responsável: Tiago Arnaldo"));
+        Assert.assertThat(planilha.getNumMergedRegions(), CoreMatchers.is(2));
+        Assert.assertThat(planilha.getMergedRegion(1).getFirstRow(), CoreMatchers.is(6));
+        Assert.assertThat(planilha.getLastRowNum(), CoreMatchers.is(6));
+    }
+
+    @Test
+    public void exportarVariasPlanilhasTest() throws Exception {
+        // Cenário
+        final ModeloPlanilha modelo = ModeloPlanilha.de(FormatoExportavelModeloTest.modelo("nome", "salario").getPath());
+        final FormatoExportavelModelo<Funcionario> formato = new FormatoExportavelModelo<Funcionario>(Funcionario.class, modelo);
+        final Map<String, Object> parametros = new HashMap<>();
+
+        parametros.put("empresa", "Leuras Ltda.");
+        formato.setLinhasPorPlanilha(2);
+
+        // Ação
+        final byte[] bytes = new Exportador<Funcionario>(formato).exportar(this.registros, parametros);
+
+        // Verificação
+        final HSSFWorkbook documento = new HSSFWorkbook(new ByteArrayInputStream(bytes));
+        final Sheet segunda = documento.getSheetAt(1);
+
+        Assert.assertThat(documento.getNumberOfSheets(), CoreMatchers.is(2));
+        Assert.assertThat(documento.getSheetAt(0).getLastRowNum(), CoreMatchers.is(3));
+        Assert.assertThat(segunda.getRow(0).getCell(0).getStringCellValue(), CoreMatchers.is("Leuras Ltda."));
+        Assert.assertThat(segunda.getRow(1).getCell(0).getStringCellValue(), CoreMatchers.is("Nome"));
+        Assert.assertThat(segunda.getRow(2).getCell(0).getStringCellValue(), CoreMatchers.is("Pablo Mustafa"));
+        Assert.assertThat(segunda.getRow(3).getCell(0).getStringCellValue(), CoreMatchers.is("Total"));
+        Assert.assertEquals(21801.08, segunda.getRow(3).getCell(1).getNumericCellValue(), 0.001);
+        Assert.assertThat(segunda.getMergedRegion(0).getLastColumn(), CoreMatchers.is(2));
+    }
+
+    @Test
+    public void formulaDetalheTest() throws Exception {
+        // Cenário
+        final ModeloPlanilha modelo = ModeloPlanilha.de(FormatoExportavelModeloTest.modelo("nome", "salario").getPath());
+        final FormatoExportavelModelo<Funcionario> formato = new FormatoExportavelModelo<Funcionario>(Funcionario.class, modelo);
+
+        formato.setLinhasPorPlanilha(2);
+
+        // Ação
+        final byte[] bytes = new Exportador<Funcionario>(formato).exportar(this.registros);
+
+        // Verificação
+        final HSSFWorkbook documento = new HSSFWorkbook(new ByteArrayInputStream(bytes));
+
+        Assert.assertThat(documento.getSheetAt(0).getRow(2).getCell(3).getCellFormula(), CoreMatchers.is("B3*$B$3"));
+        Assert.assertThat(documento.getSheetAt(0).getRow(3).getCell(3).getCellFormula(), CoreMatchers.is("B4*$B$3"));
+        Assert.assertThat(documento.getSheetAt(1).getRow(2).getCell(3).getCellFormula(), CoreMatchers.is("B3*$B$3"));
+    }
+
+    @Test
+    public void deslocarFormulaTest() {
+        // Ação e Verificação
+        Assert.assertThat(ModeloPlanilha.deslocar("SUM($B$3:B3)+C$3*$D3", 2), CoreMatchers.is("SUM($B$3:B5)+C$3*$D5"));
+        Assert.assertThat(ModeloPlanilha.deslocar("IF(A3=\"B3\",LOG10(C3),0)", 1), CoreMatchers.is("IF(A4=\"B3\",LOG10(C4),0)"));
+        Assert.assertThat(ModeloPlanilha.deslocar("Dados!A3*2", 0), CoreMatchers.is("Dados!A3*2"));
+    }
+
+    @Test
+    public void linhasPorPlanilhaInvalidoTest() throws Exception {
+        // Cenário
+        final ModeloPlanilha modelo = ModeloPlanilha.de(FormatoExportavelModeloTest.modelo("nome", "salario").getPath());
+
+        try {
+            // Ação
+            new FormatoExportavelModelo<Funcionario>(Funcionario.class, modelo).setLinhasPorPlanilha(0);
+            Assert.fail();
+
+        } catch (IllegalArgumentException e) {
+            // Verificação
+            Assert.assertThat(e.getMessage(), CoreMatchers.is(FormatoExportavelModelo.ME003));
+        }
+    }
+
+    @Test
+    public void modeloCompartilhadoTest() throws Exception {
+        // Cenário
+        final File arquivo = FormatoExportavelModeloTest.modelo("nome", "salario");
+
+        // Ação
+        final ModeloPlanilha primeiro = ModeloPlanilha.de(arquivo.getPath());
+        final ModeloPlanilha segundo = ModeloPlanilha.de(arquivo.getPath());
+
+        arquivo.setLastModified(arquivo.lastModified() + 2000L);
+
+        final ModeloPlanilha alterado = ModeloPlanilha.de(arquivo.getPath());
+
+        // Verificação
+        Assert.assertThat(segundo == primeiro, CoreMatchers.is(true));
+        Assert.assertThat(alterado == primeiro, CoreMatchers.is(false));
+        Assert.assertThat(alterado.getLinhaDetalhe(), CoreMatchers.is(2));
+        Assert.assertThat(alterado.getAtributos().size(), CoreMatchers.is(2));
+    }
+
+    @Test
+    public void atributoInexistenteTest() throws Exception {
+        // Cenário
+        final ModeloPlanilha modelo = ModeloPlanilha.de(FormatoExportavelModeloTest.modelo("nome", "cargo").getPath());
+
+        try {
+            // Ação
+            new FormatoExportavelModelo<Funcionario>(Funcionario.class, modelo);
+            Assert.fail();
+
+        } catch (IllegalArgumentException e) {
+            // Verificação
+            Assert.assertThat(e.getMessage(), CoreMatchers.is(String.format(FormatoExportavelModelo.ME002, "cargo")));
+        }
+    }
+
+    @Test
+    public void modeloSemDetalheTest() throws Exception {
+        // Cenário
+        final HSSFWorkbook documento = new HSSFWorkbook();
+
+        documento.createSheet().createRow(0).createCell(0).setCellValue("${empresa}");
+
+        final File arquivo = File.createTempFile("modelo_", ".xls");
+
+        try (final OutputStream saida = new FileOutputStream(arquivo)) {
+            documento.write(saida);
+        }
+
+        try {
+            // Ação
+            ModeloPlanilha.de(arquivo.getPath());
+            Assert.fail();
+
+        } catch (ExportacaoExcelException e) {
+            // Verificação
+            Assert.assertThat(e.getMessage(), CoreMatchers.is(ModeloPlanilha.ME001));
+        }
+    }
+
+    private static File modelo(final String primeiro, final String segundo) throws Exception {
+
+        final HSSFWorkbook documento = new HSSFWorkbook();
+        final Sheet planilha = documento.createSheet();
+
+        planilha.createRow(0).createCell(0).setCellValue("${empresa}");
+        planilha.addMergedRegion(new CellRangeAddress(0, 0, 0, 2));
+
+        final Row titulos = planilha.createRow(1);
+
+        titulos.createCell(0).setCellValue("Nome");
+        titulos.createCell(1).setCellValue("Salário");
+        titulos.createCell(2).setCellValue("Regime");
+
+        final Row detalhe = planilha.createRow(2);
+
+        detalhe.createCell(0).setCellValue(String.format("#{%s}", primeiro));
+        detalhe.createCell(1).setCellValue(String.format("#{%s}", segundo));
+        detalhe.createCell(2).setCellValue("CLT");
+        detalhe.createCell(3).setCellFormula("B3*$B$3");
+
+        final Row totais = planilha.createRow(3);
+
+        totais.createCell(0).setCellValue("Total");
+        totais.createCell(1).setCellValue("#{salario}");
+
+        planilha.createRow(4).createCell(0).setCellValue("Responsável: ${responsavel}");
+        planilha.addMergedRegion(new CellRangeAddress(4, 4, 0, 2));
+
+        final File arquivo = File.createTempFile("modelo_", ".xls");
+
+        try (final OutputStream saida = new FileOutputStream(arquivo)) {
+            documento.write(saida);
+        }
+
+        arquivo.deleteOnExit();
+
+        return arquivo;
+    }
+
+    @Exportavel(titulo = "Funcionários")
+    public static class Funcionario {
+
+        @AtributoExportavel(coluna = "Nome", ordem = 1)
+        private String nome;
+
+        @AtributoExportavel(coluna = "Salário", formato = FormatoAtributoEnum.MOEDA, agregacao = AgregacaoEnum.SOMA, ordem = 2)
+        private BigDecimal salario;
+
+        public Funcionario(final String nome, final BigDecimal salario) {
+            this.nome = nome;
+            this.salario = salario;
+        }
+
+        public String getNome() {
+            return this.nome;
+        }
+
+        public BigDecimal getSalario() {
+            return this.salario;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package br.com.leuras.commons.export;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.hamcrest.CoreMatchers;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.lowagie.text.pdf.PdfReader;
+import com.lowagie.text.pdf.parser.PdfTextExtractor;
+
+import br.com.leuras.commons.exception.ExportacaoException;
+
+public class FormatoExportavelPdfTest {
+
+    private List<Venda> registros = new ArrayList<>();
+
+    @Before
+    public void setup() {
+
+        for (int i = 0; i < 2000; i++) {
+            this.registros.add(new Venda(String.format("Vendedor %d", i), BigDecimal.valueOf(i, 2), new Date(), i % 2 == 0));
+        }
+    }
+
+    @Test
+    public void exportarTest() throws Exception {
+        // Ação
+        final byte[] bytes = new Exportador<Venda>(new FormatoExportavelPdf<Venda>(Venda.class)).exportar(this.registros.subList(0, 2));
+
+        // Verificação
+        final PdfReader leitor = new PdfReader(bytes);
+        final String texto = new PdfTextExtractor(leitor).getTextFromPage(1);
+
+        Assert.assertThat(leitor.getNumberOfPages(), CoreMatchers.is(1));
+        Assert.assertThat(texto.contains("Listagem de Vendas"), CoreMatchers.is(true));
+        Assert.assertThat(texto.contains("Vendedor 1"), CoreMatchers.is(true));
+        Assert.assertThat(texto.contains("0,01"), CoreMatchers.is(true));
+        Assert.assertThat(texto.contains(AgregacaoEnum.ROTULO_TOTAIS), CoreMatchers.is(true));
+    }
+
+    @Test
+    public void exportarVariasPaginasTest() throws Exception {
+        // Cenário
+        final FormatoExportavelPdf<Venda> formato = new FormatoExportavelPdf<Venda>(Venda.class);
+
+        formato.setPaisagem(true);
+
+        // Ação
+        final byte[] bytes = new Exportador<Venda>(formato).exportar(this.registros);
+
+        // Verificação
+        final PdfReader leitor = new PdfReader(bytes);
+        final String ultima = new PdfTextExtractor(leitor).getTextFromPage(leitor.getNumberOfPages());
+
+        Assert.assertThat(leitor.getNumberOfPages() > 1, CoreMatchers.is(true));
+        Assert.assertThat(ultima.contains("Vendedor 1999"), CoreMatchers.is(true));
+    }
+
+    @Test
+    public void escreverIncrementalmenteTest() throws Exception {
+        // Cenário
+        final FormatoExportavelPdf<Venda> formato = new FormatoExportavelPdf<Venda>(Venda.class);
+        final ByteArrayOutputStream destino = new ByteArrayOutputStream();
+
+        formato.iniciar(destino);
+        formato.cabecalho(null);
+
+        // Ação
+        formato.detalhes(this.registros);
+
+        // Verificação
+        final int parcial = destino.size();
+
+        formato.rodape(null);
+        formato.concluir();
+
+        Assert.assertThat(parcial > 0, CoreMatchers.is(true));
+        Assert.assertThat(destino.size() > parcial, CoreMatchers.is(true));
+        Assert.assertThat(new PdfReader(destino.toByteArray()).getNumberOfPages() > 1, CoreMatchers.is(true));
+    }
+
+    @Test
+    public void getBytesAposIniciarTest() throws Exception {
+        // Cenário
+        final FormatoExportavelPdf<Venda> formato = new FormatoExportavelPdf<Venda>(Venda.class);
+
+        formato.iniciar(new ByteArrayOutputStream());
+
+        try {
+            // Ação
+            formato.getBytes();
+            Assert.fail();
+
+        } catch (ExportacaoException e) {
+            // Verificação
+            Assert.assertThat(e.getMessage(), CoreMatchers.is(FormatoExportavelPdf.ME002));
+        } finally {
+            formato.reiniciar();
+        }
+    }
+
+    @Test
+    public void exportarSemConteudoTest() throws Exception {
+        // Ação
+        final byte[] bytes = new Exportador<Cliente>(new FormatoExportavelPdf<Cliente>(Cliente.class)).exportar(new ArrayList<Cliente>());
+
+        // Verificação
+        Assert.assertThat(new PdfReader(bytes).getNumberOfPages(), CoreMatchers.is(1));
+    }
+
+    @Test
+    public void linhasPorBlocoInvalidoTest() {
+        try {
+            // Ação
+            new FormatoExportavelPdf<Venda>(Venda.class).setLinhasPorBloco(0);
+            Assert.fail();
+
+        } catch (IllegalArgumentException e) {
+            // Verificação
+            Assert.assertThat(e.getMessage(), CoreMatchers.is(FormatoExportavelPdf.ME003));
+        }
+    }
+
+    @Exportavel(titulo = "Listagem de Vendas")
+    public static class Venda {
+
+        @AtributoExportavel(coluna = "Vendedor", ordem = 1)
+        private String vendedor;
+
+        @AtributoExportavel(coluna = "Valor", formato = FormatoAtributoEnum.MOEDA, agregacao = AgregacaoEnum.SOMA, ordem = 2)
+        private BigDecimal valor;
+
+        @AtributoExportavel(coluna = "Data", formato = FormatoAtributoEnum.DATA, ordem = 3)
+        private Date data;
+
+        @AtributoExportavel(coluna = "Pago", ordem = 4)
+        private Boolean pago;
+
+        public Venda(final String vendedor, final BigDecimal valor, final Date data, final Boolean pago) {
+            this.vendedor = vendedor;
+            this.valor = valor;
+            this.data = data;
+            this.pago = pago;
+        }
+
+        public String getVendedor() {
+            return this.vendedor;
+        }
+
+        public BigDecimal getValor() {
+            return this.valor;
+        }
+
+        public Date getData() {
+            return this.data;
+        }
+
+        public Boolean getPago() {
+            return this.pago;
+        }
+    }
+
+    @Exportavel(titulo = "")
+    public static class Cliente {
+
+        @AtributoExportavel(coluna = "Nome", ordem = 1)
+        private String nome;
+
+        public String getNome() {
+            return this.nome;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package br.com.leuras.commons.export;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.hamcrest.CoreMatchers;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MonitorExportacaoHistogramaTest {
+
+    private List<Item> registros = new ArrayList<>();
+
+    private MonitorExportacaoHistograma monitor = new MonitorExportacaoHistograma();
+
+    @Before
+    public void setup() {
+        for (int i = 0; i < 3000; i++) {
+            this.registros.add(new Item("Item " + i));
+        }
+    }
+
+    @Test
+    public void exportarTest() throws Exception {
+        // Cenário
+        final Exportador<Item> exportador = new Exportador<Item>(new FormatoExportavelCsv<Item>(Item.class));
+
+        exportador.setMonitor(this.monitor);
+
+        // Ação
+        final byte[] bytes = exportador.exportar(this.registros);
+
+        // Verificação
+        for (final FaseExportacaoEnum fase : FaseExportacaoEnum.values()) {
+            Assert.assertThat(this.monitor.getContagem(fase), CoreMatchers.is(1L));
+        }
+
+        Assert.assertThat(this.monitor.getLinhas(FaseExportacaoEnum.DETALHES), CoreMatchers.is(3000L));
+        Assert.assertThat(this.monitor.getPicoLinhas(FaseExportacaoEnum.DETALHES), CoreMatchers.is(3000L));
+        Assert.assertThat(this.monitor.getBytes(FaseExportacaoEnum.ESCRITA), CoreMatchers.is((long) bytes.length));
+    }
+
+    @Test
+    public void exportarParaFluxoTest() throws Exception {
+        // Cenário
+        final Exportador<Item> exportador = new Exportador<Item>(new FormatoExportavelCsv<Item>(Item.class));
+        final ByteArrayOutputStream destino = new ByteArrayOutputStream();
+
+        exportador.setMonitor(this.monitor);
+        exportador.setParalelismo(2);
+        exportador.setTamanhoLote(100);
+
+        // Ação
+        exportador.exportar(destino, this.registros.iterator());
+
+        // Verificação
+        long bytes = 0;
+
+        for (final FaseExportacaoEnum fase : FaseExportacaoEnum.values()) {
+            bytes += this.monitor.getBytes(fase);
+        }
+
+        Assert.assertThat(bytes, CoreMatchers.is((long) destino.size()));
+        Assert.assertThat(this.monitor.getLinhas(FaseExportacaoEnum.DETALHES), CoreMatchers.is(3000L));
+        Assert.assertThat(this.monitor.getPicoLinhas(FaseExportacaoEnum.DETALHES), CoreMatchers.is(400L));
+        Assert.assertTrue(this.monitor.getLinhasPorSegundo(FaseExportacaoEnum.DETALHES) > 0);
+    }
+
+    @Test
+    public void exportarParaFluxoSequencialTest() throws Exception {
+        // Cenário
+        final Exportador<Item> exportador = new Exportador<Item>(new FormatoExportavelCsv<Item>(Item.class));
+
+        exportador.setMonitor(this.monitor);
+
+        // Ação
+        exportador.exportar(new ByteArrayOutputStream(), this.registros.iterator());
+
+        // Verificação
+        Assert.assertThat(this.monitor.getPicoLinhas(FaseExportacaoEnum.DETALHES), CoreMatchers.is(1L));
+        Assert.assertThat(this.monitor.getPicoLinhas(FaseExportacaoEnum.RODAPE), CoreMatchers.is(0L));
+    }
+
+    @Test
+    public void exportarParaFluxoOrdenadoTest() throws Exception {
+        // Cenário
+        final Exportador<Item> exportador = new Exportador<Item>(new FormatoExportavelCsv<Item>(Item.class));
+
+        exportador.setMonitor(this.monitor);
+        exportador.setOrdenacao("descricao", false);
+        exportador.setTamanhoBlocoOrdenacao(700);
+
+        // Ação
+        exportador.exportar(new ByteArrayOutputStream(), this.registros.iterator());
+
+        // Verificação
+        Assert.assertThat(this.monitor.getPicoLinhas(FaseExportacaoEnum.DETALHES), CoreMatchers.is(700L));
+    }
+
+    @Test
+    public void percentilTest() {
+        // Cenário
+        for (int i = 1; i <= 100; i++) {
+            this.monitor.registrar(new MedicaoExportacao(Item.class, FaseExportacaoEnum.ESCRITA,
+                    TimeUnit.MILLISECONDS.toNanos(i < 91 ? 3 : 700), 0, 0, 0));
+        }
+
+        // Ação
+        final long mediana = this.monitor.getPercentil(FaseExportacaoEnum.ESCRITA, 50, TimeUnit.MILLISECONDS);
+        final long p99 = this.monitor.getPercentil(FaseExportacaoEnum.ESCRITA, 99, TimeUnit.MILLISECONDS);
+
+        // Verificação
+        Assert.assertThat(mediana, CoreMatchers.is(5L));
+        Assert.assertThat(p99, CoreMatchers.is(1000L));
+        Assert.assertThat(this.monitor.getDuracaoMaxima(FaseExportacaoEnum.ESCRITA, TimeUnit.MILLISECONDS), CoreMatchers.is(700L));
+        Assert.assertThat(this.monitor.getDuracaoMedia(FaseExportacaoEnum.ESCRITA, TimeUnit.MILLISECONDS), CoreMatchers.is(72L));
+
+        this.monitor.limpar();
+
+        Assert.assertThat(this.monitor.getContagem(FaseExportacaoEnum.ESCRITA), CoreMatchers.is(0L));
+    }
+
+    @Test
+    public void percentilInvalidoTest() {
+        try {
+
+            this.monitor.getPercentil(FaseExportacaoEnum.DETALHES, 101, TimeUnit.MILLISECONDS);
+            Assert.fail();
+
+        } catch (IllegalArgumentException e) {
+            Assert.assertThat(e.getMessage(), CoreMatchers.is(MonitorExportacaoHistograma.ME001));
+        }
+    }
+
+    @Exportavel(titulo = "Itens")
+    public static class Item {
+
+        @AtributoExportavel(coluna = "Descrição")
+        private String descricao;
+
+        public Item(String descricao) {
+            this.descricao = descricao;
+        }
+
+        public String getDescricao() {
+            return descricao;
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package br.com.leuras.commons.export;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.Random;
+
+import org.hamcrest.CoreMatchers;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class OrdenacaoExternaTest {
+
+    private List<Item> registros = new ArrayList<>();
+
+    @Before
+    public void setup() {
+
+        final Random aleatorio = new Random(42);
+
+        for (int i = 0; i < 1000; i++) {
+
+            final Integer quantidade = i % 97 == 0 ? null : aleatorio.nextInt(50);
+            final Date cadastro = new GregorianCalendar(2020, Calendar.JANUARY, 1 + aleatorio.nextInt(300)).getTime();
+
+            this.registros.add(new Item("Item " + i, quantidade, new BigDecimal(aleatorio.nextInt(100000)).movePointLeft(2),
+                    cadastro));
+        }
+    }
+
+    @Test
+    public void ordenarEmBlocosTest() throws Exception {
+        // Cenário
+        final Exportador<Item> exportador = new Exportador<Item>(new FormatoExportavelCsv<Item>(Item.class));
+        final List<Item> ordenados = OrdenacaoExternaTest.ordenar(this.registros, false);
+
+        final byte[] esperado = exportador.exportar(ordenados);
+
+        exportador.setOrdenacao("quantidade", false);
+        exportador.setTamanhoBlocoOrdenacao(64);
+
+        // Ação
+        final byte[] bytes = exportador.exportar(this.registros);
+
+        // Verificação
+        Assert.assertThat(new String(bytes, "UTF-8"), CoreMatchers.is(new String(esperado, "UTF-8")));
+    }
+
+    @Test
+    public void ordenarEmMemoriaTest() throws Exception {
+        // Cenário
+        final Exportador<Item> exportador = new Exportador<Item>(new FormatoExportavelCsv<Item>(Item.class));
+        final List<Item> ordenados = OrdenacaoExternaTest.ordenar(this.registros, true);
+
+        final byte[] esperado = exportador.exportar(ordenados);
+
+        exportador.setOrdenacao("quantidade", true);
+
+        // Ação
+        final byte[] bytes = exportador.exportar(this.registros);
+
+        // Verificação
+        Assert.assertThat(new String(bytes, "UTF-8"), CoreMatchers.is(new String(esperado, "UTF-8")));
+    }
+
+    @Test
+    public void ordenarPorAnotacaoTest() throws Exception {
+        // Cenário
+        final List<ItemOrdenado> ordenados = new ArrayList<>();
+        final List<ItemOrdenado> registros = new ArrayList<>();
+
+        for (final Item item : OrdenacaoExternaTest.ordenar(this.registros, true)) {
+            ordenados.add(new ItemOrdenado(item.descricao, item.quantidade, item.preco, item.cadastro));
+        }
+
+        for (final Item item : this.registros) {
+            registros.add(new ItemOrdenado(item.descricao, item.quantidade, item.preco, item.cadastro));
+        }
+
+        final Exportador<ItemOrdenado> exportador = new Exportador<ItemOrdenado>(
+                new FormatoExportavelCsv<ItemOrdenado>(ItemOrdenado.class));
+
+        Assert.assertThat(exportador.getOrdenacao(), CoreMatchers.is("quantidade"));
+        Assert.assertThat(exportador.isDecrescente(), CoreMatchers.is(true));
+
+        exportador.setTamanhoBlocoOrdenacao(1);
+
+        final ByteArrayOutputStream destino = new ByteArrayOutputStream();
+
+        // Ação
+        exportador.exportar(destino, registros.iterator());
+
+        // Verificação
+        exportador.setOrdenacao(null, false);
+
+        final byte[] esperado = exportador.exportar(ordenados);
+
+        Assert.assertThat(new String(destino.toByteArray(), "UTF-8"), CoreMatchers.is(new String(esperado, "UTF-8")));
+    }
+
+    @Test
+    public void atributoInexistenteTest() {
+        // Cenário
+        final Exportador<Item> exportador = new Exportador<Item>(new FormatoExportavelCsv<Item>(Item.class));
+
+        try {
+            // Ação
+            exportador.setOrdenacao("codigo", false);
+            Assert.fail();
+
+        } catch (IllegalArgumentException e) {
+            // Verificação
+            Assert.assertThat(e.getMessage(), CoreMatchers.is(String.format(Exportador.ME006, "codigo")));
+        }
+    }
+
+    @Test
+    public void tamanhoBlocoInvalidoTest() {
+        // Cenário
+        final Exportador<Item> exportador = new Exportador<Item>(new FormatoExportavelCsv<Item>(Item.class));
+
+        try {
+            // Ação
+            exportador.setTamanhoBlocoOrdenacao(0);
+            Assert.fail();
+
+        } catch (IllegalArgumentException e) {
+            // Verificação
+            Assert.assertThat(e.getMessage(), CoreMatchers.is(Exportador.ME007));
+        }
+    }
+
+    private static List<Item> ordenar(final List<Item> registros, final boolean decrescente) {
+
+        final List<Item> ordenados = new ArrayList<>(registros);
+
+        Collections.sort(ordenados, new Comparator<Item>() {
+
+            @Override
+            public int compare(final Item i1, final Item i2) {
+
+                if (i1.quantidade == null || i2.quantidade == null) {
+                    return i1.quantidade == i2.quantidade ? 0 : i1.quantidade == null ? 1 : -1;
+                }
+
+                return decrescente ? i2.quantidade.compareTo(i1.quantidade) : i1.quantidade.compareTo(i2.quantidade);
+            }
+        });
+
+        return ordenados;
+    }
+
+    @Exportavel(titulo = "Itens")
+    public static class Item {
+
+        @AtributoExportavel(coluna = "Descrição", ordem = 1)
+        protected String descricao;
+
+        @AtributoExportavel(coluna = "Quantidade", ordem = 2)
+        protected Integer quantidade;
+
+        @AtributoExportavel(coluna = "Preço", ordem = 3, formato = FormatoAtributoEnum.MOEDA)
+        protected BigDecimal preco;
+
+        @AtributoExportavel(coluna = "Cadastro", ordem = 4, formato = FormatoAtributoEnum.DATA)
+        protected Date cadastro;
+
+        public Item(final String descricao, final Integer quantidade, final BigDecimal preco, final Date cadastro) {
+            this.descricao = descricao;
+            this.quantidade = quantidade;
+            this.preco = preco;
+            this.cadastro = cadastro;
+        }
+
+        public String getDescricao() {
+            return this.descricao;
+        }
+
+        public Integer getQuantidade() {
+            return this.quantidade;
+        }
+
+        public BigDecimal getPreco() {
+            return this.preco;
+        }
+
+        public Date getCadastro() {
+            return this.cadastro;
+        }
+    }
+
+    @Exportavel(titulo = "Itens", ordenarPor = "quantidade", decrescente = true)
+    public static class ItemOrdenado extends Item {
+
+        public ItemOrdenado(final String descricao, final Integer quantidade, final BigDecimal preco,
+                final Date cadastro) {
+            super(descricao, quantidade, preco, cadastro);
+        }
+    }
+}
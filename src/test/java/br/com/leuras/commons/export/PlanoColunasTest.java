@@ -0,0 +1,140 @@
+package br.com.leuras.commons.export;
+
+import java.math.BigDecimal;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+
+import org.hamcrest.CoreMatchers;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PlanoColunasTest {
+
+    @Test
+    public void planoCompartilhadoTest() throws Exception {
+        // Ação
+        final PlanoColunas<Gerente> plano = PlanoColunas.de(Gerente.class);
+
+        // Verificação
+        Assert.assertSame(plano, PlanoColunas.de(Gerente.class));
+        Assert.assertThat(plano.getTitulo(), CoreMatchers.is("Listagem de Gerentes"));
+    }
+
+    @Test
+    public void ordemColunasTest() throws Exception {
+        // Ação
+        final List<ColunaExportavel> colunas = PlanoColunas.de(Gerente.class).getColunas();
+
+        // Verificação
+        Assert.assertEquals(4, colunas.size());
+        Assert.assertThat(colunas.get(0).getTitulo(), CoreMatchers.is("Matrícula"));
+        Assert.assertThat(colunas.get(1).getTitulo(), CoreMatchers.is("Bônus"));
+        Assert.assertThat(colunas.get(2).getTitulo(), CoreMatchers.is("Nome"));
+        Assert.assertThat(colunas.get(3).getTitulo(), CoreMatchers.is("Admissão"));
+        Assert.assertThat(colunas.get(1).getAtributo(), CoreMatchers.is("bonus"));
+        Assert.assertThat(colunas.get(1).getCategoria(), CoreMatchers.is(TipoColunaEnum.NUMERO));
+        Assert.assertThat(colunas.get(3).getCategoria(), CoreMatchers.is(TipoColunaEnum.DATA));
+    }
+
+    @Test
+    public void valoresTest() throws Exception {
+        // Cenário
+        final Gerente gerente = new Gerente();
+        gerente.setMatricula(10L);
+        gerente.setNome("Fernando Libório");
+        gerente.setSenha("segredo");
+        gerente.setAdmissao(Calendar.getInstance());
+
+        // Ação
+        final Object[] valores = PlanoColunas.de(Gerente.class).valores(gerente);
+
+        // Verificação
+        Assert.assertEquals(10L, valores[0]);
+        Assert.assertEquals(new BigDecimal("1000.00"), valores[1]);
+        Assert.assertEquals("Fernando Libório", valores[2]);
+        Assert.assertTrue(valores[3] instanceof Date);
+    }
+
+    @Test
+    public void metodoNaoPublicoTest() throws Exception {
+        try {
+
+            // Ação
+            PlanoColunas.de(Comissao.class);
+            Assert.fail();
+
+        } catch (IllegalArgumentException e) {
+
+            // Verificação
+            Assert.assertThat(e.getMessage(), CoreMatchers.is(String.format(PlanoColunas.ME002, "total", Comissao.class.getName())));
+        }
+    }
+
+    public static class Comissao {
+
+        @AtributoExportavel(coluna = "Total")
+        BigDecimal total() {
+            return BigDecimal.TEN;
+        }
+    }
+
+    public static class Pessoa {
+
+        @AtributoExportavel(coluna = "Nome")
+        private String nome;
+
+        @AtributoExportavel(coluna = "Senha")
+        private String senha;
+
+        public String getNome() {
+            return nome;
+        }
+
+        public void setNome(String nome) {
+            this.nome = nome;
+        }
+
+        public String getSenha() {
+            return senha;
+        }
+
+        public void setSenha(String senha) {
+            this.senha = senha;
+        }
+    }
+
+    @Exportavel(titulo = "Listagem de Gerentes")
+    public static class Gerente extends Pessoa {
+
+        @AtributoExportavel(coluna = "Matrícula", ordem = 0)
+        private Long matricula;
+
+        @AtributoExportavel(ignorar = true)
+        private String senha;
+
+        @AtributoExportavel(coluna = "Admissão", formato = FormatoAtributoEnum.DATA)
+        private Calendar admissao;
+
+        public Long getMatricula() {
+            return matricula;
+        }
+
+        public void setMatricula(Long matricula) {
+            this.matricula = matricula;
+        }
+
+        public Calendar getAdmissao() {
+            return admissao;
+        }
+
+        public void setAdmissao(Calendar admissao) {
+            this.admissao = admissao;
+        }
+
+        @AtributoExportavel(coluna = "Bônus", formato = FormatoAtributoEnum.MOEDA, ordem = 2)
+        public BigDecimal getBonus() {
+            return new BigDecimal("1000.00");
+        }
+    }
+}
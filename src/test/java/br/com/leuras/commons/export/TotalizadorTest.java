@@ -0,0 +1,112 @@
+package br.com.leuras.commons.export;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+import org.hamcrest.CoreMatchers;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TotalizadorTest {
+
+    @Test
+    public void acumularTest() {
+        // Cenário
+        final Totalizador totalizador = Totalizador.de(PlanoColunas.de(Lancamento.class));
+
+        // Ação
+        for (int i = 0; i < 1000000; i++) {
+            totalizador.acumular(new Object[] { "Lançamento", 0.1, i % 10, new Date(i), i % 2 == 0 ? "Sim" : null });
+        }
+
+        // Verificação
+        Assert.assertNull(totalizador.resultado(0));
+        Assert.assertThat(Math.abs((Double) totalizador.resultado(1) - 100000.0) < 1e-6, CoreMatchers.is(true));
+        Assert.assertThat(totalizador.resultado(2), CoreMatchers.is((Object) 4.5));
+        Assert.assertThat(totalizador.resultado(3), CoreMatchers.is((Object) new Date(0)));
+        Assert.assertThat(totalizador.resultado(4), CoreMatchers.is((Object) 500000L));
+    }
+
+    @Test
+    public void acumularDecimalTest() {
+        // Cenário
+        final Totalizador totalizador = Totalizador.de(PlanoColunas.de(Movimento.class));
+
+        // Ação
+        for (int i = 0; i < 100000; i++) {
+            totalizador.acumular(new Object[] { new BigDecimal("0.01"), Long.MAX_VALUE - i, i, new BigDecimal(i) });
+        }
+
+        // Verificação
+        Assert.assertThat(totalizador.resultado(0), CoreMatchers.is((Object) new BigDecimal("1000.00")));
+        Assert.assertThat(totalizador.resultado(1), CoreMatchers.is((Object) BigDecimal.valueOf(Long.MAX_VALUE)
+                .multiply(BigDecimal.valueOf(100000)).subtract(BigDecimal.valueOf(4999950000L))));
+        Assert.assertThat(totalizador.resultado(2), CoreMatchers.is((Object) 99999L));
+        Assert.assertThat(totalizador.resultado(3), CoreMatchers.is((Object) new BigDecimal("49999.5")));
+    }
+
+    @Test
+    public void semValoresTest() {
+        // Cenário
+        final Totalizador totalizador = Totalizador.de(PlanoColunas.de(Lancamento.class));
+
+        // Ação
+        totalizador.acumular(new Object[] { "Lançamento", null, null, null, null });
+
+        // Verificação
+        Assert.assertNull(totalizador.resultado(1));
+        Assert.assertNull(totalizador.resultado(2));
+        Assert.assertThat(totalizador.resultado(4), CoreMatchers.is((Object) 0L));
+    }
+
+    @Test
+    public void semAgregacoesTest() {
+        // Ação
+        final Totalizador totalizador = Totalizador.de(PlanoColunas.de(SemTotais.class));
+
+        // Verificação
+        Assert.assertNull(totalizador);
+    }
+
+    @Exportavel(titulo = "Lançamentos")
+    public static class Lancamento {
+
+        @AtributoExportavel(coluna = "Descrição", ordem = 0)
+        private String descricao;
+
+        @AtributoExportavel(coluna = "Valor", ordem = 1, agregacao = AgregacaoEnum.SOMA)
+        private Double valor;
+
+        @AtributoExportavel(coluna = "Parcelas", ordem = 2, agregacao = AgregacaoEnum.MEDIA)
+        private Integer parcelas;
+
+        @AtributoExportavel(coluna = "Data", ordem = 3, agregacao = AgregacaoEnum.MINIMO)
+        private Date data;
+
+        @AtributoExportavel(coluna = "Conciliado", ordem = 4, agregacao = AgregacaoEnum.CONTAGEM)
+        private String conciliado;
+    }
+
+    @Exportavel(titulo = "Movimentos")
+    public static class Movimento {
+
+        @AtributoExportavel(coluna = "Valor", ordem = 0, agregacao = AgregacaoEnum.SOMA)
+        private BigDecimal valor;
+
+        @AtributoExportavel(coluna = "Volume", ordem = 1, agregacao = AgregacaoEnum.SOMA)
+        private Long volume;
+
+        @AtributoExportavel(coluna = "Sequência", ordem = 2, agregacao = AgregacaoEnum.MAXIMO)
+        private long sequencia;
+
+        @AtributoExportavel(coluna = "Saldo", ordem = 3, agregacao = AgregacaoEnum.MEDIA)
+        private BigDecimal saldo;
+    }
+
+    @Exportavel(titulo = "Sem totais")
+    public static class SemTotais {
+
+        @AtributoExportavel(coluna = "Descrição")
+        private String descricao;
+    }
+}
@@ -0,0 +1,110 @@
+package br.com.leuras.commons.importacao;
+
+import java.math.BigDecimal;
+
+import org.hamcrest.CoreMatchers;
+import org.junit.Assert;
+import org.junit.Test;
+
+import br.com.leuras.commons.export.AtributoExportavel;
+import br.com.leuras.commons.export.ColunaExportavel;
+import br.com.leuras.commons.export.Exportavel;
+import br.com.leuras.commons.export.FormatoAtributoEnum;
+import br.com.leuras.commons.export.PlanoColunas;
+
+public class ConversorValoresTest {
+
+    private final PlanoColunas<Pedido> plano = PlanoColunas.de(Pedido.class);
+
+    @Test
+    public void converterDecimalTest() {
+        // Ação
+        final Object texto = ConversorValores.converter("R$ 1.234,565", this.coluna("total"));
+        final Object celula = ConversorValores.converter(0.1, this.coluna("total"));
+
+        // Verificação
+        Assert.assertThat(texto, CoreMatchers.is((Object) new BigDecimal("1234.56")));
+        Assert.assertThat(celula, CoreMatchers.is((Object) new BigDecimal("0.10")));
+    }
+
+    @Test
+    public void converterInteiroTest() {
+        // Ação
+        final Object texto = ConversorValores.converter("9.007.199.254.740.993", this.coluna("codigo"));
+        final Object celula = ConversorValores.converter(12.0, this.coluna("quantidade"));
+
+        // Verificação
+        Assert.assertThat(texto, CoreMatchers.is((Object) 9007199254740993L));
+        Assert.assertThat(celula, CoreMatchers.is((Object) 12));
+    }
+
+    @Test
+    public void converterInteiroFracionarioTest() {
+        try {
+
+            // Ação
+            ConversorValores.converter("1,5", this.coluna("quantidade"));
+            Assert.fail();
+
+        } catch (IllegalArgumentException e) {
+
+            // Verificação
+            Assert.assertThat(e.getMessage(), CoreMatchers.is(String.format(ConversorValores.ME002, "1,5", "Integer")));
+        }
+    }
+
+    @Test
+    public void converterInteiroForaIntervaloTest() {
+        try {
+
+            // Ação
+            ConversorValores.converter(3000000000.0, this.coluna("quantidade"));
+            Assert.fail();
+
+        } catch (IllegalArgumentException e) {
+
+            // Verificação
+            Assert.assertThat(e.getMessage(),
+                    CoreMatchers.is(String.format(ConversorValores.ME002, 3000000000.0, "Integer")));
+        }
+    }
+
+    @Test
+    public void converterTextoInvalidoTest() {
+        try {
+
+            // Ação
+            ConversorValores.converter("12 unidades", this.coluna("quantidade"));
+            Assert.fail();
+
+        } catch (IllegalArgumentException e) {
+
+            // Verificação
+            Assert.assertThat(e.getMessage(), CoreMatchers.is(String.format(ConversorValores.ME003, "12 unidades")));
+        }
+    }
+
+    private ColunaExportavel coluna(final String atributo) {
+
+        for (final ColunaExportavel coluna : this.plano.getColunas()) {
+            if (coluna.getAtributo().equals(atributo)) {
+                return coluna;
+            }
+        }
+
+        throw new IllegalArgumentException(atributo);
+    }
+
+    @Exportavel(titulo = "Pedidos")
+    public static class Pedido {
+
+        @AtributoExportavel(coluna = "Código", ordem = 1)
+        private Long codigo;
+
+        @AtributoExportavel(coluna = "Quantidade", ordem = 2)
+        private int quantidade;
+
+        @AtributoExportavel(coluna = "Total", formato = FormatoAtributoEnum.MOEDA, ordem = 3)
+        private BigDecimal total;
+    }
+}
@@ -0,0 +1,336 @@
+package br.com.leuras.commons.importacao;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.hamcrest.CoreMatchers;
+import org.junit.Assert;
+import org.junit.Test;
+
+import br.com.leuras.commons.exception.ImportacaoException;
+import br.com.leuras.commons.export.AtributoExportavel;
+import br.com.leuras.commons.export.Exportador;
+import br.com.leuras.commons.export.Exportavel;
+import br.com.leuras.commons.export.FormatoAtributoEnum;
+import br.com.leuras.commons.export.FormatoExportavelCsv;
+import br.com.leuras.commons.util.ArquivoUtils;
+
+public class ImportadorCsvTest {
+
+    private static final Date CADASTRO = new GregorianCalendar(2019, Calendar.MARCH, 7).getTime();
+
+    @Test
+    public void importarExportadoTest() throws Exception {
+        // Cenário
+        final List<Produto> registros = new ArrayList<>();
+
+        registros.add(new Produto("Caneta", CADASTRO, new BigDecimal("1234.50"), 0.125, true, 3));
+        registros.add(new Produto("Papel \"A4\"; 500 folhas", null, new BigDecimal("25.00"), 0.5, false, 0));
+
+        final byte[] conteudo = new Exportador<Produto>(new FormatoExportavelCsv<Produto>(Produto.class))
+                .exportar(registros);
+
+        // Ação
+        final List<Produto> importados = new ImportadorCsv<Produto>(Produto.class)
+                .importar(new ByteArrayInputStream(conteudo));
+
+        // Verificação
+        Assert.assertThat(importados.size(), CoreMatchers.is(2));
+
+        Assert.assertThat(importados.get(0).descricao, CoreMatchers.is("Caneta"));
+        Assert.assertThat(importados.get(0).cadastro, CoreMatchers.is(CADASTRO));
+        Assert.assertThat(importados.get(0).preco, CoreMatchers.is(new BigDecimal("1234.50")));
+        Assert.assertThat(importados.get(0).desconto, CoreMatchers.is(0.125));
+        Assert.assertThat(importados.get(0).ativo, CoreMatchers.is(true));
+        Assert.assertThat(importados.get(0).estoque, CoreMatchers.is(3));
+
+        Assert.assertThat(importados.get(1).descricao, CoreMatchers.is("Papel \"A4\"; 500 folhas"));
+        Assert.assertNull(importados.get(1).cadastro);
+        Assert.assertThat(importados.get(1).ativo, CoreMatchers.is(false));
+    }
+
+    @Test
+    public void importarCamposTest() throws Exception {
+        // Cenário
+        final String conteudo = "Estoque;Descrição;Observação;Cadastro\r\n"
+                + "1.500;\"Linha 1\nLinha 2\";ignorada;07/03/2019 10:30\r\n"
+                + "\r\n"
+                + ";Borracha;;\r\n"
+                + "-2;\"" + this.repetir('x', 100000) + "\";;2019-03-07";
+
+        final List<Integer> linhas = new ArrayList<>();
+        final List<Produto> importados = new ArrayList<>();
+
+        // Ação
+        final int total = new ImportadorCsv<Produto>(Produto.class).importar(
+                new ByteArrayInputStream(conteudo.getBytes(StandardCharsets.UTF_8)), new ReceptorImportacao<Produto>() {
+
+                    @Override
+                    public void receber(final Produto registro, final int linha) {
+                        importados.add(registro);
+                        linhas.add(linha);
+                    }
+                });
+
+        // Verificação
+        Assert.assertThat(total, CoreMatchers.is(3));
+        Assert.assertThat(linhas.toString(), CoreMatchers.is("[2, 5, 6]"));
+
+        Assert.assertThat(importados.get(0).estoque, CoreMatchers.is(1500));
+        Assert.assertThat(importados.get(0).descricao, CoreMatchers.is("Linha 1\nLinha 2"));
+        Assert.assertThat(importados.get(0).cadastro,
+                CoreMatchers.is(new GregorianCalendar(2019, Calendar.MARCH, 7, 10, 30).getTime()));
+
+        Assert.assertThat(importados.get(1).estoque, CoreMatchers.is(0));
+        Assert.assertThat(importados.get(1).descricao, CoreMatchers.is("Borracha"));
+
+        Assert.assertThat(importados.get(2).estoque, CoreMatchers.is(-2));
+        Assert.assertThat(importados.get(2).descricao.length(), CoreMatchers.is(100000));
+        Assert.assertThat(importados.get(2).cadastro, CoreMatchers.is(CADASTRO));
+    }
+
+    @Test
+    public void valorInvalidoTest() throws Exception {
+        // Cenário
+        final String conteudo = "Descrição;Preço\nCaneta;1,50\nLápis;barato\n";
+
+        try {
+            // Ação
+            new ImportadorCsv<Produto>(Produto.class).importar(
+                    new ByteArrayInputStream(conteudo.getBytes(StandardCharsets.UTF_8)));
+            Assert.fail();
+
+        } catch (ImportacaoException e) {
+            // Verificação
+            Assert.assertThat(e.getMessage(),
+                    CoreMatchers.is(String.format(MontadorRegistros.ME001, "barato", "Preço", 3)));
+        }
+    }
+
+    @Test
+    public void valorInteiroFracionarioTest() throws Exception {
+        // Cenário
+        final String conteudo = "Descrição;Estoque\nCaneta;12,00\nLápis;1,5\n";
+
+        try {
+            // Ação
+            new ImportadorCsv<Produto>(Produto.class).importar(
+                    new ByteArrayInputStream(conteudo.getBytes(StandardCharsets.UTF_8)));
+            Assert.fail();
+
+        } catch (ImportacaoException e) {
+            // Verificação
+            Assert.assertThat(e.getMessage(),
+                    CoreMatchers.is(String.format(MontadorRegistros.ME001, "1,5", "Estoque", 3)));
+            Assert.assertThat(e.getCause().getMessage(),
+                    CoreMatchers.is(String.format(ConversorValores.ME002, "1,5", "Integer")));
+        }
+    }
+
+    @Test
+    public void valorInteiroForaIntervaloTest() throws Exception {
+        // Cenário
+        final String conteudo = "Descrição;Estoque\nCaneta;3.000.000.000\n";
+
+        try {
+            // Ação
+            new ImportadorCsv<Produto>(Produto.class).importar(
+                    new ByteArrayInputStream(conteudo.getBytes(StandardCharsets.UTF_8)));
+            Assert.fail();
+
+        } catch (ImportacaoException e) {
+            // Verificação
+            Assert.assertThat(e.getCause().getMessage(),
+                    CoreMatchers.is(String.format(ConversorValores.ME002, "3.000.000.000", "Integer")));
+        }
+    }
+
+    @Test
+    public void separadorMilharInvalidoTest() throws Exception {
+
+        for (final String valor : new String[] { "1,234.5", "1.2.3", "1234.567", ".123", "1.234." }) {
+
+            // Cenário
+            final String conteudo = "Descrição;Preço\nCaneta;" + valor + "\n";
+
+            try {
+                // Ação
+                new ImportadorCsv<Produto>(Produto.class).importar(
+                        new ByteArrayInputStream(conteudo.getBytes(StandardCharsets.UTF_8)));
+                Assert.fail(valor);
+
+            } catch (ImportacaoException e) {
+                // Verificação
+                Assert.assertThat(e.getMessage(),
+                        CoreMatchers.is(String.format(MontadorRegistros.ME001, valor, "Preço", 2)));
+            }
+        }
+    }
+
+    @Test
+    public void campoTextoVazioTest() throws Exception {
+        // Cenário
+        final String conteudo = "Descrição;Preço\n;1.234,50\n\"\";2,00\n  ;3,00\n";
+
+        // Ação
+        final List<Produto> importados = new ImportadorCsv<Produto>(Produto.class)
+                .importar(new ByteArrayInputStream(conteudo.getBytes(StandardCharsets.UTF_8)));
+
+        // Verificação
+        Assert.assertThat(importados.size(), CoreMatchers.is(3));
+        Assert.assertNull(importados.get(0).descricao);
+        Assert.assertNull(importados.get(1).descricao);
+        Assert.assertNull(importados.get(2).descricao);
+        Assert.assertThat(importados.get(0).preco, CoreMatchers.is(new BigDecimal("1234.50")));
+    }
+
+    @Test
+    public void cabecalhoDesconhecidoTest() throws Exception {
+        // Cenário
+        final String conteudo = "Nome;Valor\nCaneta;1,50\n";
+
+        try {
+            // Ação
+            new ImportadorCsv<Produto>(Produto.class).importar(
+                    new ByteArrayInputStream(conteudo.getBytes(StandardCharsets.UTF_8)));
+            Assert.fail();
+
+        } catch (ImportacaoException e) {
+            // Verificação
+            Assert.assertThat(e.getMessage(), CoreMatchers.is(String.format(ImportadorCsv.ME002, "Produto")));
+        }
+    }
+
+    @Test
+    public void importarParaleloTest() throws Exception {
+        // Cenário
+        final StringBuilder conteudo = new StringBuilder("Descrição;Preço;Estoque\n");
+
+        for (int linha = 2; linha <= 50001; linha++) {
+            conteudo.append("Item ").append(linha).append(";R$ 1.234,5").append(linha % 10).append(';')
+                    .append(linha).append('\n');
+        }
+
+        final File arquivo = File.createTempFile("importacao", ".csv");
+        arquivo.deleteOnExit();
+        ArquivoUtils.escrever(arquivo, conteudo.toString().getBytes(StandardCharsets.UTF_8));
+
+        final ConcurrentMap<Integer, Produto> importados = new ConcurrentHashMap<>();
+        final ImportadorCsv<Produto> importador = new ImportadorCsv<Produto>(Produto.class);
+
+        importador.setParalelismo(4);
+
+        // Ação
+        final int total = importador.importar(arquivo.getPath(), new ReceptorImportacao<Produto>() {
+
+            @Override
+            public void receber(final Produto registro, final int linha) {
+                importados.put(linha, registro);
+            }
+        });
+
+        // Verificação
+        Assert.assertThat(total, CoreMatchers.is(50000));
+        Assert.assertThat(importados.size(), CoreMatchers.is(50000));
+        Assert.assertThat(Collections.min(importados.keySet()), CoreMatchers.is(2));
+        Assert.assertThat(Collections.max(importados.keySet()), CoreMatchers.is(50001));
+
+        for (final Integer linha : importados.keySet()) {
+            Assert.assertThat(importados.get(linha).estoque, CoreMatchers.is(linha));
+            Assert.assertThat(importados.get(linha).preco,
+                    CoreMatchers.is(new BigDecimal("1234.5" + (linha % 10)).setScale(2)));
+        }
+    }
+
+    @Test
+    public void importarParaleloReutilizaPoolTest() throws Exception {
+
+        // Cenário
+        final StringBuilder conteudo = new StringBuilder("Descrição;Preço;Estoque\n");
+
+        for (int linha = 2; linha <= 1001; linha++) {
+            conteudo.append("Item ").append(linha).append(";R$ 1,00;").append(linha).append('\n');
+        }
+
+        final File arquivo = File.createTempFile("importacao", ".csv");
+        arquivo.deleteOnExit();
+        ArquivoUtils.escrever(arquivo, conteudo.toString().getBytes(StandardCharsets.UTF_8));
+
+        final Set<String> pools = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+        final ImportadorCsv<Produto> importador = new ImportadorCsv<Produto>(Produto.class);
+        final ReceptorImportacao<Produto> receptor = new ReceptorImportacao<Produto>() {
+
+            @Override
+            public void receber(final Produto registro, final int linha) {
+                final String thread = Thread.currentThread().getName();
+
+                pools.add(thread.substring(0, thread.lastIndexOf('-')));
+            }
+        };
+
+        importador.setParalelismo(2);
+
+        // Ação
+        importador.importar(arquivo.getPath(), receptor);
+        importador.importar(arquivo.getPath(), receptor);
+
+        // Verificação
+        Assert.assertThat(pools.size(), CoreMatchers.is(1));
+    }
+
+    private String repetir(final char caractere, final int vezes) {
+
+        final char[] caracteres = new char[vezes];
+        Arrays.fill(caracteres, caractere);
+
+        return new String(caracteres);
+    }
+
+    @Exportavel(titulo = "Produtos")
+    public static class Produto {
+
+        @AtributoExportavel(coluna = "Descrição", ordem = 1)
+        private String descricao;
+
+        @AtributoExportavel(coluna = "Cadastro", formato = FormatoAtributoEnum.DATA, ordem = 2)
+        private Date cadastro;
+
+        @AtributoExportavel(coluna = "Preço", formato = FormatoAtributoEnum.MOEDA, ordem = 3)
+        private BigDecimal preco;
+
+        @AtributoExportavel(coluna = "Desconto", formato = FormatoAtributoEnum.PERCENTUAL, ordem = 4)
+        private Double desconto;
+
+        @AtributoExportavel(coluna = "Ativo", ordem = 5)
+        private Boolean ativo;
+
+        @AtributoExportavel(coluna = "Estoque", ordem = 6)
+        private int estoque;
+
+        public Produto() {
+
+        }
+
+        public Produto(String descricao, Date cadastro, BigDecimal preco, Double desconto, Boolean ativo,
+                int estoque) {
+            this.descricao = descricao;
+            this.cadastro = cadastro;
+            this.preco = preco;
+            this.desconto = desconto;
+            this.ativo = ativo;
+            this.estoque = estoque;
+        }
+    }
+}
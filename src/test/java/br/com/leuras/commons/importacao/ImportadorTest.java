@@ -0,0 +1,303 @@
+package br.com.leuras.commons.importacao;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.parsers.SAXParserFactory;
+
+import org.hamcrest.CoreMatchers;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import br.com.leuras.commons.exception.ImportacaoException;
+import br.com.leuras.commons.export.AgregacaoEnum;
+import br.com.leuras.commons.export.AtributoExportavel;
+import br.com.leuras.commons.export.ColunaExportavel;
+import br.com.leuras.commons.export.Exportador;
+import br.com.leuras.commons.export.Exportavel;
+import br.com.leuras.commons.export.FormatoAtributoEnum;
+import br.com.leuras.commons.export.FormatoExportavelExcel;
+import br.com.leuras.commons.export.FormatoExportavelXlsx;
+import br.com.leuras.commons.export.PlanoColunas;
+
+public class ImportadorTest {
+
+    private static final Date CADASTRO = new GregorianCalendar(2019, Calendar.MARCH, 7).getTime();
+
+    private List<Produto> registros = new ArrayList<>();
+
+    @Before
+    public void setup() {
+        this.registros.add(new Produto("Caneta", CADASTRO, new BigDecimal("1234.50"), 0.125, true));
+        this.registros.add(new Produto("Papel", null, new BigDecimal("25.00"), 0.5, false));
+    }
+
+    @Test
+    public void importarXlsxTest() throws Exception {
+        // Cenário
+        final byte[] planilha = new Exportador<Produto>(new FormatoExportavelXlsx<Produto>(Produto.class))
+                .exportar(this.registros);
+
+        // Ação
+        final List<Produto> importados = new Importador<Produto>(Produto.class)
+                .importar(new ByteArrayInputStream(planilha));
+
+        // Verificação
+        this.verificar(importados);
+    }
+
+    @Test
+    public void importarXlsTest() throws Exception {
+        // Cenário
+        final byte[] planilha = new Exportador<Produto>(new FormatoExportavelExcel<Produto>(Produto.class))
+                .exportar(this.registros);
+
+        // Ação
+        final List<Produto> importados = new Importador<Produto>(Produto.class)
+                .importar(new ByteArrayInputStream(planilha));
+
+        // Verificação
+        this.verificar(importados);
+    }
+
+    @Test
+    public void importarTotaisXlsxTest() throws Exception {
+        // Cenário
+        final byte[] planilha = new Exportador<Venda>(new FormatoExportavelXlsx<Venda>(Venda.class))
+                .exportar(this.vendas());
+
+        // Ação
+        final List<Venda> importados = new Importador<Venda>(Venda.class)
+                .importar(new ByteArrayInputStream(planilha));
+
+        // Verificação
+        this.verificarVendas(importados);
+    }
+
+    @Test
+    public void importarTotaisXlsTest() throws Exception {
+        // Cenário
+        final byte[] planilha = new Exportador<Venda>(new FormatoExportavelExcel<Venda>(Venda.class))
+                .exportar(this.vendas());
+
+        // Ação
+        final List<Venda> importados = new Importador<Venda>(Venda.class)
+                .importar(new ByteArrayInputStream(planilha));
+
+        // Verificação
+        this.verificarVendas(importados);
+    }
+
+    @Test
+    public void conteudoInvalidoTest() throws Exception {
+        // Cenário
+        final byte[] conteudo = "Descrição;Preço".getBytes(StandardCharsets.UTF_8);
+
+        try {
+            // Ação
+            new Importador<Produto>(Produto.class).importar(new ByteArrayInputStream(conteudo));
+            Assert.fail();
+
+        } catch (ImportacaoException e) {
+            // Verificação
+            Assert.assertThat(e.getMessage(), CoreMatchers.is(Importador.ME003));
+        }
+    }
+
+    @Test
+    public void lerPlanilhaTextoTest() throws Exception {
+        // Cenário
+        final List<Produto> importados = new ArrayList<>();
+        final MontadorRegistros<Produto> montador = this.montador(importados);
+
+        final String xml = "<worksheet><sheetData>"
+                + "<row r=\"1\"><c r=\"A1\" t=\"inlineStr\"><is><t>Produtos</t></is></c></row>"
+                + "<row r=\"2\">" + this.texto("A2", "Descrição") + this.texto("B2", "Cadastro")
+                + this.texto("C2", "Preço") + this.texto("D2", "Desconto") + this.texto("E2", "Ativo") + "</row>"
+                + "<row r=\"3\">" + this.texto("A3", "Caneta") + this.texto("B3", "07/03/2019")
+                + this.texto("C3", "R$ 1.234,50") + this.texto("D3", "12,50%") + this.texto("E3", "Sim") + "</row>"
+                + "<row r=\"5\">" + this.texto("A5", "Papel") + "<c r=\"C5\"><v>25</v></c>"
+                + "<c r=\"D5\"><v>0.5</v></c><c r=\"E5\" t=\"b\"><v>0</v></c></row>"
+                + "</sheetData></worksheet>";
+
+        final SAXParserFactory fabrica = SAXParserFactory.newInstance();
+        fabrica.setNamespaceAware(true);
+
+        // Ação
+        fabrica.newSAXParser().parse(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)),
+                new LeitorXlsx(null, montador));
+        montador.concluir();
+
+        // Verificação
+        Assert.assertThat(montador.getTotal(), CoreMatchers.is(2));
+        this.verificar(importados);
+    }
+
+    @Test
+    public void valorInvalidoTest() throws Exception {
+        // Cenário
+        final MontadorRegistros<Produto> montador = this.montador(new ArrayList<Produto>());
+
+        montador.celula(0, 0, "Descrição");
+        montador.celula(0, 1, "Preço");
+        montador.celula(1, 0, "Caneta");
+        montador.celula(1, 1, "barato");
+
+        try {
+            // Ação
+            montador.concluir();
+            Assert.fail();
+
+        } catch (ImportacaoException e) {
+            // Verificação
+            Assert.assertThat(e.getMessage(), CoreMatchers.is(String.format(MontadorRegistros.ME001, "barato", "Preço", 2)));
+        }
+    }
+
+    @Test
+    public void linhaTotaisTest() throws Exception {
+        // Cenário
+        final List<Produto> importados = new ArrayList<>();
+        final MontadorRegistros<Produto> montador = this.montador(importados);
+
+        montador.celula(0, 0, "Descrição");
+        montador.celula(0, 1, "Preço");
+        montador.celula(1, 0, "Caneta");
+        montador.celula(1, 1, 1234.5);
+        montador.celula(2, 0, AgregacaoEnum.ROTULO_TOTAIS);
+        montador.celula(2, 1, 1234.5);
+
+        // Ação
+        montador.concluir();
+
+        // Verificação
+        Assert.assertThat(montador.getTotal(), CoreMatchers.is(1));
+        Assert.assertThat(importados.get(0).descricao, CoreMatchers.is("Caneta"));
+    }
+
+    @Test
+    public void colunaTest() {
+        // Ação e Verificação
+        Assert.assertThat(LeitorXlsx.coluna("A1"), CoreMatchers.is(0));
+        Assert.assertThat(LeitorXlsx.coluna("Z10"), CoreMatchers.is(25));
+        Assert.assertThat(LeitorXlsx.coluna("AB12"), CoreMatchers.is(27));
+    }
+
+    private MontadorRegistros<Produto> montador(final List<Produto> importados) throws Exception {
+
+        final Map<String, ColunaExportavel> colunas = new HashMap<>();
+
+        for (final ColunaExportavel coluna : PlanoColunas.de(Produto.class).getColunas()) {
+            colunas.put(coluna.getTitulo(), coluna);
+        }
+
+        return new MontadorRegistros<>(colunas, Produto.class.getDeclaredConstructor(),
+                new ReceptorImportacao<Produto>() {
+
+                    @Override
+                    public void receber(final Produto registro, final int linha) {
+                        importados.add(registro);
+                    }
+                });
+    }
+
+    private List<Venda> vendas() {
+
+        final List<Venda> vendas = new ArrayList<>();
+        vendas.add(new Venda(CADASTRO, new BigDecimal("10.50")));
+        vendas.add(new Venda(null, new BigDecimal("4.50")));
+
+        return vendas;
+    }
+
+    private void verificarVendas(final List<Venda> importados) {
+
+        Assert.assertThat(importados.size(), CoreMatchers.is(2));
+
+        Assert.assertThat(importados.get(0).data, CoreMatchers.is(CADASTRO));
+        Assert.assertThat(importados.get(0).valor, CoreMatchers.is(new BigDecimal("10.50")));
+
+        Assert.assertNull(importados.get(1).data);
+        Assert.assertThat(importados.get(1).valor, CoreMatchers.is(new BigDecimal("4.50")));
+    }
+
+    private String texto(final String referencia, final String texto) {
+        return String.format("<c r=\"%s\" t=\"inlineStr\"><is><t>%s</t></is></c>", referencia, texto);
+    }
+
+    private void verificar(final List<Produto> importados) {
+
+        Assert.assertThat(importados.size(), CoreMatchers.is(2));
+
+        Assert.assertThat(importados.get(0).descricao, CoreMatchers.is("Caneta"));
+        Assert.assertThat(importados.get(0).cadastro, CoreMatchers.is(CADASTRO));
+        Assert.assertThat(importados.get(0).preco, CoreMatchers.is(new BigDecimal("1234.50")));
+        Assert.assertThat(importados.get(0).desconto, CoreMatchers.is(0.125));
+        Assert.assertThat(importados.get(0).ativo, CoreMatchers.is(true));
+
+        Assert.assertThat(importados.get(1).descricao, CoreMatchers.is("Papel"));
+        Assert.assertNull(importados.get(1).cadastro);
+        Assert.assertThat(importados.get(1).preco, CoreMatchers.is(new BigDecimal("25.00")));
+        Assert.assertThat(importados.get(1).desconto, CoreMatchers.is(0.5));
+        Assert.assertThat(importados.get(1).ativo, CoreMatchers.is(false));
+    }
+
+    @Exportavel(titulo = "Produtos")
+    public static class Produto {
+
+        @AtributoExportavel(coluna = "Descrição")
+        private String descricao;
+
+        @AtributoExportavel(coluna = "Cadastro", formato = FormatoAtributoEnum.DATA)
+        private Date cadastro;
+
+        @AtributoExportavel(coluna = "Preço", formato = FormatoAtributoEnum.MOEDA)
+        private BigDecimal preco;
+
+        @AtributoExportavel(coluna = "Desconto", formato = FormatoAtributoEnum.PERCENTUAL)
+        private Double desconto;
+
+        @AtributoExportavel(coluna = "Ativo")
+        private Boolean ativo;
+
+        public Produto() {
+
+        }
+
+        public Produto(String descricao, Date cadastro, BigDecimal preco, Double desconto, Boolean ativo) {
+            this.descricao = descricao;
+            this.cadastro = cadastro;
+            this.preco = preco;
+            this.desconto = desconto;
+            this.ativo = ativo;
+        }
+    }
+
+    @Exportavel(titulo = "Vendas")
+    public static class Venda {
+
+        @AtributoExportavel(coluna = "Data", formato = FormatoAtributoEnum.DATA)
+        private Date data;
+
+        @AtributoExportavel(coluna = "Valor", formato = FormatoAtributoEnum.MOEDA, agregacao = AgregacaoEnum.SOMA)
+        private BigDecimal valor;
+
+        public Venda() {
+
+        }
+
+        public Venda(Date data, BigDecimal valor) {
+            this.data = data;
+            this.valor = valor;
+        }
+    }
+}
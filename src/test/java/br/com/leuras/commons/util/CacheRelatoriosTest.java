@@ -0,0 +1,145 @@
+package br.com.leuras.commons.util;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+import org.hamcrest.CoreMatchers;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JasperReport;
+
+public class CacheRelatoriosTest {
+
+    private static final String RELATORIO = "src/test/resources/exemplo.jasper";
+
+    private File primeiro;
+
+    private File segundo;
+
+    @Before
+    public void setup() throws Exception {
+        this.primeiro = File.createTempFile("relatorio", ".jasper");
+        this.segundo = File.createTempFile("relatorio", ".jasper");
+
+        Files.copy(Paths.get(RELATORIO), this.primeiro.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        Files.copy(Paths.get(RELATORIO), this.segundo.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @After
+    public void tearDown() {
+        this.primeiro.delete();
+        this.segundo.delete();
+    }
+
+    @Test
+    public void obterReaproveitaRelatorioTest() throws Exception {
+
+        // Cenário
+        final CacheRelatorios cache = new CacheRelatorios(4);
+
+        // Ação
+        final JasperReport carregado = cache.obter(this.primeiro.getPath());
+        final JasperReport reaproveitado = cache.obter(this.primeiro.getPath());
+
+        // Verificação
+        Assert.assertThat(reaproveitado, CoreMatchers.sameInstance(carregado));
+        Assert.assertThat(cache.getFalhas(), CoreMatchers.is(1L));
+        Assert.assertThat(cache.getAcertos(), CoreMatchers.is(1L));
+        Assert.assertThat(cache.getTamanho(), CoreMatchers.is(1));
+    }
+
+    @Test
+    public void obterRecarregaArquivoAlteradoTest() throws Exception {
+
+        // Cenário
+        final CacheRelatorios cache = new CacheRelatorios(4);
+        final JasperReport carregado = cache.obter(this.primeiro.getPath());
+
+        this.primeiro.setLastModified(this.primeiro.lastModified() - 60000);
+
+        // Ação
+        final JasperReport recarregado = cache.obter(this.primeiro.getPath());
+
+        // Verificação
+        Assert.assertThat(recarregado == carregado, CoreMatchers.is(false));
+        Assert.assertThat(cache.getFalhas(), CoreMatchers.is(2L));
+        Assert.assertThat(cache.getAcertos(), CoreMatchers.is(0L));
+        Assert.assertThat(cache.getTamanho(), CoreMatchers.is(1));
+    }
+
+    @Test
+    public void obterDescartaRelatorioMenosUsadoTest() throws Exception {
+
+        // Cenário
+        final CacheRelatorios cache = new CacheRelatorios(1);
+
+        cache.obter(this.primeiro.getPath());
+
+        // Ação
+        cache.obter(this.segundo.getPath());
+        cache.obter(this.primeiro.getPath());
+
+        // Verificação
+        Assert.assertThat(cache.getFalhas(), CoreMatchers.is(3L));
+        Assert.assertThat(cache.getRemocoes(), CoreMatchers.is(2L));
+        Assert.assertThat(cache.getTamanho(), CoreMatchers.is(1));
+    }
+
+    @Test
+    public void removerTest() throws Exception {
+
+        // Cenário
+        final CacheRelatorios cache = new CacheRelatorios(4);
+
+        cache.obter(this.primeiro.getPath());
+
+        // Ação
+        cache.remover(this.primeiro.getPath());
+
+        // Verificação
+        Assert.assertThat(cache.getTamanho(), CoreMatchers.is(0));
+    }
+
+    @Test
+    public void obterArquivoInexistenteTest() throws Exception {
+
+        // Cenário
+        final CacheRelatorios cache = new CacheRelatorios(4);
+
+        try {
+
+            // Ação
+            cache.obter(this.primeiro.getPath() + ".inexistente");
+
+            Assert.fail();
+
+        } catch (JRException e) {
+
+            // Verificação
+            Assert.assertThat(cache.getTamanho(), CoreMatchers.is(0));
+        }
+    }
+
+    @Test
+    public void capacidadeInvalidaTest() throws Exception {
+
+        try {
+
+            // Ação
+            new CacheRelatorios(0);
+
+            Assert.fail();
+
+        } catch (IllegalArgumentException e) {
+
+            // Verificação
+            Assert.assertThat(e.getMessage(), CoreMatchers.is(CacheRelatorios.ME001));
+        }
+    }
+}
@@ -51,6 +51,94 @@ public class ObjetoUtilsTest {
         Assert.assertThat(resultado, CoreMatchers.is(NOME_PESSOA));
     }
     
+    @Test
+    public void acessorTest() throws Exception {
+        
+        // Ação
+        final Acessor acessor = ObjetoUtils.acessor(Pessoa.class, "nome");
+        
+        acessor.set(this.pessoa, OUTRA_PESSOA);
+        
+        // Verificação
+        Assert.assertSame(acessor, ObjetoUtils.acessor(Pessoa.class, "nome"));
+        Assert.assertThat((String) acessor.get(this.pessoa), CoreMatchers.is(OUTRA_PESSOA));
+        Assert.assertTrue(acessor.isLeitura());
+        Assert.assertTrue(acessor.isEscrita());
+    }
+    
+    @Test
+    public void acessorAtributoTest() throws Exception {
+        
+        // Ação
+        final Acessor acessor = ObjetoUtils.acessor(Pessoa.class.getDeclaredField("nome"));
+        
+        // Verificação
+        Assert.assertThat((String) acessor.get(this.pessoa), CoreMatchers.is(NOME_PESSOA));
+    }
+    
+    @Test
+    public void acessorInexistenteTest() throws Exception {
+        
+        // Cenário
+        NoSuchMethodException exception = null;
+        
+        // Ação
+        try {
+            ObjetoUtils.acessor(Pessoa.class, "idade");
+            Assert.fail();
+        } catch (NoSuchMethodException e) {
+            exception = e;
+        }
+        
+        // Verificação
+        Assert.assertThat(exception.getMessage(), CoreMatchers.is(String.format(ObjetoUtils.ME001, "idade", Pessoa.class.getName())));
+    }
+    
+    @Test
+    public void acessorMetodoTest() throws Exception {
+        
+        // Ação
+        final Acessor acessor = ObjetoUtils.acessor(Pessoa.class.getMethod("nomeCompleto"));
+        
+        // Verificação
+        Assert.assertSame(acessor, ObjetoUtils.acessor(Pessoa.class.getMethod("nomeCompleto")));
+        Assert.assertThat((String) acessor.get(this.pessoa), CoreMatchers.is(NOME_PESSOA));
+        Assert.assertTrue(acessor.isLeitura());
+        Assert.assertFalse(acessor.isEscrita());
+    }
+    
+    @Test
+    public void acessorForaConvencaoTest() throws Exception {
+        
+        // Ação
+        try {
+            ObjetoUtils.acessor(Pessoa.class, "nomeCompleto");
+            Assert.fail();
+        } catch (NoSuchMethodException e) {
+            
+            // Verificação
+            Assert.assertThat(e.getMessage(), CoreMatchers.is(String.format(ObjetoUtils.ME001, "nomeCompleto", Pessoa.class.getName())));
+        }
+    }
+    
+    @Test
+    public void acessorTipoIncompativelTest() throws Exception {
+        
+        // Cenário
+        IllegalArgumentException exception = null;
+        
+        // Ação
+        try {
+            ObjetoUtils.acessor(Pessoa.class, "nome").set(this.pessoa, 10);
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            exception = e;
+        }
+        
+        // Verificação
+        Assert.assertThat(exception.getMessage(), CoreMatchers.is(String.format(ObjetoUtils.ME004, String.class.getName(), "nome")));
+    }
+    
     class Pessoa {
         
         private String nome;
@@ -62,5 +150,9 @@ public class ObjetoUtilsTest {
         public void setNome(String nome) {
             this.nome = nome;
         }
+
+        public String nomeCompleto() {
+            return nome;
+        }
     }
 }
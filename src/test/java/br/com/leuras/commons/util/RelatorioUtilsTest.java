@@ -2,16 +2,27 @@ package br.com.leuras.commons.util;
 
 import java.io.File;
 import java.lang.reflect.Constructor;
+import java.math.BigDecimal;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.hamcrest.CoreMatchers;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import br.com.leuras.commons.export.AgregacaoEnum;
+import br.com.leuras.commons.export.AtributoExportavel;
+import br.com.leuras.commons.export.Exportavel;
+import br.com.leuras.commons.export.FormatoAtributoEnum;
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JasperReport;
+
 public class RelatorioUtilsTest {
     
     private static final String RELATORIO = "src/test/resources/exemplo.jasper";
@@ -118,6 +129,114 @@ public class RelatorioUtilsTest {
         Assert.assertNotNull(buffer);
     }
     
+    @Test
+    public void emPdfPorClasseTest() throws Exception {
+
+        // Cenário
+        final List<Venda> vendas = Arrays.asList(new Venda("Ana", new BigDecimal("10.50"), new Date(), true),
+                new Venda("Bruno", new BigDecimal("4.25"), null, false));
+
+        // Ação
+        final byte[] buffer = RelatorioUtils.emPdf(Venda.class, null, vendas);
+
+        // Verificação
+        Assert.assertNotNull(buffer);
+        Assert.assertTrue(buffer.length > 0);
+    }
+
+    @Test
+    public void emPdfPorClasseSemDadosTest() throws Exception {
+
+        // Ação
+        final byte[] buffer = RelatorioUtils.emPdf(Venda.class, this.parametros, null);
+
+        // Verificação
+        Assert.assertNotNull(buffer);
+        Assert.assertTrue(buffer.length > 0);
+    }
+
+    @Test
+    public void emPdfValorNaoFinitoTest() throws Exception {
+
+        // Cenário
+        final List<Medicao> medicoes = Arrays.asList(new Medicao("Sensor 1", Double.NaN),
+                new Medicao("Sensor 2", Double.POSITIVE_INFINITY), new Medicao("Sensor 3", 1.5));
+
+        // Ação
+        final byte[] buffer = RelatorioUtils.emPdf(Medicao.class, null, medicoes);
+
+        // Verificação
+        Assert.assertNotNull(buffer);
+        Assert.assertTrue(buffer.length > 0);
+    }
+
+    @Test
+    public void compilarReaproveitaRelatorioTest() throws Exception {
+
+        // Ação
+        final JasperReport primeiro = RelatorioUtils.compilar(Venda.class);
+        final JasperReport segundo = RelatorioUtils.compilar(Venda.class);
+
+        // Verificação
+        Assert.assertNotNull(primeiro);
+        Assert.assertThat(segundo, CoreMatchers.sameInstance(primeiro));
+    }
+
+    @Test
+    public void desenharClasseSemAtributosTest() throws Exception {
+
+        try {
+
+            // Ação
+            RelatorioUtils.desenhar(Pessoa.class);
+
+            Assert.fail();
+
+        } catch (JRException e) {
+
+            // Verificação
+            Assert.assertThat(e.getMessage(), CoreMatchers.is(String.format(RelatorioUtils.ME001, Pessoa.class.getName())));
+        }
+    }
+
+    @Exportavel(titulo = "Listagem de Vendas")
+    public static class Venda {
+
+        @AtributoExportavel(coluna = "Vendedor", ordem = 1)
+        private String vendedor;
+
+        @AtributoExportavel(coluna = "Valor", formato = FormatoAtributoEnum.MOEDA, agregacao = AgregacaoEnum.SOMA, ordem = 2)
+        private BigDecimal valor;
+
+        @AtributoExportavel(coluna = "Data", formato = FormatoAtributoEnum.DATA, ordem = 3)
+        private Date data;
+
+        @AtributoExportavel(coluna = "Pago", ordem = 4)
+        private Boolean pago;
+
+        public Venda(final String vendedor, final BigDecimal valor, final Date data, final Boolean pago) {
+            this.vendedor = vendedor;
+            this.valor = valor;
+            this.data = data;
+            this.pago = pago;
+        }
+    }
+
+    @Exportavel(titulo = "Medições")
+    public static class Medicao {
+
+        @AtributoExportavel(coluna = "Sensor", ordem = 1)
+        private String sensor;
+
+        @AtributoExportavel(coluna = "Leitura", ordem = 2)
+        private Double leitura;
+
+        public Medicao(final String sensor, final Double leitura) {
+            this.sensor = sensor;
+            this.leitura = leitura;
+        }
+    }
+
     public class Pessoa {
         
         private String nome;